@@ -0,0 +1,362 @@
+package net.jmp.pinecone.langchain;
+
+/*
+ * (#)BatchQuery.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import dev.langchain4j.data.embedding.Embedding;
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+import dev.langchain4j.store.embedding.filter.FilterParser;
+
+import dev.langchain4j.store.embedding.filter.parser.sql.SqlFilterParser;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import net.jmp.pinecone.langchain.store.CachingEmbeddingStore;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// The batch query class. It reads queries from a JSON lines file, embeds
+/// them in batches, searches the store concurrently with bounded parallelism
+/// and streams the results, with per-query latency, to a JSON lines file.
+///
+/// Each input line is an object with a "query" and optionally an "id" and a
+/// "filter", the latter being an SQL WHERE clause over the metadata keys,
+/// e.g. `{"id": "q1", "query": "Tell me about light", "filter": "category = 'physics'"}`.
+/// A line that is not valid JSON, has no query or has a filter that cannot
+/// be parsed gets a result line with an "error" and the batch goes on.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+final class BatchQuery extends Operation {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The object mapper.
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /// The filter parser.
+    private final FilterParser filterParser = new SqlFilterParser();
+
+    /// The default constructor.
+    BatchQuery() {
+        super();
+    }
+
+    /// The operate method.
+    @Override
+    void operate() {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entry());
+        }
+
+        final String embeddingModelName = System.getProperty("app.embeddingModel");
+        final String indexName = System.getProperty("app.indexName");
+        final String namespace = System.getProperty("app.namespace");
+        final String pineconeApiKey = System.getProperty("app.pineconeApiKey");
+        final String queryFile = System.getProperty("app.queryFile");
+        final String resultFile = System.getProperty("app.resultFile");
+        final int batchSize = Integer.getInteger("app.batchSize", 64);
+        final int maxResults = Integer.getInteger("app.maxResults", 10);
+        final int parallelism = Integer.getInteger("app.parallelism", 16);
+
+        this.logger.info("Batch querying Pinecone Index: {}", indexName);
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Embedding Model : {}", embeddingModelName);
+            this.logger.debug("Index Name      : {}", indexName);
+            this.logger.debug("Namespace       : {}", namespace);
+            this.logger.debug("Pinecone Api Key: {}", pineconeApiKey);
+            this.logger.debug("Query File      : {}", queryFile);
+            this.logger.debug("Result File     : {}", resultFile);
+            this.logger.debug("Batch Size      : {}", batchSize);
+            this.logger.debug("Max Results     : {}", maxResults);
+            this.logger.debug("Parallelism     : {}", parallelism);
+        }
+
+        final EmbeddingModel embeddingModel = this.getEmbeddingModel(embeddingModelName);
+
+        final EmbeddingStore<TextSegment> embeddingStore = this.getEmbeddingStore(
+                this.getApiKey(pineconeApiKey).orElseThrow(() -> new IllegalStateException("Pinecone API key not found")),
+                embeddingModel,
+                indexName,
+                namespace
+        );
+
+        final LatencyRecorder recorder = new LatencyRecorder();
+        final Semaphore permits = new Semaphore(parallelism);
+
+        try (final BufferedReader reader = Files.newBufferedReader(Paths.get(queryFile));
+             final BufferedWriter writer = Files.newBufferedWriter(Paths.get(resultFile));
+             final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final List<QueryLine> batch = new ArrayList<>(batchSize);
+
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                if (!line.isBlank()) {
+                    JsonNode node = null;
+
+                    try {
+                        node = this.objectMapper.readTree(line);
+
+                        batch.add(this.parse(node, lineNumber));
+                    } catch (final JsonProcessingException | RuntimeException e) {
+                        this.reject(node, lineNumber, e, writer);
+                    }
+                }
+
+                if (batch.size() == batchSize) {
+                    this.submit(batch, embeddingModel, embeddingStore, maxResults, executor, permits, writer, recorder);
+                    batch.clear();
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                this.submit(batch, embeddingModel, embeddingStore, maxResults, executor, permits, writer, recorder);
+            }
+        } catch (final IOException ioe) {
+            throw new UncheckedIOException("Unable to run the batch query", ioe);
+        }
+
+        this.logger.info("Batch query: {}", recorder.summary());
+
+        if (embeddingStore instanceof CachingEmbeddingStore<TextSegment> cachingStore) {
+            this.logger.info("Search cache: {}", cachingStore.stats());
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Parse a line of the query file.
+    ///
+    /// @param  node        com.fasterxml.jackson.databind.JsonNode
+    /// @param  lineNumber  int
+    /// @return             net.jmp.pinecone.langchain.BatchQuery.QueryLine
+    private QueryLine parse(final JsonNode node, final int lineNumber) {
+        if (!node.hasNonNull("query")) {
+            throw new IllegalArgumentException("Line " + lineNumber + " has no query");
+        }
+
+        final Filter filter = node.hasNonNull("filter")
+                ? this.filterParser.parse(node.get("filter").asText())
+                : null;
+
+        return new QueryLine(
+                node.hasNonNull("id") ? node.get("id").asText() : String.valueOf(lineNumber),
+                node.get("query").asText(),
+                filter
+        );
+    }
+
+    /// Write the result line of a query line that cannot be
+    /// searched. The ID is the line number when the line has
+    /// no ID or is not valid JSON.
+    ///
+    /// @param  node        com.fasterxml.jackson.databind.JsonNode May be null
+    /// @param  lineNumber  int
+    /// @param  e           java.lang.Exception
+    /// @param  writer      java.io.BufferedWriter
+    /// @throws             java.io.IOException When the result cannot be written
+    private void reject(final JsonNode node,
+                        final int lineNumber,
+                        final Exception e,
+                        final BufferedWriter writer) throws IOException {
+        this.logger.warn("Line {} of the query file is rejected: {}", lineNumber, e.getMessage());
+
+        final ObjectNode result = this.objectMapper.createObjectNode();
+
+        result.put("id", node != null && node.hasNonNull("id") ? node.get("id").asText() : String.valueOf(lineNumber));
+
+        if (node != null && node.hasNonNull("query")) {
+            result.put("query", node.get("query").asText());
+        }
+
+        result.put("line", lineNumber);
+        result.put("error", String.valueOf(e.getMessage()));
+
+        synchronized (writer) {
+            writer.write(this.objectMapper.writeValueAsString(result));
+            writer.newLine();
+        }
+    }
+
+    /// Embed a batch of queries and submit their searches. Each search waits
+    /// for a permit first, which bounds both the concurrent searches and how
+    /// far reading the file can run ahead of them.
+    ///
+    /// @param  batch           java.util.List<net.jmp.pinecone.langchain.BatchQuery.QueryLine>
+    /// @param  embeddingModel  dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  embeddingStore  dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+    /// @param  maxResults      int
+    /// @param  executor        java.util.concurrent.ExecutorService
+    /// @param  permits         java.util.concurrent.Semaphore
+    /// @param  writer          java.io.BufferedWriter
+    /// @param  recorder        net.jmp.pinecone.langchain.LatencyRecorder
+    private void submit(final List<QueryLine> batch,
+                        final EmbeddingModel embeddingModel,
+                        final EmbeddingStore<TextSegment> embeddingStore,
+                        final int maxResults,
+                        final ExecutorService executor,
+                        final Semaphore permits,
+                        final BufferedWriter writer,
+                        final LatencyRecorder recorder) {
+        final long embedStart = System.nanoTime();
+
+        final List<Embedding> embeddings = embeddingModel.embedAll(
+                batch.stream().map(queryLine -> TextSegment.from(queryLine.query())).toList()
+        ).content();
+
+        // Each query is charged an equal share of the batch embedding time
+
+        final long embedNanos = (System.nanoTime() - embedStart) / batch.size();
+
+        for (int i = 0; i < batch.size(); i++) {
+            final QueryLine queryLine = batch.get(i);
+            final Embedding embedding = embeddings.get(i);
+
+            permits.acquireUninterruptibly();
+
+            executor.submit(() -> {
+                try {
+                    final String result = this.search(queryLine, embedding, embeddingStore, maxResults, embedNanos, recorder);
+
+                    synchronized (writer) {
+                        writer.write(result);
+                        writer.newLine();
+                    }
+                } catch (final IOException ioe) {
+                    this.logger.error("Unable to write the result of query {}", queryLine.id(), ioe);
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+    }
+
+    /// Search for one query and return its result line.
+    ///
+    /// @param  queryLine       net.jmp.pinecone.langchain.BatchQuery.QueryLine
+    /// @param  embedding       dev.langchain4j.data.embedding.Embedding
+    /// @param  embeddingStore  dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+    /// @param  maxResults      int
+    /// @param  embedNanos      long
+    /// @param  recorder        net.jmp.pinecone.langchain.LatencyRecorder
+    /// @return                 java.lang.String
+    /// @throws                 java.io.IOException When the result cannot be serialized
+    private String search(final QueryLine queryLine,
+                          final Embedding embedding,
+                          final EmbeddingStore<TextSegment> embeddingStore,
+                          final int maxResults,
+                          final long embedNanos,
+                          final LatencyRecorder recorder) throws IOException {
+        final ObjectNode result = this.objectMapper.createObjectNode();
+
+        result.put("id", queryLine.id());
+        result.put("query", queryLine.query());
+
+        final long searchStart = System.nanoTime();
+
+        try {
+            final List<EmbeddingMatch<TextSegment>> matches = embeddingStore.search(EmbeddingSearchRequest.builder()
+                    .queryEmbedding(embedding)
+                    .maxResults(maxResults)
+                    .filter(queryLine.filter())
+                    .build()).matches();
+
+            final long searchNanos = System.nanoTime() - searchStart;
+            final ArrayNode matchNodes = result.putArray("matches");
+
+            for (final EmbeddingMatch<TextSegment> match : matches) {
+                final ObjectNode matchNode = matchNodes.addObject();
+
+                matchNode.put("id", match.embeddingId());
+                matchNode.put("score", match.score());
+                matchNode.put("text", match.embedded().text());
+                matchNode.set("metadata", this.objectMapper.valueToTree(match.embedded().metadata().toMap()));
+            }
+
+            result.put("embedMillis", embedNanos / 1_000_000.0);
+            result.put("searchMillis", searchNanos / 1_000_000.0);
+            result.put("latencyMillis", (embedNanos + searchNanos) / 1_000_000.0);
+
+            recorder.record(embedNanos + searchNanos);
+        } catch (final RuntimeException re) {
+            this.logger.error("Query {} failed", queryLine.id(), re);
+
+            result.put("error", String.valueOf(re.getMessage()));
+        }
+
+        return this.objectMapper.writeValueAsString(result);
+    }
+
+    /// A line of the query file.
+    ///
+    /// @param  id      java.lang.String
+    /// @param  query   java.lang.String
+    /// @param  filter  dev.langchain4j.store.embedding.filter.Filter
+    record QueryLine(String id, String query, Filter filter) {
+    }
+}
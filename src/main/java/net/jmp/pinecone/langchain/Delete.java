@@ -28,27 +28,54 @@ package net.jmp.pinecone.langchain;
  * SOFTWARE.
  */
 
+import com.mongodb.client.*;
+
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+
 import dev.langchain4j.data.segment.TextSegment;
 
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 
+import java.util.*;
+
+import java.util.concurrent.*;
+
+import net.jmp.pinecone.langchain.store.EmbeddingCatalog;
+import net.jmp.pinecone.langchain.store.HybridStore;
+
 import static net.jmp.util.logging.LoggerUtils.*;
 
+import org.bson.Document;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/// The delete class.
+/// The delete class. It either removes every vector or, when
+/// reconciling, only the vectors whose MongoDB document is gone.
+/// The hybrid store, when there is one, loses the same vectors, and
+/// the local keyword index is deleted until the next load writes it.
 ///
 /// @version    0.1.0
 /// @since      0.1.0
 final class Delete extends Operation {
+    /// The number of IDs fetched or deleted per request.
+    private static final int BATCH_SIZE = 1_000;
+
     /// The logger.
     private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
 
-    /// The default constructor.
-    Delete() {
+    /// True when only orphaned vectors should be deleted.
+    private final boolean reconcile;
+
+    /// The constructor.
+    ///
+    /// @param  reconcile   boolean
+    Delete(final boolean reconcile) {
         super();
+
+        this.reconcile = reconcile;
     }
 
     /// The operate method.
@@ -64,6 +91,7 @@ final class Delete extends Operation {
         final String pineconeApiKey = System.getProperty("app.pineconeApiKey");
 
         this.logger.info("Deleting from Pinecone Index: {}", indexName);
+        this.logger.info("Reconciling with MongoDB : {}", this.reconcile);
 
         if (this.logger.isDebugEnabled()) {
             this.logger.debug("Embedding Model : {}", embeddingModelName);
@@ -74,17 +102,203 @@ final class Delete extends Operation {
 
         final EmbeddingModel embeddingModel = this.getEmbeddingModel(embeddingModelName);
 
+        final String apiKey = this.getApiKey(pineconeApiKey).orElseThrow(() -> new IllegalStateException("Pinecone API key not found"));
+
         final EmbeddingStore<TextSegment> embeddingStore = this.getEmbeddingStore(
-                this.getApiKey(pineconeApiKey).orElseThrow(() -> new IllegalStateException("Pinecone API key not found")),
+                apiKey,
                 embeddingModel,
                 indexName,
                 namespace
         );
 
-        embeddingStore.removeAll();
+        final Optional<HybridStore> hybridStore = this.getHybridStore(embeddingModel);
+
+        if (this.reconcile) {
+            final MongoIdSet liveIds = this.getLiveIds(
+                    System.getProperty("app.mongoDbUri"),
+                    System.getProperty("app.mongoDbName"),
+                    System.getProperty("app.mongoDbCollection")
+            );
+
+            final List<String> orphans = new ArrayList<>();
+
+            for (final EmbeddingCatalog catalog : this.getEmbeddingCatalogs(apiKey, indexName, namespace)) {
+                try (catalog) {
+                    orphans.addAll(this.findOrphans(catalog, liveIds));
+                }
+            }
+
+            this.removeOrphans(embeddingStore, orphans);
+
+            hybridStore.ifPresent(store -> store.removeAll(orphans));
+
+            if (!orphans.isEmpty()) {
+                this.deleteKeywordIndex();
+            }
+
+            this.logger.info("Removed {} orphaned embeddings", orphans.size());
+        } else {
+            embeddingStore.removeAll();
+
+            hybridStore.ifPresent(HybridStore::removeAll);
+
+            this.deleteKeywordIndex();
+        }
+
+        this.bumpIndexEpoch(indexName, namespace);
 
         if (this.logger.isTraceEnabled()) {
             this.logger.trace(exit());
         }
     }
+
+    /// Stream the IDs of the live MongoDB documents into a compact set.
+    ///
+    /// @param  dbUri           java.lang.String
+    /// @param  dbName          java.lang.String
+    /// @param  collectionName  java.lang.String
+    /// @return                 net.jmp.pinecone.langchain.MongoIdSet
+    private MongoIdSet getLiveIds(final String dbUri, final String dbName, final String collectionName) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(dbUri, dbName, collectionName));
+        }
+
+        final MongoIdSet liveIds = new MongoIdSet();
+        final String uri = this.getMongoDbUri(dbUri).orElseThrow(() -> new IllegalStateException("MongoDB URI not found"));
+
+        try (final MongoClient mongoClient = MongoClients.create(uri)) {
+            final MongoCollection<Document> collection = mongoClient.getDatabase(dbName).getCollection(collectionName);
+
+            // Only the _id is projected and the _id index returns them in order
+
+            try (final MongoCursor<Document> cursor = collection
+                    .find()
+                    .projection(Projections.include("_id"))
+                    .sort(Sorts.ascending("_id"))
+                    .iterator()) {
+                while (cursor.hasNext()) {
+                    liveIds.add(cursor.next().get("_id"));
+                }
+            }
+        }
+
+        this.logger.info("There are {} live MongoDB documents", liveIds.size());
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(liveIds));
+        }
+
+        return liveIds;
+    }
+
+    /// Find the orphaned embeddings in a catalog. The vector ID of an
+    /// embedding is its MongoDB ID, so only the IDs that are not live
+    /// need their metadata fetched; that also covers embeddings that
+    /// were loaded with random IDs.
+    ///
+    /// @param  catalog net.jmp.pinecone.langchain.store.EmbeddingCatalog
+    /// @param  liveIds net.jmp.pinecone.langchain.MongoIdSet
+    /// @return         java.util.List<java.lang.String>
+    private List<String> findOrphans(final EmbeddingCatalog catalog, final MongoIdSet liveIds) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(catalog, liveIds));
+        }
+
+        final List<String> suspects = new ArrayList<>();
+
+        catalog.listIds(page -> {
+            for (final String id : page) {
+                if (!liveIds.contains(id)) {
+                    suspects.add(id);
+                }
+            }
+        });
+
+        final List<Callable<Map<String, String>>> fetches = new ArrayList<>();
+
+        for (int from = 0; from < suspects.size(); from += BATCH_SIZE) {
+            final List<String> batch = suspects.subList(from, Math.min(from + BATCH_SIZE, suspects.size()));
+
+            fetches.add(() -> catalog.fetchMetadata(batch, "mongoid"));
+        }
+
+        final Map<String, String> mongoIds = new HashMap<>();
+
+        for (final Map<String, String> fetched : this.invokeAll(fetches)) {
+            mongoIds.putAll(fetched);
+        }
+
+        final List<String> orphans = new ArrayList<>();
+
+        for (final String id : suspects) {
+            final String mongoId = mongoIds.get(id);
+
+            if (mongoId == null) {
+                this.logger.warn("Embedding {} has no mongoid and is kept", id);
+            } else if (!liveIds.contains(mongoId)) {
+                orphans.add(id);
+            }
+        }
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("{} suspects, {} orphans", suspects.size(), orphans.size());
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(orphans));
+        }
+
+        return orphans;
+    }
+
+    /// Remove the orphaned embeddings in parallel batches.
+    ///
+    /// @param  embeddingStore  dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+    /// @param  orphans         java.util.List<java.lang.String>
+    private void removeOrphans(final EmbeddingStore<TextSegment> embeddingStore, final List<String> orphans) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(embeddingStore, orphans));
+        }
+
+        final List<Callable<Void>> removals = new ArrayList<>();
+
+        for (int from = 0; from < orphans.size(); from += BATCH_SIZE) {
+            final List<String> batch = orphans.subList(from, Math.min(from + BATCH_SIZE, orphans.size()));
+
+            removals.add(() -> {
+                embeddingStore.removeAll(batch);
+
+                return null;
+            });
+        }
+
+        this.invokeAll(removals);
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Run tasks in parallel on virtual threads and return their results.
+    ///
+    /// @param  <T>     The type of the result
+    /// @param  tasks   java.util.List<java.util.concurrent.Callable<T>>
+    /// @return         java.util.List<T>
+    private <T> List<T> invokeAll(final List<Callable<T>> tasks) {
+        final List<T> results = new ArrayList<>(tasks.size());
+
+        try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (final Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (final ExecutionException ee) {
+            throw new IllegalStateException("Unable to reconcile the embedding store", ee.getCause());
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException("Interrupted while reconciling the embedding store", ie);
+        }
+
+        return results;
+    }
 }
@@ -36,32 +36,38 @@ import dev.langchain4j.memory.chat.MessageWindowChatMemory;
 
 import dev.langchain4j.model.chat.ChatModel;
 
-import dev.langchain4j.model.cohere.CohereScoringModel;
-
 import dev.langchain4j.model.embedding.EmbeddingModel;
 
-import dev.langchain4j.model.openai.OpenAiChatModel;
-
-import static dev.langchain4j.model.openai.OpenAiChatModelName.GPT_4_1;
-
 import dev.langchain4j.model.scoring.ScoringModel;
 
 import dev.langchain4j.rag.DefaultRetrievalAugmentor;
 import dev.langchain4j.rag.RetrievalAugmentor;
 
 import dev.langchain4j.rag.content.aggregator.ContentAggregator;
-import dev.langchain4j.rag.content.aggregator.ReRankingContentAggregator;
 
 import dev.langchain4j.rag.content.retriever.ContentRetriever;
-import dev.langchain4j.rag.content.retriever.EmbeddingStoreContentRetriever;
+
+import dev.langchain4j.rag.query.router.DefaultQueryRouter;
 
 import dev.langchain4j.service.AiServices;
+import dev.langchain4j.service.Result;
 
 import dev.langchain4j.store.embedding.EmbeddingStore;
 
 import dev.langchain4j.store.embedding.filter.Filter;
 
 import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.jmp.pinecone.langchain.cache.SemanticAnswerCache;
+
+import net.jmp.pinecone.langchain.retrieval.PruningReRankingContentAggregator;
+import net.jmp.pinecone.langchain.retrieval.ReciprocalRankFusionContentAggregator;
+
+import net.jmp.pinecone.langchain.scoring.CachingScoringModel;
+
 import static net.jmp.util.logging.LoggerUtils.*;
 
 import org.slf4j.Logger;
@@ -117,6 +123,73 @@ final class HybridQuery extends Operation {
                 namespace
         );
 
+        final ScoringModel scoringModel = this.getScoringModel(cohereApiKey);
+
+        final ChatModel chatModel = this.getChatModel(
+                this.getApiKey(openaiApiKey).orElseThrow(() -> new IllegalStateException("Unable to get OpenAI API key"))
+        );
+
+        final SemanticAnswerCache.Answer answer = this.answer(embeddingModel, embeddingStore, scoringModel, chatModel, queryText);
+
+        this.logger.info("Question: {}", queryText);
+        this.logger.info("Answer  : {}", answer.text());
+        this.logger.info("Cached  : {}", answer.cached());
+
+        if (scoringModel instanceof CachingScoringModel cachingModel) {
+            this.logger.info("Rerank cache: {}; {} rerankings skipped", cachingModel.stats(), PruningReRankingContentAggregator.skipped());
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Answer a question, from the semantic answer
+    /// cache when a similar question was answered.
+    ///
+    /// @param  embeddingModel  dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  embeddingStore  dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+    /// @param  scoringModel    dev.langchain4j.model.scoring.ScoringModel
+    /// @param  chatModel       dev.langchain4j.model.chat.ChatModel
+    /// @param  queryText       java.lang.String
+    /// @return                 net.jmp.pinecone.langchain.cache.SemanticAnswerCache.Answer
+    SemanticAnswerCache.Answer answer(final EmbeddingModel embeddingModel,
+                                      final EmbeddingStore<TextSegment> embeddingStore,
+                                      final ScoringModel scoringModel,
+                                      final ChatModel chatModel,
+                                      final String queryText) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(embeddingModel, embeddingStore, scoringModel, chatModel, queryText));
+        }
+
+        final SemanticAnswerCache.Answer answer = this.getSemanticAnswerCache("hybridquery", embeddingModel)
+                .map(answerCache -> answerCache.get(queryText, question -> this.generate(embeddingModel, embeddingStore, scoringModel, chatModel, question)))
+                .orElseGet(() -> this.generate(embeddingModel, embeddingStore, scoringModel, chatModel, queryText));
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(answer));
+        }
+
+        return answer;
+    }
+
+    /// Generate the answer to a question.
+    ///
+    /// @param  embeddingModel  dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  embeddingStore  dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+    /// @param  scoringModel    dev.langchain4j.model.scoring.ScoringModel
+    /// @param  chatModel       dev.langchain4j.model.chat.ChatModel
+    /// @param  queryText       java.lang.String
+    /// @return                 net.jmp.pinecone.langchain.cache.SemanticAnswerCache.Answer
+    private SemanticAnswerCache.Answer generate(final EmbeddingModel embeddingModel,
+                                                final EmbeddingStore<TextSegment> embeddingStore,
+                                                final ScoringModel scoringModel,
+                                                final ChatModel chatModel,
+                                                final String queryText) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(embeddingModel, embeddingStore, scoringModel, chatModel, queryText));
+        }
+
         /*
          * Not supported by Pinecone:
          *   final Filter containsLight = metadataKey("text_segment").containsString("light");
@@ -129,51 +202,49 @@ final class HybridQuery extends Operation {
                 .or(metadataKey("category").isEqualTo("science"))
                 .or(metadataKey("category").isEqualTo("technology"));
 
-        final ContentRetriever contentRetriever = EmbeddingStoreContentRetriever.builder()
-                .embeddingStore(embeddingStore)
-                .embeddingModel(embeddingModel)
-                .filter(lightCategories)   // Limit the search to some categories
-                .maxResults(25)
-                .build();
+        /* Limit the search to some categories; the search is dense and sparse when a hybrid store is loaded */
 
-        final ScoringModel scoringModel = CohereScoringModel.builder()
-                .apiKey(this.getApiKey(cohereApiKey).orElseThrow(() -> new IllegalStateException("Unable to get Cohere API key")))
-                .modelName("rerank-english-v3.0")
-                .build();
+        final List<ContentRetriever> contentRetrievers = new ArrayList<>();
 
-        final ContentAggregator contentAggregator = ReRankingContentAggregator.builder()
-                .scoringModel(scoringModel)
-                .build();
+        contentRetrievers.add(this.getContentRetriever(embeddingModel, embeddingStore, lightCategories, 25));
+
+        /* Search the local keyword index too when there is one and fuse the two rankings */
+
+        this.getKeywordContentRetriever(lightCategories, 25).ifPresent(contentRetrievers::add);
+
+        ContentAggregator contentAggregator = this.getContentAggregator(scoringModel, embeddingModel);
+
+        if (contentRetrievers.size() > 1) {
+            contentAggregator = new ReciprocalRankFusionContentAggregator(contentAggregator, ReciprocalRankFusionContentAggregator.DEFAULT_K);
+        }
 
         final RetrievalAugmentor retrievalAugmentor = DefaultRetrievalAugmentor.builder()
-                .contentRetriever(contentRetriever)
+                .queryRouter(new DefaultQueryRouter(contentRetrievers))
                 .contentAggregator(contentAggregator)
                 .build();
 
         final ChatMemory chatMemory = MessageWindowChatMemory.withMaxMessages(10);
 
-        final ChatModel chatModel = OpenAiChatModel.builder()
-                .apiKey(this.getApiKey(openaiApiKey).orElseThrow(() -> new IllegalStateException("Unable to get OpenAI API key")))
-                .modelName(GPT_4_1)
-                .temperature(0.4)
-                .logRequests(true)
-                .logResponses(true)
-                .build();
-
         final Assistant assistant = AiServices.builder(Assistant.class)
                 .chatModel(chatModel)
                 .chatMemory(chatMemory)
                 .retrievalAugmentor(retrievalAugmentor)
                 .build();
 
-        final String answer = assistant.chat(queryText);
+        final Result<String> result = assistant.chat(queryText);
 
-        this.logger.info("Question: {}", queryText);
-        this.logger.info("Answer  : {}", answer);
+        final SemanticAnswerCache.Answer answer = new SemanticAnswerCache.Answer(
+                result.content(),
+                result.sources().stream()
+                        .map(content -> content.textSegment().text())
+                        .toList()
+        );
 
         if (this.logger.isTraceEnabled()) {
-            this.logger.trace(exit());
+            this.logger.trace(exitWith(answer));
         }
+
+        return answer;
     }
 
     /// The assistant interface.
@@ -181,7 +252,7 @@ final class HybridQuery extends Operation {
         /// The chat method.
         ///
         /// @param  message  java.lang.String
-        /// @return          java.lang.String
-        String chat(String message);
+        /// @return          dev.langchain4j.service.Result<java.lang.String>
+        Result<String> chat(String message);
     }
 }
@@ -0,0 +1,99 @@
+package net.jmp.pinecone.langchain;
+
+/*
+ * (#)LatencyRecorder.java 0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.util.Arrays;
+
+/// A thread-safe recorder of latencies that
+/// reports throughput and latency percentiles.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+final class LatencyRecorder {
+    /// The recorded latencies in nanoseconds.
+    private long[] latencies = new long[1_024];
+
+    /// The number of recorded latencies.
+    private int count;
+
+    /// The time recording started.
+    private final long startNanos = System.nanoTime();
+
+    /// The default constructor.
+    LatencyRecorder() {
+        super();
+    }
+
+    /// Record a latency.
+    ///
+    /// @param  nanos   long
+    synchronized void record(final long nanos) {
+        if (this.count == this.latencies.length) {
+            this.latencies = Arrays.copyOf(this.latencies, this.latencies.length * 2);
+        }
+
+        this.latencies[this.count++] = nanos;
+    }
+
+    /// Return a one-line summary of throughput and latency percentiles.
+    ///
+    /// @return java.lang.String
+    synchronized String summary() {
+        final double elapsedSeconds = (System.nanoTime() - this.startNanos) / 1_000_000_000.0;
+        final long[] sorted = Arrays.copyOf(this.latencies, this.count);
+
+        Arrays.sort(sorted);
+
+        return String.format(
+                "%d requests in %.2f s (%.1f/s); latency ms p50 %.2f, p90 %.2f, p99 %.2f, max %.2f",
+                this.count,
+                elapsedSeconds,
+                elapsedSeconds > 0 ? this.count / elapsedSeconds : 0.0,
+                percentile(sorted, 50),
+                percentile(sorted, 90),
+                percentile(sorted, 99),
+                percentile(sorted, 100)
+        );
+    }
+
+    /// Return a percentile in milliseconds using the nearest-rank method.
+    ///
+    /// @param  sorted      long[]
+    /// @param  percentile  int
+    /// @return             double
+    private static double percentile(final long[] sorted, final int percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+
+        final int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+
+        return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+}
@@ -42,16 +42,19 @@ import dev.langchain4j.model.embedding.EmbeddingModel;
 
 import dev.langchain4j.store.embedding.EmbeddingStore;
 
-import java.io.IOException;
-
-import java.nio.file.Files;
 import java.nio.file.Paths;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import net.jmp.pinecone.langchain.store.Bm25Encoder;
+import net.jmp.pinecone.langchain.store.HybridStore;
+import net.jmp.pinecone.langchain.store.SparseEmbedding;
+
 import static net.jmp.util.logging.LoggerUtils.*;
 
 import org.bson.Document;
@@ -65,6 +68,9 @@ import org.slf4j.LoggerFactory;
 /// @version    0.1.0
 /// @since      0.1.0
 final class Load extends Operation {
+    /// The number of segments embedded and upserted at a time.
+    private static final int BATCH_SIZE = 100;
+
     /// The logger.
     private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
 
@@ -108,8 +114,69 @@ final class Load extends Operation {
                 namespace
         );
 
+        final Map<String, TextSegment> loaded = this.load(
+                embeddingStore,
+                this.getHybridStore(embeddingModel),
+                embeddingModel,
+                mongoDbUri,
+                mongoDbName,
+                mongoDbCollection
+        );
+
+        this.writeKeywordIndex(loaded);
+
+        this.bumpIndexEpoch(indexName, namespace);
+
+        this.logger.info("Added {} embeddings", loaded.size());
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Load the documents of a MongoDB collection into an embedding store.
+    ///
+    /// @param  embeddingStore      dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+    /// @param  embeddingModel      dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  mongoDbUri          java.lang.String
+    /// @param  mongoDbName         java.lang.String
+    /// @param  mongoDbCollection   java.lang.String
+    /// @return                     java.util.Map<java.lang.String, dev.langchain4j.data.segment.TextSegment>
+    Map<String, TextSegment> load(final EmbeddingStore<TextSegment> embeddingStore,
+                                  final EmbeddingModel embeddingModel,
+                                  final String mongoDbUri,
+                                  final String mongoDbName,
+                                  final String mongoDbCollection) {
+        return this.load(embeddingStore, Optional.empty(), embeddingModel, mongoDbUri, mongoDbName, mongoDbCollection);
+    }
+
+    /// Load the documents of a MongoDB collection into an embedding store
+    /// and, when there is one, a hybrid store. The BM25 statistics of the
+    /// collection are fit and saved to app.bm25File so that queries are
+    /// encoded with the same vocabulary as the documents.
+    ///
+    /// @param  embeddingStore      dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+    /// @param  hybridStore         java.util.Optional<net.jmp.pinecone.langchain.store.HybridStore>
+    /// @param  embeddingModel      dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  mongoDbUri          java.lang.String
+    /// @param  mongoDbName         java.lang.String
+    /// @param  mongoDbCollection   java.lang.String
+    /// @return                     java.util.Map<java.lang.String, dev.langchain4j.data.segment.TextSegment>
+    Map<String, TextSegment> load(final EmbeddingStore<TextSegment> embeddingStore,
+                                  final Optional<HybridStore> hybridStore,
+                                  final EmbeddingModel embeddingModel,
+                                  final String mongoDbUri,
+                                  final String mongoDbName,
+                                  final String mongoDbCollection) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(embeddingStore, hybridStore, embeddingModel, mongoDbUri, mongoDbName, mongoDbCollection));
+        }
+
         final List<TextDocument> textDocuments = this.createContent(mongoDbUri, mongoDbName, mongoDbCollection);
 
+        final List<String> ids = new ArrayList<>(textDocuments.size());
+        final List<TextSegment> textSegments = new ArrayList<>(textDocuments.size());
+
         for (final TextDocument textDocument : textDocuments) {
             final Metadata metadata = Metadata.from(Map.of(
                     "mongoid", textDocument.mongoId,
@@ -117,19 +184,91 @@ final class Load extends Operation {
                     "category", textDocument.category
             ));
 
-            final TextSegment textSegment = TextSegment.from(textDocument.content, metadata);
-            final Embedding embedding = embeddingModel.embed(textSegment).content();
+            // The MongoDB ID is the vector ID so reloading a document replaces its vector
+
+            ids.add(textDocument.mongoId);
+            textSegments.add(TextSegment.from(textDocument.content, metadata));
+        }
+
+        final Optional<Bm25Encoder> encoder = hybridStore.map(store -> this.fitBm25Encoder(textSegments));
+
+        /* Embed and upsert in batches so that a sharded store can write its shards in parallel */
+
+        for (int from = 0; from < textSegments.size(); from += BATCH_SIZE) {
+            final int to = Math.min(from + BATCH_SIZE, textSegments.size());
+            final List<TextSegment> batch = textSegments.subList(from, to);
+            final List<Embedding> embeddings = embeddingModel.embedAll(batch).content();
+
+            embeddingStore.addAll(ids.subList(from, to), embeddings, batch);
+
+            if (hybridStore.isPresent()) {
+                final List<SparseEmbedding> sparseEmbeddings = batch.stream()
+                        .map(textSegment -> encoder.get().encodeDocument(textSegment.text()))
+                        .toList();
+
+                hybridStore.get().addAll(ids.subList(from, to), embeddings, sparseEmbeddings, batch);
+            }
+        }
+
+        final Map<String, TextSegment> loaded = new LinkedHashMap<>(ids.size());
+
+        for (int i = 0; i < ids.size(); i++) {
+            loaded.put(ids.get(i), textSegments.get(i));
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(loaded));
+        }
+
+        return loaded;
+    }
 
-            embeddingStore.add(embedding, textSegment);
+    /// Load segments that were loaded into an embedding store into a hybrid
+    /// store as well, embedding them again. The BM25 statistics of the
+    /// segments are fit and saved to app.bm25File first.
+    ///
+    /// @param  hybridStore     net.jmp.pinecone.langchain.store.HybridStore
+    /// @param  embeddingModel  dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  segments        java.util.Map<java.lang.String, dev.langchain4j.data.segment.TextSegment>
+    void loadHybrid(final HybridStore hybridStore,
+                    final EmbeddingModel embeddingModel,
+                    final Map<String, TextSegment> segments) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(hybridStore, embeddingModel, segments));
         }
 
-        this.logger.info("Added {} embeddings", textDocuments.size());
+        final List<String> ids = new ArrayList<>(segments.keySet());
+        final List<TextSegment> textSegments = new ArrayList<>(segments.values());
+        final Bm25Encoder encoder = this.fitBm25Encoder(textSegments);
+
+        for (int from = 0; from < textSegments.size(); from += BATCH_SIZE) {
+            final int to = Math.min(from + BATCH_SIZE, textSegments.size());
+            final List<TextSegment> batch = textSegments.subList(from, to);
+            final List<Embedding> embeddings = embeddingModel.embedAll(batch).content();
+            final List<SparseEmbedding> sparseEmbeddings = batch.stream()
+                    .map(textSegment -> encoder.encodeDocument(textSegment.text()))
+                    .toList();
+
+            hybridStore.addAll(ids.subList(from, to), embeddings, sparseEmbeddings, batch);
+        }
 
         if (this.logger.isTraceEnabled()) {
             this.logger.trace(exit());
         }
     }
 
+    /// Fit the BM25 statistics of segments and save them to app.bm25File.
+    ///
+    /// @param  textSegments    java.util.List<dev.langchain4j.data.segment.TextSegment>
+    /// @return                 net.jmp.pinecone.langchain.store.Bm25Encoder
+    private Bm25Encoder fitBm25Encoder(final List<TextSegment> textSegments) {
+        final Bm25Encoder encoder = Bm25Encoder.fit(textSegments.stream().map(TextSegment::text).toList());
+
+        encoder.save(Paths.get(System.getProperty("app.bm25File", "etc/bm25.json")));
+
+        return encoder;
+    }
+
     /// Create content from the database.
     ///
     /// @param  dbUri           java.lang.String
@@ -193,35 +332,6 @@ final class Load extends Operation {
         return textDocuments;
     }
 
-    /// Get the MongoDB URI.
-    ///
-    /// @param  mongoDbUriFile  java.lang.String
-    /// @return                 java.util.Optional<java.lang.String>
-    private Optional<String> getMongoDbUri(final String mongoDbUriFile) {
-        if (this.logger.isTraceEnabled()) {
-            this.logger.trace(entryWith(mongoDbUriFile));
-        }
-
-        String mongoDbUri = null;
-
-        try {
-            mongoDbUri = Files.readString(Paths.get(mongoDbUriFile)).trim();
-
-            if (this.logger.isDebugEnabled()) {
-                this.logger.debug("MongoDb URI file: {}", mongoDbUriFile);
-                this.logger.debug("MongoDb URI: {}", mongoDbUri);
-            }
-        } catch (final IOException ioe) {
-            this.logger.error("Unable to read MongoDb URI file: {}", mongoDbUriFile, ioe);
-        }
-
-        if (this.logger.isTraceEnabled()) {
-            this.logger.trace(exitWith(mongoDbUri));
-        }
-
-        return Optional.ofNullable(mongoDbUri);
-    }
-
     /// The text document class.
     private static class TextDocument {
         /// The MongoDb ID.
@@ -61,7 +61,7 @@ public final class Main implements Runnable {
 
         switch (operation) {
             case "delete":
-                new Delete().operate();
+                new Delete(false).operate();
                 break;
             case "easyrag":
                 new EasyRag().run();
@@ -84,6 +84,9 @@ public final class Main implements Runnable {
             case "naiverag":
                 new NaiveRag().run();
                 break;
+            case "query-batch":
+                new BatchQuery().operate();
+                break;
             case "query-filtered":
                 new Query(true).operate();
                 break;
@@ -99,12 +102,24 @@ public final class Main implements Runnable {
             case "rag":
                 new Rag().operate();
                 break;
+            case "reconcile":
+                new Delete(true).operate();
+                break;
+            case "reindex":
+                new Reindex().operate();
+                break;
+            case "rerankbenchmark":
+                new RerankBenchmark().operate();
+                break;
             case "rerankingrag":
                 new RerankingRag().run();
                 break;
             case "returnsourcesrag":
                 new ReturnSourcesRag().run();
                 break;
+            case "server":
+                new QueryServer().operate();
+                break;
             case "skipretrievalrag":
                 new SkipRetrievalRag().run();
                 break;
@@ -0,0 +1,164 @@
+package net.jmp.pinecone.langchain;
+
+/*
+ * (#)MongoIdSet.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.nio.ByteBuffer;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.bson.types.ObjectId;
+
+/// A compact set of MongoDB IDs. Object IDs are packed into one
+/// sorted array of 12-byte keys and looked up by binary search,
+/// which costs 12 bytes per ID instead of a string and a hash
+/// table entry. IDs of any other type are kept in a hash set.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+final class MongoIdSet {
+    /// The length in bytes of an object ID.
+    private static final int OBJECT_ID_LENGTH = 12;
+
+    /// The packed object IDs.
+    private byte[] objectIds = new byte[OBJECT_ID_LENGTH * 1_024];
+
+    /// The number of packed object IDs.
+    private int objectIdCount;
+
+    /// True while the object IDs were added in ascending order.
+    private boolean sorted = true;
+
+    /// The IDs that are not object IDs.
+    private final Set<String> otherIds = new HashSet<>();
+
+    /// The default constructor.
+    MongoIdSet() {
+        super();
+    }
+
+    /// Add an ID. Adding object IDs in ascending
+    /// order, e.g. sorted by _id, avoids a sort.
+    ///
+    /// @param  id  java.lang.Object
+    void add(final Object id) {
+        if (id instanceof ObjectId objectId) {
+            if (this.objectIdCount * OBJECT_ID_LENGTH == this.objectIds.length) {
+                this.objectIds = Arrays.copyOf(this.objectIds, this.objectIds.length * 2);
+            }
+
+            final int offset = this.objectIdCount * OBJECT_ID_LENGTH;
+
+            objectId.putToByteBuffer(ByteBuffer.wrap(this.objectIds, offset, OBJECT_ID_LENGTH));
+
+            if (this.sorted && this.objectIdCount > 0 && this.compare(this.objectIdCount - 1, offset) > 0) {
+                this.sorted = false;
+            }
+
+            this.objectIdCount++;
+        } else {
+            this.otherIds.add(id.toString());
+        }
+    }
+
+    /// Test whether an ID, in its string form, is in the set.
+    ///
+    /// @param  id  java.lang.String
+    /// @return     boolean
+    boolean contains(final String id) {
+        this.sort();
+
+        if (ObjectId.isValid(id)) {
+            final byte[] key = new ObjectId(id).toByteArray();
+
+            int low = 0;
+            int high = this.objectIdCount - 1;
+
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final int offset = middle * OBJECT_ID_LENGTH;
+                final int comparison = Arrays.compareUnsigned(
+                        this.objectIds, offset, offset + OBJECT_ID_LENGTH,
+                        key, 0, OBJECT_ID_LENGTH
+                );
+
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    return true;
+                }
+            }
+        }
+
+        return this.otherIds.contains(id);
+    }
+
+    /// Return the number of IDs.
+    ///
+    /// @return int
+    int size() {
+        return this.objectIdCount + this.otherIds.size();
+    }
+
+    /// Sort the object IDs if they were not added in order.
+    private void sort() {
+        if (!this.sorted) {
+            final ObjectId[] ids = new ObjectId[this.objectIdCount];
+
+            for (int i = 0; i < this.objectIdCount; i++) {
+                ids[i] = new ObjectId(Arrays.copyOfRange(this.objectIds, i * OBJECT_ID_LENGTH, (i + 1) * OBJECT_ID_LENGTH));
+            }
+
+            Arrays.sort(ids);
+
+            for (int i = 0; i < this.objectIdCount; i++) {
+                System.arraycopy(ids[i].toByteArray(), 0, this.objectIds, i * OBJECT_ID_LENGTH, OBJECT_ID_LENGTH);
+            }
+
+            this.sorted = true;
+        }
+    }
+
+    /// Compare a packed object ID with the one at an offset.
+    ///
+    /// @param  index   int
+    /// @param  offset  int
+    /// @return         int
+    private int compare(final int index, final int offset) {
+        final int from = index * OBJECT_ID_LENGTH;
+
+        return Arrays.compareUnsigned(
+                this.objectIds, from, from + OBJECT_ID_LENGTH,
+                this.objectIds, offset, offset + OBJECT_ID_LENGTH
+        );
+    }
+}
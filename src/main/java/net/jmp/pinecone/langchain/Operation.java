@@ -30,22 +30,78 @@ package net.jmp.pinecone.langchain;
 
 import dev.langchain4j.data.segment.TextSegment;
 
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+
+import dev.langchain4j.model.cohere.CohereScoringModel;
+
 import dev.langchain4j.model.embedding.EmbeddingModel;
 
 import dev.langchain4j.model.embedding.onnx.allminilml6v2.AllMiniLmL6V2EmbeddingModel;
 
+import dev.langchain4j.model.openai.OpenAiChatModel;
+import dev.langchain4j.model.openai.OpenAiStreamingChatModel;
+import dev.langchain4j.model.openai.OpenAiTokenCountEstimator;
+
+import static dev.langchain4j.model.openai.OpenAiChatModelName.GPT_4_1;
+
+import dev.langchain4j.model.scoring.ScoringModel;
+
+import dev.langchain4j.rag.content.aggregator.ContentAggregator;
+
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+import dev.langchain4j.rag.content.retriever.EmbeddingStoreContentRetriever;
+
 import dev.langchain4j.store.embedding.EmbeddingStore;
 
+import dev.langchain4j.store.embedding.filter.Filter;
+
 import dev.langchain4j.store.embedding.pinecone.PineconeEmbeddingStore;
 import dev.langchain4j.store.embedding.pinecone.PineconeServerlessIndexConfig;
 
 import java.io.IOException;
 
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.jmp.pinecone.langchain.cache.CachingChatModel;
+import net.jmp.pinecone.langchain.cache.CachingStreamingChatModel;
+import net.jmp.pinecone.langchain.cache.SemanticAnswerCache;
+
+import net.jmp.pinecone.langchain.retrieval.HybridContentRetriever;
+import net.jmp.pinecone.langchain.retrieval.KeywordContentRetriever;
+import net.jmp.pinecone.langchain.retrieval.PruningReRankingContentAggregator;
+import net.jmp.pinecone.langchain.retrieval.SentenceCompressingContentAggregator;
+import net.jmp.pinecone.langchain.retrieval.TokenBudgetContentAggregator;
+
+import net.jmp.pinecone.langchain.scoring.BatchingScoringModel;
+import net.jmp.pinecone.langchain.scoring.CachingScoringModel;
+import net.jmp.pinecone.langchain.scoring.OnnxCrossEncoderScoringModel;
+
+import net.jmp.pinecone.langchain.store.AliasedEmbeddingStore;
+import net.jmp.pinecone.langchain.store.Bm25Encoder;
+import net.jmp.pinecone.langchain.store.Bm25InvertedIndex;
+import net.jmp.pinecone.langchain.store.CachingEmbeddingStore;
+import net.jmp.pinecone.langchain.store.EmbeddingCatalog;
+import net.jmp.pinecone.langchain.store.HybridStore;
+import net.jmp.pinecone.langchain.store.InMemoryHybridStore;
+import net.jmp.pinecone.langchain.store.IndexEpoch;
+import net.jmp.pinecone.langchain.store.NamespaceAlias;
+import net.jmp.pinecone.langchain.store.PineconeEmbeddingCatalog;
+import net.jmp.pinecone.langchain.store.PineconeHybridStore;
+import net.jmp.pinecone.langchain.store.ShardedEmbeddingStore;
+
 import static net.jmp.util.logging.LoggerUtils.*;
 
 import org.slf4j.Logger;
@@ -56,6 +112,24 @@ import org.slf4j.LoggerFactory;
 /// @version    0.1.0
 /// @since      0.1.0
 abstract class Operation {
+    /// The remote reranking model.
+    protected static final String COHERE_RERANKING_MODEL = "rerank-english-v3.0";
+
+    /// The semantic answer caches by operation, shared by the operations of a process.
+    private static final Map<String, SemanticAnswerCache> ANSWER_CACHES = new ConcurrentHashMap<>();
+
+    /// The BM25 encoders by file, shared by the operations of a process.
+    private static final Map<Path, Modified<Bm25Encoder>> BM25_ENCODERS = new ConcurrentHashMap<>();
+
+    /// The hybrid stores by location, shared by the operations of a process.
+    private static final Map<String, HybridStore> HYBRID_STORES = new ConcurrentHashMap<>();
+
+    /// The keyword indexes by file, shared by the operations of a process.
+    private static final Map<Path, Modified<Bm25InvertedIndex>> KEYWORD_INDEXES = new ConcurrentHashMap<>();
+
+    /// The scoring models by name, shared by the operations of a process.
+    private static final Map<String, ScoringModel> SCORING_MODELS = new ConcurrentHashMap<>();
+
     /// The logger.
     private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
 
@@ -67,7 +141,9 @@ abstract class Operation {
     /// The operate method.
     abstract void operate();
 
-    /// Returns the embedding store.
+    /// Returns the embedding store. The namespace is an alias that
+    /// is resolved on every call, so a reindex can swap the namespace
+    /// underneath a running operation.
     ///
     /// @param  pineconeApiKey      java.lang.String
     /// @param  embeddingModel      dev.langchain4j.model.embedding.EmbeddingModel
@@ -82,7 +158,202 @@ abstract class Operation {
             this.logger.trace(entryWith(pineconeApiKey, embeddingModel, indexName, namespace));
         }
 
-        this.logger.info("Creating Pinecone embedding store");
+        final AliasedEmbeddingStore<TextSegment> aliasedStore = new AliasedEmbeddingStore<>(
+                this.getNamespaceAlias(),
+                namespace,
+                target -> this.getNamespaceEmbeddingStore(pineconeApiKey, embeddingModel, indexName, target)
+        );
+
+        final long cacheSeconds = Long.getLong("app.searchCacheSeconds", 300L);
+        final EmbeddingStore<TextSegment> embeddingStore;
+
+        if (cacheSeconds > 0) {
+            final IndexEpoch indexEpoch = this.getIndexEpoch();
+            final String epochKey = IndexEpoch.key(indexName, namespace);
+
+            embeddingStore = new CachingEmbeddingStore<>(
+                    aliasedStore,
+                    aliasedStore::currentNamespace,
+                    () -> indexEpoch.current(epochKey),
+                    Duration.ofSeconds(cacheSeconds),
+                    Integer.getInteger("app.searchCacheEntries", 10_000)
+            );
+        } else {
+            embeddingStore = aliasedStore;
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(embeddingStore));
+        }
+
+        return embeddingStore;
+    }
+
+    /// Returns the embedding store of a namespace, bypassing any alias.
+    /// When the app.shards system property is greater than one a sharded
+    /// store is returned whose shards are either namespaces of the index
+    /// or, when app.shardBy is "index", separate indexes that share the
+    /// namespace.
+    ///
+    /// @param  pineconeApiKey      java.lang.String
+    /// @param  embeddingModel      dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  indexName           java.lang.String
+    /// @param  namespace           java.lang.String
+    /// @return                     dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+    protected EmbeddingStore<TextSegment> getNamespaceEmbeddingStore(final String pineconeApiKey,
+                                                                     final EmbeddingModel embeddingModel,
+                                                                     final String indexName,
+                                                                     final String namespace) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(pineconeApiKey, embeddingModel, indexName, namespace));
+        }
+
+        final List<StoreLocation> locations = this.getStoreLocations(indexName, namespace);
+
+        EmbeddingStore<TextSegment> embeddingStore;
+
+        if (locations.size() > 1) {
+            final List<EmbeddingStore<TextSegment>> shardStores = new ArrayList<>(locations.size());
+
+            this.logger.info("Sharding across {} Pinecone stores", locations.size());
+
+            for (final StoreLocation location : locations) {
+                shardStores.add(this.getPineconeEmbeddingStore(
+                        pineconeApiKey,
+                        embeddingModel,
+                        location.indexName(),
+                        location.namespace()
+                ));
+            }
+
+            embeddingStore = new ShardedEmbeddingStore<>(
+                    shardStores,
+                    Duration.ofMillis(Long.getLong("app.shardTimeoutMillis", 2_000L))
+            );
+        } else {
+            embeddingStore = this.getPineconeEmbeddingStore(pineconeApiKey, embeddingModel, indexName, namespace);
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(embeddingStore));
+        }
+
+        return embeddingStore;
+    }
+
+    /// Returns the catalogs of the Pinecone stores that back
+    /// the embedding store, one for each shard. The namespace
+    /// may be an alias.
+    ///
+    /// @param  pineconeApiKey      java.lang.String
+    /// @param  indexName           java.lang.String
+    /// @param  namespace           java.lang.String
+    /// @return                     java.util.List<net.jmp.pinecone.langchain.store.EmbeddingCatalog>
+    protected List<EmbeddingCatalog> getEmbeddingCatalogs(final String pineconeApiKey,
+                                                          final String indexName,
+                                                          final String namespace) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(pineconeApiKey, indexName, namespace));
+        }
+
+        final List<EmbeddingCatalog> catalogs = this.getNamespaceEmbeddingCatalogs(
+                pineconeApiKey,
+                indexName,
+                this.getNamespaceAlias().resolve(namespace)
+        );
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(catalogs));
+        }
+
+        return catalogs;
+    }
+
+    /// Returns the catalogs of the Pinecone stores that back the
+    /// embedding store of a namespace, one for each shard, bypassing
+    /// any alias.
+    ///
+    /// @param  pineconeApiKey      java.lang.String
+    /// @param  indexName           java.lang.String
+    /// @param  namespace           java.lang.String
+    /// @return                     java.util.List<net.jmp.pinecone.langchain.store.EmbeddingCatalog>
+    protected List<EmbeddingCatalog> getNamespaceEmbeddingCatalogs(final String pineconeApiKey,
+                                                                   final String indexName,
+                                                                   final String namespace) {
+        final List<EmbeddingCatalog> catalogs = new ArrayList<>();
+
+        for (final StoreLocation location : this.getStoreLocations(indexName, namespace)) {
+            catalogs.add(new PineconeEmbeddingCatalog(pineconeApiKey, location.indexName(), location.namespace()));
+        }
+
+        return catalogs;
+    }
+
+    /// Returns the namespace alias registry. The file
+    /// is named by the app.aliasFile system property.
+    ///
+    /// @return                     net.jmp.pinecone.langchain.store.NamespaceAlias
+    protected NamespaceAlias getNamespaceAlias() {
+        return NamespaceAlias.of(Paths.get(System.getProperty("app.aliasFile", "etc/namespace-aliases.properties")));
+    }
+
+    /// Return the index epoch registry.
+    ///
+    /// @return net.jmp.pinecone.langchain.store.IndexEpoch
+    protected IndexEpoch getIndexEpoch() {
+        return IndexEpoch.of(Paths.get(System.getProperty("app.epochFile", "etc/index-epochs.properties")));
+    }
+
+    /// Bump the epoch of an index namespace so that
+    /// cached searches of it are invalidated.
+    ///
+    /// @param  indexName   java.lang.String
+    /// @param  namespace   java.lang.String
+    protected void bumpIndexEpoch(final String indexName, final String namespace) {
+        this.getIndexEpoch().bump(IndexEpoch.key(indexName, namespace));
+    }
+
+    /// Returns the locations of the Pinecone stores,
+    /// taking the sharding system properties into account.
+    ///
+    /// @param  indexName           java.lang.String
+    /// @param  namespace           java.lang.String
+    /// @return                     java.util.List<net.jmp.pinecone.langchain.Operation.StoreLocation>
+    private List<StoreLocation> getStoreLocations(final String indexName, final String namespace) {
+        final int shards = Integer.getInteger("app.shards", 1);
+
+        if (shards <= 1) {
+            return List.of(new StoreLocation(indexName, namespace));
+        }
+
+        final boolean shardByIndex = "index".equals(System.getProperty("app.shardBy", "namespace"));
+        final List<StoreLocation> locations = new ArrayList<>(shards);
+
+        for (int shard = 0; shard < shards; shard++) {
+            locations.add(shardByIndex
+                    ? new StoreLocation(indexName + "-" + shard, namespace)
+                    : new StoreLocation(indexName, namespace + "-" + shard));
+        }
+
+        return locations;
+    }
+
+    /// Returns a Pinecone embedding store.
+    ///
+    /// @param  pineconeApiKey      java.lang.String
+    /// @param  embeddingModel      dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  indexName           java.lang.String
+    /// @param  namespace           java.lang.String
+    /// @return                     dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+    private EmbeddingStore<TextSegment> getPineconeEmbeddingStore(final String pineconeApiKey,
+                                                                  final EmbeddingModel embeddingModel,
+                                                                  final String indexName,
+                                                                  final String namespace) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(pineconeApiKey, embeddingModel, indexName, namespace));
+        }
+
+        this.logger.info("Creating Pinecone embedding store: {}/{}", indexName, namespace);
 
         final EmbeddingStore<TextSegment> embeddingStore = PineconeEmbeddingStore.builder()
                 .apiKey(pineconeApiKey)
@@ -125,6 +396,417 @@ abstract class Operation {
         return embeddingModel;
     }
 
+    /// Returns the hybrid store, or empty if hybrid search is not
+    /// configured. When app.hybridStore is "local" the store is held
+    /// in memory and kept in the app.hybridStoreFile file; when it is
+    /// "pinecone" the store is the app.hybridIndexName index, which
+    /// defaults to the index name with a -hybrid suffix. The store is
+    /// created once per process.
+    ///
+    /// @param  embeddingModel  dev.langchain4j.model.embedding.EmbeddingModel
+    /// @return                 java.util.Optional<net.jmp.pinecone.langchain.store.HybridStore>
+    protected Optional<HybridStore> getHybridStore(final EmbeddingModel embeddingModel) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(embeddingModel));
+        }
+
+        final String backend = System.getProperty("app.hybridStore", "none");
+        final String indexName = System.getProperty("app.hybridIndexName", System.getProperty("app.indexName") + "-hybrid");
+        final String namespace = System.getProperty("app.namespace");
+
+        final Optional<HybridStore> hybridStore = switch (backend) {
+            case "local" -> Optional.of(HYBRID_STORES.computeIfAbsent(
+                    backend,
+                    key -> new InMemoryHybridStore(Paths.get(System.getProperty("app.hybridStoreFile", "build/hybrid-store.jsonl")))
+            ));
+            case "pinecone" -> Optional.of(HYBRID_STORES.computeIfAbsent(
+                    backend + ":" + indexName + "/" + namespace,
+                    key -> new PineconeHybridStore(
+                            this.getApiKey(System.getProperty("app.pineconeApiKey")).orElseThrow(() -> new IllegalStateException("Pinecone API key not found")),
+                            indexName,
+                            namespace,
+                            embeddingModel.dimension()
+                    )
+            ));
+            case "none" -> Optional.empty();
+            default -> throw new IllegalArgumentException("Unsupported hybrid store: " + backend);
+        };
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(hybridStore));
+        }
+
+        return hybridStore;
+    }
+
+    /// Returns the BM25 encoder fit by the last load, kept in the
+    /// app.bm25File file, or empty if there has been no such load.
+    ///
+    /// @return                 java.util.Optional<net.jmp.pinecone.langchain.store.Bm25Encoder>
+    protected Optional<Bm25Encoder> getBm25Encoder() {
+        final Path file = Paths.get(System.getProperty("app.bm25File", "etc/bm25.json"));
+
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+
+        try {
+            final long modified = Files.getLastModifiedTime(file).toMillis();
+
+            return Optional.of(BM25_ENCODERS.compute(file.toAbsolutePath().normalize(), (key, encoder) ->
+                encoder != null && encoder.modified() == modified ? encoder : new Modified<>(modified, Bm25Encoder.load(file))
+            ).value());
+        } catch (final IOException ioe) {
+            this.logger.warn("Unable to read BM25 statistics: {}", file, ioe);
+
+            return Optional.empty();
+        }
+    }
+
+    /// Returns the content retriever of an embedding store. When a hybrid
+    /// store is configured and has been loaded the retriever searches it
+    /// with both a dense and a sparse query weighted by app.hybridAlpha;
+    /// otherwise it searches the embedding store with a dense query.
+    ///
+    /// @param  embeddingModel  dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  embeddingStore  dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+    /// @param  filter          dev.langchain4j.store.embedding.filter.Filter   May be null
+    /// @param  maxResults      int
+    /// @return                 dev.langchain4j.rag.content.retriever.ContentRetriever
+    protected ContentRetriever getContentRetriever(final EmbeddingModel embeddingModel,
+                                                   final EmbeddingStore<TextSegment> embeddingStore,
+                                                   final Filter filter,
+                                                   final int maxResults) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(embeddingModel, embeddingStore, filter, maxResults));
+        }
+
+        final Optional<HybridStore> hybridStore = this.getHybridStore(embeddingModel);
+        final Optional<Bm25Encoder> encoder = hybridStore.isPresent() ? this.getBm25Encoder() : Optional.empty();
+
+        final ContentRetriever contentRetriever;
+
+        if (hybridStore.isPresent() && encoder.isPresent()) {
+            contentRetriever = new HybridContentRetriever(
+                    hybridStore.get(),
+                    embeddingModel,
+                    encoder.get(),
+                    Double.parseDouble(System.getProperty("app.hybridAlpha", "0.5")),
+                    maxResults,
+                    filter
+            );
+        } else {
+            if (hybridStore.isPresent()) {
+                this.logger.warn("No BM25 statistics found; searching with a dense query only");
+            }
+
+            contentRetriever = EmbeddingStoreContentRetriever.builder()
+                    .embeddingStore(embeddingStore)
+                    .embeddingModel(embeddingModel)
+                    .filter(filter)
+                    .maxResults(maxResults)
+                    .build();
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(contentRetriever));
+        }
+
+        return contentRetriever;
+    }
+
+    /// Returns a content retriever that searches the local BM25 inverted
+    /// index in the app.keywordIndexFile file, or empty if there is none.
+    /// The index is mapped once per process and again when it is rewritten.
+    ///
+    /// @param  filter      dev.langchain4j.store.embedding.filter.Filter   May be null
+    /// @param  maxResults  int
+    /// @return             java.util.Optional<dev.langchain4j.rag.content.retriever.ContentRetriever>
+    protected Optional<ContentRetriever> getKeywordContentRetriever(final Filter filter, final int maxResults) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(filter, maxResults));
+        }
+
+        final String keywordIndexFile = System.getProperty("app.keywordIndexFile");
+
+        Optional<ContentRetriever> contentRetriever = Optional.empty();
+
+        if (keywordIndexFile != null && Files.isRegularFile(Paths.get(keywordIndexFile))) {
+            final Path file = Paths.get(keywordIndexFile);
+
+            try {
+                final long modified = Files.getLastModifiedTime(file).toMillis();
+                final Bm25InvertedIndex index = KEYWORD_INDEXES.compute(file.toAbsolutePath().normalize(), (key, opened) ->
+                    opened != null && opened.modified() == modified ? opened : new Modified<>(modified, Bm25InvertedIndex.open(file))
+                ).value();
+
+                contentRetriever = Optional.of(new KeywordContentRetriever(index, maxResults, filter));
+            } catch (final IOException ioe) {
+                this.logger.warn("Unable to read the keyword index: {}", file, ioe);
+            }
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(contentRetriever));
+        }
+
+        return contentRetriever;
+    }
+
+    /// Write the local BM25 keyword index of the segments to the
+    /// app.keywordIndexFile file when that is set.
+    ///
+    /// @param  segments    java.util.Map<java.lang.String, dev.langchain4j.data.segment.TextSegment>
+    protected void writeKeywordIndex(final Map<String, TextSegment> segments) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(segments));
+        }
+
+        final String keywordIndexFile = System.getProperty("app.keywordIndexFile");
+
+        if (keywordIndexFile != null) {
+            Bm25InvertedIndex.write(Paths.get(keywordIndexFile), segments);
+
+            this.logger.info("Wrote the keyword index: {}", keywordIndexFile);
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Delete the local BM25 keyword index in the app.keywordIndexFile
+    /// file, if there is one, so that it is not searched for segments
+    /// that are gone. The next load or reindex writes it again.
+    protected void deleteKeywordIndex() {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entry());
+        }
+
+        final String keywordIndexFile = System.getProperty("app.keywordIndexFile");
+
+        if (keywordIndexFile != null) {
+            final Path file = Paths.get(keywordIndexFile);
+
+            try {
+                if (Files.deleteIfExists(file)) {
+                    this.logger.info("Deleted the keyword index: {}", file);
+                }
+            } catch (final IOException ioe) {
+                this.logger.warn("Unable to delete the keyword index: {}", file, ioe);
+            }
+
+            KEYWORD_INDEXES.remove(file.toAbsolutePath().normalize());
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Returns the semantic answer cache of an operation, or
+    /// empty if answer caching is disabled or the operation opts
+    /// out of it. The cached answers are dropped when the epoch of
+    /// the index namespace the operation answers from changes.
+    ///
+    /// @param  operation       java.lang.String
+    /// @param  embeddingModel  dev.langchain4j.model.embedding.EmbeddingModel
+    /// @return                 java.util.Optional<net.jmp.pinecone.langchain.cache.SemanticAnswerCache>
+    protected Optional<SemanticAnswerCache> getSemanticAnswerCache(final String operation,
+                                                                  final EmbeddingModel embeddingModel) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(operation, embeddingModel));
+        }
+
+        final long cacheSeconds = Long.getLong("app.answerCacheSeconds", 3600L);
+        final List<String> optOuts = Arrays.stream(System.getProperty("app.answerCacheOptOut", "").split(","))
+                .map(String::trim)
+                .toList();
+
+        Optional<SemanticAnswerCache> answerCache = Optional.empty();
+
+        if (cacheSeconds > 0 && !optOuts.contains(operation)) {
+            final IndexEpoch indexEpoch = this.getIndexEpoch();
+            final String epochKey = IndexEpoch.key(System.getProperty("app.indexName"), System.getProperty("app.namespace"));
+
+            answerCache = Optional.of(ANSWER_CACHES.computeIfAbsent(operation, key -> new SemanticAnswerCache(
+                    embeddingModel,
+                    Double.parseDouble(System.getProperty("app.answerCacheThreshold", "0.92")),
+                    Duration.ofSeconds(cacheSeconds),
+                    () -> indexEpoch.current(epochKey),
+                    Integer.getInteger("app.answerCacheEntries", 1_000)
+            )));
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(answerCache));
+        }
+
+        return answerCache;
+    }
+
+    /// Returns the scoring model used to rerank retrieved content.
+    /// Reranking models named rerank-* are the remote Cohere models;
+    /// any other name is a local ONNX cross-encoder exported to that
+    /// directory under the reranking model directory. When it has not
+    /// been exported the remote default is used. The scoring model is
+    /// created once per process and, unless disabled, caches its scores
+    /// and batches the scoring requests of concurrent callers.
+    ///
+    /// @param  cohereApiKey        java.lang.String
+    /// @return                     dev.langchain4j.model.scoring.ScoringModel
+    protected ScoringModel getScoringModel(final String cohereApiKey) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(cohereApiKey));
+        }
+
+        final String rerankingModel = System.getProperty("app.rerankingModel", COHERE_RERANKING_MODEL);
+        final long batchMillis = Long.getLong("app.rerankBatchMillis", 5L);
+        final long cacheSeconds = Long.getLong("app.rerankCacheSeconds", 3600L);
+
+        final ScoringModel scoringModel = SCORING_MODELS.computeIfAbsent(rerankingModel, key -> {
+            final Path modelDirectory = Paths.get(System.getProperty("app.rerankingModelDir", "models"), key);
+            final ScoringModel model;
+
+            if (key.startsWith("rerank-")) {
+                model = this.getCohereScoringModel(cohereApiKey, key);
+            } else if (Files.isDirectory(modelDirectory)) {
+                model = new OnnxCrossEncoderScoringModel(
+                        modelDirectory,
+                        Integer.getInteger("app.rerankMaxSequenceLength", 512),
+                        Integer.getInteger("app.rerankBatchSize", 16),
+                        Integer.getInteger("app.rerankThreads", 2)
+                );
+            } else {
+                this.logger.warn("Reranking model {} not found in {}; using {}", key, modelDirectory, COHERE_RERANKING_MODEL);
+
+                model = this.getCohereScoringModel(cohereApiKey, COHERE_RERANKING_MODEL);
+            }
+
+            final ScoringModel batchingModel = batchMillis > 0
+                    ? new BatchingScoringModel(model, Duration.ofMillis(batchMillis), Integer.getInteger("app.rerankMaxDocuments", 1_000))
+                    : model;
+
+            return cacheSeconds > 0
+                    ? new CachingScoringModel(batchingModel, Duration.ofSeconds(cacheSeconds), Integer.getInteger("app.rerankCacheEntries", 50_000))
+                    : batchingModel;
+        });
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(scoringModel));
+        }
+
+        return scoringModel;
+    }
+
+    /// Returns a remote Cohere scoring model.
+    ///
+    /// @param  cohereApiKey        java.lang.String
+    /// @param  modelName           java.lang.String
+    /// @return                     dev.langchain4j.model.scoring.ScoringModel
+    protected ScoringModel getCohereScoringModel(final String cohereApiKey, final String modelName) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(cohereApiKey, modelName));
+        }
+
+        final ScoringModel scoringModel = CohereScoringModel.builder()
+                .apiKey(this.getApiKey(cohereApiKey).orElseThrow(() -> new IllegalStateException("Unable to get Cohere API key")))
+                .modelName(modelName)
+                .build();
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(scoringModel));
+        }
+
+        return scoringModel;
+    }
+
+    /// Returns the content aggregator of the retrieved content. First it
+    /// prunes the content by retrieval score and reranks what is left.
+    /// Then it compresses each content to the sentences most similar to
+    /// the query, unless app.compressSentences is not positive. Last it
+    /// packs the result into the app.contextTokens token budget, unless
+    /// that is not positive.
+    ///
+    /// @param  scoringModel    dev.langchain4j.model.scoring.ScoringModel
+    /// @param  embeddingModel  dev.langchain4j.model.embedding.EmbeddingModel
+    /// @return                 dev.langchain4j.rag.content.aggregator.ContentAggregator
+    protected ContentAggregator getContentAggregator(final ScoringModel scoringModel, final EmbeddingModel embeddingModel) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(scoringModel, embeddingModel));
+        }
+
+        final int compressSentences = Integer.getInteger("app.compressSentences", 3);
+        final int contextTokens = Integer.getInteger("app.contextTokens", 2_000);
+
+        ContentAggregator contentAggregator = new PruningReRankingContentAggregator(
+                scoringModel,
+                Integer.getInteger("app.rerankCandidates", 10),
+                Double.parseDouble(System.getProperty("app.rerankMargin", "0.1"))
+        );
+
+        if (compressSentences > 0) {
+            contentAggregator = new SentenceCompressingContentAggregator(contentAggregator, embeddingModel, compressSentences);
+        }
+
+        if (contextTokens > 0) {
+            contentAggregator = new TokenBudgetContentAggregator(contentAggregator, new OpenAiTokenCountEstimator(GPT_4_1), contextTokens);
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(contentAggregator));
+        }
+
+        return contentAggregator;
+    }
+
+    /// Returns the chat model.
+    ///
+    /// @param  openaiApiKey        java.lang.String
+    /// @return                     dev.langchain4j.model.chat.ChatModel
+    protected ChatModel getChatModel(final String openaiApiKey) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(openaiApiKey));
+        }
+
+        final ChatModel chatModel = CachingChatModel.wrap(OpenAiChatModel.builder()
+                    .apiKey(openaiApiKey)
+                    .modelName(GPT_4_1)
+                    .temperature(0.4)
+                    .logRequests(true)
+                    .logResponses(true)
+                    .build());
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(chatModel));
+        }
+
+        return chatModel;
+    }
+
+    /// Returns the streaming chat model.
+    ///
+    /// @param  openaiApiKey        java.lang.String
+    /// @return                     dev.langchain4j.model.chat.StreamingChatModel
+    protected StreamingChatModel getStreamingChatModel(final String openaiApiKey) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(openaiApiKey));
+        }
+
+        final StreamingChatModel streamingChatModel = CachingStreamingChatModel.wrap(OpenAiStreamingChatModel.builder()
+                    .apiKey(openaiApiKey)
+                    .modelName(GPT_4_1)
+                    .temperature(0.4)
+                    .logRequests(true)
+                    .build());
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(streamingChatModel));
+        }
+
+        return streamingChatModel;
+    }
+
     /// Get the API key.
     ///
     /// @param  fileName    java.lang.String
@@ -153,4 +835,49 @@ abstract class Operation {
 
         return Optional.ofNullable(apiKey);
     }
+
+    /// Get the MongoDB URI.
+    ///
+    /// @param  mongoDbUriFile  java.lang.String
+    /// @return                 java.util.Optional<java.lang.String>
+    protected Optional<String> getMongoDbUri(final String mongoDbUriFile) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(mongoDbUriFile));
+        }
+
+        String mongoDbUri = null;
+
+        try {
+            mongoDbUri = Files.readString(Paths.get(mongoDbUriFile)).trim();
+
+            if (this.logger.isDebugEnabled()) {
+                this.logger.debug("MongoDb URI file: {}", mongoDbUriFile);
+                this.logger.debug("MongoDb URI: {}", mongoDbUri);
+            }
+        } catch (final IOException ioe) {
+            this.logger.error("Unable to read MongoDb URI file: {}", mongoDbUriFile, ioe);
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(mongoDbUri));
+        }
+
+        return Optional.ofNullable(mongoDbUri);
+    }
+
+    /// The location of a Pinecone store.
+    ///
+    /// @param  indexName   java.lang.String
+    /// @param  namespace   java.lang.String
+    record StoreLocation(String indexName, String namespace) {
+    }
+
+    /// A value read from a file and the modification time of the
+    /// file when it was read.
+    ///
+    /// @param  <T>         The type of value
+    /// @param  modified    long
+    /// @param  value       T
+    private record Modified<T>(long modified, T value) {
+    }
 }
@@ -41,6 +41,8 @@ import dev.langchain4j.store.embedding.EmbeddingStore;
 
 import dev.langchain4j.store.embedding.filter.Filter;
 
+import java.util.List;
+
 import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
 
 import static net.jmp.util.logging.LoggerUtils.*;
@@ -101,27 +103,61 @@ final class Query extends Operation {
                 namespace
         );
 
-        final Embedding queryEmbedding = embeddingModel.embed(queryText).content();
-
-        final EmbeddingSearchRequest.EmbeddingSearchRequestBuilder builder = EmbeddingSearchRequest.builder()
-                .queryEmbedding(queryEmbedding)
-                .maxResults(10);
+        final List<EmbeddingMatch<TextSegment>> matches = this.search(
+                embeddingModel,
+                embeddingStore,
+                queryText,
+                this.getFilter(),
+                10
+        );
 
-        if (this.queryUsesFilter) {
-            final Filter filter = metadataKey("category").isIn("history", "science");
+        for (final EmbeddingMatch<TextSegment> match : matches) {
+            this.logger.info("{} (Score: {})", match.embedded().text(), match.score());
+        }
 
-            builder.filter(filter);
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
         }
+    }
 
-        final EmbeddingSearchRequest searchRequest = builder.build();
-        final EmbeddingSearchResult<TextSegment> searchResult = embeddingStore.search(searchRequest);
+    /// Return the filter the query uses, if any.
+    ///
+    /// @return dev.langchain4j.store.embedding.filter.Filter
+    Filter getFilter() {
+        return this.queryUsesFilter ? metadataKey("category").isIn("history", "science") : null;
+    }
 
-        for (final EmbeddingMatch<TextSegment> match : searchResult.matches()) {
-            this.logger.info("{} (Score: {})", match.embedded().text(), match.score());
+    /// Search the embedding store.
+    ///
+    /// @param  embeddingModel  dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  embeddingStore  dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+    /// @param  queryText       java.lang.String
+    /// @param  filter          dev.langchain4j.store.embedding.filter.Filter
+    /// @param  maxResults      int
+    /// @return                 java.util.List<dev.langchain4j.store.embedding.EmbeddingMatch<dev.langchain4j.data.segment.TextSegment>>
+    List<EmbeddingMatch<TextSegment>> search(final EmbeddingModel embeddingModel,
+                                             final EmbeddingStore<TextSegment> embeddingStore,
+                                             final String queryText,
+                                             final Filter filter,
+                                             final int maxResults) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(embeddingModel, embeddingStore, queryText, filter, maxResults));
         }
 
+        final Embedding queryEmbedding = embeddingModel.embed(queryText).content();
+
+        final EmbeddingSearchRequest searchRequest = EmbeddingSearchRequest.builder()
+                .queryEmbedding(queryEmbedding)
+                .maxResults(maxResults)
+                .filter(filter)
+                .build();
+
+        final EmbeddingSearchResult<TextSegment> searchResult = embeddingStore.search(searchRequest);
+
         if (this.logger.isTraceEnabled()) {
-            this.logger.trace(exit());
+            this.logger.trace(exitWith(searchResult.matches()));
         }
+
+        return searchResult.matches();
     }
 }
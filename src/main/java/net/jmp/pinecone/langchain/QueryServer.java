@@ -0,0 +1,498 @@
+package net.jmp.pinecone.langchain;
+
+/*
+ * (#)QueryServer.java 0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+
+import dev.langchain4j.model.scoring.ScoringModel;
+
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+import dev.langchain4j.store.embedding.filter.FilterParser;
+
+import dev.langchain4j.store.embedding.filter.parser.sql.SqlFilterParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import java.net.InetSocketAddress;
+
+import java.util.List;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import java.util.function.Function;
+
+import net.jmp.pinecone.langchain.cache.SemanticAnswerCache;
+
+import net.jmp.pinecone.langchain.retrieval.PruningReRankingContentAggregator;
+
+import net.jmp.pinecone.langchain.scoring.CachingScoringModel;
+
+import net.jmp.pinecone.langchain.store.CachingEmbeddingStore;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// The query server class. It initializes the embedding model, the
+/// embedding store and the scoring and chat models once and then
+/// serves the query, hybrid query and RAG operations over HTTP on
+/// virtual threads until the JVM is shut down.
+///
+/// The endpoints accept and return JSON:
+///
+/// - `POST /query` with `{"query": "...", "filtered": true, "filter": "category = 'physics'", "maxResults": 10}`,
+///   where all but the query are optional, returns the matches
+/// - `POST /hybridquery` and `POST /rag` with `{"query": "..."}` return the answer,
+///   its sources and whether it came from the semantic answer cache
+/// - `GET /health` returns the status of the server and the search and rerank cache statistics
+///
+/// @version    0.1.0
+/// @since      0.1.0
+final class QueryServer extends Operation {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The object mapper.
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /// The filter parser.
+    private final FilterParser filterParser = new SqlFilterParser();
+
+    /// The filtered query operation.
+    private final Query filteredQuery = new Query(true);
+
+    /// The unfiltered query operation.
+    private final Query unfilteredQuery = new Query(false);
+
+    /// The hybrid query operation.
+    private final HybridQuery hybridQuery = new HybridQuery();
+
+    /// The retrieval-augmented generation operation.
+    private final Rag rag = new Rag();
+
+    /// The default constructor.
+    QueryServer() {
+        super();
+    }
+
+    /// The operate method.
+    @Override
+    void operate() {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entry());
+        }
+
+        final String cohereApiKey = System.getProperty("app.cohereApiKey");
+        final String embeddingModelName = System.getProperty("app.embeddingModel");
+        final String indexName = System.getProperty("app.indexName");
+        final String namespace = System.getProperty("app.namespace");
+        final String openaiApiKey = System.getProperty("app.openaiApiKey");
+        final String pineconeApiKey = System.getProperty("app.pineconeApiKey");
+        final int drainSeconds = Integer.getInteger("app.drainSeconds", 30);
+        final int serverPort = Integer.getInteger("app.serverPort", 8080);
+
+        this.logger.info("Serving Pinecone Index: {}", indexName);
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Cohere Api Key  : {}", cohereApiKey);
+            this.logger.debug("Embedding Model : {}", embeddingModelName);
+            this.logger.debug("Index Name      : {}", indexName);
+            this.logger.debug("Namespace       : {}", namespace);
+            this.logger.debug("OpenAI Api Key  : {}", openaiApiKey);
+            this.logger.debug("Pinecone Api Key: {}", pineconeApiKey);
+            this.logger.debug("Drain Seconds   : {}", drainSeconds);
+            this.logger.debug("Server Port     : {}", serverPort);
+        }
+
+        final EmbeddingModel embeddingModel = this.getEmbeddingModel(embeddingModelName);
+
+        final Models models = new Models(
+                embeddingModel,
+                this.getEmbeddingStore(
+                        this.getApiKey(pineconeApiKey).orElseThrow(() -> new IllegalStateException("Pinecone API key not found")),
+                        embeddingModel,
+                        indexName,
+                        namespace
+                ),
+                this.getScoringModel(cohereApiKey),
+                this.getChatModel(
+                        this.getApiKey(openaiApiKey).orElseThrow(() -> new IllegalStateException("Unable to get OpenAI API key"))
+                ),
+                this.getStreamingChatModel(
+                        this.getApiKey(openaiApiKey).orElseThrow(() -> new IllegalStateException("Unable to get OpenAI API key"))
+                )
+        );
+
+        final HttpServer server;
+
+        try {
+            server = HttpServer.create(new InetSocketAddress(serverPort), 0);
+        } catch (final IOException ioe) {
+            throw new UncheckedIOException("Unable to create the server on port " + serverPort, ioe);
+        }
+
+        final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        final CountDownLatch stopped = new CountDownLatch(1);
+
+        server.setExecutor(executor);
+        server.createContext("/health", exchange -> this.handle(exchange, "GET", request -> this.health(models)));
+        server.createContext("/query", exchange -> this.handle(exchange, "POST", request -> this.query(request, models)));
+        server.createContext("/hybridquery", exchange -> this.handle(exchange, "POST", request -> this.hybridQuery(request, models)));
+        server.createContext("/rag", exchange -> this.handle(exchange, "POST", request -> this.rag(request, models)));
+
+        /* Stop accepting exchanges on shutdown and give the active ones time to complete */
+
+        Runtime.getRuntime().addShutdownHook(Thread.ofPlatform().unstarted(() -> {
+            this.logger.info("Stopping the server; draining for up to {} seconds", drainSeconds);
+
+            server.stop(drainSeconds);
+            executor.close();
+
+            this.logger.info("The server has stopped");
+
+            stopped.countDown();
+        }));
+
+        server.start();
+
+        this.logger.info("The server is listening on port {}", serverPort);
+
+        try {
+            stopped.await();
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Handle an exchange by reading the JSON request,
+    /// applying the handler and writing the JSON response.
+    ///
+    /// @param  exchange    com.sun.net.httpserver.HttpExchange
+    /// @param  method      java.lang.String
+    /// @param  handler     java.util.function.Function<com.fasterxml.jackson.databind.JsonNode, com.fasterxml.jackson.databind.node.ObjectNode>
+    private void handle(final HttpExchange exchange,
+                        final String method,
+                        final Function<JsonNode, ObjectNode> handler) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(exchange, method, handler));
+        }
+
+        try {
+            if (!method.equals(exchange.getRequestMethod())) {
+                this.respond(exchange, 405, this.error("Method not allowed: " + exchange.getRequestMethod()));
+            } else {
+                final JsonNode request;
+
+                try (final InputStream inputStream = exchange.getRequestBody()) {
+                    final byte[] body = inputStream.readAllBytes();
+
+                    request = body.length == 0 ? this.objectMapper.createObjectNode() : this.objectMapper.readTree(body);
+                }
+
+                this.respond(exchange, 200, handler.apply(request));
+            }
+        } catch (final JsonProcessingException | IllegalArgumentException e) {
+            this.logger.warn("Bad request to {}: {}", exchange.getRequestURI(), e.getMessage());
+
+            this.respondQuietly(exchange, 400, this.error(e.getMessage()));
+        } catch (final IOException ioe) {
+            this.logger.error("Unable to exchange with {}", exchange.getRemoteAddress(), ioe);
+        } catch (final RuntimeException re) {
+            this.logger.error("Request to {} failed", exchange.getRequestURI(), re);
+
+            this.respondQuietly(exchange, 500, this.error(re.getMessage()));
+        } finally {
+            exchange.close();
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Write a JSON response.
+    ///
+    /// @param  exchange    com.sun.net.httpserver.HttpExchange
+    /// @param  status      int
+    /// @param  response    com.fasterxml.jackson.databind.node.ObjectNode
+    /// @throws             java.io.IOException When the response cannot be written
+    private void respond(final HttpExchange exchange, final int status, final ObjectNode response) throws IOException {
+        final byte[] body = this.objectMapper.writeValueAsBytes(response);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+
+        try (final OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    /// Write a JSON response, logging rather than
+    /// throwing when it cannot be written.
+    ///
+    /// @param  exchange    com.sun.net.httpserver.HttpExchange
+    /// @param  status      int
+    /// @param  response    com.fasterxml.jackson.databind.node.ObjectNode
+    private void respondQuietly(final HttpExchange exchange, final int status, final ObjectNode response) {
+        try {
+            this.respond(exchange, status, response);
+        } catch (final IOException ioe) {
+            this.logger.error("Unable to respond to {}", exchange.getRemoteAddress(), ioe);
+        }
+    }
+
+    /// Return the health of the server and the
+    /// statistics of the search and rerank caches.
+    ///
+    /// @param  models  net.jmp.pinecone.langchain.QueryServer.Models
+    /// @return         com.fasterxml.jackson.databind.node.ObjectNode
+    private ObjectNode health(final Models models) {
+        final ObjectNode response = this.objectMapper.createObjectNode();
+
+        response.put("status", "UP");
+
+        if (models.embeddingStore() instanceof CachingEmbeddingStore<TextSegment> cachingStore) {
+            final CachingEmbeddingStore.Stats stats = cachingStore.stats();
+            final ObjectNode cacheNode = response.putObject("searchCache");
+
+            cacheNode.put("hits", stats.hits());
+            cacheNode.put("misses", stats.misses());
+            cacheNode.put("hitRatio", stats.hitRatio());
+            cacheNode.put("entries", stats.entries());
+            cacheNode.put("bytes", stats.bytes());
+        }
+
+        if (models.scoringModel() instanceof CachingScoringModel cachingModel) {
+            final CachingScoringModel.Stats stats = cachingModel.stats();
+            final ObjectNode cacheNode = response.putObject("rerankCache");
+
+            cacheNode.put("calls", stats.calls());
+            cacheNode.put("scored", stats.scored());
+            cacheNode.put("cached", stats.cached());
+            cacheNode.put("hitRatio", stats.hitRatio());
+            cacheNode.put("tokens", stats.tokens());
+            cacheNode.put("entries", stats.entries());
+            cacheNode.put("skipped", PruningReRankingContentAggregator.skipped());
+        }
+
+        return response;
+    }
+
+    /// Query the embedding store.
+    ///
+    /// @param  request     com.fasterxml.jackson.databind.JsonNode
+    /// @param  models      net.jmp.pinecone.langchain.QueryServer.Models
+    /// @return             com.fasterxml.jackson.databind.node.ObjectNode
+    private ObjectNode query(final JsonNode request, final Models models) {
+        final String queryText = this.getQueryText(request);
+        final int maxResults = request.path("maxResults").asInt(10);
+
+        if (maxResults < 1) {
+            throw new IllegalArgumentException("The maximum results must be positive: " + maxResults);
+        }
+
+        final Filter filter;
+
+        if (request.hasNonNull("filter")) {
+            filter = this.parseFilter(request.get("filter").asText());
+        } else if (request.path("filtered").asBoolean(false)) {
+            filter = this.filteredQuery.getFilter();
+        } else {
+            filter = this.unfilteredQuery.getFilter();
+        }
+
+        final long start = System.nanoTime();
+
+        final List<EmbeddingMatch<TextSegment>> matches = this.unfilteredQuery.search(
+                models.embeddingModel(),
+                models.embeddingStore(),
+                queryText,
+                filter,
+                maxResults
+        );
+
+        final ObjectNode response = this.objectMapper.createObjectNode();
+        final ArrayNode matchNodes = response.put("query", queryText).putArray("matches");
+
+        for (final EmbeddingMatch<TextSegment> match : matches) {
+            final ObjectNode matchNode = matchNodes.addObject();
+
+            matchNode.put("id", match.embeddingId());
+            matchNode.put("score", match.score());
+            matchNode.put("text", match.embedded().text());
+            matchNode.set("metadata", this.objectMapper.valueToTree(match.embedded().metadata().toMap()));
+        }
+
+        response.put("latencyMillis", (System.nanoTime() - start) / 1_000_000.0);
+
+        return response;
+    }
+
+    /// Answer a question using the hybrid query.
+    ///
+    /// @param  request     com.fasterxml.jackson.databind.JsonNode
+    /// @param  models      net.jmp.pinecone.langchain.QueryServer.Models
+    /// @return             com.fasterxml.jackson.databind.node.ObjectNode
+    private ObjectNode hybridQuery(final JsonNode request, final Models models) {
+        final String queryText = this.getQueryText(request);
+        final long start = System.nanoTime();
+
+        final SemanticAnswerCache.Answer answer = this.hybridQuery.answer(
+                models.embeddingModel(),
+                models.embeddingStore(),
+                models.scoringModel(),
+                models.chatModel(),
+                queryText
+        );
+
+        return this.answer(queryText, answer, start);
+    }
+
+    /// Answer a question using retrieval-augmented generation.
+    ///
+    /// @param  request     com.fasterxml.jackson.databind.JsonNode
+    /// @param  models      net.jmp.pinecone.langchain.QueryServer.Models
+    /// @return             com.fasterxml.jackson.databind.node.ObjectNode
+    private ObjectNode rag(final JsonNode request, final Models models) {
+        final String queryText = this.getQueryText(request);
+        final long start = System.nanoTime();
+
+        final SemanticAnswerCache.Answer answer = this.rag.answer(
+                models.embeddingModel(),
+                models.embeddingStore(),
+                models.scoringModel(),
+                models.streamingChatModel(),
+                queryText,
+                token -> {}     // The whole answer is returned
+        );
+
+        return this.answer(queryText, answer, start);
+    }
+
+    /// Create an answer response.
+    ///
+    /// @param  queryText   java.lang.String
+    /// @param  answer      net.jmp.pinecone.langchain.cache.SemanticAnswerCache.Answer
+    /// @param  start       long
+    /// @return             com.fasterxml.jackson.databind.node.ObjectNode
+    private ObjectNode answer(final String queryText, final SemanticAnswerCache.Answer answer, final long start) {
+        final ObjectNode response = this.objectMapper.createObjectNode();
+        final ArrayNode sourceNodes = response.put("query", queryText)
+                .put("answer", answer.text())
+                .put("cached", answer.cached())
+                .putArray("sources");
+
+        answer.sources().forEach(sourceNodes::add);
+        response.put("latencyMillis", (System.nanoTime() - start) / 1_000_000.0);
+
+        return response;
+    }
+
+    /// Return the required query text of a request.
+    ///
+    /// @param  request     com.fasterxml.jackson.databind.JsonNode
+    /// @return             java.lang.String
+    private String getQueryText(final JsonNode request) {
+        final String queryText = request.path("query").asText("");
+
+        if (queryText.isBlank()) {
+            throw new IllegalArgumentException("A query is required");
+        }
+
+        return queryText;
+    }
+
+    /// Parse an SQL WHERE clause into a filter.
+    ///
+    /// @param  where   java.lang.String
+    /// @return         dev.langchain4j.store.embedding.filter.Filter
+    private Filter parseFilter(final String where) {
+        try {
+            return this.filterParser.parse(where);
+        } catch (final RuntimeException re) {
+            throw new IllegalArgumentException("Invalid filter: " + where, re);
+        }
+    }
+
+    /// Create an error response.
+    ///
+    /// @param  message java.lang.String
+    /// @return         com.fasterxml.jackson.databind.node.ObjectNode
+    private ObjectNode error(final String message) {
+        final ObjectNode response = this.objectMapper.createObjectNode();
+
+        response.put("error", String.valueOf(message));
+
+        return response;
+    }
+
+    /// The models and the store, initialized once and
+    /// shared by all the requests.
+    ///
+    /// @param  embeddingModel      dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  embeddingStore      dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+    /// @param  scoringModel        dev.langchain4j.model.scoring.ScoringModel
+    /// @param  chatModel           dev.langchain4j.model.chat.ChatModel
+    /// @param  streamingChatModel  dev.langchain4j.model.chat.StreamingChatModel
+    private record Models(EmbeddingModel embeddingModel,
+                          EmbeddingStore<TextSegment> embeddingStore,
+                          ScoringModel scoringModel,
+                          ChatModel chatModel,
+                          StreamingChatModel streamingChatModel) {
+    }
+}
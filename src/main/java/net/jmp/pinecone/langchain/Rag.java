@@ -37,14 +37,8 @@ import dev.langchain4j.memory.chat.MessageWindowChatMemory;
 
 import dev.langchain4j.model.chat.StreamingChatModel;
 
-import dev.langchain4j.model.cohere.CohereScoringModel;
-
 import dev.langchain4j.model.embedding.EmbeddingModel;
 
-import dev.langchain4j.model.openai.OpenAiStreamingChatModel;
-
-import static dev.langchain4j.model.openai.OpenAiChatModelName.GPT_4_1;
-
 import dev.langchain4j.model.scoring.ScoringModel;
 
 import dev.langchain4j.rag.AugmentationRequest;
@@ -53,7 +47,6 @@ import dev.langchain4j.rag.DefaultRetrievalAugmentor;
 import dev.langchain4j.rag.RetrievalAugmentor;
 
 import dev.langchain4j.rag.content.aggregator.ContentAggregator;
-import dev.langchain4j.rag.content.aggregator.ReRankingContentAggregator;
 
 import dev.langchain4j.rag.content.retriever.ContentRetriever;
 import dev.langchain4j.rag.content.retriever.EmbeddingStoreContentRetriever;
@@ -65,8 +58,17 @@ import dev.langchain4j.service.TokenStream;
 
 import dev.langchain4j.store.embedding.EmbeddingStore;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import java.util.concurrent.CompletableFuture;
 
+import java.util.function.Consumer;
+
+import net.jmp.pinecone.langchain.cache.SemanticAnswerCache;
+
+import net.jmp.pinecone.langchain.retrieval.MemoizingRetrievalAugmentor;
+
 import static net.jmp.util.logging.LoggerUtils.*;
 
 import org.slf4j.Logger;
@@ -121,25 +123,109 @@ final class Rag extends Operation {
                 namespace
         );
 
+        final ScoringModel scoringModel = this.getScoringModel(cohereApiKey);
+
+        final StreamingChatModel model = this.getStreamingChatModel(
+                this.getApiKey(openaiApiKey).orElseThrow(() -> new IllegalStateException("Unable to get OpenAI API key"))
+        );
+
+        final StringBuilder sb = new StringBuilder();
+
+        try {
+            final SemanticAnswerCache.Answer answer = this.answer(embeddingModel, embeddingStore, scoringModel, model, queryText, token -> {
+                sb.append(token);
+
+                if (token.endsWith("\n")) {
+                    System.out.println(sb);
+                    sb.setLength(0);
+                }
+            });
+
+            if (!sb.isEmpty()) {
+                System.out.println(sb);
+            }
+
+            this.logger.info("Completed waiting for token streaming to complete");
+            this.logger.info("Cached: {}", answer.cached());
+        } catch (final Exception e) {
+            this.logger.error("Token streaming failed", e);
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Answer a question, streaming the partial responses to the
+    /// consumer. When a similar question was answered the cached
+    /// answer is passed to the consumer as a single response.
+    ///
+    /// @param  embeddingModel      dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  embeddingStore      dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+    /// @param  scoringModel        dev.langchain4j.model.scoring.ScoringModel
+    /// @param  model               dev.langchain4j.model.chat.StreamingChatModel
+    /// @param  queryText           java.lang.String
+    /// @param  partialConsumer     java.util.function.Consumer<java.lang.String>
+    /// @return                     net.jmp.pinecone.langchain.cache.SemanticAnswerCache.Answer
+    SemanticAnswerCache.Answer answer(final EmbeddingModel embeddingModel,
+                                      final EmbeddingStore<TextSegment> embeddingStore,
+                                      final ScoringModel scoringModel,
+                                      final StreamingChatModel model,
+                                      final String queryText,
+                                      final Consumer<String> partialConsumer) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(embeddingModel, embeddingStore, scoringModel, model, queryText, partialConsumer));
+        }
+
+        final SemanticAnswerCache.Answer answer = this.getSemanticAnswerCache("rag", embeddingModel)
+                .map(answerCache -> answerCache.get(queryText, question -> this.generate(embeddingModel, embeddingStore, scoringModel, model, question, partialConsumer)))
+                .orElseGet(() -> this.generate(embeddingModel, embeddingStore, scoringModel, model, queryText, partialConsumer));
+
+        if (answer.cached()) {
+            partialConsumer.accept(answer.text());
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(answer));
+        }
+
+        return answer;
+    }
+
+    /// Generate the answer to a question, streaming
+    /// the partial responses to the consumer.
+    ///
+    /// @param  embeddingModel      dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  embeddingStore      dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+    /// @param  scoringModel        dev.langchain4j.model.scoring.ScoringModel
+    /// @param  model               dev.langchain4j.model.chat.StreamingChatModel
+    /// @param  queryText           java.lang.String
+    /// @param  partialConsumer     java.util.function.Consumer<java.lang.String>
+    /// @return                     net.jmp.pinecone.langchain.cache.SemanticAnswerCache.Answer
+    private SemanticAnswerCache.Answer generate(final EmbeddingModel embeddingModel,
+                                                final EmbeddingStore<TextSegment> embeddingStore,
+                                                final ScoringModel scoringModel,
+                                                final StreamingChatModel model,
+                                                final String queryText,
+                                                final Consumer<String> partialConsumer) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(embeddingModel, embeddingStore, scoringModel, model, queryText, partialConsumer));
+        }
+
         final ContentRetriever contentRetriever = EmbeddingStoreContentRetriever.builder()
                 .embeddingStore(embeddingStore)
                 .embeddingModel(embeddingModel)
                 .maxResults(10)
                 .build();
 
-        final ScoringModel scoringModel = CohereScoringModel.builder()
-                .apiKey(this.getApiKey(cohereApiKey).orElseThrow(() -> new IllegalStateException("Unable to get Cohere API key")))
-                .modelName("rerank-english-v3.0")
-                .build();
+        final ContentAggregator contentAggregator = this.getContentAggregator(scoringModel, embeddingModel);
 
-        final ContentAggregator contentAggregator = ReRankingContentAggregator.builder()
-                .scoringModel(scoringModel)
-                .build();
+        /* Memoize the augmentation so the assistant reuses the one logged below */
 
-        final RetrievalAugmentor retrievalAugmentor = DefaultRetrievalAugmentor.builder()
+        final RetrievalAugmentor retrievalAugmentor = new MemoizingRetrievalAugmentor(DefaultRetrievalAugmentor.builder()
                 .contentRetriever(contentRetriever)
                 .contentAggregator(contentAggregator)
-                .build();
+                .build());
 
         final UserMessage userMessage = new UserMessage(queryText);
         final AugmentationRequest augmentationRequest = new AugmentationRequest(userMessage, Metadata.from(userMessage, null, null));
@@ -152,34 +238,21 @@ final class Rag extends Operation {
 
         final ChatMemory chatMemory = MessageWindowChatMemory.withMaxMessages(10);
 
-        final StreamingChatModel model = OpenAiStreamingChatModel.builder()
-                .apiKey(this.getApiKey(openaiApiKey).orElseThrow(() -> new IllegalStateException("Unable to get OpenAI API key")))
-                .modelName(GPT_4_1)
-                .temperature(0.4)
-                .logRequests(true)
-                .build();
-
         final Assistant assistant = AiServices.builder(Assistant.class)
                 .streamingChatModel(model)
                 .chatMemory(chatMemory)
                 .retrievalAugmentor(retrievalAugmentor)
                 .build();
 
-        final CompletableFuture<Void> completionFuture = new CompletableFuture<>();
+        final CompletableFuture<String> completionFuture = new CompletableFuture<>();
+        final List<String> sources = new ArrayList<>();
         final TokenStream tokenStream = assistant.chat(queryText);
-        final StringBuilder sb = new StringBuilder();
-        
-        tokenStream.onPartialResponse(token -> {
-                    sb.append(token);
-
-                    if (token.endsWith("\n")) {
-                        System.out.println(sb);
-                        sb.setLength(0);
-                    }
-                })
+
+        tokenStream.onPartialResponse(partialConsumer)
+                .onRetrieved(contents -> contents.forEach(content -> sources.add(content.textSegment().text())))
                 .onCompleteResponse(response -> {
                     logger.info("Streaming completed");
-                    completionFuture.complete(null);
+                    completionFuture.complete(response.aiMessage().text());
                 })
                 .onError(error -> {
                     logger.error(error.getMessage());
@@ -187,17 +260,16 @@ final class Rag extends Operation {
                 })
                 .start();
 
-        try {
-            completionFuture.join(); // Wait for the stream to complete or fail
-
-            this.logger.info("Completed waiting for token streaming to complete");
-        } catch (final Exception e) {
-            this.logger.error("Token streaming failed", e);
-        }
+        final SemanticAnswerCache.Answer answer = new SemanticAnswerCache.Answer(
+                completionFuture.join(),    // Wait for the stream to complete or fail
+                sources
+        );
 
         if (this.logger.isTraceEnabled()) {
-            this.logger.trace(exit());
+            this.logger.trace(exitWith(answer));
         }
+
+        return answer;
     }
 
     /// The assistant interface.
@@ -0,0 +1,310 @@
+package net.jmp.pinecone.langchain;
+
+/*
+ * (#)Reindex.java 0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.data.embedding.Embedding;
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import java.time.format.DateTimeFormatter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.jmp.pinecone.langchain.store.EmbeddingCatalog;
+import net.jmp.pinecone.langchain.store.HybridStore;
+import net.jmp.pinecone.langchain.store.NamespaceAlias;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// The reindex class. It rebuilds the index without downtime by loading
+/// into a fresh shadow namespace, validating it, switching the namespace
+/// alias to it and deleting the old namespace once requests have drained.
+/// The hybrid store is not aliased, so once the alias moves it is loaded in
+/// place, with new BM25 statistics, and loses the vectors of the old namespace
+/// that the new one does not hold. The local keyword index is rewritten then
+/// too. When validation fails the shadow namespace is deleted and nothing else
+/// changes: the alias, the hybrid store, the BM25 statistics and the keyword
+/// index all still describe the old namespace.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+final class Reindex extends Operation {
+    /// The number of loaded segments used as sample queries.
+    private static final int SAMPLE_QUERIES = 5;
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The default constructor.
+    Reindex() {
+        super();
+    }
+
+    /// The operate method.
+    @Override
+    void operate() {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entry());
+        }
+
+        final String embeddingModelName = System.getProperty("app.embeddingModel");
+        final String indexName = System.getProperty("app.indexName");
+        final String mongoDbCollection = System.getProperty("app.mongoDbCollection");
+        final String mongoDbName = System.getProperty("app.mongoDbName");
+        final String mongoDbUri = System.getProperty("app.mongoDbUri");
+        final String namespace = System.getProperty("app.namespace");
+        final String pineconeApiKey = System.getProperty("app.pineconeApiKey");
+        final Duration drainTime = Duration.ofSeconds(Long.getLong("app.drainSeconds", 30L));
+        final Duration validationTime = Duration.ofSeconds(Long.getLong("app.validationSeconds", 120L));
+
+        final NamespaceAlias namespaceAlias = this.getNamespaceAlias();
+        final String shadow = namespace + "-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+
+        this.logger.info("Reindexing Pinecone Index: {}", indexName);
+        this.logger.info("Alias {} points at {}; loading {}", namespace, namespaceAlias.resolve(namespace), shadow);
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Embedding Model   : {}", embeddingModelName);
+            this.logger.debug("Index Name        : {}", indexName);
+            this.logger.debug("MongoDB Collection: {}", mongoDbCollection);
+            this.logger.debug("MongoDB Name      : {}", mongoDbName);
+            this.logger.debug("MongoDB URI       : {}", mongoDbUri);
+            this.logger.debug("Namespace         : {}", namespace);
+            this.logger.debug("Pinecone Api Key  : {}", pineconeApiKey);
+        }
+
+        final String apiKey = this.getApiKey(pineconeApiKey).orElseThrow(() -> new IllegalStateException("Pinecone API key not found"));
+        final EmbeddingModel embeddingModel = this.getEmbeddingModel(embeddingModelName);
+        final EmbeddingStore<TextSegment> shadowStore = this.getNamespaceEmbeddingStore(apiKey, embeddingModel, indexName, shadow);
+
+        final Load load = new Load();
+        final Map<String, TextSegment> loaded = load.load(shadowStore, embeddingModel, mongoDbUri, mongoDbName, mongoDbCollection);
+
+        this.logger.info("Loaded {} embeddings into {}", loaded.size(), shadow);
+
+        if (!this.validate(apiKey, indexName, shadow, shadowStore, embeddingModel, loaded, validationTime)) {
+            this.logger.error("Namespace {} failed validation; the alias is unchanged", shadow);
+
+            shadowStore.removeAll();
+        } else {
+            final String previous = namespaceAlias.swap(namespace, shadow);
+
+            this.bumpIndexEpoch(indexName, namespace);
+            this.writeKeywordIndex(loaded);
+
+            final Optional<HybridStore> hybridStore = this.getHybridStore(embeddingModel);
+
+            hybridStore.ifPresent(store -> load.loadHybrid(store, embeddingModel, loaded));
+
+            this.drain(namespaceAlias, previous, drainTime);
+
+            hybridStore.ifPresent(store -> store.removeAll(this.stale(apiKey, indexName, previous, loaded)));
+
+            this.getNamespaceEmbeddingStore(apiKey, embeddingModel, indexName, previous).removeAll();
+
+            this.logger.info("Deleted namespace {}", previous);
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Validate the shadow namespace: it must hold every loaded vector and
+    /// a sample of loaded segments must each find themselves as the best
+    /// match. Pinecone is eventually consistent, so this retries until the
+    /// timeout.
+    ///
+    /// @param  apiKey          java.lang.String
+    /// @param  indexName       java.lang.String
+    /// @param  shadow          java.lang.String
+    /// @param  shadowStore     dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+    /// @param  embeddingModel  dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  loaded          java.util.Map<java.lang.String, dev.langchain4j.data.segment.TextSegment>
+    /// @param  timeout         java.time.Duration
+    /// @return                 boolean
+    private boolean validate(final String apiKey,
+                             final String indexName,
+                             final String shadow,
+                             final EmbeddingStore<TextSegment> shadowStore,
+                             final EmbeddingModel embeddingModel,
+                             final Map<String, TextSegment> loaded,
+                             final Duration timeout) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(apiKey, indexName, shadow, shadowStore, embeddingModel, loaded, timeout));
+        }
+
+        final List<String> ids = new ArrayList<>(loaded.keySet());
+        final List<String> sampleIds = new ArrayList<>();
+
+        for (int i = 0; i < Math.min(SAMPLE_QUERIES, ids.size()); i++) {
+            sampleIds.add(ids.get(i * ids.size() / Math.min(SAMPLE_QUERIES, ids.size())));
+        }
+
+        final List<Embedding> sampleEmbeddings = embeddingModel.embedAll(
+                sampleIds.stream().map(loaded::get).toList()
+        ).content();
+
+        final long deadline = System.nanoTime() + timeout.toNanos();
+
+        boolean valid = false;
+
+        while (!valid && System.nanoTime() < deadline) {
+            final int count = this.count(apiKey, indexName, shadow);
+
+            int found = 0;
+
+            for (int i = 0; i < sampleIds.size(); i++) {
+                final List<EmbeddingMatch<TextSegment>> matches = shadowStore.search(EmbeddingSearchRequest.builder()
+                        .queryEmbedding(sampleEmbeddings.get(i))
+                        .maxResults(1)
+                        .build()).matches();
+
+                if (!matches.isEmpty() && sampleIds.get(i).equals(matches.getFirst().embeddingId())) {
+                    found++;
+                }
+            }
+
+            this.logger.info("Validation: {} of {} vectors, {} of {} sample queries", count, loaded.size(), found, sampleIds.size());
+
+            valid = !loaded.isEmpty() && count == loaded.size() && found == sampleIds.size();
+
+            if (!valid) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (final InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+
+                    break;
+                }
+            }
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(valid));
+        }
+
+        return valid;
+    }
+
+    /// Count the vectors in a namespace across its shards.
+    ///
+    /// @param  apiKey      java.lang.String
+    /// @param  indexName   java.lang.String
+    /// @param  namespace   java.lang.String
+    /// @return             int
+    private int count(final String apiKey, final String indexName, final String namespace) {
+        final AtomicInteger count = new AtomicInteger();
+
+        for (final EmbeddingCatalog catalog : this.getNamespaceEmbeddingCatalogs(apiKey, indexName, namespace)) {
+            try (catalog) {
+                catalog.listIds(page -> count.addAndGet(page.size()));
+            }
+        }
+
+        return count.get();
+    }
+
+    /// Return the IDs of a namespace that were not loaded. The
+    /// namespace is listed as it is; it is not resolved as an alias.
+    ///
+    /// @param  apiKey      java.lang.String
+    /// @param  indexName   java.lang.String
+    /// @param  namespace   java.lang.String
+    /// @param  loaded      java.util.Map<java.lang.String, dev.langchain4j.data.segment.TextSegment>
+    /// @return             java.util.List<java.lang.String>
+    private List<String> stale(final String apiKey,
+                               final String indexName,
+                               final String namespace,
+                               final Map<String, TextSegment> loaded) {
+        final List<String> stale = new ArrayList<>();
+
+        for (final EmbeddingCatalog catalog : this.getNamespaceEmbeddingCatalogs(apiKey, indexName, namespace)) {
+            try (catalog) {
+                catalog.listIds(page -> page.stream().filter(id -> !loaded.containsKey(id)).forEach(stale::add));
+            }
+        }
+
+        return stale;
+    }
+
+    /// Wait for requests against the previous namespace to drain. Requests in
+    /// this process are tracked by their leases; requests in other processes
+    /// see the swap within a second, so they are given the drain time.
+    ///
+    /// @param  namespaceAlias  net.jmp.pinecone.langchain.store.NamespaceAlias
+    /// @param  previous        java.lang.String
+    /// @param  drainTime       java.time.Duration
+    private void drain(final NamespaceAlias namespaceAlias, final String previous, final Duration drainTime) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(namespaceAlias, previous, drainTime));
+        }
+
+        this.logger.info("Draining namespace {} for {}", previous, drainTime);
+
+        try {
+            final long start = System.nanoTime();
+
+            if (!namespaceAlias.awaitDrained(previous, drainTime)) {
+                this.logger.warn("Requests against {} are still in flight", previous);
+            }
+
+            final long remaining = drainTime.toMillis() - Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+            if (remaining > 0) {
+                Thread.sleep(remaining);
+            }
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException("Interrupted while draining namespace " + previous, ie);
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package net.jmp.pinecone.langchain;
+
+/*
+ * (#)RerankBenchmark.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.langchain4j.data.embedding.Embedding;
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+
+import dev.langchain4j.model.scoring.ScoringModel;
+
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import java.util.stream.IntStream;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// The rerank benchmark class. For each query of the query file it
+/// retrieves the candidates from the store and reranks them with both
+/// the remote Cohere scoring model and the configured scoring model,
+/// then reports the latency of each and how often their top results agree.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+final class RerankBenchmark extends Operation {
+    /// The number of top results compared.
+    private static final int TOP_K = 5;
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The object mapper.
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /// The default constructor.
+    RerankBenchmark() {
+        super();
+    }
+
+    /// The operate method.
+    @Override
+    void operate() {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entry());
+        }
+
+        final String cohereApiKey = System.getProperty("app.cohereApiKey");
+        final String embeddingModelName = System.getProperty("app.embeddingModel");
+        final String indexName = System.getProperty("app.indexName");
+        final String namespace = System.getProperty("app.namespace");
+        final String pineconeApiKey = System.getProperty("app.pineconeApiKey");
+        final String queryFile = System.getProperty("app.queryFile");
+        final String rerankingModel = System.getProperty("app.rerankingModel", COHERE_RERANKING_MODEL);
+        final int maxResults = Integer.getInteger("app.maxResults", 25);
+
+        this.logger.info("Benchmarking {} against {}", rerankingModel, COHERE_RERANKING_MODEL);
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Cohere Api Key  : {}", cohereApiKey);
+            this.logger.debug("Embedding Model : {}", embeddingModelName);
+            this.logger.debug("Index Name      : {}", indexName);
+            this.logger.debug("Namespace       : {}", namespace);
+            this.logger.debug("Pinecone Api Key: {}", pineconeApiKey);
+            this.logger.debug("Query File      : {}", queryFile);
+            this.logger.debug("Reranking Model : {}", rerankingModel);
+            this.logger.debug("Max Results     : {}", maxResults);
+        }
+
+        final EmbeddingModel embeddingModel = this.getEmbeddingModel(embeddingModelName);
+
+        final EmbeddingStore<TextSegment> embeddingStore = this.getEmbeddingStore(
+                this.getApiKey(pineconeApiKey).orElseThrow(() -> new IllegalStateException("Pinecone API key not found")),
+                embeddingModel,
+                indexName,
+                namespace
+        );
+
+        final ScoringModel remoteModel = this.getCohereScoringModel(cohereApiKey, COHERE_RERANKING_MODEL);
+        final ScoringModel scoringModel = this.getScoringModel(cohereApiKey);
+        final LatencyRecorder remoteRecorder = new LatencyRecorder();
+        final LatencyRecorder recorder = new LatencyRecorder();
+
+        int compared = 0;
+        int agreements = 0;
+
+        try {
+            for (final String line : Files.readAllLines(Paths.get(queryFile))) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                final JsonNode node = this.objectMapper.readTree(line);
+                final String query = node.get("query").asText();
+                final Embedding embedding = embeddingModel.embed(query).content();
+
+                final List<TextSegment> candidates = embeddingStore.search(EmbeddingSearchRequest.builder()
+                        .queryEmbedding(embedding)
+                        .maxResults(maxResults)
+                        .build()).matches().stream()
+                        .map(EmbeddingMatch::embedded)
+                        .toList();
+
+                if (candidates.isEmpty()) {
+                    continue;
+                }
+
+                final Set<Integer> remoteTop = this.top(remoteModel, candidates, query, remoteRecorder);
+                final Set<Integer> top = this.top(scoringModel, candidates, query, recorder);
+
+                top.retainAll(remoteTop);
+
+                compared += Math.min(TOP_K, candidates.size());
+                agreements += top.size();
+
+                if (this.logger.isDebugEnabled()) {
+                    this.logger.debug("Query {} top {} agreement: {}", query, TOP_K, top.size());
+                }
+            }
+        } catch (final IOException ioe) {
+            throw new UncheckedIOException("Unable to read the query file: " + queryFile, ioe);
+        }
+
+        this.logger.info("{}: {}", COHERE_RERANKING_MODEL, remoteRecorder.summary());
+        this.logger.info("{}: {}", rerankingModel, recorder.summary());
+        this.logger.info("Top {} agreement: {}", TOP_K, String.format("%.2f", compared > 0 ? agreements / (double) compared : 0.0));
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Rerank the candidates, recording the latency,
+    /// and return the indexes of the top candidates.
+    ///
+    /// @param  scoringModel    dev.langchain4j.model.scoring.ScoringModel
+    /// @param  candidates      java.util.List<dev.langchain4j.data.segment.TextSegment>
+    /// @param  query           java.lang.String
+    /// @param  recorder        net.jmp.pinecone.langchain.LatencyRecorder
+    /// @return                 java.util.Set<java.lang.Integer>
+    private Set<Integer> top(final ScoringModel scoringModel,
+                             final List<TextSegment> candidates,
+                             final String query,
+                             final LatencyRecorder recorder) {
+        final long start = System.nanoTime();
+        final List<Double> scores = scoringModel.scoreAll(candidates, query).content();
+
+        recorder.record(System.nanoTime() - start);
+
+        return new HashSet<>(IntStream.range(0, scores.size())
+                .boxed()
+                .sorted(Comparator.comparing(scores::get, Comparator.reverseOrder()))
+                .limit(TOP_K)
+                .toList());
+    }
+}
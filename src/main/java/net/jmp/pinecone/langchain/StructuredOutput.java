@@ -48,6 +48,8 @@ import dev.langchain4j.model.openai.OpenAiChatModel;
 
 import static dev.langchain4j.model.openai.OpenAiChatModelName.GPT_4_1;
 
+import net.jmp.pinecone.langchain.cache.CachingChatModel;
+
 import net.jmp.pinecone.langchain.examples.rag.Utils;
 
 import static net.jmp.util.logging.LoggerUtils.*;
@@ -108,12 +110,12 @@ final class StructuredOutput extends Operation {
                 .messages(userMessage)
                 .build();
 
-        final ChatModel chatModel = OpenAiChatModel.builder()
-                .apiKey(Utils.getApiKey(openaiApiKey))
-                .modelName(GPT_4_1)
-                .logRequests(true)
-                .logResponses(true)
-                .build();
+        final ChatModel chatModel = CachingChatModel.wrap(OpenAiChatModel.builder()
+                    .apiKey(Utils.getApiKey(openaiApiKey))
+                    .modelName(GPT_4_1)
+                    .logRequests(true)
+                    .logResponses(true)
+                    .build());
 
         final ChatResponse chatResponse = chatModel.chat(chatRequest);
         final String output = chatResponse.aiMessage().text();
@@ -0,0 +1,139 @@
+package net.jmp.pinecone.langchain.cache;
+
+/*
+ * (#)CachingChatModel.java 0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.model.ModelProvider;
+
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatModel;
+
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A chat model that answers byte-identical chat requests from a
+/// chat response log and sends the others to the model it decorates,
+/// logging their responses. The request is hashed after the default
+/// parameters of the decorated model are applied, so the hash covers
+/// the model name and temperature as well as the messages.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class CachingChatModel implements ChatModel {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The chat model being decorated.
+    private final ChatModel delegate;
+
+    /// The chat response log.
+    private final ChatResponseLog chatResponseLog;
+
+    /// The constructor.
+    ///
+    /// @param  delegate        dev.langchain4j.model.chat.ChatModel
+    /// @param  chatResponseLog net.jmp.pinecone.langchain.cache.ChatResponseLog
+    public CachingChatModel(final ChatModel delegate, final ChatResponseLog chatResponseLog) {
+        super();
+
+        this.delegate = delegate;
+        this.chatResponseLog = chatResponseLog;
+    }
+
+    /// Decorate a chat model with the chat response log named by
+    /// the app.chatCacheFile system property, if it is set.
+    ///
+    /// @param  chatModel   dev.langchain4j.model.chat.ChatModel
+    /// @return             dev.langchain4j.model.chat.ChatModel
+    public static ChatModel wrap(final ChatModel chatModel) {
+        return ChatResponseLog.configured()
+                .<ChatModel>map(chatResponseLog -> new CachingChatModel(chatModel, chatResponseLog))
+                .orElse(chatModel);
+    }
+
+    /// Answer a chat request from the log or the model.
+    ///
+    /// @param  chatRequest dev.langchain4j.model.chat.request.ChatRequest
+    /// @return             dev.langchain4j.model.chat.response.ChatResponse
+    @Override
+    public ChatResponse doChat(final ChatRequest chatRequest) {
+        final String key = ChatResponseLog.key(chatRequest);
+        final Optional<ChatResponseLog.CachedResponse> cachedResponse = this.chatResponseLog.get(key);
+
+        if (cachedResponse.isPresent()) {
+            if (this.logger.isDebugEnabled()) {
+                this.logger.debug("Answering chat request {} from the cache", key);
+            }
+
+            return cachedResponse.get().response();
+        }
+
+        final ChatResponse chatResponse = this.delegate.chat(chatRequest);
+
+        try {
+            this.chatResponseLog.append(key, chatResponse, List.of());
+        } catch (final RuntimeException re) {
+            this.logger.error("Unable to cache chat response {}", key, re);
+        }
+
+        return chatResponse;
+    }
+
+    /// Return the default request parameters of the decorated model.
+    ///
+    /// @return dev.langchain4j.model.chat.request.ChatRequestParameters
+    @Override
+    public ChatRequestParameters defaultRequestParameters() {
+        return this.delegate.defaultRequestParameters();
+    }
+
+    /// Return the provider of the decorated model.
+    ///
+    /// @return dev.langchain4j.model.ModelProvider
+    @Override
+    public ModelProvider provider() {
+        return this.delegate.provider();
+    }
+
+    /// Return the capabilities of the decorated model.
+    ///
+    /// @return java.util.Set<dev.langchain4j.model.chat.Capability>
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return this.delegate.supportedCapabilities();
+    }
+}
@@ -0,0 +1,213 @@
+package net.jmp.pinecone.langchain.cache;
+
+/*
+ * (#)CachingStreamingChatModel.java 0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.model.ModelProvider;
+
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.StreamingChatModel;
+
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A streaming chat model that answers byte-identical chat requests
+/// from a chat response log, replaying the logged partial responses
+/// to the handler, and sends the others to the model it decorates,
+/// logging their partial and complete responses.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class CachingStreamingChatModel implements StreamingChatModel {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The streaming chat model being decorated.
+    private final StreamingChatModel delegate;
+
+    /// The chat response log.
+    private final ChatResponseLog chatResponseLog;
+
+    /// The constructor.
+    ///
+    /// @param  delegate        dev.langchain4j.model.chat.StreamingChatModel
+    /// @param  chatResponseLog net.jmp.pinecone.langchain.cache.ChatResponseLog
+    public CachingStreamingChatModel(final StreamingChatModel delegate, final ChatResponseLog chatResponseLog) {
+        super();
+
+        this.delegate = delegate;
+        this.chatResponseLog = chatResponseLog;
+    }
+
+    /// Decorate a streaming chat model with the chat response log
+    /// named by the app.chatCacheFile system property, if it is set.
+    ///
+    /// @param  streamingChatModel  dev.langchain4j.model.chat.StreamingChatModel
+    /// @return                     dev.langchain4j.model.chat.StreamingChatModel
+    public static StreamingChatModel wrap(final StreamingChatModel streamingChatModel) {
+        return ChatResponseLog.configured()
+                .<StreamingChatModel>map(chatResponseLog -> new CachingStreamingChatModel(streamingChatModel, chatResponseLog))
+                .orElse(streamingChatModel);
+    }
+
+    /// Answer a chat request from the log or the model.
+    ///
+    /// @param  chatRequest dev.langchain4j.model.chat.request.ChatRequest
+    /// @param  handler     dev.langchain4j.model.chat.response.StreamingChatResponseHandler
+    @Override
+    public void doChat(final ChatRequest chatRequest, final StreamingChatResponseHandler handler) {
+        final String key = ChatResponseLog.key(chatRequest);
+        final Optional<ChatResponseLog.CachedResponse> cachedResponse = this.chatResponseLog.get(key);
+
+        if (cachedResponse.isPresent()) {
+            if (this.logger.isDebugEnabled()) {
+                this.logger.debug("Replaying chat request {} from the cache", key);
+            }
+
+            this.replay(cachedResponse.get(), handler);
+        } else {
+            this.delegate.chat(chatRequest, new RecordingHandler(key, handler));
+        }
+    }
+
+    /// Return the default request parameters of the decorated model.
+    ///
+    /// @return dev.langchain4j.model.chat.request.ChatRequestParameters
+    @Override
+    public ChatRequestParameters defaultRequestParameters() {
+        return this.delegate.defaultRequestParameters();
+    }
+
+    /// Return the provider of the decorated model.
+    ///
+    /// @return dev.langchain4j.model.ModelProvider
+    @Override
+    public ModelProvider provider() {
+        return this.delegate.provider();
+    }
+
+    /// Return the capabilities of the decorated model.
+    ///
+    /// @return java.util.Set<dev.langchain4j.model.chat.Capability>
+    @Override
+    public Set<Capability> supportedCapabilities() {
+        return this.delegate.supportedCapabilities();
+    }
+
+    /// Replay a logged response to a handler. A response that was
+    /// not streamed is replayed as a single partial response.
+    ///
+    /// @param  cachedResponse  net.jmp.pinecone.langchain.cache.ChatResponseLog.CachedResponse
+    /// @param  handler         dev.langchain4j.model.chat.response.StreamingChatResponseHandler
+    private void replay(final ChatResponseLog.CachedResponse cachedResponse, final StreamingChatResponseHandler handler) {
+        final String text = cachedResponse.response().aiMessage().text();
+
+        try {
+            if (!cachedResponse.partials().isEmpty()) {
+                cachedResponse.partials().forEach(handler::onPartialResponse);
+            } else if (text != null) {
+                handler.onPartialResponse(text);
+            }
+
+            handler.onCompleteResponse(cachedResponse.response());
+        } catch (final RuntimeException re) {
+            handler.onError(re);
+        }
+    }
+
+    /// A handler that records the partial responses and
+    /// logs the complete response before passing each on.
+    private final class RecordingHandler implements StreamingChatResponseHandler {
+        /// The request hash.
+        private final String key;
+
+        /// The handler being decorated.
+        private final StreamingChatResponseHandler handler;
+
+        /// The partial responses.
+        private final List<String> partials = new ArrayList<>();
+
+        /// The constructor.
+        ///
+        /// @param  key     java.lang.String
+        /// @param  handler dev.langchain4j.model.chat.response.StreamingChatResponseHandler
+        private RecordingHandler(final String key, final StreamingChatResponseHandler handler) {
+            super();
+
+            this.key = key;
+            this.handler = handler;
+        }
+
+        /// Record and pass on a partial response.
+        ///
+        /// @param  partialResponse java.lang.String
+        @Override
+        public void onPartialResponse(final String partialResponse) {
+            synchronized (this.partials) {
+                this.partials.add(partialResponse);
+            }
+
+            this.handler.onPartialResponse(partialResponse);
+        }
+
+        /// Log and pass on the complete response.
+        ///
+        /// @param  completeResponse    dev.langchain4j.model.chat.response.ChatResponse
+        @Override
+        public void onCompleteResponse(final ChatResponse completeResponse) {
+            try {
+                synchronized (this.partials) {
+                    CachingStreamingChatModel.this.chatResponseLog.append(this.key, completeResponse, this.partials);
+                }
+            } catch (final RuntimeException re) {
+                CachingStreamingChatModel.this.logger.error("Unable to cache chat response {}", this.key, re);
+            }
+
+            this.handler.onCompleteResponse(completeResponse);
+        }
+
+        /// Pass on an error. Nothing is logged.
+        ///
+        /// @param  error   java.lang.Throwable
+        @Override
+        public void onError(final Throwable error) {
+            this.handler.onError(error);
+        }
+    }
+}
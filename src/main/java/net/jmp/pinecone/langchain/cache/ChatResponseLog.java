@@ -0,0 +1,340 @@
+package net.jmp.pinecone.langchain.cache;
+
+/*
+ * (#)ChatResponseLog.java 0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessageDeserializer;
+import dev.langchain4j.data.message.ChatMessageSerializer;
+
+import dev.langchain4j.model.chat.request.ChatRequest;
+
+import dev.langchain4j.model.chat.response.ChatResponse;
+
+import dev.langchain4j.model.output.FinishReason;
+import dev.langchain4j.model.output.TokenUsage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.nio.ByteBuffer;
+
+import java.nio.channels.SeekableByteChannel;
+
+import java.nio.charset.StandardCharsets;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// An append-only log of chat responses on disk with an index of them
+/// in memory. Each line of the file is a JSON object holding the hash of
+/// the chat request, the response and, for streamed responses, the partial
+/// responses in the order they arrived. The file is read once when the log
+/// is opened; later lines for the same request replace earlier ones, and
+/// a line that cannot be read, such as one cut short by a crash, is skipped.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class ChatResponseLog {
+    /// The logs by file so that a process shares one index.
+    private static final Map<Path, ChatResponseLog> LOGS = new ConcurrentHashMap<>();
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The object mapper.
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /// The log file.
+    private final Path file;
+
+    /// The responses by request hash.
+    private final Map<String, CachedResponse> responses = new ConcurrentHashMap<>();
+
+    /// The number of hits.
+    private final AtomicLong hits = new AtomicLong();
+
+    /// The number of misses.
+    private final AtomicLong misses = new AtomicLong();
+
+    /// True if the last line of the file was cut short. Guarded by this.
+    private boolean truncated;
+
+    /// The constructor.
+    ///
+    /// @param  file    java.nio.file.Path
+    private ChatResponseLog(final Path file) {
+        super();
+
+        this.file = file;
+
+        this.load();
+    }
+
+    /// Return the log kept in a file.
+    ///
+    /// @param  file    java.nio.file.Path
+    /// @return         net.jmp.pinecone.langchain.cache.ChatResponseLog
+    public static ChatResponseLog of(final Path file) {
+        return LOGS.computeIfAbsent(file.toAbsolutePath().normalize(), ChatResponseLog::new);
+    }
+
+    /// Return the log named by the app.chatCacheFile
+    /// system property, or empty if it is not set.
+    ///
+    /// @return java.util.Optional<net.jmp.pinecone.langchain.cache.ChatResponseLog>
+    public static Optional<ChatResponseLog> configured() {
+        final String fileName = System.getProperty("app.chatCacheFile", "");
+
+        return fileName.isBlank() ? Optional.empty() : Optional.of(of(Paths.get(fileName)));
+    }
+
+    /// Return the hash of a chat request. It covers the messages and all
+    /// the parameters, including the model name, the temperature, the
+    /// response format and the tool specifications.
+    ///
+    /// @param  chatRequest dev.langchain4j.model.chat.request.ChatRequest
+    /// @return             java.lang.String
+    public static String key(final ChatRequest chatRequest) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            digest.update(ChatMessageSerializer.messagesToJson(chatRequest.messages()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(chatRequest.parameters()).getBytes(StandardCharsets.UTF_8));
+
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (final NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException("SHA-256 is not available", nsae);
+        }
+    }
+
+    /// Return the response logged for a request hash.
+    ///
+    /// @param  key java.lang.String
+    /// @return     java.util.Optional<net.jmp.pinecone.langchain.cache.ChatResponseLog.CachedResponse>
+    public Optional<CachedResponse> get(final String key) {
+        final CachedResponse cachedResponse = this.responses.get(key);
+
+        if (cachedResponse != null) {
+            this.hits.incrementAndGet();
+        } else {
+            this.misses.incrementAndGet();
+        }
+
+        return Optional.ofNullable(cachedResponse);
+    }
+
+    /// Append a response to the log.
+    ///
+    /// @param  key         java.lang.String
+    /// @param  response    dev.langchain4j.model.chat.response.ChatResponse
+    /// @param  partials    java.util.List<java.lang.String>    The partial responses, empty if not streamed
+    public void append(final String key, final ChatResponse response, final List<String> partials) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(key, response, partials));
+        }
+
+        final ObjectNode line = this.objectMapper.createObjectNode();
+        final TokenUsage tokenUsage = response.tokenUsage();
+
+        line.put("key", key);
+        line.put("message", ChatMessageSerializer.messageToJson(response.aiMessage()));
+        line.put("id", response.id());
+        line.put("modelName", response.modelName());
+        line.put("finishReason", response.finishReason() != null ? response.finishReason().name() : null);
+
+        if (tokenUsage != null) {
+            line.put("inputTokens", tokenUsage.inputTokenCount());
+            line.put("outputTokens", tokenUsage.outputTokenCount());
+        }
+
+        final ArrayNode partialNodes = line.putArray("partials");
+
+        partials.forEach(partialNodes::add);
+
+        try {
+            final String json = this.objectMapper.writeValueAsString(line) + System.lineSeparator();
+
+            synchronized (this) {
+                final Path directory = this.file.getParent();
+
+                if (directory != null) {
+                    Files.createDirectories(directory);
+                }
+
+                /* Start a new line rather than extend one that was cut short */
+
+                Files.writeString(this.file,
+                        this.truncated ? System.lineSeparator() + json : json,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND);
+
+                this.truncated = false;
+            }
+        } catch (final IOException ioe) {
+            throw new UncheckedIOException("Unable to append to chat cache file: " + this.file, ioe);
+        }
+
+        this.responses.put(key, new CachedResponse(response, partials));
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Return the number of hits.
+    ///
+    /// @return long
+    public long hits() {
+        return this.hits.get();
+    }
+
+    /// Return the number of misses.
+    ///
+    /// @return long
+    public long misses() {
+        return this.misses.get();
+    }
+
+    /// Read the file into the index.
+    private void load() {
+        if (!Files.exists(this.file)) {
+            return;
+        }
+
+        int lineNumber = 0;
+
+        try (final BufferedReader reader = Files.newBufferedReader(this.file)) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                if (!line.isBlank()) {
+                    try {
+                        this.read(line);
+                    } catch (final JsonProcessingException | RuntimeException e) {
+                        this.logger.warn("Skipping unreadable line {} of {}: {}", lineNumber, this.file, e.getMessage());
+                    }
+                }
+            }
+        } catch (final IOException ioe) {
+            throw new UncheckedIOException("Unable to read chat cache file: " + this.file, ioe);
+        }
+
+        try (final SeekableByteChannel channel = Files.newByteChannel(this.file)) {
+            final ByteBuffer lastByte = ByteBuffer.allocate(1);
+
+            if (channel.size() > 0) {
+                channel.position(channel.size() - 1).read(lastByte);
+
+                this.truncated = lastByte.get(0) != '\n';
+            }
+        } catch (final IOException ioe) {
+            throw new UncheckedIOException("Unable to read chat cache file: " + this.file, ioe);
+        }
+
+        this.logger.info("Loaded {} cached chat responses from {}", this.responses.size(), this.file);
+    }
+
+    /// Read a line of the file into the index.
+    ///
+    /// @param  line    java.lang.String
+    /// @throws         com.fasterxml.jackson.core.JsonProcessingException When the line is not valid JSON
+    private void read(final String line) throws JsonProcessingException {
+        final JsonNode node = this.objectMapper.readTree(line);
+        final ChatResponse.Builder builder = ChatResponse.builder()
+                .aiMessage((AiMessage) ChatMessageDeserializer.messageFromJson(node.get("message").asText()));
+
+        if (node.hasNonNull("id")) {
+            builder.id(node.get("id").asText());
+        }
+
+        if (node.hasNonNull("modelName")) {
+            builder.modelName(node.get("modelName").asText());
+        }
+
+        if (node.hasNonNull("finishReason")) {
+            builder.finishReason(FinishReason.valueOf(node.get("finishReason").asText()));
+        }
+
+        if (node.hasNonNull("inputTokens") || node.hasNonNull("outputTokens")) {
+            builder.tokenUsage(new TokenUsage(
+                    node.hasNonNull("inputTokens") ? node.get("inputTokens").asInt() : null,
+                    node.hasNonNull("outputTokens") ? node.get("outputTokens").asInt() : null
+            ));
+        }
+
+        final List<String> partials = new ArrayList<>();
+
+        node.path("partials").forEach(partial -> partials.add(partial.asText()));
+
+        this.responses.put(node.get("key").asText(), new CachedResponse(builder.build(), partials));
+    }
+
+    /// A logged response.
+    ///
+    /// @param  response    dev.langchain4j.model.chat.response.ChatResponse
+    /// @param  partials    java.util.List<java.lang.String>
+    public record CachedResponse(ChatResponse response, List<String> partials) {
+        /// The compact constructor.
+        public CachedResponse {
+            partials = List.copyOf(partials);
+        }
+    }
+}
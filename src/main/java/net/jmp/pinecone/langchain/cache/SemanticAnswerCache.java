@@ -0,0 +1,290 @@
+package net.jmp.pinecone.langchain.cache;
+
+/*
+ * (#)SemanticAnswerCache.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.data.embedding.Embedding;
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.RelevanceScore;
+
+import dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStore;
+
+import java.time.Duration;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A semantic cache of answers. A question is embedded and looked up
+/// in a local vector index of the questions already answered; when one
+/// is at least as similar as the cosine threshold its answer and sources
+/// are returned without retrieving or calling the language model. Entries
+/// expire after a time to live, the oldest are evicted beyond the maximum
+/// number and all are dropped when the index epoch changes.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class SemanticAnswerCache {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The embedding model.
+    private final EmbeddingModel embeddingModel;
+
+    /// The minimum relevance score of a hit.
+    private final double minScore;
+
+    /// The time to live of an entry in nanoseconds.
+    private final long ttlNanos;
+
+    /// The supplier of the index epoch.
+    private final LongSupplier epochSupplier;
+
+    /// The maximum number of entries.
+    private final int maxEntries;
+
+    /// The index of the questions. Guarded by this.
+    private final InMemoryEmbeddingStore<TextSegment> questions = new InMemoryEmbeddingStore<>();
+
+    /// The entries by question embedding ID in insertion order. Guarded by this.
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    /// The epoch of the entries. Guarded by this.
+    private long epoch;
+
+    /// The number of hits. Guarded by this.
+    private long hits;
+
+    /// The number of misses. Guarded by this.
+    private long misses;
+
+    /// The constructor.
+    ///
+    /// @param  embeddingModel  dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  threshold       double  The minimum cosine similarity of a hit
+    /// @param  ttl             java.time.Duration
+    /// @param  epochSupplier   java.util.function.LongSupplier
+    /// @param  maxEntries      int
+    public SemanticAnswerCache(final EmbeddingModel embeddingModel,
+                               final double threshold,
+                               final Duration ttl,
+                               final LongSupplier epochSupplier,
+                               final int maxEntries) {
+        super();
+
+        if (threshold <= -1.0 || threshold > 1.0) {
+            throw new IllegalArgumentException("The threshold must be a cosine similarity: " + threshold);
+        }
+
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The maximum entries must be positive: " + maxEntries);
+        }
+
+        this.embeddingModel = embeddingModel;
+        this.minScore = RelevanceScore.fromCosineSimilarity(threshold);
+        this.ttlNanos = ttl.toNanos();
+        this.epochSupplier = epochSupplier;
+        this.maxEntries = maxEntries;
+        this.epoch = epochSupplier.getAsLong();
+    }
+
+    /// Return the cached answer of a similar question,
+    /// or answer the question and cache the answer.
+    ///
+    /// @param  question    java.lang.String
+    /// @param  answerer    java.util.function.Function<java.lang.String, net.jmp.pinecone.langchain.cache.SemanticAnswerCache.Answer>
+    /// @return             net.jmp.pinecone.langchain.cache.SemanticAnswerCache.Answer
+    public Answer get(final String question, final Function<String, Answer> answerer) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(question, answerer));
+        }
+
+        final long currentEpoch = this.epochSupplier.getAsLong();
+        final Embedding embedding = this.embeddingModel.embed(question).content();
+
+        synchronized (this) {
+            if (currentEpoch != this.epoch) {
+                this.logger.info("Index epoch changed from {} to {}; dropping {} cached answers", this.epoch, currentEpoch, this.entries.size());
+
+                this.clear(currentEpoch);
+            }
+
+            final List<EmbeddingMatch<TextSegment>> matches = this.questions.search(EmbeddingSearchRequest.builder()
+                    .queryEmbedding(embedding)
+                    .maxResults(1)
+                    .minScore(this.minScore)
+                    .build()).matches();
+
+            if (!matches.isEmpty()) {
+                final EmbeddingMatch<TextSegment> match = matches.getFirst();
+                final Entry entry = this.entries.get(match.embeddingId());
+
+                if (entry != null && System.nanoTime() - entry.expiresAtNanos() < 0) {
+                    this.hits++;
+
+                    this.logger.info("Answering '{}' with the cached answer of '{}' (relevance {})", question, entry.question(), match.score());
+
+                    final Answer cached = new Answer(entry.answer().text(), entry.answer().sources(), true);
+
+                    if (this.logger.isTraceEnabled()) {
+                        this.logger.trace(exitWith(cached));
+                    }
+
+                    return cached;
+                }
+
+                this.remove(match.embeddingId());
+            }
+
+            this.misses++;
+        }
+
+        final Answer answer = answerer.apply(question);
+
+        if (answer.text() != null && !answer.text().isBlank()) {
+            synchronized (this) {
+                if (currentEpoch == this.epoch) {   // Unless the epoch changed while answering
+                    final String id = this.questions.add(embedding, TextSegment.from(question));
+
+                    this.entries.put(id, new Entry(question, answer, System.nanoTime() + this.ttlNanos));
+
+                    final Iterator<String> iterator = this.entries.keySet().iterator();
+
+                    while (this.entries.size() > this.maxEntries && iterator.hasNext()) {
+                        this.questions.remove(iterator.next());
+
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(answer));
+        }
+
+        return answer;
+    }
+
+    /// Drop all the cached answers.
+    public synchronized void invalidate() {
+        this.clear(this.epochSupplier.getAsLong());
+    }
+
+    /// Return the statistics of the cache.
+    ///
+    /// @return net.jmp.pinecone.langchain.cache.SemanticAnswerCache.Stats
+    public synchronized Stats stats() {
+        return new Stats(this.hits, this.misses, this.entries.size());
+    }
+
+    /// Drop all the entries and move to an epoch.
+    /// The caller must hold the lock.
+    ///
+    /// @param  newEpoch    long
+    private void clear(final long newEpoch) {
+        this.questions.removeAll();
+        this.entries.clear();
+        this.epoch = newEpoch;
+    }
+
+    /// Remove an entry. The caller must hold the lock.
+    ///
+    /// @param  id  java.lang.String
+    private void remove(final String id) {
+        this.questions.remove(id);
+        this.entries.remove(id);
+    }
+
+    /// An answer and the text of the sources it was based on.
+    ///
+    /// @param  text    java.lang.String
+    /// @param  sources java.util.List<java.lang.String>
+    /// @param  cached  boolean     True if the answer came from the cache
+    public record Answer(String text, List<String> sources, boolean cached) {
+        /// The compact constructor.
+        public Answer {
+            sources = List.copyOf(sources);
+        }
+
+        /// Create an answer that was not cached.
+        ///
+        /// @param  text    java.lang.String
+        /// @param  sources java.util.List<java.lang.String>
+        public Answer(final String text, final List<String> sources) {
+            this(text, sources, false);
+        }
+    }
+
+    /// The statistics of the cache.
+    ///
+    /// @param  hits    long
+    /// @param  misses  long
+    /// @param  entries int
+    public record Stats(long hits, long misses, int entries) {
+        /// Return the ratio of hits to questions.
+        ///
+        /// @return double
+        public double hitRatio() {
+            final long questions = this.hits + this.misses;
+
+            return questions == 0 ? 0.0 : (double) this.hits / questions;
+        }
+
+        /// Return the statistics as a string.
+        ///
+        /// @return java.lang.String
+        @Override
+        public String toString() {
+            return String.format("%d hits, %d misses, %.1f%% hit ratio, %d entries",
+                    this.hits, this.misses, 100.0 * this.hitRatio(), this.entries);
+        }
+    }
+
+    /// A cached answer.
+    ///
+    /// @param  question        java.lang.String
+    /// @param  answer          net.jmp.pinecone.langchain.cache.SemanticAnswerCache.Answer
+    /// @param  expiresAtNanos  long
+    private record Entry(String question, Answer answer, long expiresAtNanos) {
+    }
+}
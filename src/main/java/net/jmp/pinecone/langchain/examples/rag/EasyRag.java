@@ -51,6 +51,8 @@ import dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStore;
 
 import java.util.List;
 
+import net.jmp.pinecone.langchain.cache.CachingChatModel;
+
 import static net.jmp.pinecone.langchain.examples.rag.Utils.glob;
 import static net.jmp.pinecone.langchain.examples.rag.Utils.toPath;
 
@@ -119,13 +121,13 @@ public final class EasyRag implements Runnable, Rag {
 
         final ContentRetriever contentRetriever = EmbeddingStoreContentRetriever.from(embeddingStore);
 
-        // Create an OpenAI chat model
+        // Create an OpenAI chat model, answered from the chat cache when one is configured
 
-        final ChatModel chatModel = OpenAiChatModel.builder()
-                .apiKey(openaiApiKey)
-                .modelName(GPT_4_1)
-                .temperature(0.4)
-                .build();
+        final ChatModel chatModel = CachingChatModel.wrap(OpenAiChatModel.builder()
+                    .apiKey(openaiApiKey)
+                    .modelName(GPT_4_1)
+                    .temperature(0.4)
+                    .build());
 
         // Create an assistant that has access to our documents
 
@@ -28,13 +28,13 @@ package net.jmp.pinecone.langchain.examples.rag;
  * SOFTWARE.
  */
 
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
 import static dev.langchain4j.data.document.Metadata.metadata;
 
 import dev.langchain4j.data.segment.TextSegment;
 
-import dev.langchain4j.memory.chat.ChatMemoryProvider;
-import dev.langchain4j.memory.chat.MessageWindowChatMemory;
-
 import dev.langchain4j.model.chat.ChatModel;
 
 import dev.langchain4j.model.embedding.EmbeddingModel;
@@ -63,12 +63,24 @@ import dev.langchain4j.store.embedding.filter.builder.sql.TableDefinition;
 
 import dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStore;
 
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
 import dev.langchain4j.store.memory.chat.InMemoryChatMemoryStore;
 
+import java.nio.file.Paths;
+
+import java.time.Duration;
+
 import java.util.List;
 
 import java.util.function.Function;
 
+import net.jmp.pinecone.langchain.memory.BoundedChatMemoryProvider;
+import net.jmp.pinecone.langchain.memory.MongoChatMemoryStore;
+
+import net.jmp.pinecone.langchain.retrieval.FastPathSqlFilterBuilder;
+
+import net.jmp.pinecone.langchain.store.PartitionedEmbeddingStore;
+
 import static net.jmp.util.logging.LoggerUtils.*;
 
 import org.slf4j.Logger;
@@ -193,41 +205,81 @@ public final class MetadataFilteringRag implements Runnable, Rag {
         final TextSegment user1Info = TextSegment.from("My favorite color is green", metadata("userId", "1"));
         final TextSegment user2Info = TextSegment.from("My favorite color is red", metadata("userId", "2"));
 
-        final EmbeddingStore<TextSegment> embeddingStore = new InMemoryEmbeddingStore<>();
-
-        embeddingStore.add(embeddingModel.embed(user1Info).content(), user1Info);
-        embeddingStore.add(embeddingModel.embed(user2Info).content(), user2Info);
-
-        // Define a function that returns a filter based on the user ID
-
-        final Function<Query, Filter> filterByUserId =
-                (query) -> metadataKey("userId").isEqualTo(query.metadata().chatMemoryId().toString());
-
-        final ContentRetriever contentRetriever = EmbeddingStoreContentRetriever.builder()
-                .embeddingStore(embeddingStore)
-                .embeddingModel(embeddingModel)
-                .dynamicFilter(filterByUserId)   // Limit the search to segments only about the user
-                .build();
-
-        final ChatMemoryProvider chatMemoryProvider = memoryId -> MessageWindowChatMemory.builder()
-                .id(memoryId)
-                .maxMessages(5)
-                .chatMemoryStore(new InMemoryChatMemoryStore())
-                .build();
-
-        final PersonalizedAssistant assistant = AiServices.builder(PersonalizedAssistant.class)
-                .chatModel(chatModel)
-                .chatMemoryProvider(chatMemoryProvider)
-                .contentRetriever(contentRetriever)
-                .build();
-
-        final List<UserQuestion> userQuestions = List.of(
-                new UserQuestion("1", "Which color would be best for a dress?"),
-                new UserQuestion("2", "Which color would be best for a suit?"));
-
-        for (final UserQuestion userQuestion : userQuestions) {
-            this.logger.info("Question: {}", userQuestion.question());
-            this.logger.info("Answer  : {}", assistant.chat(userQuestion.userId(), userQuestion.question()));
+        // Keep the conversations in MongoDB when a collection is configured so that they outlive the run
+
+        final String chatMemoryCollection = System.getProperty("app.chatMemoryCollection");
+
+        try (final PartitionedEmbeddingStore embeddingStore = new PartitionedEmbeddingStore(
+                "userId",
+                PartitionedEmbeddingStore.local(Paths.get(System.getProperty("app.tenantDirectory", "build/tenants"))),
+                Integer.getInteger("app.maxResidentTenants", 1_000),
+                Long.getLong("app.maxTenantBytes", 16L * 1024 * 1024));
+             final MongoClient mongoClient = chatMemoryCollection != null
+                     ? MongoClients.create(Utils.getApiKey(System.getProperty("app.mongoDbUri")))
+                     : null;
+             final MongoChatMemoryStore mongoChatMemoryStore = mongoClient != null
+                     ? new MongoChatMemoryStore(
+                             mongoClient.getDatabase(System.getProperty("app.mongoDbName")).getCollection(chatMemoryCollection),
+                             Integer.getInteger("app.chatMemoryCacheEntries", 10_000),
+                             Duration.ofMillis(Long.getLong("app.chatMemoryFlushMillis", 1_000L)),
+                             Integer.getInteger("app.chatMemoryBatchSize", 500))
+                     : null) {
+            // The partitions outlive the run, so replace what is known about each user
+
+            embeddingStore.removeAll(metadataKey("userId").isEqualTo("1"));
+            embeddingStore.removeAll(metadataKey("userId").isEqualTo("2"));
+
+            embeddingStore.add(embeddingModel.embed(user1Info).content(), user1Info);
+            embeddingStore.add(embeddingModel.embed(user2Info).content(), user2Info);
+
+            // The filter on the user ID routes the search to the user's partition
+
+            final Function<Query, Filter> filterByUserId = PartitionedEmbeddingStore.byMemoryId("userId");
+
+            final ContentRetriever contentRetriever = EmbeddingStoreContentRetriever.builder()
+                    .embeddingStore(embeddingStore)
+                    .embeddingModel(embeddingModel)
+                    .dynamicFilter(filterByUserId)   // Limit the search to segments only about the user
+                    .build();
+
+            final ChatMemoryStore chatMemoryStore = mongoChatMemoryStore != null
+                    ? mongoChatMemoryStore
+                    : new InMemoryChatMemoryStore();
+
+            // Keep a bounded pool of conversations on the heap and the rest in the store
+
+            final BoundedChatMemoryProvider chatMemoryProvider = new BoundedChatMemoryProvider(
+                    chatMemoryStore,
+                    5,
+                    Integer.getInteger("app.maxResidentChatMemories", 10_000),
+                    Duration.ofSeconds(Long.getLong("app.chatMemoryIdleSeconds", 600L))
+            );
+
+            final PersonalizedAssistant assistant = AiServices.builder(PersonalizedAssistant.class)
+                    .chatModel(chatModel)
+                    .chatMemoryProvider(chatMemoryProvider)
+                    .contentRetriever(contentRetriever)
+                    .build();
+
+            chatMemoryProvider.onEviction(assistant::evictChatMemory);     // Drop the service's handle too
+
+            final List<UserQuestion> userQuestions = List.of(
+                    new UserQuestion("1", "Which color would be best for a dress?"),
+                    new UserQuestion("2", "Which color would be best for a suit?"));
+
+            for (final UserQuestion userQuestion : userQuestions) {
+                this.logger.info("Question: {}", userQuestion.question());
+                this.logger.info("Answer  : {}", assistant.chat(userQuestion.userId(), userQuestion.question()));
+            }
+
+            chatMemoryProvider.evictAll();
+
+            this.logger.info("Partitions: {}", embeddingStore.stats());
+            this.logger.info("Chat memory pool: {}", chatMemoryProvider.stats());
+
+            if (mongoChatMemoryStore != null) {
+                this.logger.info("Chat memory: {}", mongoChatMemoryStore.stats());
+            }
         }
 
         if (this.logger.isTraceEnabled()) {
@@ -256,7 +308,14 @@ public final class MetadataFilteringRag implements Runnable, Rag {
                 .addColumn("year", "INT")
                 .build();
 
+        // Parse the common patterns locally and ask the LLM only for the rest
+
         final LanguageModelSqlFilterBuilder sqlFilterBuilder = new LanguageModelSqlFilterBuilder(chatModel, tableDefinition);
+        final FastPathSqlFilterBuilder filterBuilder = new FastPathSqlFilterBuilder(
+                tableDefinition,
+                sqlFilterBuilder::build,
+                Integer.getInteger("app.filterCacheEntries", 1_000)
+        );
 
         final EmbeddingStore<TextSegment> embeddingStore = new InMemoryEmbeddingStore<>();
 
@@ -267,7 +326,7 @@ public final class MetadataFilteringRag implements Runnable, Rag {
         final ContentRetriever contentRetriever = EmbeddingStoreContentRetriever.builder()
                 .embeddingStore(embeddingStore)
                 .embeddingModel(embeddingModel)
-                .dynamicFilter(sqlFilterBuilder::build) // LLM will generate the filter dynamically
+                .dynamicFilter(filterBuilder::build)    // Rules or the LLM will generate the filter dynamically
                 .build();
 
         final Assistant assistant = AiServices.builder(Assistant.class)
@@ -280,6 +339,7 @@ public final class MetadataFilteringRag implements Runnable, Rag {
 
         this.logger.info("Question: {}", question);
         this.logger.info("Answer  : {}", answer);
+        this.logger.info("Filters : {}", filterBuilder.stats());
 
         if (this.logger.isTraceEnabled()) {
             this.logger.trace(exit());
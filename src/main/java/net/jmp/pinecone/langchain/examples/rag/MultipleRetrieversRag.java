@@ -60,9 +60,6 @@ import dev.langchain4j.rag.RetrievalAugmentor;
 import dev.langchain4j.rag.content.retriever.ContentRetriever;
 import dev.langchain4j.rag.content.retriever.EmbeddingStoreContentRetriever;
 
-import dev.langchain4j.rag.query.router.DefaultQueryRouter;
-import dev.langchain4j.rag.query.router.QueryRouter;
-
 import dev.langchain4j.service.AiServices;
 
 import dev.langchain4j.store.embedding.EmbeddingStore;
@@ -70,8 +67,13 @@ import dev.langchain4j.store.embedding.EmbeddingStore;
 import dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStore;
 
 import java.nio.file.Path;
+
+import java.time.Duration;
+
 import java.util.List;
 
+import net.jmp.pinecone.langchain.retrieval.ParallelQueryRouter;
+
 import static net.jmp.pinecone.langchain.examples.rag.Utils.toPath;
 
 import static net.jmp.util.logging.LoggerUtils.*;
@@ -151,39 +153,42 @@ public final class MultipleRetrieversRag implements Runnable, Rag {
                 .minScore(0.6)
                 .build();
 
-        // Create a query router that will route each query to both retrievers
+        // Create a query router that will query both retrievers in parallel,
+        // answering from those that finish by the deadline
 
-        final QueryRouter queryRouter = new DefaultQueryRouter(contentRetriever1, contentRetriever2);
+        final Duration deadline = Duration.ofMillis(Long.getLong("app.retrievalDeadlineMillis", 2_000L));
 
-        final RetrievalAugmentor retrievalAugmentor = DefaultRetrievalAugmentor.builder()
-                .queryRouter(queryRouter)
-                .build();
+        try (final ParallelQueryRouter queryRouter = new ParallelQueryRouter(deadline, this::logPartial, contentRetriever1, contentRetriever2)) {
+            final RetrievalAugmentor retrievalAugmentor = DefaultRetrievalAugmentor.builder()
+                    .queryRouter(queryRouter)
+                    .build();
 
-        // Create an OpenAI chat model
+            // Create an OpenAI chat model
 
-        final ChatModel chatModel = OpenAiChatModel.builder()
-                .apiKey(openaiApiKey)
-                .modelName(GPT_4_1)
-                .temperature(0.4)
-                .logRequests(true)
-                .build();
+            final ChatModel chatModel = OpenAiChatModel.builder()
+                    .apiKey(openaiApiKey)
+                    .modelName(GPT_4_1)
+                    .temperature(0.4)
+                    .logRequests(true)
+                    .build();
 
-        final Assistant assistant = AiServices.builder(Assistant.class)
-                .chatModel(chatModel)               // It should use OpenAI LLM
-                .chatMemory(MessageWindowChatMemory.withMaxMessages(10))
-                .retrievalAugmentor(retrievalAugmentor)
-                .build();
+            final Assistant assistant = AiServices.builder(Assistant.class)
+                    .chatModel(chatModel)               // It should use OpenAI LLM
+                    .chatMemory(MessageWindowChatMemory.withMaxMessages(10))
+                    .retrievalAugmentor(retrievalAugmentor)
+                    .build();
 
-        final List<String> questions = List.of(
-                "What did John Doe do in his spare time?",
-                "How do I book my reservation?"
-        );
+            final List<String> questions = List.of(
+                    "What did John Doe do in his spare time?",
+                    "How do I book my reservation?"
+            );
 
-        for (final String question : questions) {
-            final String answer = assistant.chat(question);
+            for (final String question : questions) {
+                final String answer = assistant.chat(question);
 
-            this.logger.info("Question: {}", question);
-            this.logger.info("Answer  : {}", answer);
+                this.logger.info("Question: {}", question);
+                this.logger.info("Answer  : {}", answer);
+            }
         }
 
         if (this.logger.isTraceEnabled()) {
@@ -191,6 +196,16 @@ public final class MultipleRetrieversRag implements Runnable, Rag {
         }
     }
 
+    /// Log the outcome of routing a query when a retriever did not contribute.
+    ///
+    /// @param  outcome net.jmp.pinecone.langchain.retrieval.ParallelQueryRouter.Outcome
+    private void logPartial(final ParallelQueryRouter.Outcome outcome) {
+        if (outcome.partial()) {
+            this.logger.warn("Answering from {} of {} retrievers ({} timed out, {} failed) after {} ms",
+                    outcome.completed(), outcome.selected(), outcome.timedOut(), outcome.failed(), outcome.elapsed().toMillis());
+        }
+    }
+
     /// The embed method.
     ///
     /// @param documentPath     java.nio.file.Path
@@ -67,6 +67,8 @@ import dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStore;
 
 import java.util.List;
 
+import net.jmp.pinecone.langchain.cache.CachingChatModel;
+
 import static net.jmp.pinecone.langchain.examples.rag.Utils.toPath;
 
 import static net.jmp.util.logging.LoggerUtils.*;
@@ -188,13 +190,13 @@ public final class NaiveRag implements Runnable, Rag {
                 .minScore(0.5) // We want to retrieve segments at least somewhat similar to user query
                 .build();
 
-        // Create an OpenAI chat model
+        // Create an OpenAI chat model, answered from the chat cache when one is configured
 
-        final ChatModel chatModel = OpenAiChatModel.builder()
-                .apiKey(openaiApiKey)
-                .modelName(GPT_4_1)
-                .temperature(0.4)
-                .build();
+        final ChatModel chatModel = CachingChatModel.wrap(OpenAiChatModel.builder()
+                    .apiKey(openaiApiKey)
+                    .modelName(GPT_4_1)
+                    .temperature(0.4)
+                    .build());
 
         /*
          * Optionally, we can use a chat memory, enabling back-and-forth conversation
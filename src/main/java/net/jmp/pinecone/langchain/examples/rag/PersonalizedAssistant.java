@@ -31,11 +31,15 @@ package net.jmp.pinecone.langchain.examples.rag;
 import dev.langchain4j.service.MemoryId;
 import dev.langchain4j.service.UserMessage;
 
-/// The personalized assistant interface.
+import dev.langchain4j.service.memory.ChatMemoryAccess;
+
+/// The personalized assistant interface. The chat memory
+/// access lets a memory provider evict the memories the
+/// service holds on to.
 ///
 /// @version    0.1.0
 /// @since      0.1.0
-public interface PersonalizedAssistant {
+public interface PersonalizedAssistant extends ChatMemoryAccess {
     /// The chat method.
     ///
     /// @param  userId      java.lang.String
@@ -58,9 +58,6 @@ import dev.langchain4j.rag.RetrievalAugmentor;
 import dev.langchain4j.rag.content.retriever.ContentRetriever;
 import dev.langchain4j.rag.content.retriever.EmbeddingStoreContentRetriever;
 
-import dev.langchain4j.rag.query.transformer.CompressingQueryTransformer;
-import dev.langchain4j.rag.query.transformer.QueryTransformer;
-
 import dev.langchain4j.service.AiServices;
 
 import dev.langchain4j.store.embedding.EmbeddingStore;
@@ -70,6 +67,8 @@ import dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStore;
 
 import java.util.List;
 
+import net.jmp.pinecone.langchain.retrieval.ConditionalCompressingQueryTransformer;
+
 import static net.jmp.pinecone.langchain.examples.rag.Utils.toPath;
 
 import static net.jmp.util.logging.LoggerUtils.*;
@@ -151,9 +150,16 @@ public final class QueryCompressionRag implements Runnable, Rag {
          * We will create a CompressingQueryTransformer, which is responsible for compressing
          * the user's query and the preceding conversation into a single, stand-alone query.
          * This should significantly improve the quality of the retrieval process.
+         *
+         * The ConditionalCompressingQueryTransformer only calls the chat model to compress
+         * when there is a conversation and the query refers back to it, and it remembers
+         * the compressions it made.
          */
 
-        final QueryTransformer queryTransformer = new CompressingQueryTransformer(chatModel);
+        final ConditionalCompressingQueryTransformer queryTransformer = new ConditionalCompressingQueryTransformer(
+                chatModel,
+                Integer.getInteger("app.compressionCacheEntries", 1_000)
+        );
 
         final ContentRetriever contentRetriever = EmbeddingStoreContentRetriever.builder()
                 .embeddingStore(embeddingStore)
@@ -196,6 +202,11 @@ public final class QueryCompressionRag implements Runnable, Rag {
             this.logger.info("Answer  : {}", answer);
         }
 
+        final ConditionalCompressingQueryTransformer.Stats stats = queryTransformer.stats();
+
+        this.logger.info("Compressed {} of {} queries ({} from the cache, {} not compressed)",
+                stats.compressed(), stats.queries(), stats.cached(), stats.skipped());
+
         if (this.logger.isTraceEnabled()) {
             this.logger.trace(exit());
         }
@@ -73,10 +73,14 @@ import dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStore;
 
 import java.nio.file.Path;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import net.jmp.pinecone.langchain.retrieval.CentroidQueryRouter;
+import net.jmp.pinecone.langchain.retrieval.SpeculativeQueryRouter;
+
 import static net.jmp.pinecone.langchain.examples.rag.Utils.toPath;
 
 import static net.jmp.util.logging.LoggerUtils.*;
@@ -134,11 +138,10 @@ public class QueryRoutingRag implements Runnable, Rag {
 
         // Create a separate embedding store specifically for biographies
 
-        final EmbeddingStore<TextSegment> biographyEmbeddingStore =
-                this.embed(toPath("documents/biography-of-john-doe.txt"), embeddingModel);
+        final EmbeddedDocument biography = this.embed(toPath("documents/biography-of-john-doe.txt"), embeddingModel);
 
         final ContentRetriever biographyContentRetriever = EmbeddingStoreContentRetriever.builder()
-                .embeddingStore(biographyEmbeddingStore)
+                .embeddingStore(biography.embeddingStore())
                 .embeddingModel(embeddingModel)
                 .maxResults(2)
                 .minScore(0.6)
@@ -146,11 +149,10 @@ public class QueryRoutingRag implements Runnable, Rag {
 
         // Additionally, create a separate embedding store dedicated to terms of use
 
-        final EmbeddingStore<TextSegment> termsOfUseEmbeddingStore =
-                this.embed(toPath("documents/miles-of-smiles-terms-of-use.txt"), embeddingModel);
+        final EmbeddedDocument termsOfUse = this.embed(toPath("documents/miles-of-smiles-terms-of-use.txt"), embeddingModel);
 
         final ContentRetriever termsOfUseContentRetriever = EmbeddingStoreContentRetriever.builder()
-                .embeddingStore(termsOfUseEmbeddingStore)
+                .embeddingStore(termsOfUse.embeddingStore())
                 .embeddingModel(embeddingModel)
                 .maxResults(2)
                 .minScore(0.6)
@@ -178,7 +180,41 @@ public class QueryRoutingRag implements Runnable, Rag {
          * to make routing decisions.
          */
 
-        final QueryRouter queryRouter = new LanguageModelQueryRouter(chatModel, retrieverToDescription);
+        final QueryRouter languageModelQueryRouter = new LanguageModelQueryRouter(chatModel, retrieverToDescription);
+
+        /*
+         * A SpeculativeQueryRouter starts retrieving from the retrievers while the chat model
+         * decides, and keeps only the retrievals of the retrievers the chat model chooses.
+         */
+
+        final SpeculativeQueryRouter speculativeQueryRouter = new SpeculativeQueryRouter(
+                languageModelQueryRouter,
+                List.of(biographyContentRetriever, termsOfUseContentRetriever),
+                Integer.getInteger("app.speculativeRetrievals", 2)
+        );
+
+        /*
+         * A CentroidQueryRouter makes the routing decision locally instead, by comparing
+         * the embedding of the query with the centroid of each document's embeddings and
+         * with the embeddings of a few example questions. Only when no retriever leads
+         * by the margin is the decision left to the language model router.
+         */
+
+        final Map<ContentRetriever, List<Embedding>> retrieverToPrototypes = new HashMap<>();
+
+        retrieverToPrototypes.put(biographyContentRetriever, this.prototypes(biography, embeddingModel,
+                "Where was John Doe born?",
+                "What did John Doe achieve in his life?"));
+        retrieverToPrototypes.put(termsOfUseContentRetriever, this.prototypes(termsOfUse, embeddingModel,
+                "How do I book a car?",
+                "What happens if I cancel my booking?"));
+
+        final CentroidQueryRouter queryRouter = new CentroidQueryRouter(
+                embeddingModel,
+                retrieverToPrototypes,
+                Double.parseDouble(System.getProperty("app.routingMargin", "0.05")),
+                speculativeQueryRouter
+        );
 
         /*
          * The RetrievalAugmentor serves as the entry point into the RAG flow in LangChain4j.
@@ -210,17 +246,41 @@ public class QueryRoutingRag implements Runnable, Rag {
             this.logger.info("Answer  : {}", answer);
         }
 
+        this.logger.info("Routed {} questions locally and {} by the chat model", queryRouter.routedLocally(), queryRouter.routedByFallback());
+        this.logger.info("Used {} of {} speculative retrievals", speculativeQueryRouter.used(), speculativeQueryRouter.speculated());
+
         if (this.logger.isTraceEnabled()) {
             this.logger.trace(exit());
         }
     }
 
+    /// Return the prototype embeddings of a document, the
+    /// centroid of its embeddings and those of example questions.
+    ///
+    /// @param  embeddedDocument    net.jmp.pinecone.langchain.examples.rag.QueryRoutingRag.EmbeddedDocument
+    /// @param  embeddingModel      dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  questions           java.lang.String[]
+    /// @return                     java.util.List<dev.langchain4j.data.embedding.Embedding>
+    private List<Embedding> prototypes(final EmbeddedDocument embeddedDocument,
+                                       final EmbeddingModel embeddingModel,
+                                       final String... questions) {
+        final List<Embedding> prototypes = new ArrayList<>();
+
+        prototypes.add(CentroidQueryRouter.centroid(embeddedDocument.embeddings()));
+
+        for (final String question : questions) {
+            prototypes.add(embeddingModel.embed(question).content());
+        }
+
+        return prototypes;
+    }
+
     /// The embed method.
     ///
     /// @param documentPath     java.nio.file.Path
     /// @param embeddingModel   dev.langchain4j.model.embedding.EmbeddingModel
-    /// @return                 dev.langchain4j.store.embedding.EmbeddingStore
-    private EmbeddingStore<TextSegment> embed(final Path documentPath, final EmbeddingModel embeddingModel) {
+    /// @return                 net.jmp.pinecone.langchain.examples.rag.QueryRoutingRag.EmbeddedDocument
+    private EmbeddedDocument embed(final Path documentPath, final EmbeddingModel embeddingModel) {
         if (this.logger.isTraceEnabled()) {
             this.logger.trace(entryWith(documentPath, embeddingModel));
         }
@@ -236,10 +296,19 @@ public class QueryRoutingRag implements Runnable, Rag {
 
         embeddingStore.addAll(embeddings, segments);
 
+        final EmbeddedDocument embeddedDocument = new EmbeddedDocument(embeddingStore, embeddings);
+
         if (this.logger.isTraceEnabled()) {
-            this.logger.trace(exitWith(embeddingStore));
+            this.logger.trace(exitWith(embeddedDocument));
         }
 
-        return embeddingStore;
+        return embeddedDocument;
+    }
+
+    /// An embedded document.
+    ///
+    /// @param  embeddingStore  dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+    /// @param  embeddings      java.util.List<dev.langchain4j.data.embedding.Embedding>
+    private record EmbeddedDocument(EmbeddingStore<TextSegment> embeddingStore, List<Embedding> embeddings) {
     }
 }
@@ -74,6 +74,8 @@ import dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStore;
 
 import java.util.List;
 
+import net.jmp.pinecone.langchain.retrieval.SentenceCompressingContentAggregator;
+
 import static net.jmp.pinecone.langchain.examples.rag.Utils.toPath;
 
 import static net.jmp.util.logging.LoggerUtils.*;
@@ -162,11 +164,15 @@ public final class RerankingRag implements Runnable, Rag {
 
         // Make sure only most relevant and non-redundant content is returned
 
-        final ContentAggregator contentAggregator = ReRankingContentAggregator.builder()
+        final ContentAggregator reRankingAggregator = ReRankingContentAggregator.builder()
                 .scoringModel(scoringModel)
                 .minScore(0.8)
                 .build();
 
+        // Keep only the three sentences of each segment most similar to the question
+
+        final ContentAggregator contentAggregator = new SentenceCompressingContentAggregator(reRankingAggregator, embeddingModel, 3);
+
         final RetrievalAugmentor retrievalAugmentor = DefaultRetrievalAugmentor.builder()
                 .contentRetriever(contentRetriever)
                 .contentAggregator(contentAggregator)
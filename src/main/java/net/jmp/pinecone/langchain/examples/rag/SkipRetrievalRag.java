@@ -77,12 +77,17 @@ import dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStore;
 
 import java.nio.file.Path;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 
+import net.jmp.pinecone.langchain.retrieval.GatedQueryRouter;
+import net.jmp.pinecone.langchain.retrieval.RetrievalGate;
+import net.jmp.pinecone.langchain.retrieval.SpeculativeQueryRouter;
+
 import static net.jmp.pinecone.langchain.examples.rag.Utils.toPath;
 
 import static net.jmp.util.logging.LoggerUtils.*;
@@ -97,6 +102,9 @@ import org.slf4j.LoggerFactory;
 /// @version    0.1.0
 /// @since      0.1.0
 public final class SkipRetrievalRag implements Runnable, Rag {
+    /// The most retrieval gate decisions to cache.
+    private static final int GATE_CACHE_ENTRIES = 10_000;
+
     /// The logger.
     private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
 
@@ -157,9 +165,9 @@ public final class SkipRetrievalRag implements Runnable, Rag {
                 .logRequests(true)
                 .build();
 
-        // Create a query router
+        // Create a query router for the queries the local gate is unsure of
 
-        final QueryRouter queryRouter = new QueryRouter() {
+        final QueryRouter languageModelQueryRouter = new QueryRouter() {
             private final PromptTemplate promptTemplate = PromptTemplate.from(
                     "Is the following query related to the business of the car rental company? " +
                             "Answer only 'yes', 'no' or 'maybe'. " +
@@ -185,6 +193,23 @@ public final class SkipRetrievalRag implements Runnable, Rag {
             }
         };
 
+        // Retrieve speculatively while the LLM decides, so that its decision does not delay retrieval
+
+        final SpeculativeQueryRouter speculativeQueryRouter = new SpeculativeQueryRouter(
+                languageModelQueryRouter,
+                List.of(contentRetriever),
+                Integer.getInteger("app.speculativeRetrievals", 1)
+        );
+
+        // Create a query router that asks a local gate, trained from labelled queries, before the LLM
+
+        final GatedQueryRouter queryRouter = new GatedQueryRouter(
+                this.trainGate(embeddingModel),
+                List.of(contentRetriever),
+                Double.parseDouble(System.getProperty("app.gateConfidence", "0.8")),
+                speculativeQueryRouter
+        );
+
         final RetrievalAugmentor retrievalAugmentor = DefaultRetrievalAugmentor.builder()
                 .queryRouter(queryRouter)
                 .build();
@@ -207,11 +232,47 @@ public final class SkipRetrievalRag implements Runnable, Rag {
             this.logger.info("Answer  : {}", answer);
         }
 
+        this.logger.info("Retrieval gate: {}", queryRouter.stats());
+        this.logger.info("Used {} of {} speculative retrievals", speculativeQueryRouter.used(), speculativeQueryRouter.speculated());
+
         if (this.logger.isTraceEnabled()) {
             this.logger.trace(exit());
         }
     }
 
+    /// Train the retrieval gate on the labelled queries. Every fourth query
+    /// is held out first to report the accuracy and latency of the gate.
+    ///
+    /// @param  embeddingModel  dev.langchain4j.model.embedding.EmbeddingModel
+    /// @return                 net.jmp.pinecone.langchain.retrieval.RetrievalGate
+    private RetrievalGate trainGate(final EmbeddingModel embeddingModel) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(embeddingModel));
+        }
+
+        final List<RetrievalGate.Example> examples = RetrievalGate.read(toPath("gates/skip-retrieval.jsonl"));
+        final List<RetrievalGate.Example> training = new ArrayList<>();
+        final List<RetrievalGate.Example> heldOut = new ArrayList<>();
+
+        for (int i = 0; i < examples.size(); i++) {
+            (i % 4 == 3 ? heldOut : training).add(examples.get(i));
+        }
+
+        final RetrievalGate.Evaluation evaluation = RetrievalGate.train(embeddingModel, training, GATE_CACHE_ENTRIES)
+                .evaluate(heldOut, Double.parseDouble(System.getProperty("app.gateConfidence", "0.8")));
+
+        this.logger.info("Retrieval gate held-out accuracy {} ({} of {} escalated) in {} µs per decision",
+                evaluation.accuracy(), evaluation.escalated(), evaluation.examples(), evaluation.meanMicros());
+
+        final RetrievalGate gate = RetrievalGate.train(embeddingModel, examples, GATE_CACHE_ENTRIES);
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(gate));
+        }
+
+        return gate;
+    }
+
     /// The embed method.
     ///
     /// @param documentPath     java.nio.file.Path
@@ -61,9 +61,6 @@ import dev.langchain4j.rag.content.retriever.ContentRetriever;
 import dev.langchain4j.rag.content.retriever.EmbeddingStoreContentRetriever;
 import dev.langchain4j.rag.content.retriever.WebSearchContentRetriever;
 
-import dev.langchain4j.rag.query.router.DefaultQueryRouter;
-import dev.langchain4j.rag.query.router.QueryRouter;
-
 import dev.langchain4j.service.AiServices;
 
 import dev.langchain4j.store.embedding.EmbeddingStore;
@@ -76,8 +73,12 @@ import dev.langchain4j.web.search.tavily.TavilyWebSearchEngine;
 
 import java.nio.file.Path;
 
+import java.time.Duration;
+
 import java.util.List;
 
+import net.jmp.pinecone.langchain.retrieval.ParallelQueryRouter;
+
 import static net.jmp.pinecone.langchain.examples.rag.Utils.toPath;
 
 import static net.jmp.util.logging.LoggerUtils.*;
@@ -159,41 +160,54 @@ public final class WebSearchRag implements Runnable, Rag {
                 .maxResults(3)
                 .build();
 
-        // Create a query router that will route each query to both retrievers
+        // Create a query router that will query both retrievers in parallel,
+        // answering from those that finish by the deadline
 
-        final QueryRouter queryRouter = new DefaultQueryRouter(embeddingStoreContentRetriever, webSearchContentRetriever);
+        final Duration deadline = Duration.ofMillis(Long.getLong("app.retrievalDeadlineMillis", 2_000L));
 
-        final RetrievalAugmentor retrievalAugmentor = DefaultRetrievalAugmentor.builder()
-                .queryRouter(queryRouter)
-                .build();
+        try (final ParallelQueryRouter queryRouter = new ParallelQueryRouter(deadline, this::logPartial, embeddingStoreContentRetriever, webSearchContentRetriever)) {
+            final RetrievalAugmentor retrievalAugmentor = DefaultRetrievalAugmentor.builder()
+                    .queryRouter(queryRouter)
+                    .build();
 
-        // Create an OpenAI chat model
+            // Create an OpenAI chat model
 
-        final ChatModel chatModel = OpenAiChatModel.builder()
-                .apiKey(openaiApiKey)
-                .modelName(GPT_4_1)
-                .temperature(0.4)
-                .logRequests(false)
-                .logResponses(false)
-                .build();
+            final ChatModel chatModel = OpenAiChatModel.builder()
+                    .apiKey(openaiApiKey)
+                    .modelName(GPT_4_1)
+                    .temperature(0.4)
+                    .logRequests(false)
+                    .logResponses(false)
+                    .build();
 
-        final Assistant assistant = AiServices.builder(Assistant.class)
-                .chatModel(chatModel)   // It should use OpenAI LLM
-                .chatMemory(MessageWindowChatMemory.withMaxMessages(10))
-                .retrievalAugmentor(retrievalAugmentor)
-                .build();
+            final Assistant assistant = AiServices.builder(Assistant.class)
+                    .chatModel(chatModel)   // It should use OpenAI LLM
+                    .chatMemory(MessageWindowChatMemory.withMaxMessages(10))
+                    .retrievalAugmentor(retrievalAugmentor)
+                    .build();
 
-        final String question = "What are the terms of use for the Miles of Smiles app?";
-        final String answer = assistant.chat(question);
+            final String question = "What are the terms of use for the Miles of Smiles app?";
+            final String answer = assistant.chat(question);
 
-        this.logger.info("Question: {}", question);
-        this.logger.info("Answer  : {}", answer);
+            this.logger.info("Question: {}", question);
+            this.logger.info("Answer  : {}", answer);
+        }
 
         if (this.logger.isTraceEnabled()) {
             this.logger.trace(exit());
         }
     }
 
+    /// Log the outcome of routing a query when a retriever did not contribute.
+    ///
+    /// @param  outcome net.jmp.pinecone.langchain.retrieval.ParallelQueryRouter.Outcome
+    private void logPartial(final ParallelQueryRouter.Outcome outcome) {
+        if (outcome.partial()) {
+            this.logger.warn("Answering from {} of {} retrievers ({} timed out, {} failed) after {} ms",
+                    outcome.completed(), outcome.selected(), outcome.timedOut(), outcome.failed(), outcome.elapsed().toMillis());
+        }
+    }
+
     /// The embed method.
     ///
     /// @param documentPath     java.nio.file.Path
@@ -0,0 +1,428 @@
+package net.jmp.pinecone.langchain.memory;
+
+/*
+ * (#)BoundedChatMemoryProvider.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.data.message.ChatMessage;
+
+import dev.langchain4j.memory.ChatMemory;
+
+import dev.langchain4j.memory.chat.ChatMemoryProvider;
+import dev.langchain4j.memory.chat.MessageWindowChatMemory;
+
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+import dev.langchain4j.store.memory.chat.InMemoryChatMemoryStore;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A chat memory provider that keeps a bounded pool of message windows on
+/// the heap. The memories it provides are handles that hold only their ID,
+/// so whoever caches them, e.g. an AI service, caches next to nothing; the
+/// window of a memory is rehydrated from a backing store on first use and
+/// evicted back to it, if modified, when it has been idle too long or when
+/// the pool holds too many. Every operation on a memory locks one of a fixed
+/// number of stripes chosen by its ID, so concurrent turns of different users
+/// rarely contend. An eviction listener is told the IDs evicted so that, for
+/// instance, the AI service can drop its handles through ChatMemoryAccess.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class BoundedChatMemoryProvider implements ChatMemoryProvider {
+    /// The number of lock stripes, a power of two.
+    private static final int STRIPES = 1_024;
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The store that memories are evicted to and rehydrated from.
+    private final ChatMemoryStore backingStore;
+
+    /// The most messages a window keeps.
+    private final int maxMessages;
+
+    /// The most windows resident at a time.
+    private final int maxResident;
+
+    /// The number of windows a sweep evicts down to.
+    private final int lowWater;
+
+    /// The longest a window may be idle in nanoseconds.
+    private final long maxIdleNanos;
+
+    /// The resident windows by memory ID.
+    private final Map<Object, Resident> residents = new ConcurrentHashMap<>();
+
+    /// The lock stripes.
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    /// The lock that allows one sweep at a time.
+    private final ReentrantLock sweepLock = new ReentrantLock();
+
+    /// When the pool was last swept.
+    private volatile long sweptAtNanos = System.nanoTime();
+
+    /// The listener told the IDs evicted.
+    private volatile Consumer<Object> evictionListener = memoryId -> { };
+
+    /// The number of operations on a resident window.
+    private final AtomicLong hits = new AtomicLong();
+
+    /// The number of windows rehydrated.
+    private final AtomicLong rehydrated = new AtomicLong();
+
+    /// The number of windows evicted.
+    private final AtomicLong evicted = new AtomicLong();
+
+    /// The constructor.
+    ///
+    /// @param  backingStore    dev.langchain4j.store.memory.chat.ChatMemoryStore
+    /// @param  maxMessages     int                 The most messages a window keeps
+    /// @param  maxResident     int                 The most windows resident at a time
+    /// @param  maxIdle         java.time.Duration  The longest a window may be idle
+    public BoundedChatMemoryProvider(final ChatMemoryStore backingStore,
+                                     final int maxMessages,
+                                     final int maxResident,
+                                     final Duration maxIdle) {
+        super();
+
+        if (maxResident < 1) {
+            throw new IllegalArgumentException("The maximum resident memories must be positive: " + maxResident);
+        }
+
+        this.backingStore = backingStore;
+        this.maxMessages = maxMessages;
+        this.maxResident = maxResident;
+        this.lowWater = Math.max(1, maxResident - maxResident / 10);
+        this.maxIdleNanos = maxIdle.toNanos();
+
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            this.stripes[stripe] = new ReentrantLock();
+        }
+    }
+
+    /// Set the listener told the IDs of the memories evicted.
+    ///
+    /// @param  listener    java.util.function.Consumer<java.lang.Object>
+    /// @return             net.jmp.pinecone.langchain.memory.BoundedChatMemoryProvider
+    public BoundedChatMemoryProvider onEviction(final Consumer<Object> listener) {
+        this.evictionListener = listener;
+
+        return this;
+    }
+
+    /// Return the memory of an ID.
+    ///
+    /// @param  memoryId    java.lang.Object
+    /// @return             dev.langchain4j.memory.ChatMemory
+    @Override
+    public ChatMemory get(final Object memoryId) {
+        return new PooledChatMemory(memoryId);
+    }
+
+    /// Evict every resident window to the backing store.
+    public void evictAll() {
+        for (final Object memoryId : List.copyOf(this.residents.keySet())) {
+            final ReentrantLock lock = this.stripe(memoryId);
+
+            lock.lock();
+
+            try {
+                this.evict(memoryId);
+            } finally {
+                lock.unlock();
+            }
+
+            this.evictionListener.accept(memoryId);
+        }
+    }
+
+    /// Return the statistics of the pool.
+    ///
+    /// @return net.jmp.pinecone.langchain.memory.BoundedChatMemoryProvider.Stats
+    public Stats stats() {
+        return new Stats(this.residents.size(), this.hits.get(), this.rehydrated.get(), this.evicted.get());
+    }
+
+    /// Apply an operation to the window of a memory under its stripe lock.
+    ///
+    /// @param  <T>         The type of the result
+    /// @param  memoryId    java.lang.Object
+    /// @param  modifies    boolean     True if the operation modifies the window
+    /// @param  operation   java.util.function.Function<dev.langchain4j.memory.ChatMemory, T>
+    /// @return             T
+    private <T> T apply(final Object memoryId, final boolean modifies, final Function<ChatMemory, T> operation) {
+        final ReentrantLock lock = this.stripe(memoryId);
+        final T result;
+
+        lock.lock();
+
+        try {
+            Resident resident = this.residents.get(memoryId);
+
+            if (resident != null) {
+                this.hits.incrementAndGet();
+            } else {
+                resident = this.rehydrate(memoryId);
+            }
+
+            result = operation.apply(resident.window);
+
+            resident.lastUsedNanos = System.nanoTime();
+            resident.modified |= modifies;
+        } finally {
+            lock.unlock();
+        }
+
+        this.sweepIfNeeded();
+
+        return result;
+    }
+
+    /// Load the window of a memory from the backing store.
+    ///
+    /// @param  memoryId    java.lang.Object
+    /// @return             net.jmp.pinecone.langchain.memory.BoundedChatMemoryProvider.Resident
+    private Resident rehydrate(final Object memoryId) {
+        final List<ChatMessage> messages = this.backingStore.getMessages(memoryId);
+        final ChatMemoryStore windowStore = new InMemoryChatMemoryStore();
+
+        windowStore.updateMessages(memoryId, messages);
+
+        final Resident resident = new Resident(MessageWindowChatMemory.builder()
+                .id(memoryId)
+                .maxMessages(this.maxMessages)
+                .chatMemoryStore(windowStore)
+                .build());
+
+        this.residents.put(memoryId, resident);
+        this.rehydrated.incrementAndGet();
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Rehydrated chat memory {} with {} messages", memoryId, messages.size());
+        }
+
+        return resident;
+    }
+
+    /// Evict idle windows, and the least recently used ones while
+    /// there are too many, when the pool is full or was not swept
+    /// for a while. The stripe of a busy window is not waited for.
+    private void sweepIfNeeded() {
+        final long now = System.nanoTime();
+
+        if (this.residents.size() <= this.maxResident && now - this.sweptAtNanos < this.maxIdleNanos / 4) {
+            return;
+        }
+
+        if (!this.sweepLock.tryLock()) {
+            return;     // Another thread is sweeping
+        }
+
+        final List<Object> evictedIds = new ArrayList<>();
+
+        try {
+            this.sweptAtNanos = now;
+
+            /* Snapshot the use times, which other threads keep updating, so that they sort consistently */
+
+            final List<Candidate> candidates = new ArrayList<>(this.residents.size());
+
+            this.residents.forEach((memoryId, resident) -> candidates.add(new Candidate(memoryId, resident, resident.lastUsedNanos)));
+
+            candidates.sort(Comparator.comparingLong(Candidate::lastUsedNanos));
+
+            for (final Candidate candidate : candidates) {
+                final boolean idle = now - candidate.lastUsedNanos() > this.maxIdleNanos;
+
+                if (!idle && this.residents.size() <= this.lowWater) {
+                    break;      // Oldest first, so the rest are neither idle nor needed
+                }
+
+                final ReentrantLock lock = this.stripe(candidate.memoryId());
+
+                if (lock.tryLock()) {
+                    try {
+                        if (this.residents.get(candidate.memoryId()) == candidate.resident()) {
+                            this.evict(candidate.memoryId());
+                            evictedIds.add(candidate.memoryId());
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }
+        } finally {
+            this.sweepLock.unlock();
+        }
+
+        for (final Object memoryId : evictedIds) {
+            this.evictionListener.accept(memoryId);
+        }
+
+        if (this.logger.isDebugEnabled() && !evictedIds.isEmpty()) {
+            this.logger.debug("Evicted {} chat memories; {} resident", evictedIds.size(), this.residents.size());
+        }
+    }
+
+    /// Evict the window of a memory whose stripe lock is held,
+    /// writing it to the backing store if it was modified.
+    ///
+    /// @param  memoryId    java.lang.Object
+    private void evict(final Object memoryId) {
+        final Resident resident = this.residents.remove(memoryId);
+
+        if (resident != null) {
+            if (resident.modified) {
+                this.backingStore.updateMessages(memoryId, resident.window.messages());
+            }
+
+            this.evicted.incrementAndGet();
+        }
+    }
+
+    /// Return the lock stripe of a memory.
+    ///
+    /// @param  memoryId    java.lang.Object
+    /// @return             java.util.concurrent.locks.ReentrantLock
+    private ReentrantLock stripe(final Object memoryId) {
+        final int hash = memoryId.hashCode();
+
+        return this.stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    /// The statistics of the pool.
+    ///
+    /// @param  resident    int     The windows resident now
+    /// @param  hits        long    The operations on a resident window
+    /// @param  rehydrated  long    The windows loaded from the backing store
+    /// @param  evicted     long    The windows evicted
+    public record Stats(int resident, long hits, long rehydrated, long evicted) {
+    }
+
+    /// A window considered for eviction.
+    ///
+    /// @param  memoryId        java.lang.Object
+    /// @param  resident        net.jmp.pinecone.langchain.memory.BoundedChatMemoryProvider.Resident
+    /// @param  lastUsedNanos   long
+    private record Candidate(Object memoryId, Resident resident, long lastUsedNanos) {
+    }
+
+    /// A resident window.
+    private static final class Resident {
+        /// The window.
+        private final ChatMemory window;
+
+        /// True once modified since rehydrated.
+        private boolean modified;
+
+        /// When it was last used.
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        /// The constructor.
+        ///
+        /// @param  window  dev.langchain4j.memory.ChatMemory
+        private Resident(final ChatMemory window) {
+            super();
+
+            this.window = window;
+        }
+    }
+
+    /// A handle on the window of a memory.
+    private final class PooledChatMemory implements ChatMemory {
+        /// The memory ID.
+        private final Object memoryId;
+
+        /// The constructor.
+        ///
+        /// @param  memoryId    java.lang.Object
+        private PooledChatMemory(final Object memoryId) {
+            super();
+
+            this.memoryId = memoryId;
+        }
+
+        /// Return the memory ID.
+        ///
+        /// @return java.lang.Object
+        @Override
+        public Object id() {
+            return this.memoryId;
+        }
+
+        /// Add a message.
+        ///
+        /// @param  message dev.langchain4j.data.message.ChatMessage
+        @Override
+        public void add(final ChatMessage message) {
+            apply(this.memoryId, true, window -> {
+                window.add(message);
+
+                return null;
+            });
+        }
+
+        /// Return the messages.
+        ///
+        /// @return java.util.List<dev.langchain4j.data.message.ChatMessage>
+        @Override
+        public List<ChatMessage> messages() {
+            return apply(this.memoryId, false, ChatMemory::messages);
+        }
+
+        /// Clear the messages, in the backing store too.
+        @Override
+        public void clear() {
+            apply(this.memoryId, false, window -> {
+                window.clear();
+                backingStore.deleteMessages(this.memoryId);
+
+                return null;
+            });
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package net.jmp.pinecone.langchain.memory;
+
+/*
+ * (#)MongoChatMemoryStore.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.mongodb.client.MongoCollection;
+
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+
+import dev.langchain4j.data.message.ChatMessage;
+
+import static dev.langchain4j.data.message.ChatMessageDeserializer.messagesFromJson;
+import static dev.langchain4j.data.message.ChatMessageSerializer.messagesToJson;
+
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.bson.Document;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A chat memory store kept in a MongoDB collection, one document per memory
+/// ID holding its messages as JSON. Updates and deletions are written behind:
+/// they return at once and are buffered, the latest one per memory ID winning,
+/// and a background thread writes the buffer with unordered bulk writes every
+/// flush interval, or sooner when a batch is full. Reads are served from the
+/// buffer, then from a read-through cache of recently used memories, and only
+/// then from the collection. A read of the collection is only cached when no
+/// write of the same memory was buffered while it ran, so that a pending
+/// deletion is not undone by a read that started before it. Writes that fail
+/// are put back in the buffer unless a newer one has arrived. Closing the
+/// store writes whatever is buffered.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class MongoChatMemoryStore implements ChatMemoryStore, AutoCloseable {
+    /// The field that holds the messages.
+    private static final String MESSAGES = "messages";
+
+    /// The field that holds when the messages were written.
+    private static final String UPDATED_AT = "updatedAt";
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The collection.
+    private final MongoCollection<Document> collection;
+
+    /// The most writes in a bulk write.
+    private final int maxBatchSize;
+
+    /// The messages by memory ID, least recently used first.
+    private final Map<String, List<ChatMessage>> cache;
+
+    /// The writes not yet flushed by memory ID.
+    private final Map<String, Write> pending = new ConcurrentHashMap<>();
+
+    /// The writes being flushed by memory ID.
+    private final Map<String, Write> flushing = new ConcurrentHashMap<>();
+
+    /// The reads of the collection in progress by memory ID; guarded by the cache.
+    private final Map<String, Reading> readings = new HashMap<>();
+
+    /// The thread that flushes the writes.
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("chat-memory-flusher").daemon().factory()
+    );
+
+    /// True while a flush is scheduled early.
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    /// The number of updates and deletions.
+    private final AtomicLong updates = new AtomicLong();
+
+    /// The number of documents written.
+    private final AtomicLong written = new AtomicLong();
+
+    /// The number of bulk writes.
+    private final AtomicLong batches = new AtomicLong();
+
+    /// The number of reads from the collection.
+    private final AtomicLong reads = new AtomicLong();
+
+    /// The constructor.
+    ///
+    /// @param  collection      com.mongodb.client.MongoCollection<org.bson.Document>
+    /// @param  cacheEntries    int                 The most memories to cache
+    /// @param  flushInterval   java.time.Duration  How often to write the buffer
+    /// @param  maxBatchSize    int                 The most writes in a bulk write
+    public MongoChatMemoryStore(final MongoCollection<Document> collection,
+                                final int cacheEntries,
+                                final Duration flushInterval,
+                                final int maxBatchSize) {
+        super();
+
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("The maximum batch size must be positive: " + maxBatchSize);
+        }
+
+        this.collection = collection;
+        this.maxBatchSize = maxBatchSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, List<ChatMessage>> eldest) {
+                return this.size() > cacheEntries;
+            }
+        };
+
+        this.flusher.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /// Return the messages of a memory.
+    ///
+    /// @param  memoryId    java.lang.Object
+    /// @return             java.util.List<dev.langchain4j.data.message.ChatMessage>
+    @Override
+    public List<ChatMessage> getMessages(final Object memoryId) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(memoryId));
+        }
+
+        final String id = memoryId.toString();
+
+        List<ChatMessage> messages;
+
+        do {
+            messages = this.read(id);
+        } while (messages == null);
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(messages));
+        }
+
+        return messages;
+    }
+
+    /// Return the messages of a memory from the buffer, the cache or the
+    /// collection, caching those read from the collection. When a write
+    /// of the memory is buffered during the read, what was read is stale
+    /// and null is returned so that the caller looks again.
+    ///
+    /// @param  id  java.lang.String
+    /// @return     java.util.List<dev.langchain4j.data.message.ChatMessage>    Null when the read was overtaken
+    private List<ChatMessage> read(final String id) {
+        final Reading reading;
+        final long version;
+
+        synchronized (this.cache) {
+            Write write = this.pending.get(id);
+
+            if (write == null) {
+                write = this.flushing.get(id);
+            }
+
+            if (write != null) {
+                return write.messages();
+            }
+
+            final List<ChatMessage> cached = this.cache.get(id);
+
+            if (cached != null) {
+                return cached;
+            }
+
+            reading = this.readings.computeIfAbsent(id, key -> new Reading());
+            reading.readers++;
+            version = reading.version;
+        }
+
+        List<ChatMessage> messages = null;
+
+        try {
+            final Document document = this.collection.find(Filters.eq("_id", id)).first();
+
+            messages = document != null ? messagesFromJson(document.getString(MESSAGES)) : List.of();
+
+            this.reads.incrementAndGet();
+        } finally {
+            synchronized (this.cache) {
+                if (--reading.readers == 0) {
+                    this.readings.remove(id);
+                }
+
+                if (reading.version != version) {
+                    messages = null;
+                } else if (messages != null) {
+                    this.cache.putIfAbsent(id, messages);
+                }
+            }
+        }
+
+        return messages;
+    }
+
+    /// Replace the messages of a memory; the
+    /// collection is written in the background.
+    ///
+    /// @param  memoryId    java.lang.Object
+    /// @param  messages    java.util.List<dev.langchain4j.data.message.ChatMessage>
+    @Override
+    public void updateMessages(final Object memoryId, final List<ChatMessage> messages) {
+        final List<ChatMessage> copy = List.copyOf(messages);
+
+        this.buffer(memoryId.toString(), new Write(copy));
+    }
+
+    /// Delete the messages of a memory; the
+    /// collection is written in the background.
+    ///
+    /// @param  memoryId    java.lang.Object
+    @Override
+    public void deleteMessages(final Object memoryId) {
+        this.buffer(memoryId.toString(), new Write(List.of(), true));
+    }
+
+    /// Return the statistics of the store.
+    ///
+    /// @return net.jmp.pinecone.langchain.memory.MongoChatMemoryStore.Stats
+    public Stats stats() {
+        return new Stats(this.updates.get(), this.written.get(), this.batches.get(), this.reads.get(), this.pending.size());
+    }
+
+    /// Close the store, writing whatever is buffered.
+    @Override
+    public void close() {
+        this.flusher.shutdown();
+
+        try {
+            if (!this.flusher.awaitTermination(30, TimeUnit.SECONDS)) {
+                this.logger.warn("The chat memory flusher did not stop in time");
+            }
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+
+        this.flush();
+
+        if (!this.pending.isEmpty()) {
+            this.logger.error("{} chat memories were not written", this.pending.size());
+        }
+    }
+
+    /// Buffer a write, replacing any earlier one of the same memory.
+    ///
+    /// @param  id      java.lang.String
+    /// @param  write   net.jmp.pinecone.langchain.memory.MongoChatMemoryStore.Write
+    private void buffer(final String id, final Write write) {
+        synchronized (this.cache) {
+            if (write.deleted()) {
+                this.cache.remove(id);
+            } else {
+                this.cache.put(id, write.messages());
+            }
+
+            this.pending.put(id, write);
+
+            final Reading reading = this.readings.get(id);
+
+            if (reading != null) {
+                reading.version++;      // What the reads in progress return is stale
+            }
+        }
+
+        this.updates.incrementAndGet();
+
+        if (this.pending.size() >= this.maxBatchSize && this.flushRequested.compareAndSet(false, true)) {
+            try {
+                this.flusher.execute(() -> {
+                    this.flushRequested.set(false);
+                    this.flush();
+                });
+            } catch (final RejectedExecutionException ree) {
+                this.flushRequested.set(false);     // Closing; close writes the buffer
+            }
+        }
+    }
+
+    /// Write the buffered writes to the collection in batches.
+    private synchronized void flush() {
+        if (this.pending.isEmpty()) {
+            return;
+        }
+
+        for (final String id : List.copyOf(this.pending.keySet())) {
+            final Write write = this.pending.get(id);
+
+            if (write != null) {
+                this.flushing.put(id, write);
+                this.pending.remove(id, write);     // A newer write stays for the next flush
+            }
+        }
+
+        final List<Map.Entry<String, Write>> writes = new ArrayList<>(this.flushing.entrySet());
+
+        for (int from = 0; from < writes.size(); from += this.maxBatchSize) {
+            this.write(writes.subList(from, Math.min(from + this.maxBatchSize, writes.size())));
+        }
+
+        this.flushing.clear();
+    }
+
+    /// Write a batch with one unordered bulk write,
+    /// putting it back in the buffer if it fails.
+    ///
+    /// @param  batch   java.util.List<java.util.Map.Entry<java.lang.String, net.jmp.pinecone.langchain.memory.MongoChatMemoryStore.Write>>
+    private void write(final List<Map.Entry<String, Write>> batch) {
+        final List<WriteModel<Document>> models = new ArrayList<>(batch.size());
+        final Date now = new Date();
+
+        for (final Map.Entry<String, Write> entry : batch) {
+            if (entry.getValue().deleted()) {
+                models.add(new DeleteOneModel<>(Filters.eq("_id", entry.getKey())));
+            } else {
+                final Document document = new Document("_id", entry.getKey())
+                        .append(MESSAGES, messagesToJson(entry.getValue().messages()))
+                        .append(UPDATED_AT, now);
+
+                models.add(new ReplaceOneModel<>(Filters.eq("_id", entry.getKey()), document, new ReplaceOptions().upsert(true)));
+            }
+        }
+
+        try {
+            this.collection.bulkWrite(models, new BulkWriteOptions().ordered(false));
+            this.written.addAndGet(models.size());
+            this.batches.incrementAndGet();
+
+            if (this.logger.isDebugEnabled()) {
+                this.logger.debug("Wrote {} chat memories", models.size());
+            }
+        } catch (final RuntimeException re) {
+            this.logger.error("Unable to write {} chat memories; they will be retried", models.size(), re);
+
+            for (final Map.Entry<String, Write> entry : batch) {
+                this.pending.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /// A buffered write.
+    ///
+    /// @param  messages    java.util.List<dev.langchain4j.data.message.ChatMessage>
+    /// @param  deleted     boolean
+    private record Write(List<ChatMessage> messages, boolean deleted) {
+        /// The constructor of an update.
+        ///
+        /// @param  messages    java.util.List<dev.langchain4j.data.message.ChatMessage>
+        private Write(final List<ChatMessage> messages) {
+            this(messages, false);
+        }
+    }
+
+    /// The reads of the collection in progress for a memory.
+    private static final class Reading {
+        /// The number of reads in progress.
+        private int readers;
+
+        /// The number of writes buffered since the first read started.
+        private long version;
+    }
+
+    /// The statistics of the store.
+    ///
+    /// @param  updates     long    The updates and deletions
+    /// @param  written     long    The documents written
+    /// @param  batches     long    The bulk writes
+    /// @param  reads       long    The reads from the collection
+    /// @param  pending     int     The writes buffered now
+    public record Stats(long updates, long written, long batches, long reads, int pending) {
+    }
+}
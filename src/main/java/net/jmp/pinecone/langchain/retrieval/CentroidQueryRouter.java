@@ -0,0 +1,212 @@
+package net.jmp.pinecone.langchain.retrieval;
+
+/*
+ * (#)CentroidQueryRouter.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.data.embedding.Embedding;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+
+import dev.langchain4j.rag.query.Query;
+
+import dev.langchain4j.rag.query.router.QueryRouter;
+
+import dev.langchain4j.store.embedding.CosineSimilarity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A query router that routes a query locally by comparing its embedding
+/// with prototype embeddings of each retriever, such as the centroid of the
+/// embeddings of its corpus and the embeddings of a few labelled example
+/// queries. A retriever scores the highest cosine similarity of the query
+/// to any of its prototypes. When the best retriever leads the next by at
+/// least the margin the query is routed to it alone; otherwise the decision
+/// is ambiguous and is left to the fallback router, typically a language
+/// model router, or, without one, the query is routed to every retriever
+/// within the margin. Routing then costs one local embedding rather than
+/// a chat model round trip for all but the ambiguous queries.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class CentroidQueryRouter implements QueryRouter {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The embedding model.
+    private final EmbeddingModel embeddingModel;
+
+    /// The prototype embeddings of each retriever.
+    private final Map<ContentRetriever, List<Embedding>> prototypes;
+
+    /// The lead that makes a decision confident.
+    private final double margin;
+
+    /// The router of ambiguous queries, or null.
+    private final QueryRouter fallback;
+
+    /// The number of queries routed locally.
+    private final AtomicLong routedLocally = new AtomicLong();
+
+    /// The number of queries routed by the fallback.
+    private final AtomicLong routedByFallback = new AtomicLong();
+
+    /// The constructor.
+    ///
+    /// @param  embeddingModel  dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  prototypes      java.util.Map<dev.langchain4j.rag.content.retriever.ContentRetriever, java.util.List<dev.langchain4j.data.embedding.Embedding>>
+    /// @param  margin          double
+    /// @param  fallback        dev.langchain4j.rag.query.router.QueryRouter    May be null
+    public CentroidQueryRouter(final EmbeddingModel embeddingModel,
+                               final Map<ContentRetriever, List<Embedding>> prototypes,
+                               final double margin,
+                               final QueryRouter fallback) {
+        super();
+
+        if (prototypes.isEmpty() || prototypes.values().stream().anyMatch(List::isEmpty)) {
+            throw new IllegalArgumentException("Every retriever must have a prototype embedding");
+        }
+
+        if (margin < 0) {
+            throw new IllegalArgumentException("The margin must not be negative: " + margin);
+        }
+
+        this.embeddingModel = embeddingModel;
+        this.prototypes = new LinkedHashMap<>(prototypes);
+        this.margin = margin;
+        this.fallback = fallback;
+    }
+
+    /// Return the normalized mean of embeddings, which represents their
+    /// corpus by the direction it is most similar to on average.
+    ///
+    /// @param  embeddings  java.util.Collection<dev.langchain4j.data.embedding.Embedding>
+    /// @return             dev.langchain4j.data.embedding.Embedding
+    public static Embedding centroid(final Collection<Embedding> embeddings) {
+        if (embeddings.isEmpty()) {
+            throw new IllegalArgumentException("There are no embeddings");
+        }
+
+        final float[] sum = new float[embeddings.iterator().next().dimension()];
+
+        for (final Embedding embedding : embeddings) {
+            final Embedding normalized = Embedding.from(embedding.vector().clone());
+
+            normalized.normalize();
+
+            final float[] vector = normalized.vector();
+
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += vector[i];
+            }
+        }
+
+        final Embedding centroid = Embedding.from(sum);
+
+        centroid.normalize();
+
+        return centroid;
+    }
+
+    /// Route a query.
+    ///
+    /// @param  query   dev.langchain4j.rag.query.Query
+    /// @return         java.util.Collection<dev.langchain4j.rag.content.retriever.ContentRetriever>
+    @Override
+    public Collection<ContentRetriever> route(final Query query) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(query));
+        }
+
+        final Embedding embedding = this.embeddingModel.embed(query.text()).content();
+        final Map<ContentRetriever, Double> scores = new LinkedHashMap<>();
+
+        this.prototypes.forEach((contentRetriever, embeddings) -> scores.put(
+                contentRetriever,
+                embeddings.stream()
+                        .mapToDouble(prototype -> CosineSimilarity.between(embedding, prototype))
+                        .max()
+                        .orElse(-1)
+        ));
+
+        final double best = scores.values().stream().mapToDouble(Double::doubleValue).max().orElse(-1);
+        final List<ContentRetriever> contenders = new ArrayList<>();
+
+        scores.forEach((contentRetriever, score) -> {
+            if (best - score < this.margin) {
+                contenders.add(contentRetriever);
+            }
+        });
+
+        final Collection<ContentRetriever> routed;
+
+        if (contenders.size() == 1 || this.fallback == null) {
+            routed = contenders;
+            this.routedLocally.incrementAndGet();
+        } else {
+            routed = this.fallback.route(query);
+            this.routedByFallback.incrementAndGet();
+        }
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Routed '{}' {} by scores {}", query.text(), contenders.size() == 1 ? "locally" : "ambiguously", scores.values());
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(routed));
+        }
+
+        return routed;
+    }
+
+    /// Return the number of queries routed locally.
+    ///
+    /// @return long
+    public long routedLocally() {
+        return this.routedLocally.get();
+    }
+
+    /// Return the number of queries routed by the fallback.
+    ///
+    /// @return long
+    public long routedByFallback() {
+        return this.routedByFallback.get();
+    }
+}
@@ -0,0 +1,238 @@
+package net.jmp.pinecone.langchain.retrieval;
+
+/*
+ * (#)ConditionalCompressingQueryTransformer.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.data.message.ChatMessage;
+
+import dev.langchain4j.model.chat.ChatModel;
+
+import dev.langchain4j.rag.query.Query;
+
+import dev.langchain4j.rag.query.transformer.CompressingQueryTransformer;
+
+import java.nio.charset.StandardCharsets;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A query transformer that compresses a query and the preceding conversation
+/// into a stand-alone query only when it has to. There is nothing to compress
+/// when the chat memory is empty, and a query that refers to nothing outside
+/// itself, that is one of at least a few words that neither has a pronoun or
+/// demonstrative nor starts as a continuation, is used as it is. The other
+/// queries are compressed by the chat model, and the compressions are cached
+/// by a digest of the conversation and the query so a repeated turn does not
+/// call the chat model again.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class ConditionalCompressingQueryTransformer extends CompressingQueryTransformer {
+    /// The fewest words in a self-contained query.
+    private static final int MIN_WORDS = 4;
+
+    /// The words that refer to something said before.
+    private static final Set<String> ANAPHORS = Set.of(
+            "he", "him", "his", "himself", "she", "her", "hers", "herself", "it", "its", "itself",
+            "they", "them", "their", "theirs", "themselves", "this", "that", "these", "those",
+            "there", "then", "former", "latter", "same", "such"
+    );
+
+    /// The words that start a continuation of what was said before.
+    private static final Set<String> CONTINUATIONS = Set.of("and", "also", "but", "or", "so", "what about", "how about");
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The compressions by conversation digest and query, least recently used first.
+    private final Map<String, String> cache;
+
+    /// The number of queries transformed.
+    private final AtomicLong queries = new AtomicLong();
+
+    /// The number of queries compressed by the chat model.
+    private final AtomicLong compressed = new AtomicLong();
+
+    /// The number of queries whose compression was cached.
+    private final AtomicLong cached = new AtomicLong();
+
+    /// The constructor.
+    ///
+    /// @param  chatModel       dev.langchain4j.model.chat.ChatModel
+    /// @param  cacheEntries    int     The most compressions to cache
+    public ConditionalCompressingQueryTransformer(final ChatModel chatModel, final int cacheEntries) {
+        super(chatModel);
+
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+                return this.size() > cacheEntries;
+            }
+        };
+    }
+
+    /// Transform a query, compressing it only when it has to be.
+    ///
+    /// @param  query   dev.langchain4j.rag.query.Query
+    /// @return         java.util.Collection<dev.langchain4j.rag.query.Query>
+    @Override
+    public Collection<Query> transform(final Query query) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(query));
+        }
+
+        this.queries.incrementAndGet();
+
+        final List<ChatMessage> chatMemory = query.metadata() != null ? query.metadata().chatMemory() : null;
+
+        final Collection<Query> transformed;
+
+        if (chatMemory == null || chatMemory.isEmpty()) {
+            transformed = List.of(query);
+
+            if (this.logger.isDebugEnabled()) {
+                this.logger.debug("Not compressing a query without history: {}", query.text());
+            }
+        } else if (isSelfContained(query.text())) {
+            transformed = List.of(query);
+
+            if (this.logger.isDebugEnabled()) {
+                this.logger.debug("Not compressing a self-contained query: {}", query.text());
+            }
+        } else {
+            final String key = digest(this.format(chatMemory)) + ':' + query.text().strip();
+
+            String compression;
+
+            synchronized (this.cache) {
+                compression = this.cache.get(key);
+            }
+
+            if (compression != null) {
+                this.cached.incrementAndGet();
+            } else {
+                compression = super.transform(query).iterator().next().text();
+
+                synchronized (this.cache) {
+                    this.cache.put(key, compression);
+                }
+
+                this.compressed.incrementAndGet();
+            }
+
+            transformed = List.of(Query.from(compression, query.metadata()));
+
+            if (this.logger.isDebugEnabled()) {
+                this.logger.debug("Compressed '{}' into '{}'", query.text(), compression);
+            }
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(transformed));
+        }
+
+        return transformed;
+    }
+
+    /// Return the statistics of the transformations.
+    ///
+    /// @return net.jmp.pinecone.langchain.retrieval.ConditionalCompressingQueryTransformer.Stats
+    public Stats stats() {
+        return new Stats(this.queries.get(), this.compressed.get(), this.cached.get());
+    }
+
+    /// Return true if a query refers to nothing outside itself.
+    ///
+    /// @param  text    java.lang.String
+    /// @return         boolean
+    static boolean isSelfContained(final String text) {
+        final String normalized = text.strip().toLowerCase(Locale.ROOT);
+        final String[] words = normalized.split("[^\\p{L}\\p{N}']+");
+
+        if (words.length < MIN_WORDS) {
+            return false;
+        }
+
+        for (final String continuation : CONTINUATIONS) {
+            if (normalized.startsWith(continuation + ' ') || normalized.startsWith(continuation + ',')) {
+                return false;
+            }
+        }
+
+        for (final String word : words) {
+            if (ANAPHORS.contains(word)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /// Return the SHA-256 digest of a conversation.
+    ///
+    /// @param  conversation    java.lang.String
+    /// @return                 java.lang.String
+    private static String digest(final String conversation) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            return HexFormat.of().formatHex(digest.digest(conversation.getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException("SHA-256 is not available", nsae);
+        }
+    }
+
+    /// The statistics of the transformations.
+    ///
+    /// @param  queries     long    The queries transformed
+    /// @param  compressed  long    The queries compressed by the chat model
+    /// @param  cached      long    The queries whose compression was cached
+    public record Stats(long queries, long compressed, long cached) {
+        /// Return the number of queries that were not compressed.
+        ///
+        /// @return long
+        public long skipped() {
+            return this.queries - this.compressed - this.cached;
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package net.jmp.pinecone.langchain.retrieval;
+
+/*
+ * (#)FastPathSqlFilterBuilder.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.rag.query.Query;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+
+import dev.langchain4j.store.embedding.filter.builder.sql.ColumnDefinition;
+import dev.langchain4j.store.embedding.filter.builder.sql.TableDefinition;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import java.util.function.Function;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import java.util.stream.Stream;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A dynamic filter that turns a query into a metadata filter over the
+/// columns of a table definition, first with rules for the common patterns
+/// and only when they do not apply with a fallback, typically a language
+/// model SQL filter builder. The rules recognize the values of a column
+/// whose description lists them, as in "one of: [comedy, drama]", and the
+/// years, decades ("the 90s"), ranges ("between 1990 and 1995") and bounds
+/// ("after 1995") of a whole-number column whose name mentions a year. The
+/// rules only apply when they account for the whole query: one that negates
+/// ("not", "except", "without"), offers alternatives ("or"), holds more than
+/// one condition on the year or holds a word the rules neither consume nor
+/// ignore is left to the fallback. The words ignored are common request words
+/// ("recommend a good") and the names of the table and its columns. The
+/// filters, including the absence of one, are cached by normalized query.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class FastPathSqlFilterBuilder {
+    /// The list of values in a column description.
+    private static final Pattern ENUMERATION = Pattern.compile("one of:?\\s*\\[([^]]+)]", Pattern.CASE_INSENSITIVE);
+
+    /// A range of years.
+    private static final Pattern BETWEEN = Pattern.compile("\\bbetween\\s+(\\d{4})\\s+and\\s+(\\d{4})\\b");
+
+    /// A decade, as in 1990s, 90s or '90s.
+    private static final Pattern DECADE = Pattern.compile("(?<![\\d])'?(\\d{2}|\\d{3}0)s\\b");
+
+    /// A lower bound on the year.
+    private static final Pattern AFTER = Pattern.compile("\\b(after|since)\\s+(\\d{4})\\b");
+
+    /// An upper bound on the year.
+    private static final Pattern BEFORE = Pattern.compile("\\b(before|until|prior to)\\s+(\\d{4})\\b");
+
+    /// A single year.
+    private static final Pattern YEAR = Pattern.compile("\\b(?:in|from|of)\\s+(\\d{4})\\b");
+
+    /// The words that negate.
+    private static final Pattern NEGATION = Pattern.compile("\\b(not|no|except|excluding|without|other than)\\b");
+
+    /// The word that offers alternatives.
+    private static final Pattern ALTERNATIVE = Pattern.compile("\\bor\\b");
+
+    /// A word of a query.
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\d]+");
+
+    /// The words of a request that do not constrain it.
+    private static final Set<String> IGNORED_WORDS = Set.of(
+            "a", "about", "all", "an", "and", "any", "are", "best", "can", "classic", "could", "favorite", "find",
+            "for", "from", "fun", "get", "give", "good", "great", "i", "in", "is", "like", "list", "looking", "made",
+            "me", "my", "need", "nice", "of", "please", "recommend", "released", "show", "some", "suggest", "tell",
+            "that", "the", "to", "top", "us", "want", "we", "what", "which", "would", "you"
+    );
+
+    /// The whole-number column types.
+    private static final Set<String> WHOLE_NUMBER_TYPES = Set.of("INT", "INTEGER", "BIGINT", "SMALLINT");
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The values of each enumerated column.
+    private final Map<String, List<String>> enumerations = new LinkedHashMap<>();
+
+    /// The year column, or null.
+    private final String yearColumn;
+
+    /// The names of the table and its columns, singular and plural.
+    private final Set<String> schemaWords = new HashSet<>();
+
+    /// The filter builder of the queries the rules do not apply to.
+    private final Function<Query, Filter> fallback;
+
+    /// The filters by normalized query, least recently used first; a missing filter is empty.
+    private final Map<String, Optional<Filter>> cache;
+
+    /// The number of filters built by the rules.
+    private final AtomicLong parsed = new AtomicLong();
+
+    /// The number of filters built by the fallback.
+    private final AtomicLong generated = new AtomicLong();
+
+    /// The number of filters found in the cache.
+    private final AtomicLong cached = new AtomicLong();
+
+    /// The constructor.
+    ///
+    /// @param  tableDefinition dev.langchain4j.store.embedding.filter.builder.sql.TableDefinition
+    /// @param  fallback        java.util.function.Function<dev.langchain4j.rag.query.Query, dev.langchain4j.store.embedding.filter.Filter>
+    /// @param  cacheEntries    int     The most filters to cache
+    public FastPathSqlFilterBuilder(final TableDefinition tableDefinition,
+                                    final Function<Query, Filter> fallback,
+                                    final int cacheEntries) {
+        super();
+
+        String year = null;
+
+        this.addSchemaWords(tableDefinition.name());
+
+        for (final ColumnDefinition column : tableDefinition.columns()) {
+            this.addSchemaWords(column.name());
+
+            final Matcher matcher = column.description() != null ? ENUMERATION.matcher(column.description()) : null;
+
+            if (matcher != null && matcher.find()) {
+                final List<String> values = new ArrayList<>();
+
+                for (final String value : matcher.group(1).split(",")) {
+                    values.add(value.strip().replaceAll("^['\"]|['\"]$", ""));
+                }
+
+                this.enumerations.put(column.name(), values);
+            } else if (year == null
+                    && column.name().toLowerCase(Locale.ROOT).contains("year")
+                    && WHOLE_NUMBER_TYPES.contains(column.type().toUpperCase(Locale.ROOT))) {
+                year = column.name();
+            }
+        }
+
+        this.yearColumn = year;
+        this.fallback = fallback;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Optional<Filter>> eldest) {
+                return this.size() > cacheEntries;
+            }
+        };
+    }
+
+    /// Build the filter of a query.
+    ///
+    /// @param  query   dev.langchain4j.rag.query.Query
+    /// @return         dev.langchain4j.store.embedding.filter.Filter   Null when the query has no filter
+    public Filter build(final Query query) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(query));
+        }
+
+        final String key = query.text().strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+
+        Optional<Filter> filter;
+
+        synchronized (this.cache) {
+            filter = this.cache.get(key);
+        }
+
+        if (filter != null) {
+            this.cached.incrementAndGet();
+        } else {
+            filter = this.parse(key);
+
+            if (filter.isPresent()) {
+                this.parsed.incrementAndGet();
+            } else {
+                filter = Optional.ofNullable(this.fallback.apply(query));
+                this.generated.incrementAndGet();
+            }
+
+            synchronized (this.cache) {
+                this.cache.put(key, filter);
+            }
+        }
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Filter for '{}': {}", query.text(), filter.orElse(null));
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(filter));
+        }
+
+        return filter.orElse(null);
+    }
+
+    /// Return the statistics of the filters built.
+    ///
+    /// @return net.jmp.pinecone.langchain.retrieval.FastPathSqlFilterBuilder.Stats
+    public Stats stats() {
+        return new Stats(this.parsed.get(), this.generated.get(), this.cached.get());
+    }
+
+    /// Build the filter of a normalized query by the rules.
+    ///
+    /// @param  text    java.lang.String
+    /// @return         java.util.Optional<dev.langchain4j.store.embedding.filter.Filter>   Empty when the rules do not apply
+    Optional<Filter> parse(final String text) {
+        if (NEGATION.matcher(text).find() || ALTERNATIVE.matcher(text).find()) {
+            return Optional.empty();
+        }
+
+        // The words the rules consume are blanked so that any word left can be checked
+
+        final StringBuilder residue = new StringBuilder(text);
+        final List<Filter> conditions = new ArrayList<>();
+
+        this.enumerations.forEach((column, values) -> {
+            final List<String> mentioned = new ArrayList<>();
+
+            for (final String value : values) {
+                final Matcher matcher = mention(value.toLowerCase(Locale.ROOT)).matcher(text);
+
+                while (matcher.find()) {
+                    if (!mentioned.contains(value)) {
+                        mentioned.add(value);
+                    }
+
+                    consume(residue, matcher);
+                }
+            }
+
+            if (mentioned.size() == 1) {
+                conditions.add(metadataKey(column).isEqualTo(mentioned.getFirst()));
+            } else if (mentioned.size() > 1) {
+                conditions.add(metadataKey(column).isIn(mentioned));
+            }
+        });
+
+        if (this.yearColumn != null && !this.parseYears(residue, conditions)) {
+            return Optional.empty();
+        }
+
+        final Matcher words = WORD.matcher(residue);
+
+        while (words.find()) {
+            if (!IGNORED_WORDS.contains(words.group()) && !this.schemaWords.contains(words.group())) {
+                return Optional.empty();
+            }
+        }
+
+        return conditions.stream().reduce((left, right) -> left.and(right));
+    }
+
+    /// Add the condition on the year column of a normalized query and
+    /// consume the words it is built from. A query may hold one range,
+    /// decade or year, or else a lower and an upper bound.
+    ///
+    /// @param  residue     java.lang.StringBuilder
+    /// @param  conditions  java.util.List<dev.langchain4j.store.embedding.filter.Filter>
+    /// @return             boolean     False when the query holds more than one condition on the year
+    private boolean parseYears(final StringBuilder residue, final List<Filter> conditions) {
+        final List<Filter> years = new ArrayList<>();
+
+        Matcher matcher = BETWEEN.matcher(residue.toString());
+
+        while (matcher.find()) {
+            years.add(this.range(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            consume(residue, matcher);
+        }
+
+        matcher = DECADE.matcher(residue.toString());
+
+        while (matcher.find()) {
+            final int digits = Integer.parseInt(matcher.group(1));
+            final int decade = digits >= 100 ? digits : digits >= 30 ? 1900 + digits : 2000 + digits;
+
+            years.add(this.range(decade, decade + 9));
+            consume(residue, matcher);
+        }
+
+        matcher = YEAR.matcher(residue.toString());
+
+        while (matcher.find()) {
+            years.add(metadataKey(this.yearColumn).isEqualTo(Integer.parseInt(matcher.group(1))));
+            consume(residue, matcher);
+        }
+
+        final List<Filter> lowerBounds = new ArrayList<>();
+        final List<Filter> upperBounds = new ArrayList<>();
+
+        matcher = AFTER.matcher(residue.toString());
+
+        while (matcher.find()) {
+            final int year = Integer.parseInt(matcher.group(2));
+
+            lowerBounds.add("since".equals(matcher.group(1))
+                    ? metadataKey(this.yearColumn).isGreaterThanOrEqualTo(year)
+                    : metadataKey(this.yearColumn).isGreaterThan(year));
+            consume(residue, matcher);
+        }
+
+        matcher = BEFORE.matcher(residue.toString());
+
+        while (matcher.find()) {
+            upperBounds.add(metadataKey(this.yearColumn).isLessThan(Integer.parseInt(matcher.group(2))));
+            consume(residue, matcher);
+        }
+
+        final boolean bounded = !lowerBounds.isEmpty() || !upperBounds.isEmpty();
+
+        if (years.size() + (bounded ? 1 : 0) > 1 || lowerBounds.size() > 1 || upperBounds.size() > 1) {
+            return false;
+        }
+
+        if (bounded) {
+            Stream.concat(lowerBounds.stream(), upperBounds.stream())
+                    .reduce((left, right) -> left.and(right))
+                    .ifPresent(conditions::add);
+        } else {
+            conditions.addAll(years);
+        }
+
+        return true;
+    }
+
+    /// Return the condition that the year is in an inclusive range.
+    ///
+    /// @param  from    int
+    /// @param  to      int
+    /// @return         dev.langchain4j.store.embedding.filter.Filter
+    private Filter range(final int from, final int to) {
+        return metadataKey(this.yearColumn).isGreaterThanOrEqualTo(from)
+                .and(metadataKey(this.yearColumn).isLessThanOrEqualTo(to));
+    }
+
+    /// Add a name of the table definition to the schema
+    /// words, singular and plural.
+    ///
+    /// @param  name    java.lang.String    May be null
+    private void addSchemaWords(final String name) {
+        if (name != null) {
+            final Matcher matcher = WORD.matcher(name.toLowerCase(Locale.ROOT));
+
+            while (matcher.find()) {
+                final String word = matcher.group();
+
+                this.schemaWords.add(word);
+                this.schemaWords.add(plural(word));
+
+                if (word.endsWith("s")) {
+                    this.schemaWords.add(word.substring(0, word.length() - 1));
+                }
+            }
+        }
+    }
+
+    /// Return the pattern of a value as a word, singular or plural.
+    ///
+    /// @param  value   java.lang.String
+    /// @return         java.util.regex.Pattern
+    private static Pattern mention(final String value) {
+        return Pattern.compile("\\b(" + Pattern.quote(value) + "|" + Pattern.quote(plural(value)) + ")\\b");
+    }
+
+    /// Return the plural of a word.
+    ///
+    /// @param  word    java.lang.String
+    /// @return         java.lang.String
+    private static String plural(final String word) {
+        return word.endsWith("y") ? word.substring(0, word.length() - 1) + "ies" : word + "s";
+    }
+
+    /// Blank the text a matcher matched so that its words are consumed.
+    ///
+    /// @param  residue java.lang.StringBuilder
+    /// @param  matcher java.util.regex.Matcher
+    private static void consume(final StringBuilder residue, final Matcher matcher) {
+        for (int i = matcher.start(); i < matcher.end(); i++) {
+            residue.setCharAt(i, ' ');
+        }
+    }
+
+    /// The statistics of the filters built.
+    ///
+    /// @param  parsed      long    Built by the rules
+    /// @param  generated   long    Built by the fallback
+    /// @param  cached      long    Found in the cache
+    public record Stats(long parsed, long generated, long cached) {
+    }
+}
@@ -0,0 +1,167 @@
+package net.jmp.pinecone.langchain.retrieval;
+
+/*
+ * (#)GatedQueryRouter.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+
+import dev.langchain4j.rag.query.Query;
+
+import dev.langchain4j.rag.query.router.QueryRouter;
+
+import java.util.Collection;
+import java.util.List;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A query router that skips retrieval for the queries a retrieval gate
+/// is confident do not need it and routes the queries it is confident do
+/// need it to the retrievers. Only the queries the gate is unsure of are
+/// escalated to the fallback router, typically one that asks a chat model.
+/// The decisions and the time the gate takes to make them are counted.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class GatedQueryRouter implements QueryRouter {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The retrieval gate.
+    private final RetrievalGate gate;
+
+    /// The retrievers.
+    private final List<ContentRetriever> contentRetrievers;
+
+    /// The probability a decision must reach to be made locally.
+    private final double confidence;
+
+    /// The router of the queries the gate is unsure of.
+    private final QueryRouter fallback;
+
+    /// The number of queries routed to the retrievers by the gate.
+    private final AtomicLong retrieved = new AtomicLong();
+
+    /// The number of queries whose retrieval was skipped by the gate.
+    private final AtomicLong skipped = new AtomicLong();
+
+    /// The number of queries escalated to the fallback.
+    private final AtomicLong escalated = new AtomicLong();
+
+    /// The time spent in the gate.
+    private final AtomicLong gateNanos = new AtomicLong();
+
+    /// The constructor.
+    ///
+    /// @param  gate                net.jmp.pinecone.langchain.retrieval.RetrievalGate
+    /// @param  contentRetrievers   java.util.List<dev.langchain4j.rag.content.retriever.ContentRetriever>
+    /// @param  confidence          double  Between 0.5 and 1
+    /// @param  fallback            dev.langchain4j.rag.query.router.QueryRouter
+    public GatedQueryRouter(final RetrievalGate gate,
+                            final List<ContentRetriever> contentRetrievers,
+                            final double confidence,
+                            final QueryRouter fallback) {
+        super();
+
+        if (confidence < 0.5 || confidence > 1) {
+            throw new IllegalArgumentException("The confidence must be between 0.5 and 1: " + confidence);
+        }
+
+        this.gate = gate;
+        this.contentRetrievers = List.copyOf(contentRetrievers);
+        this.confidence = confidence;
+        this.fallback = fallback;
+    }
+
+    /// Route a query.
+    ///
+    /// @param  query   dev.langchain4j.rag.query.Query
+    /// @return         java.util.Collection<dev.langchain4j.rag.content.retriever.ContentRetriever>
+    @Override
+    public Collection<ContentRetriever> route(final Query query) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(query));
+        }
+
+        final long start = System.nanoTime();
+        final double probability = this.gate.probability(query.text());
+        final long elapsed = System.nanoTime() - start;
+
+        this.gateNanos.addAndGet(elapsed);
+
+        final Collection<ContentRetriever> routed;
+
+        if (probability >= this.confidence) {
+            this.retrieved.incrementAndGet();
+            routed = this.contentRetrievers;
+        } else if (probability <= 1 - this.confidence) {
+            this.skipped.incrementAndGet();
+            routed = List.of();
+        } else {
+            this.escalated.incrementAndGet();
+            routed = this.fallback.route(query);
+        }
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Gate decided {} for '{}' in {} µs with probability {}",
+                    probability >= this.confidence ? "retrieve" : probability <= 1 - this.confidence ? "skip" : "escalate",
+                    query.text(), elapsed / 1_000, probability);
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(routed));
+        }
+
+        return routed;
+    }
+
+    /// Return the statistics of the decisions.
+    ///
+    /// @return net.jmp.pinecone.langchain.retrieval.GatedQueryRouter.Stats
+    public Stats stats() {
+        final long retrieved = this.retrieved.get();
+        final long skipped = this.skipped.get();
+        final long escalated = this.escalated.get();
+        final long decisions = retrieved + skipped + escalated;
+
+        return new Stats(retrieved, skipped, escalated, decisions == 0 ? 0 : this.gateNanos.get() / decisions / 1_000);
+    }
+
+    /// The statistics of the decisions.
+    ///
+    /// @param  retrieved   long
+    /// @param  skipped     long
+    /// @param  escalated   long
+    /// @param  meanMicros  long    The mean time the gate took to decide
+    public record Stats(long retrieved, long skipped, long escalated, long meanMicros) {
+    }
+}
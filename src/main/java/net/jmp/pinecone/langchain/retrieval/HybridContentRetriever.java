@@ -0,0 +1,155 @@
+package net.jmp.pinecone.langchain.retrieval;
+
+/*
+ * (#)HybridContentRetriever.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.data.embedding.Embedding;
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.ContentMetadata;
+
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+
+import dev.langchain4j.rag.query.Query;
+
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+
+import java.util.List;
+import java.util.Map;
+
+import net.jmp.pinecone.langchain.store.Bm25Encoder;
+import net.jmp.pinecone.langchain.store.HybridStore;
+import net.jmp.pinecone.langchain.store.SparseEmbedding;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A content retriever that searches a hybrid store with both the
+/// dense embedding and the sparse BM25 embedding of the query, so that
+/// exact keyword matches such as names are found along with semantic
+/// ones. The contents carry the combined score and the embedding ID.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class HybridContentRetriever implements ContentRetriever {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The hybrid store.
+    private final HybridStore hybridStore;
+
+    /// The embedding model.
+    private final EmbeddingModel embeddingModel;
+
+    /// The BM25 encoder.
+    private final Bm25Encoder encoder;
+
+    /// The weight of the dense score.
+    private final double alpha;
+
+    /// The maximum results.
+    private final int maxResults;
+
+    /// The filter, or null.
+    private final Filter filter;
+
+    /// The constructor.
+    ///
+    /// @param  hybridStore     net.jmp.pinecone.langchain.store.HybridStore
+    /// @param  embeddingModel  dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  encoder         net.jmp.pinecone.langchain.store.Bm25Encoder
+    /// @param  alpha           double
+    /// @param  maxResults      int
+    /// @param  filter          dev.langchain4j.store.embedding.filter.Filter   May be null
+    public HybridContentRetriever(final HybridStore hybridStore,
+                                  final EmbeddingModel embeddingModel,
+                                  final Bm25Encoder encoder,
+                                  final double alpha,
+                                  final int maxResults,
+                                  final Filter filter) {
+        super();
+
+        if (alpha < 0 || alpha > 1) {
+            throw new IllegalArgumentException("Alpha must be between 0 and 1: " + alpha);
+        }
+
+        this.hybridStore = hybridStore;
+        this.embeddingModel = embeddingModel;
+        this.encoder = encoder;
+        this.alpha = alpha;
+        this.maxResults = maxResults;
+        this.filter = filter;
+    }
+
+    /// Retrieve the contents for a query.
+    ///
+    /// @param  query   dev.langchain4j.rag.query.Query
+    /// @return         java.util.List<dev.langchain4j.rag.content.Content>
+    @Override
+    public List<Content> retrieve(final Query query) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(query));
+        }
+
+        final Embedding embedding = this.embeddingModel.embed(query.text()).content();
+        final SparseEmbedding sparseEmbedding = this.encoder.encodeQuery(query.text());
+
+        final List<EmbeddingMatch<TextSegment>> matches = this.hybridStore.search(
+                embedding,
+                sparseEmbedding,
+                this.alpha,
+                this.maxResults,
+                this.filter
+        );
+
+        final List<Content> contents = matches.stream()
+                .map(match -> Content.from(match.embedded(), Map.of(
+                        ContentMetadata.SCORE, match.score(),
+                        ContentMetadata.EMBEDDING_ID, match.embeddingId()
+                )))
+                .toList();
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Retrieved {} hybrid contents for {} query terms", contents.size(), sparseEmbedding.indices().size());
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(contents));
+        }
+
+        return contents;
+    }
+}
@@ -0,0 +1,106 @@
+package net.jmp.pinecone.langchain.retrieval;
+
+/*
+ * (#)KeywordContentRetriever.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.ContentMetadata;
+
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+
+import dev.langchain4j.rag.query.Query;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+
+import java.util.List;
+import java.util.Map;
+
+import net.jmp.pinecone.langchain.store.Bm25InvertedIndex;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A content retriever that searches a local BM25 inverted index, so that
+/// keyword matches are found in-process without a remote call. The contents
+/// carry the BM25 score and the document ID, which is the ID of the vector
+/// of the same document.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class KeywordContentRetriever implements ContentRetriever {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The inverted index.
+    private final Bm25InvertedIndex index;
+
+    /// The maximum results.
+    private final int maxResults;
+
+    /// The filter, or null.
+    private final Filter filter;
+
+    /// The constructor.
+    ///
+    /// @param  index       net.jmp.pinecone.langchain.store.Bm25InvertedIndex
+    /// @param  maxResults  int
+    /// @param  filter      dev.langchain4j.store.embedding.filter.Filter   May be null
+    public KeywordContentRetriever(final Bm25InvertedIndex index, final int maxResults, final Filter filter) {
+        super();
+
+        this.index = index;
+        this.maxResults = maxResults;
+        this.filter = filter;
+    }
+
+    /// Retrieve the contents for a query.
+    ///
+    /// @param  query   dev.langchain4j.rag.query.Query
+    /// @return         java.util.List<dev.langchain4j.rag.content.Content>
+    @Override
+    public List<Content> retrieve(final Query query) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(query));
+        }
+
+        final List<Content> contents = this.index.search(query.text(), this.maxResults, this.filter).stream()
+                .map(match -> Content.from(match.textSegment(), Map.of(
+                        ContentMetadata.SCORE, match.score(),
+                        ContentMetadata.EMBEDDING_ID, match.id()
+                )))
+                .toList();
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(contents));
+        }
+
+        return contents;
+    }
+}
@@ -0,0 +1,91 @@
+package net.jmp.pinecone.langchain.retrieval;
+
+/*
+ * (#)MemoizingRetrievalAugmentor.java 0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.data.message.ChatMessage;
+
+import dev.langchain4j.rag.AugmentationRequest;
+import dev.langchain4j.rag.AugmentationResult;
+import dev.langchain4j.rag.RetrievalAugmentor;
+
+import java.util.Map;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A retrieval augmentor that remembers the result of augmenting each
+/// user message and returns it when the same message is augmented again,
+/// so that a caller can inspect the augmentation and then hand the same
+/// augmentor to an AI service without retrieving, searching or reranking
+/// a second time. It is meant to live for a single request.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class MemoizingRetrievalAugmentor implements RetrievalAugmentor {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The retrieval augmentor being memoized.
+    private final RetrievalAugmentor delegate;
+
+    /// The results by user message.
+    private final Map<ChatMessage, AugmentationResult> results = new ConcurrentHashMap<>();
+
+    /// The constructor.
+    ///
+    /// @param  delegate    dev.langchain4j.rag.RetrievalAugmentor
+    public MemoizingRetrievalAugmentor(final RetrievalAugmentor delegate) {
+        super();
+
+        this.delegate = delegate;
+    }
+
+    /// Augment a request, or return the result
+    /// already computed for its user message.
+    ///
+    /// @param  augmentationRequest dev.langchain4j.rag.AugmentationRequest
+    /// @return                     dev.langchain4j.rag.AugmentationResult
+    @Override
+    public AugmentationResult augment(final AugmentationRequest augmentationRequest) {
+        final ChatMessage chatMessage = augmentationRequest.chatMessage();
+        final AugmentationResult memoized = this.results.get(chatMessage);
+
+        if (memoized != null) {
+            if (this.logger.isDebugEnabled()) {
+                this.logger.debug("Reusing the augmentation of: {}", chatMessage);
+            }
+
+            return memoized;
+        }
+
+        return this.results.computeIfAbsent(chatMessage, message -> this.delegate.augment(augmentationRequest));
+    }
+}
@@ -0,0 +1,234 @@
+package net.jmp.pinecone.langchain.retrieval;
+
+/*
+ * (#)ParallelQueryRouter.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.rag.content.Content;
+
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+
+import dev.langchain4j.rag.query.Query;
+
+import dev.langchain4j.rag.query.router.DefaultQueryRouter;
+import dev.langchain4j.rag.query.router.QueryRouter;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import java.util.function.Consumer;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A query router that queries every retriever another router selects in
+/// parallel, each on its own virtual thread, under one deadline per query.
+/// The retrievers that finish in time are returned holding their contents,
+/// so the retrieval augmentor does not query them again; those still running
+/// at the deadline are cancelled and those that fail are dropped. A slow
+/// retriever such as a web search therefore bounds the latency of a request
+/// by the deadline rather than adding to it. The outcome of each query,
+/// which is partial when a retriever was cancelled or failed, is passed
+/// to a listener and counted.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class ParallelQueryRouter implements QueryRouter, AutoCloseable {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The router that selects the retrievers.
+    private final QueryRouter delegate;
+
+    /// The time allowed for the retrievers of a query.
+    private final Duration timeout;
+
+    /// The listener of the outcomes.
+    private final Consumer<Outcome> listener;
+
+    /// The executor of the retrievals.
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /// The number of queries routed.
+    private final AtomicLong routed = new AtomicLong();
+
+    /// The number of queries with partial results.
+    private final AtomicLong partial = new AtomicLong();
+
+    /// The constructor.
+    ///
+    /// @param  delegate    dev.langchain4j.rag.query.router.QueryRouter
+    /// @param  timeout     java.time.Duration
+    /// @param  listener    java.util.function.Consumer<net.jmp.pinecone.langchain.retrieval.ParallelQueryRouter.Outcome>
+    public ParallelQueryRouter(final QueryRouter delegate, final Duration timeout, final Consumer<Outcome> listener) {
+        super();
+
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("The deadline must be positive: " + timeout);
+        }
+
+        this.delegate = delegate;
+        this.timeout = timeout;
+        this.listener = listener;
+    }
+
+    /// A constructor that routes every query to all of the retrievers.
+    ///
+    /// @param  timeout             java.time.Duration
+    /// @param  listener            java.util.function.Consumer<net.jmp.pinecone.langchain.retrieval.ParallelQueryRouter.Outcome>
+    /// @param  contentRetrievers   dev.langchain4j.rag.content.retriever.ContentRetriever[]
+    public ParallelQueryRouter(final Duration timeout, final Consumer<Outcome> listener, final ContentRetriever... contentRetrievers) {
+        this(new DefaultQueryRouter(contentRetrievers), timeout, listener);
+    }
+
+    /// Query the selected retrievers and return those that finished in time.
+    ///
+    /// @param  query   dev.langchain4j.rag.query.Query
+    /// @return         java.util.Collection<dev.langchain4j.rag.content.retriever.ContentRetriever>
+    @Override
+    public Collection<ContentRetriever> route(final Query query) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(query));
+        }
+
+        final long start = System.nanoTime();
+        final long deadline = start + this.timeout.toNanos();
+        final List<ContentRetriever> selected = new ArrayList<>(this.delegate.route(query));
+        final List<Future<List<Content>>> futures = new ArrayList<>(selected.size());
+
+        for (final ContentRetriever contentRetriever : selected) {
+            futures.add(this.executor.submit(() -> contentRetriever.retrieve(query)));
+        }
+
+        final List<ContentRetriever> completed = new ArrayList<>(selected.size());
+
+        int timedOut = 0;
+        int failed = 0;
+
+        for (int i = 0; i < futures.size(); i++) {
+            final Future<List<Content>> future = futures.get(i);
+
+            try {
+                final List<Content> contents = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+                completed.add(ignored -> contents);
+            } catch (final TimeoutException te) {
+                future.cancel(true);
+                timedOut++;
+
+                this.logger.warn("Cancelled retriever {} at the {} ms deadline", selected.get(i), this.timeout.toMillis());
+            } catch (final ExecutionException ee) {
+                failed++;
+
+                this.logger.warn("Retriever {} failed", selected.get(i), ee.getCause());
+            } catch (final InterruptedException ie) {
+                futures.forEach(remaining -> remaining.cancel(true));
+                Thread.currentThread().interrupt();
+
+                throw new IllegalStateException("Interrupted while retrieving", ie);
+            }
+        }
+
+        final Outcome outcome = new Outcome(
+                query,
+                selected.size(),
+                completed.size(),
+                timedOut,
+                failed,
+                Duration.ofNanos(System.nanoTime() - start)
+        );
+
+        this.routed.incrementAndGet();
+
+        if (outcome.partial()) {
+            this.partial.incrementAndGet();
+        }
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Routed query: {}", outcome);
+        }
+
+        this.listener.accept(outcome);
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(completed));
+        }
+
+        return completed;
+    }
+
+    /// Return the number of queries routed.
+    ///
+    /// @return long
+    public long routed() {
+        return this.routed.get();
+    }
+
+    /// Return the number of queries whose results were partial.
+    ///
+    /// @return long
+    public long partial() {
+        return this.partial.get();
+    }
+
+    /// Close the router, cancelling any retrieval still running.
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+    }
+
+    /// The outcome of routing a query.
+    ///
+    /// @param  query       dev.langchain4j.rag.query.Query
+    /// @param  selected    int     The retrievers selected
+    /// @param  completed   int     The retrievers that finished in time
+    /// @param  timedOut    int     The retrievers cancelled at the deadline
+    /// @param  failed      int     The retrievers that failed
+    /// @param  elapsed     java.time.Duration
+    public record Outcome(Query query, int selected, int completed, int timedOut, int failed, Duration elapsed) {
+        /// Return true if a selected retriever did not contribute.
+        ///
+        /// @return boolean
+        public boolean partial() {
+            return this.completed < this.selected;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package net.jmp.pinecone.langchain.retrieval;
+
+/*
+ * (#)PruningReRankingContentAggregator.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.model.scoring.ScoringModel;
+
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.ContentMetadata;
+
+import dev.langchain4j.rag.content.aggregator.ReRankingContentAggregator;
+
+import dev.langchain4j.rag.query.Query;
+
+import java.util.Comparator;
+import java.util.List;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A reranking content aggregator that prunes the candidates by their dense
+/// retrieval score before reranking them. Only the best candidates, up to the
+/// maximum, whose dense score is within a margin of the best dense score are
+/// passed to the scoring model; the rest are dropped. When a single candidate
+/// is left the dense ranking is decisive and the scoring model is not called.
+/// Candidates without a dense score, such as web search results, are never
+/// pruned. After reciprocal rank fusion the fused score, scaled to the same
+/// zero to one range, stands in for the dense score.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class PruningReRankingContentAggregator extends ReRankingContentAggregator {
+    /// The number of rerankings skipped, shared by the aggregators of a process.
+    private static final AtomicLong SKIPPED = new AtomicLong();
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The most candidates reranked.
+    private final int maxCandidates;
+
+    /// The margin of the best dense score within which candidates are reranked.
+    private final double margin;
+
+    /// The constructor.
+    ///
+    /// @param  scoringModel    dev.langchain4j.model.scoring.ScoringModel
+    /// @param  maxCandidates   int
+    /// @param  margin          double
+    public PruningReRankingContentAggregator(final ScoringModel scoringModel,
+                                             final int maxCandidates,
+                                             final double margin) {
+        super(scoringModel, DEFAULT_QUERY_SELECTOR, null, null);
+
+        if (maxCandidates < 1) {
+            throw new IllegalArgumentException("The maximum candidates must be positive: " + maxCandidates);
+        }
+
+        if (margin < 0) {
+            throw new IllegalArgumentException("The margin must not be negative: " + margin);
+        }
+
+        this.maxCandidates = maxCandidates;
+        this.margin = margin;
+    }
+
+    /// Return the number of rerankings skipped because
+    /// the dense ranking was decisive.
+    ///
+    /// @return long
+    public static long skipped() {
+        return SKIPPED.get();
+    }
+
+    /// Prune the contents and rerank those left.
+    ///
+    /// @param  contents    java.util.List<dev.langchain4j.rag.content.Content>
+    /// @param  query       dev.langchain4j.rag.query.Query
+    /// @return             java.util.List<dev.langchain4j.rag.content.Content>
+    @Override
+    protected List<Content> reRankAndFilter(final List<Content> contents, final Query query) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(contents, query));
+        }
+
+        final boolean scored = contents.stream().allMatch(content -> content.metadata().get(ContentMetadata.SCORE) instanceof Number);
+
+        List<Content> candidates = contents;
+
+        if (scored && !contents.isEmpty()) {
+            final List<Content> ranked = contents.stream()
+                    .sorted(Comparator.comparingDouble(PruningReRankingContentAggregator::denseScore).reversed())
+                    .toList();
+
+            final double floor = denseScore(ranked.getFirst()) - this.margin;
+
+            candidates = ranked.stream()
+                    .limit(this.maxCandidates)
+                    .takeWhile(content -> denseScore(content) >= floor)
+                    .toList();
+        }
+
+        final boolean decisive = scored && candidates.size() == 1;
+        final List<Content> reRanked;
+
+        if (decisive) {
+            SKIPPED.incrementAndGet();
+
+            reRanked = candidates;
+        } else {
+            reRanked = super.reRankAndFilter(candidates, query);
+        }
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Reranked {} of {} candidates", decisive ? 0 : candidates.size(), contents.size());
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(reRanked));
+        }
+
+        return reRanked;
+    }
+
+    /// Return the dense retrieval score of a content.
+    ///
+    /// @param  content dev.langchain4j.rag.content.Content
+    /// @return         double
+    private static double denseScore(final Content content) {
+        return ((Number) content.metadata().get(ContentMetadata.SCORE)).doubleValue();
+    }
+}
@@ -0,0 +1,163 @@
+package net.jmp.pinecone.langchain.retrieval;
+
+/*
+ * (#)ReciprocalRankFusionContentAggregator.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.ContentMetadata;
+
+import dev.langchain4j.rag.content.aggregator.ContentAggregator;
+
+import dev.langchain4j.rag.query.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A content aggregator that fuses the lists of contents that several
+/// retrievers found for a query by reciprocal rank fusion, then passes the
+/// fused list to another aggregator. A content scores the sum over the lists
+/// of one over k plus its rank, so that a content ranked well by both a
+/// keyword and a vector search comes first even though their scores are not
+/// comparable. Contents are the same when they have the same embedding ID,
+/// or the same text when they have none. The fused score replaces the
+/// retrieval score of a content as a fraction of the best score a content
+/// can reach, first in every list, so that it spans zero to one as a dense
+/// score does and a pruning margin keeps its meaning after fusion.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class ReciprocalRankFusionContentAggregator implements ContentAggregator {
+    /// The rank constant of the original paper.
+    public static final int DEFAULT_K = 60;
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The content aggregator of the fused contents.
+    private final ContentAggregator delegate;
+
+    /// The rank constant.
+    private final int k;
+
+    /// The constructor.
+    ///
+    /// @param  delegate    dev.langchain4j.rag.content.aggregator.ContentAggregator
+    /// @param  k           int
+    public ReciprocalRankFusionContentAggregator(final ContentAggregator delegate, final int k) {
+        super();
+
+        if (k < 1) {
+            throw new IllegalArgumentException("The rank constant must be positive: " + k);
+        }
+
+        this.delegate = delegate;
+        this.k = k;
+    }
+
+    /// Fuse the contents of each query and aggregate them.
+    ///
+    /// @param  queryToContents java.util.Map<dev.langchain4j.rag.query.Query, java.util.Collection<java.util.List<dev.langchain4j.rag.content.Content>>>
+    /// @return                 java.util.List<dev.langchain4j.rag.content.Content>
+    @Override
+    public List<Content> aggregate(final Map<Query, Collection<List<Content>>> queryToContents) {
+        final Map<Query, Collection<List<Content>>> fused = new LinkedHashMap<>();
+
+        queryToContents.forEach((query, contents) -> fused.put(query, List.of(this.fuse(contents))));
+
+        return this.delegate.aggregate(fused);
+    }
+
+    /// Fuse lists of contents.
+    ///
+    /// @param  lists   java.util.Collection<java.util.List<dev.langchain4j.rag.content.Content>>
+    /// @return         java.util.List<dev.langchain4j.rag.content.Content>     Best first
+    public List<Content> fuse(final Collection<List<Content>> lists) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(lists));
+        }
+
+        final Map<Object, Content> contents = new LinkedHashMap<>();
+        final Map<Object, Double> scores = new HashMap<>();
+
+        int found = 0;
+
+        for (final List<Content> list : lists) {
+            for (int rank = 0; rank < list.size(); rank++) {
+                final Content content = list.get(rank);
+                final Object key = key(content);
+
+                contents.putIfAbsent(key, content);
+                scores.merge(key, 1.0 / (this.k + rank + 1), Double::sum);
+                found++;
+            }
+        }
+
+        final double best = (double) lists.size() / (this.k + 1);
+        final List<Content> fused = new ArrayList<>(contents.size());
+
+        contents.forEach((key, content) -> {
+            final Map<ContentMetadata, Object> metadata = new HashMap<>(content.metadata());
+
+            metadata.put(ContentMetadata.SCORE, scores.get(key) / best);
+            fused.add(Content.from(content.textSegment(), metadata));
+        });
+
+        fused.sort(Comparator.comparingDouble((Content content) -> (Double) content.metadata().get(ContentMetadata.SCORE)).reversed());
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Fused {} contents from {} lists into {} ({} found by more than one)",
+                    found, lists.size(), fused.size(), found - fused.size());
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(fused));
+        }
+
+        return fused;
+    }
+
+    /// Return the key that identifies a content.
+    ///
+    /// @param  content dev.langchain4j.rag.content.Content
+    /// @return         java.lang.Object
+    private static Object key(final Content content) {
+        final Object id = content.metadata().get(ContentMetadata.EMBEDDING_ID);
+
+        return id != null ? id : content.textSegment().text();
+    }
+}
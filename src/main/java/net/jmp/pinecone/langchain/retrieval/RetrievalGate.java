@@ -0,0 +1,333 @@
+package net.jmp.pinecone.langchain.retrieval;
+
+/*
+ * (#)RetrievalGate.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.langchain4j.data.embedding.Embedding;
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A classifier that decides locally whether a query needs retrieval. It is
+/// a logistic regression over normalized query embeddings, trained from
+/// labelled example queries, so a decision costs one local embedding and a
+/// dot product rather than a chat model round trip. The probabilities of
+/// recent queries are cached, so a repeated query is decided in microseconds.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class RetrievalGate {
+    /// The passes over the examples when training.
+    private static final int EPOCHS = 500;
+
+    /// The learning rate.
+    private static final double LEARNING_RATE = 0.5;
+
+    /// The L2 regularization of the weights.
+    private static final double L2 = 1e-4;
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The embedding model.
+    private final EmbeddingModel embeddingModel;
+
+    /// The weights.
+    private final double[] weights;
+
+    /// The bias.
+    private final double bias;
+
+    /// The probabilities of recent queries, least recently used first.
+    private final Map<String, Double> cache;
+
+    /// The constructor.
+    ///
+    /// @param  embeddingModel  dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  weights         double[]
+    /// @param  bias            double
+    /// @param  cacheEntries    int
+    private RetrievalGate(final EmbeddingModel embeddingModel, final double[] weights, final double bias, final int cacheEntries) {
+        super();
+
+        this.embeddingModel = embeddingModel;
+        this.weights = weights;
+        this.bias = bias;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Double> eldest) {
+                return this.size() > cacheEntries;
+            }
+        };
+    }
+
+    /// Read labelled examples from a file of JSON lines,
+    /// each with a "query" string and a "retrieve" boolean.
+    ///
+    /// @param  file    java.nio.file.Path
+    /// @return         java.util.List<net.jmp.pinecone.langchain.retrieval.RetrievalGate.Example>
+    public static List<Example> read(final Path file) {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final List<Example> examples = new ArrayList<>();
+
+        try (final BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    final JsonNode node = objectMapper.readTree(line);
+
+                    examples.add(new Example(node.get("query").asText(), node.get("retrieve").asBoolean()));
+                }
+            }
+        } catch (final IOException ioe) {
+            throw new UncheckedIOException("Unable to read the retrieval gate examples: " + file, ioe);
+        }
+
+        return examples;
+    }
+
+    /// Train a gate on labelled examples.
+    ///
+    /// @param  embeddingModel  dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  examples        java.util.List<net.jmp.pinecone.langchain.retrieval.RetrievalGate.Example>
+    /// @param  cacheEntries    int     The most decisions to cache
+    /// @return                 net.jmp.pinecone.langchain.retrieval.RetrievalGate
+    public static RetrievalGate train(final EmbeddingModel embeddingModel, final List<Example> examples, final int cacheEntries) {
+        if (examples.isEmpty()) {
+            throw new IllegalArgumentException("There are no examples to train on");
+        }
+
+        final List<Embedding> embeddings = embeddingModel.embedAll(
+                examples.stream()
+                        .map(example -> TextSegment.from(normalize(example.query())))
+                        .toList()
+        ).content();
+
+        final int dimension = embeddings.getFirst().dimension();
+        final double[][] inputs = new double[examples.size()][];
+
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = normalized(embeddings.get(i));
+        }
+
+        final double[] weights = new double[dimension];
+
+        double bias = 0;
+
+        /* Full-batch gradient descent on the log loss */
+
+        for (int epoch = 0; epoch < EPOCHS; epoch++) {
+            final double[] gradient = new double[dimension];
+
+            double biasGradient = 0;
+
+            for (int i = 0; i < inputs.length; i++) {
+                final double error = sigmoid(dot(weights, inputs[i]) + bias) - (examples.get(i).retrieve() ? 1 : 0);
+
+                for (int j = 0; j < dimension; j++) {
+                    gradient[j] += error * inputs[i][j];
+                }
+
+                biasGradient += error;
+            }
+
+            for (int j = 0; j < dimension; j++) {
+                weights[j] -= LEARNING_RATE * (gradient[j] / inputs.length + L2 * weights[j]);
+            }
+
+            bias -= LEARNING_RATE * biasGradient / inputs.length;
+        }
+
+        return new RetrievalGate(embeddingModel, weights, bias, cacheEntries);
+    }
+
+    /// Return the probability that a query needs retrieval.
+    ///
+    /// @param  query   java.lang.String
+    /// @return         double
+    public double probability(final String query) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(query));
+        }
+
+        final String key = normalize(query);
+
+        Double probability;
+
+        synchronized (this.cache) {
+            probability = this.cache.get(key);
+        }
+
+        if (probability == null) {
+            final double[] input = normalized(this.embeddingModel.embed(key).content());
+
+            probability = sigmoid(dot(this.weights, input) + this.bias);
+
+            synchronized (this.cache) {
+                this.cache.put(key, probability);
+            }
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(probability));
+        }
+
+        return probability;
+    }
+
+    /// Evaluate the gate on labelled examples. An example counts as correct
+    /// when the gate is confident and right; the others are escalated.
+    ///
+    /// @param  examples    java.util.List<net.jmp.pinecone.langchain.retrieval.RetrievalGate.Example>
+    /// @param  confidence  double
+    /// @return             net.jmp.pinecone.langchain.retrieval.RetrievalGate.Evaluation
+    public Evaluation evaluate(final List<Example> examples, final double confidence) {
+        int correct = 0;
+        int escalated = 0;
+        long nanos = 0;
+
+        for (final Example example : examples) {
+            final long start = System.nanoTime();
+            final double probability = this.probability(example.query());
+
+            nanos += System.nanoTime() - start;
+
+            if (probability >= confidence) {
+                correct += example.retrieve() ? 1 : 0;
+            } else if (probability <= 1 - confidence) {
+                correct += example.retrieve() ? 0 : 1;
+            } else {
+                escalated++;
+            }
+        }
+
+        return new Evaluation(examples.size(), correct, escalated, examples.isEmpty() ? 0 : nanos / examples.size() / 1_000);
+    }
+
+    /// Normalize a query by trimming it, collapsing
+    /// its whitespace and lower-casing it.
+    ///
+    /// @param  query   java.lang.String
+    /// @return         java.lang.String
+    private static String normalize(final String query) {
+        return query.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /// Return an embedding as a unit vector.
+    ///
+    /// @param  embedding   dev.langchain4j.data.embedding.Embedding
+    /// @return             double[]
+    private static double[] normalized(final Embedding embedding) {
+        final float[] vector = embedding.vector();
+        final double[] result = new double[vector.length];
+
+        double norm = 0;
+
+        for (final float value : vector) {
+            norm += value * value;
+        }
+
+        norm = Math.sqrt(norm);
+
+        for (int i = 0; i < vector.length; i++) {
+            result[i] = norm > 0 ? vector[i] / norm : 0;
+        }
+
+        return result;
+    }
+
+    /// Return the dot product of two vectors.
+    ///
+    /// @param  a   double[]
+    /// @param  b   double[]
+    /// @return     double
+    private static double dot(final double[] a, final double[] b) {
+        double sum = 0;
+
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+
+        return sum;
+    }
+
+    /// Return the logistic function of a value.
+    ///
+    /// @param  x   double
+    /// @return     double
+    private static double sigmoid(final double x) {
+        return 1 / (1 + Math.exp(-x));
+    }
+
+    /// A labelled example.
+    ///
+    /// @param  query       java.lang.String
+    /// @param  retrieve    boolean     True if the query needs retrieval
+    public record Example(String query, boolean retrieve) {
+    }
+
+    /// The evaluation of a gate.
+    ///
+    /// @param  examples        int
+    /// @param  correct         int     Decided confidently and correctly
+    /// @param  escalated       int     Not decided confidently
+    /// @param  meanMicros      long    The mean time to decide
+    public record Evaluation(int examples, int correct, int escalated, long meanMicros) {
+        /// Return the accuracy of the confident decisions.
+        ///
+        /// @return double
+        public double accuracy() {
+            final int decided = this.examples - this.escalated;
+
+            return decided == 0 ? 0.0 : (double) this.correct / decided;
+        }
+    }
+}
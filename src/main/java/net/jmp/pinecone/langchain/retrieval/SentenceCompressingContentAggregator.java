@@ -0,0 +1,231 @@
+package net.jmp.pinecone.langchain.retrieval;
+
+/*
+ * (#)SentenceCompressingContentAggregator.java   0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.data.embedding.Embedding;
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+
+import dev.langchain4j.rag.content.Content;
+
+import dev.langchain4j.rag.content.aggregator.ContentAggregator;
+import dev.langchain4j.rag.content.aggregator.DefaultContentAggregator;
+
+import dev.langchain4j.rag.query.Query;
+
+import dev.langchain4j.store.embedding.CosineSimilarity;
+
+import java.text.BreakIterator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import java.util.stream.IntStream;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A content aggregator that compresses the contents aggregated by another
+/// by extracting from each the sentences most similar to the queries. The
+/// sentences are scored against the query embeddings with the local embedding
+/// model, in a single batch per request, and the best of each content are kept
+/// in their original order. Contents with few enough sentences are unchanged.
+/// No remote calls are made.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class SentenceCompressingContentAggregator implements ContentAggregator {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The content aggregator whose contents are compressed.
+    private final ContentAggregator delegate;
+
+    /// The embedding model.
+    private final EmbeddingModel embeddingModel;
+
+    /// The most sentences kept from a content.
+    private final int maxSentences;
+
+    /// The constructor.
+    ///
+    /// @param  delegate        dev.langchain4j.rag.content.aggregator.ContentAggregator
+    /// @param  embeddingModel  dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  maxSentences    int
+    public SentenceCompressingContentAggregator(final ContentAggregator delegate,
+                                                final EmbeddingModel embeddingModel,
+                                                final int maxSentences) {
+        super();
+
+        if (maxSentences < 1) {
+            throw new IllegalArgumentException("The maximum sentences must be positive: " + maxSentences);
+        }
+
+        this.delegate = delegate;
+        this.embeddingModel = embeddingModel;
+        this.maxSentences = maxSentences;
+    }
+
+    /// A constructor that compresses the contents
+    /// aggregated by the default content aggregator.
+    ///
+    /// @param  embeddingModel  dev.langchain4j.model.embedding.EmbeddingModel
+    /// @param  maxSentences    int
+    public SentenceCompressingContentAggregator(final EmbeddingModel embeddingModel, final int maxSentences) {
+        this(new DefaultContentAggregator(), embeddingModel, maxSentences);
+    }
+
+    /// Aggregate the contents and compress them.
+    ///
+    /// @param  queryToContents java.util.Map<dev.langchain4j.rag.query.Query, java.util.Collection<java.util.List<dev.langchain4j.rag.content.Content>>>
+    /// @return                 java.util.List<dev.langchain4j.rag.content.Content>
+    @Override
+    public List<Content> aggregate(final Map<Query, Collection<List<Content>>> queryToContents) {
+        final List<String> queries = queryToContents.keySet().stream()
+                .map(Query::text)
+                .toList();
+
+        return this.compress(queries, this.delegate.aggregate(queryToContents));
+    }
+
+    /// Compress contents to the sentences most similar to the queries.
+    ///
+    /// @param  queries     java.util.List<java.lang.String>
+    /// @param  contents    java.util.List<dev.langchain4j.rag.content.Content>
+    /// @return             java.util.List<dev.langchain4j.rag.content.Content>
+    public List<Content> compress(final List<String> queries, final List<Content> contents) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(queries, contents));
+        }
+
+        /* Split the contents and gather the queries and the sentences to score into one batch */
+
+        final List<List<String>> sentencesByContent = new ArrayList<>(contents.size());
+        final List<TextSegment> batch = new ArrayList<>();
+
+        queries.forEach(query -> batch.add(TextSegment.from(query)));
+
+        for (final Content content : contents) {
+            final List<String> sentences = sentences(content.textSegment().text());
+
+            sentencesByContent.add(sentences);
+
+            if (sentences.size() > this.maxSentences) {
+                sentences.forEach(sentence -> batch.add(TextSegment.from(sentence)));
+            }
+        }
+
+        if (queries.isEmpty() || batch.size() == queries.size()) {
+            return contents;    // Nothing to compress
+        }
+
+        final List<Embedding> embeddings = this.embeddingModel.embedAll(batch).content();
+        final List<Embedding> queryEmbeddings = embeddings.subList(0, queries.size());
+        final List<Content> compressed = new ArrayList<>(contents.size());
+
+        int next = queries.size();
+        int charactersBefore = 0;
+        int charactersAfter = 0;
+
+        for (int i = 0; i < contents.size(); i++) {
+            final Content content = contents.get(i);
+            final List<String> sentences = sentencesByContent.get(i);
+
+            charactersBefore += content.textSegment().text().length();
+
+            if (sentences.size() <= this.maxSentences) {
+                compressed.add(content);
+                charactersAfter += content.textSegment().text().length();
+                continue;
+            }
+
+            final double[] scores = new double[sentences.size()];
+
+            for (int s = 0; s < sentences.size(); s++) {
+                final Embedding sentenceEmbedding = embeddings.get(next++);
+
+                scores[s] = queryEmbeddings.stream()
+                        .mapToDouble(queryEmbedding -> CosineSimilarity.between(queryEmbedding, sentenceEmbedding))
+                        .max()
+                        .orElse(0.0);
+            }
+
+            final String text = IntStream.range(0, sentences.size())
+                    .boxed()
+                    .sorted(Comparator.comparingDouble((Integer s) -> scores[s]).reversed())
+                    .limit(this.maxSentences)
+                    .sorted()   // Back into their original order
+                    .map(sentences::get)
+                    .reduce((left, right) -> left + " " + right)
+                    .orElse("");
+
+            compressed.add(Content.from(TextSegment.from(text, content.textSegment().metadata()), content.metadata()));
+            charactersAfter += text.length();
+        }
+
+        this.logger.info("Compressed {} contents from {} to {} characters", contents.size(), charactersBefore, charactersAfter);
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(compressed));
+        }
+
+        return compressed;
+    }
+
+    /// Split a text into its non-blank sentences.
+    ///
+    /// @param  text    java.lang.String
+    /// @return         java.util.List<java.lang.String>
+    private static List<String> sentences(final String text) {
+        final BreakIterator iterator = BreakIterator.getSentenceInstance(Locale.ENGLISH);
+        final List<String> sentences = new ArrayList<>();
+
+        iterator.setText(text);
+
+        int start = iterator.first();
+
+        for (int end = iterator.next(); end != BreakIterator.DONE; start = end, end = iterator.next()) {
+            final String sentence = text.substring(start, end).strip();
+
+            if (!sentence.isEmpty()) {
+                sentences.add(sentence);
+            }
+        }
+
+        return sentences;
+    }
+}
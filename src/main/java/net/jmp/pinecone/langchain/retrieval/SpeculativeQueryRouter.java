@@ -0,0 +1,194 @@
+package net.jmp.pinecone.langchain.retrieval;
+
+/*
+ * (#)SpeculativeQueryRouter.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.rag.content.Content;
+
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+
+import dev.langchain4j.rag.query.Query;
+
+import dev.langchain4j.rag.query.router.QueryRouter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A query router that retrieves speculatively while another router, such
+/// as one that asks a chat model, decides where a query goes. Retrieval from
+/// the candidate retrievers starts on virtual threads before the decision is
+/// asked for; the chosen retrievers are returned holding their speculative
+/// retrieval, and the speculation of the others is cancelled. The latency of
+/// routing and retrieving is then the longer of the two rather than their sum.
+/// To bound the cost of retrievals that are thrown away, at most a fixed
+/// number of candidates, the first ones, are retrieved speculatively; a
+/// chosen retriever beyond them retrieves after the decision as usual.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class SpeculativeQueryRouter implements QueryRouter {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The router that decides.
+    private final QueryRouter delegate;
+
+    /// The candidate retrievers, most likely first.
+    private final List<ContentRetriever> candidates;
+
+    /// The most candidates to retrieve speculatively.
+    private final int maxSpeculative;
+
+    /// The number of speculative retrievals started.
+    private final AtomicLong speculated = new AtomicLong();
+
+    /// The number of speculative retrievals used.
+    private final AtomicLong used = new AtomicLong();
+
+    /// The constructor.
+    ///
+    /// @param  delegate        dev.langchain4j.rag.query.router.QueryRouter
+    /// @param  candidates      java.util.List<dev.langchain4j.rag.content.retriever.ContentRetriever>  Most likely first
+    /// @param  maxSpeculative  int
+    public SpeculativeQueryRouter(final QueryRouter delegate, final List<ContentRetriever> candidates, final int maxSpeculative) {
+        super();
+
+        if (maxSpeculative < 0) {
+            throw new IllegalArgumentException("The speculative retrievals must not be negative: " + maxSpeculative);
+        }
+
+        this.delegate = delegate;
+        this.candidates = List.copyOf(candidates);
+        this.maxSpeculative = maxSpeculative;
+    }
+
+    /// Route a query while retrieving speculatively.
+    ///
+    /// @param  query   dev.langchain4j.rag.query.Query
+    /// @return         java.util.Collection<dev.langchain4j.rag.content.retriever.ContentRetriever>
+    @Override
+    public Collection<ContentRetriever> route(final Query query) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(query));
+        }
+
+        final Map<ContentRetriever, FutureTask<List<Content>>> speculations = new LinkedHashMap<>();
+
+        for (final ContentRetriever candidate : this.candidates.subList(0, Math.min(this.maxSpeculative, this.candidates.size()))) {
+            final FutureTask<List<Content>> speculation = new FutureTask<>(() -> candidate.retrieve(query));
+
+            Thread.ofVirtual().name("speculative-retrieval").start(speculation);
+            speculations.put(candidate, speculation);
+        }
+
+        this.speculated.addAndGet(speculations.size());
+
+        final Collection<ContentRetriever> chosen;
+
+        try {
+            chosen = this.delegate.route(query);
+        } catch (final RuntimeException re) {
+            speculations.values().forEach(speculation -> speculation.cancel(true));
+
+            throw re;
+        }
+
+        final List<ContentRetriever> routed = new ArrayList<>(chosen.size());
+
+        for (final ContentRetriever contentRetriever : chosen) {
+            final FutureTask<List<Content>> speculation = speculations.remove(contentRetriever);
+
+            if (speculation != null) {
+                routed.add(ignored -> this.await(speculation));
+                this.used.incrementAndGet();
+            } else {
+                routed.add(contentRetriever);
+            }
+        }
+
+        speculations.values().forEach(speculation -> speculation.cancel(true));     // Those not chosen
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Routed to {} retrievers; {} speculative retrievals discarded", routed.size(), speculations.size());
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(routed));
+        }
+
+        return routed;
+    }
+
+    /// Return the number of speculative retrievals started.
+    ///
+    /// @return long
+    public long speculated() {
+        return this.speculated.get();
+    }
+
+    /// Return the number of speculative retrievals used.
+    ///
+    /// @return long
+    public long used() {
+        return this.used.get();
+    }
+
+    /// Wait for a speculative retrieval.
+    ///
+    /// @param  speculation java.util.concurrent.FutureTask<java.util.List<dev.langchain4j.rag.content.Content>>
+    /// @return             java.util.List<dev.langchain4j.rag.content.Content>
+    private List<Content> await(final FutureTask<List<Content>> speculation) {
+        try {
+            return speculation.get();
+        } catch (final ExecutionException ee) {
+            if (ee.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+
+            throw new IllegalStateException("Speculative retrieval failed", ee.getCause());
+        } catch (final InterruptedException ie) {
+            speculation.cancel(true);
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException("Interrupted while retrieving", ie);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package net.jmp.pinecone.langchain.retrieval;
+
+/*
+ * (#)TokenBudgetContentAggregator.java    0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.model.TokenCountEstimator;
+
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.ContentMetadata;
+
+import dev.langchain4j.rag.content.aggregator.ContentAggregator;
+
+import dev.langchain4j.rag.query.Query;
+
+import java.text.BreakIterator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A content aggregator that packs the contents aggregated by another
+/// into a token budget, so that the size of the prompt, and with it the
+/// time to the first token and the cost, is bounded. The contents are
+/// ranked by their reranked score, or their retrieval score when they were
+/// not reranked; contents whose text repeats one already packed are dropped;
+/// and a content that does not fit is cut at a sentence boundary when enough
+/// of the budget remains. The tokens saved are logged and accumulated.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class TokenBudgetContentAggregator implements ContentAggregator {
+    /// The fewest tokens worth filling with a truncated content.
+    private static final int MIN_TRUNCATED_TOKENS = 32;
+
+    /// The number of words in a shingle.
+    private static final int SHINGLE_WORDS = 3;
+
+    /// The shingle similarity at which texts are duplicates.
+    private static final double DUPLICATE_SIMILARITY = 0.8;
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The content aggregator whose contents are packed.
+    private final ContentAggregator delegate;
+
+    /// The token count estimator.
+    private final TokenCountEstimator tokenCountEstimator;
+
+    /// The token budget.
+    private final int maxTokens;
+
+    /// The tokens of the contents before packing.
+    private final AtomicLong tokensIn = new AtomicLong();
+
+    /// The tokens of the contents after packing.
+    private final AtomicLong tokensOut = new AtomicLong();
+
+    /// The constructor.
+    ///
+    /// @param  delegate            dev.langchain4j.rag.content.aggregator.ContentAggregator
+    /// @param  tokenCountEstimator dev.langchain4j.model.TokenCountEstimator
+    /// @param  maxTokens           int
+    public TokenBudgetContentAggregator(final ContentAggregator delegate,
+                                        final TokenCountEstimator tokenCountEstimator,
+                                        final int maxTokens) {
+        super();
+
+        if (maxTokens < 1) {
+            throw new IllegalArgumentException("The token budget must be positive: " + maxTokens);
+        }
+
+        this.delegate = delegate;
+        this.tokenCountEstimator = tokenCountEstimator;
+        this.maxTokens = maxTokens;
+    }
+
+    /// Aggregate the contents and pack them into the token budget.
+    ///
+    /// @param  queryToContents java.util.Map<dev.langchain4j.rag.query.Query, java.util.Collection<java.util.List<dev.langchain4j.rag.content.Content>>>
+    /// @return                 java.util.List<dev.langchain4j.rag.content.Content>
+    @Override
+    public List<Content> aggregate(final Map<Query, Collection<List<Content>>> queryToContents) {
+        return this.pack(this.delegate.aggregate(queryToContents));
+    }
+
+    /// Pack contents into the token budget.
+    ///
+    /// @param  contents    java.util.List<dev.langchain4j.rag.content.Content>
+    /// @return             java.util.List<dev.langchain4j.rag.content.Content>
+    public List<Content> pack(final List<Content> contents) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(contents));
+        }
+
+        final List<Content> ranked = new ArrayList<>(contents);
+
+        ranked.sort(Comparator.comparingDouble(TokenBudgetContentAggregator::score).reversed());    // Stable, so unscored contents keep their order
+
+        final List<Content> packed = new ArrayList<>();
+        final List<Set<String>> packedShingles = new ArrayList<>();
+        final List<String> packedTexts = new ArrayList<>();
+
+        int tokensBefore = 0;
+        int tokensAfter = 0;
+        int duplicates = 0;
+        int truncated = 0;
+
+        for (final Content content : ranked) {
+            final String text = content.textSegment().text();
+            final int tokens = this.tokenCountEstimator.estimateTokenCountInText(text);
+
+            tokensBefore += tokens;
+
+            final String normalized = normalize(text);
+            final Set<String> shingles = shingles(normalized);
+
+            if (isDuplicate(normalized, shingles, packedTexts, packedShingles)) {
+                duplicates++;
+                continue;
+            }
+
+            final int remaining = this.maxTokens - tokensAfter;
+
+            if (tokens <= remaining) {
+                packed.add(content);
+                packedTexts.add(normalized);
+                packedShingles.add(shingles);
+                tokensAfter += tokens;
+            } else if (remaining >= MIN_TRUNCATED_TOKENS) {
+                final String head = this.truncate(text, remaining);
+
+                if (!head.isEmpty()) {
+                    final String normalizedHead = normalize(head);
+
+                    packed.add(Content.from(TextSegment.from(head, content.textSegment().metadata()), content.metadata()));
+                    packedTexts.add(normalizedHead);
+                    packedShingles.add(shingles(normalizedHead));
+                    tokensAfter += this.tokenCountEstimator.estimateTokenCountInText(head);
+                    truncated++;
+                }
+            }
+        }
+
+        this.tokensIn.addAndGet(tokensBefore);
+        this.tokensOut.addAndGet(tokensAfter);
+
+        this.logger.info("Packed {} of {} contents into {} of {} tokens ({} duplicates, {} truncated, {} tokens saved)",
+                packed.size(), contents.size(), tokensAfter, this.maxTokens, duplicates, truncated, tokensBefore - tokensAfter);
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(packed));
+        }
+
+        return packed;
+    }
+
+    /// Return the tokens saved by packing since this aggregator was created.
+    ///
+    /// @return long
+    public long tokensSaved() {
+        return this.tokensIn.get() - this.tokensOut.get();
+    }
+
+    /// Return the longest run of whole sentences
+    /// from the start of a text that fits in a budget.
+    ///
+    /// @param  text    java.lang.String
+    /// @param  budget  int
+    /// @return         java.lang.String    Empty if not even the first sentence fits
+    private String truncate(final String text, final int budget) {
+        final BreakIterator sentences = BreakIterator.getSentenceInstance(Locale.ENGLISH);
+
+        sentences.setText(text);
+
+        int end = 0;
+        int tokens = 0;
+
+        for (int next = sentences.next(); next != BreakIterator.DONE; next = sentences.next()) {
+            tokens += this.tokenCountEstimator.estimateTokenCountInText(text.substring(end, next));
+
+            if (tokens > budget) {
+                break;
+            }
+
+            end = next;
+        }
+
+        return text.substring(0, end).strip();
+    }
+
+    /// Return the score of a content, the reranked score if it was reranked.
+    ///
+    /// @param  content dev.langchain4j.rag.content.Content
+    /// @return         double
+    private static double score(final Content content) {
+        Object score = content.metadata().get(ContentMetadata.RERANKED_SCORE);
+
+        if (score == null) {
+            score = content.metadata().get(ContentMetadata.SCORE);
+        }
+
+        return score instanceof Number number ? number.doubleValue() : Double.NEGATIVE_INFINITY;
+    }
+
+    /// Return true if a text is contained in, or mostly
+    /// shares its shingles with, a text already packed.
+    ///
+    /// @param  normalized      java.lang.String
+    /// @param  shingles        java.util.Set<java.lang.String>
+    /// @param  packedTexts     java.util.List<java.lang.String>
+    /// @param  packedShingles  java.util.List<java.util.Set<java.lang.String>>
+    /// @return                 boolean
+    private static boolean isDuplicate(final String normalized,
+                                       final Set<String> shingles,
+                                       final List<String> packedTexts,
+                                       final List<Set<String>> packedShingles) {
+        for (int i = 0; i < packedTexts.size(); i++) {
+            if (packedTexts.get(i).contains(normalized)) {
+                return true;
+            }
+
+            final Set<String> other = packedShingles.get(i);
+
+            if (!shingles.isEmpty() && !other.isEmpty()) {
+                int shared = 0;
+
+                for (final String shingle : shingles) {
+                    if (other.contains(shingle)) {
+                        shared++;
+                    }
+                }
+
+                final double similarity = (double) shared / (shingles.size() + other.size() - shared);
+
+                if (similarity >= DUPLICATE_SIMILARITY) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /// Return a text in lower case with its whitespace collapsed.
+    ///
+    /// @param  text    java.lang.String
+    /// @return         java.lang.String
+    private static String normalize(final String text) {
+        return text.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").strip();
+    }
+
+    /// Return the word shingles of a normalized text.
+    ///
+    /// @param  normalized  java.lang.String
+    /// @return             java.util.Set<java.lang.String>
+    private static Set<String> shingles(final String normalized) {
+        final String[] words = normalized.split(" ");
+        final Set<String> shingles = new HashSet<>();
+
+        for (int i = 0; i + SHINGLE_WORDS <= words.length; i++) {
+            shingles.add(String.join(" ", Arrays.asList(words).subList(i, i + SHINGLE_WORDS)));
+        }
+
+        return shingles;
+    }
+}
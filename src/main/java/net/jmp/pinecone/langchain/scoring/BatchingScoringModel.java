@@ -0,0 +1,406 @@
+package net.jmp.pinecone.langchain.scoring;
+
+/*
+ * (#)BatchingScoringModel.java    0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+
+import dev.langchain4j.model.scoring.ScoringModel;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A scoring model that coalesces the scoring requests of concurrent callers
+/// into larger calls to another. A dispatcher takes the first waiting request
+/// and collects those arriving within the window, up to the maximum pairs
+/// per call, then scores them together and splits the scores back out to
+/// each caller. A pair scoring model, such as a local cross-encoder, scores
+/// the pairs of all the requests in as few calls as the maximum allows. Any
+/// other scoring model, such as a remote reranker that takes one query per
+/// call, scores the requests for the same query in one call, each distinct
+/// segment once, and the different queries in concurrent calls. The token
+/// usage of a call is shared among its requests by their number of pairs.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class BatchingScoringModel implements ScoringModel, AutoCloseable {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The scoring model whose calls are batched.
+    private final ScoringModel delegate;
+
+    /// The window in nanoseconds.
+    private final long windowNanos;
+
+    /// The most pairs scored in one call.
+    private final int maxPairs;
+
+    /// The waiting requests.
+    private final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+
+    /// The executor that scores the batches.
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /// The dispatcher thread.
+    private final Thread dispatcher;
+
+    /// The number of requests. Guarded by this.
+    private long requestCount;
+
+    /// The number of calls to the scoring model. Guarded by this.
+    private long callCount;
+
+    /// The number of pairs scored by the scoring model. Guarded by this.
+    private long pairCount;
+
+    /// The constructor.
+    ///
+    /// @param  delegate    dev.langchain4j.model.scoring.ScoringModel
+    /// @param  window      java.time.Duration
+    /// @param  maxPairs    int     The most pairs, or documents, the scoring model accepts in one call
+    public BatchingScoringModel(final ScoringModel delegate, final Duration window, final int maxPairs) {
+        super();
+
+        if (maxPairs < 1) {
+            throw new IllegalArgumentException("The maximum pairs must be positive: " + maxPairs);
+        }
+
+        this.delegate = delegate;
+        this.windowNanos = window.toNanos();
+        this.maxPairs = maxPairs;
+        this.dispatcher = Thread.ofPlatform()
+                .daemon()
+                .name("scoring-dispatcher")
+                .start(this::dispatch);
+    }
+
+    /// Score the segments against the query, together
+    /// with the requests of other concurrent callers.
+    ///
+    /// @param  segments    java.util.List<dev.langchain4j.data.segment.TextSegment>
+    /// @param  query       java.lang.String
+    /// @return             dev.langchain4j.model.output.Response<java.util.List<java.lang.Double>>
+    @Override
+    public Response<List<Double>> scoreAll(final List<TextSegment> segments, final String query) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(segments, query));
+        }
+
+        if (!this.dispatcher.isAlive()) {
+            throw new IllegalStateException("The scoring model is closed");
+        }
+
+        final Request request = new Request(query, List.copyOf(segments), new CompletableFuture<>());
+
+        if (segments.isEmpty()) {
+            request.future().complete(Response.from(List.of()));
+        } else {
+            this.requests.add(request);
+        }
+
+        final Response<List<Double>> response;
+
+        try {
+            response = request.future().join();
+        } catch (final CompletionException ce) {
+            if (ce.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+
+            throw ce;
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(response));
+        }
+
+        return response;
+    }
+
+    /// Close the scoring model. Waiting requests fail.
+    @Override
+    public void close() {
+        this.dispatcher.interrupt();
+        this.executor.shutdown();
+
+        final List<Request> waiting = new ArrayList<>();
+
+        this.requests.drainTo(waiting);
+        waiting.forEach(request -> request.future().completeExceptionally(new IllegalStateException("The scoring model is closed")));
+    }
+
+    /// Return the statistics of the batching.
+    ///
+    /// @return net.jmp.pinecone.langchain.scoring.BatchingScoringModel.Stats
+    public synchronized Stats stats() {
+        return new Stats(this.requestCount, this.callCount, this.pairCount);
+    }
+
+    /// Dispatch the waiting requests in batches until interrupted.
+    private void dispatch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final List<Request> batch = new ArrayList<>();
+                final Request first = this.requests.take();
+                final long deadline = System.nanoTime() + this.windowNanos;
+
+                int pairs = first.segments().size();
+
+                batch.add(first);
+
+                while (pairs < this.maxPairs) {
+                    final Request next = this.requests.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+                    if (next == null) {
+                        break;
+                    }
+
+                    batch.add(next);
+                    pairs += next.segments().size();
+                }
+
+                this.executor.submit(() -> this.score(batch));
+            }
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /// Score a batch of requests, failing them all
+    /// when the scoring model fails.
+    ///
+    /// @param  batch   java.util.List<net.jmp.pinecone.langchain.scoring.BatchingScoringModel.Request>
+    private void score(final List<Request> batch) {
+        synchronized (this) {
+            this.requestCount += batch.size();
+        }
+
+        try {
+            if (this.delegate instanceof PairScoringModel pairScoringModel) {
+                this.scorePairs(pairScoringModel, batch);
+            } else {
+                this.scoreByQuery(batch);
+            }
+        } catch (final RuntimeException re) {
+            batch.forEach(request -> request.future().completeExceptionally(re));
+        }
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Scored a batch of {} requests", batch.size());
+        }
+    }
+
+    /// Score the pairs of all the requests of a batch
+    /// in as few calls to a pair scoring model as allowed.
+    ///
+    /// @param  pairScoringModel    net.jmp.pinecone.langchain.scoring.PairScoringModel
+    /// @param  batch               java.util.List<net.jmp.pinecone.langchain.scoring.BatchingScoringModel.Request>
+    private void scorePairs(final PairScoringModel pairScoringModel, final List<Request> batch) {
+        final List<String> queries = new ArrayList<>();
+        final List<TextSegment> segments = new ArrayList<>();
+
+        for (final Request request : batch) {
+            for (final TextSegment segment : request.segments()) {
+                queries.add(request.query());
+                segments.add(segment);
+            }
+        }
+
+        final List<Double> scores = new ArrayList<>(segments.size());
+
+        long tokens = 0;
+
+        for (int from = 0; from < segments.size(); from += this.maxPairs) {
+            final int to = Math.min(from + this.maxPairs, segments.size());
+            final Response<List<Double>> response = pairScoringModel.scorePairs(queries.subList(from, to), segments.subList(from, to));
+
+            scores.addAll(response.content());
+            tokens += inputTokens(response);
+
+            this.called(to - from);
+        }
+
+        int from = 0;
+
+        for (final Request request : batch) {
+            final int to = from + request.segments().size();
+
+            request.future().complete(Response.from(
+                    List.copyOf(scores.subList(from, to)),
+                    share(tokens, to - from, segments.size())
+            ));
+
+            from = to;
+        }
+    }
+
+    /// Score the requests of a batch by query, each distinct segment
+    /// of a query once, and the different queries concurrently.
+    ///
+    /// @param  batch   java.util.List<net.jmp.pinecone.langchain.scoring.BatchingScoringModel.Request>
+    private void scoreByQuery(final List<Request> batch) {
+        final Map<String, List<Request>> byQuery = new LinkedHashMap<>();
+
+        for (final Request request : batch) {
+            byQuery.computeIfAbsent(request.query(), query -> new ArrayList<>()).add(request);
+        }
+
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(byQuery.size());
+
+        for (final Map.Entry<String, List<Request>> entry : byQuery.entrySet()) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    this.scoreQuery(entry.getKey(), entry.getValue());
+                } catch (final RuntimeException re) {
+                    entry.getValue().forEach(request -> request.future().completeExceptionally(re));
+                }
+            }, this.executor));
+        }
+
+        futures.forEach(CompletableFuture::join);
+    }
+
+    /// Score the requests for one query.
+    ///
+    /// @param  query       java.lang.String
+    /// @param  requests    java.util.List<net.jmp.pinecone.langchain.scoring.BatchingScoringModel.Request>
+    private void scoreQuery(final String query, final List<Request> requests) {
+        final Map<String, TextSegment> distinct = new LinkedHashMap<>();
+
+        for (final Request request : requests) {
+            request.segments().forEach(segment -> distinct.putIfAbsent(segment.text(), segment));
+        }
+
+        final List<TextSegment> segments = new ArrayList<>(distinct.values());
+        final Map<String, Double> scores = new LinkedHashMap<>(segments.size());
+
+        long tokens = 0;
+
+        for (int from = 0; from < segments.size(); from += this.maxPairs) {
+            final List<TextSegment> chunk = segments.subList(from, Math.min(from + this.maxPairs, segments.size()));
+            final Response<List<Double>> response = this.delegate.scoreAll(chunk, query);
+
+            for (int i = 0; i < chunk.size(); i++) {
+                scores.put(chunk.get(i).text(), response.content().get(i));
+            }
+
+            tokens += inputTokens(response);
+
+            this.called(chunk.size());
+        }
+
+        final int pairs = requests.stream().mapToInt(request -> request.segments().size()).sum();
+
+        for (final Request request : requests) {
+            request.future().complete(Response.from(
+                    request.segments().stream().map(segment -> scores.get(segment.text())).toList(),
+                    share(tokens, request.segments().size(), pairs)
+            ));
+        }
+    }
+
+    /// Count a call to the scoring model.
+    ///
+    /// @param  pairs   int
+    private synchronized void called(final int pairs) {
+        this.callCount++;
+        this.pairCount += pairs;
+    }
+
+    /// Return the input tokens of a response.
+    ///
+    /// @param  response    dev.langchain4j.model.output.Response<java.util.List<java.lang.Double>>
+    /// @return             long
+    private static long inputTokens(final Response<List<Double>> response) {
+        return response.tokenUsage() != null && response.tokenUsage().inputTokenCount() != null
+                ? response.tokenUsage().inputTokenCount()
+                : 0L;
+    }
+
+    /// Return the share of the tokens of a call due to some of its pairs.
+    ///
+    /// @param  tokens  long
+    /// @param  pairs   int
+    /// @param  total   int
+    /// @return         dev.langchain4j.model.output.TokenUsage
+    private static TokenUsage share(final long tokens, final int pairs, final int total) {
+        return new TokenUsage((int) Math.round((double) tokens * pairs / total));
+    }
+
+    /// The statistics of the batching.
+    ///
+    /// @param  requests    long
+    /// @param  calls       long    The calls to the scoring model
+    /// @param  pairs       long    The pairs scored by the scoring model
+    public record Stats(long requests, long calls, long pairs) {
+        /// Return the mean number of requests per call.
+        ///
+        /// @return double
+        public double requestsPerCall() {
+            return this.calls == 0 ? 0.0 : (double) this.requests / this.calls;
+        }
+
+        /// Return the statistics as a string.
+        ///
+        /// @return java.lang.String
+        @Override
+        public String toString() {
+            return String.format("%d requests, %d calls, %d pairs, %.2f requests per call",
+                    this.requests, this.calls, this.pairs, this.requestsPerCall());
+        }
+    }
+
+    /// A scoring request.
+    ///
+    /// @param  query       java.lang.String
+    /// @param  segments    java.util.List<dev.langchain4j.data.segment.TextSegment>
+    /// @param  future      java.util.concurrent.CompletableFuture<dev.langchain4j.model.output.Response<java.util.List<java.lang.Double>>>
+    private record Request(String query, List<TextSegment> segments, CompletableFuture<Response<List<Double>>> future) {
+    }
+}
@@ -0,0 +1,282 @@
+package net.jmp.pinecone.langchain.scoring;
+
+/*
+ * (#)CachingScoringModel.java    0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+
+import dev.langchain4j.model.scoring.ScoringModel;
+
+import java.nio.ByteBuffer;
+
+import java.nio.charset.StandardCharsets;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A scoring model that caches the scores of another. The key of a score
+/// is the hash of the normalized query, lower cased with its whitespace
+/// collapsed, and the hash of the segment text, which identifies the
+/// segment by its content so that a reloaded segment whose text changed
+/// is scored again. Only the pairs missing from the cache are passed to
+/// the scoring model, in a single call. Entries expire after a time to live
+/// and the least recently used are evicted beyond the maximum number.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class CachingScoringModel implements ScoringModel {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The scoring model being cached.
+    private final ScoringModel delegate;
+
+    /// The time to live of an entry in nanoseconds.
+    private final long ttlNanos;
+
+    /// The maximum number of entries.
+    private final int maxEntries;
+
+    /// The entries in least recently used order. Guarded by itself.
+    private final LinkedHashMap<Key, Entry> entries;
+
+    /// The number of calls to the scoring model. Guarded by the entries.
+    private long calls;
+
+    /// The number of pairs scored by the scoring model. Guarded by the entries.
+    private long scored;
+
+    /// The number of pairs scored from the cache. Guarded by the entries.
+    private long cached;
+
+    /// The number of tokens scored by the scoring model. Guarded by the entries.
+    private long tokens;
+
+    /// The constructor.
+    ///
+    /// @param  delegate    dev.langchain4j.model.scoring.ScoringModel
+    /// @param  ttl         java.time.Duration
+    /// @param  maxEntries  int
+    public CachingScoringModel(final ScoringModel delegate, final Duration ttl, final int maxEntries) {
+        super();
+
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The maximum entries must be positive: " + maxEntries);
+        }
+
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /// Score the segments against the query.
+    ///
+    /// @param  segments    java.util.List<dev.langchain4j.data.segment.TextSegment>
+    /// @param  query       java.lang.String
+    /// @return             dev.langchain4j.model.output.Response<java.util.List<java.lang.Double>>
+    @Override
+    public Response<List<Double>> scoreAll(final List<TextSegment> segments, final String query) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(segments, query));
+        }
+
+        final byte[] queryHash = hash(query.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT));
+        final List<Key> keys = new ArrayList<>(segments.size());
+        final Double[] scores = new Double[segments.size()];
+        final Map<Key, List<Integer>> misses = new LinkedHashMap<>();
+        final long now = System.nanoTime();
+
+        for (final TextSegment segment : segments) {
+            keys.add(Key.of(queryHash, hash(segment.text())));
+        }
+
+        synchronized (this.entries) {
+            for (int i = 0; i < keys.size(); i++) {
+                final Key key = keys.get(i);
+                final Entry entry = this.entries.get(key);
+
+                if (entry != null && now - entry.createdNanos() < this.ttlNanos) {
+                    scores[i] = entry.score();
+                    this.cached++;
+                } else {
+                    misses.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+                }
+            }
+        }
+
+        TokenUsage tokenUsage = new TokenUsage(0);
+
+        if (!misses.isEmpty()) {
+            final List<TextSegment> missed = misses.values().stream()
+                    .map(indexes -> segments.get(indexes.getFirst()))
+                    .toList();
+
+            final Response<List<Double>> response = this.delegate.scoreAll(missed, query);
+            final List<Double> missedScores = response.content();
+
+            if (response.tokenUsage() != null) {
+                tokenUsage = response.tokenUsage();
+            }
+
+            synchronized (this.entries) {
+                int m = 0;
+
+                for (final Map.Entry<Key, List<Integer>> miss : misses.entrySet()) {
+                    final Double score = missedScores.get(m++);
+
+                    miss.getValue().forEach(i -> scores[i] = score);
+
+                    this.entries.put(miss.getKey(), new Entry(score, now));
+                }
+
+                while (this.entries.size() > this.maxEntries) {
+                    this.entries.pollFirstEntry();
+                }
+
+                this.calls++;
+                this.scored += missed.size();
+
+                if (tokenUsage.inputTokenCount() != null) {
+                    this.tokens += tokenUsage.inputTokenCount();
+                }
+            }
+        }
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Scored {} of {} segments from the cache", segments.size() - misses.size(), segments.size());
+        }
+
+        final Response<List<Double>> response = Response.from(List.of(scores), tokenUsage);
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(response));
+        }
+
+        return response;
+    }
+
+    /// Invalidate the cache.
+    public void invalidate() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+    /// Return the statistics of the cache.
+    ///
+    /// @return net.jmp.pinecone.langchain.scoring.CachingScoringModel.Stats
+    public Stats stats() {
+        synchronized (this.entries) {
+            return new Stats(this.calls, this.scored, this.cached, this.tokens, this.entries.size());
+        }
+    }
+
+    /// Return the SHA-256 hash of a text.
+    ///
+    /// @param  text    java.lang.String
+    /// @return         byte[]
+    private static byte[] hash(final String text) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+        } catch (final NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException("SHA-256 is not available", nsae);
+        }
+    }
+
+    /// The statistics of the cache.
+    ///
+    /// @param  calls   long    The calls to the scoring model
+    /// @param  scored  long    The pairs scored by the scoring model
+    /// @param  cached  long    The pairs scored from the cache
+    /// @param  tokens  long    The tokens scored by the scoring model
+    /// @param  entries int
+    public record Stats(long calls, long scored, long cached, long tokens, int entries) {
+        /// Return the ratio of pairs scored from the cache.
+        ///
+        /// @return double
+        public double hitRatio() {
+            final long pairs = this.scored + this.cached;
+
+            return pairs == 0 ? 0.0 : (double) this.cached / pairs;
+        }
+
+        /// Return the statistics as a string.
+        ///
+        /// @return java.lang.String
+        @Override
+        public String toString() {
+            return String.format("%d calls, %d pairs scored, %d pairs cached, %.1f%% hit ratio, %d tokens, %d entries",
+                    this.calls, this.scored, this.cached, 100.0 * this.hitRatio(), this.tokens, this.entries);
+        }
+    }
+
+    /// The key of a score, the leading 128 bits of
+    /// the query hash and of the segment hash.
+    ///
+    /// @param  queryHigh   long
+    /// @param  queryLow    long
+    /// @param  segmentHigh long
+    /// @param  segmentLow  long
+    private record Key(long queryHigh, long queryLow, long segmentHigh, long segmentLow) {
+        /// Create a key from the hashes.
+        ///
+        /// @param  queryHash   byte[]
+        /// @param  segmentHash byte[]
+        /// @return             net.jmp.pinecone.langchain.scoring.CachingScoringModel.Key
+        private static Key of(final byte[] queryHash, final byte[] segmentHash) {
+            final ByteBuffer query = ByteBuffer.wrap(queryHash);
+            final ByteBuffer segment = ByteBuffer.wrap(segmentHash);
+
+            return new Key(query.getLong(), query.getLong(), segment.getLong(), segment.getLong());
+        }
+    }
+
+    /// A cached score.
+    ///
+    /// @param  score           java.lang.Double
+    /// @param  createdNanos    long
+    private record Entry(Double score, long createdNanos) {
+    }
+}
@@ -0,0 +1,298 @@
+package net.jmp.pinecone.langchain.scoring;
+
+/*
+ * (#)OnnxCrossEncoderScoringModel.java    0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import ai.djl.huggingface.tokenizers.Encoding;
+import ai.djl.huggingface.tokenizers.HuggingFaceTokenizer;
+
+import ai.djl.util.PairList;
+
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A scoring model backed by a local ONNX cross-encoder such as
+/// bge-reranker-v2-m3. The model directory holds the exported
+/// model.onnx and its tokenizer.json. Each query and segment pair
+/// is truncated to the maximum sequence length, the segment being
+/// truncated before the query, and the pairs are scored in batches
+/// that run in parallel on a pool of threads. The logits are mapped
+/// through a sigmoid so that scores fall between 0 and 1, like those
+/// of the remote rerankers. The usage reports the tokens scored.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class OnnxCrossEncoderScoringModel implements PairScoringModel, AutoCloseable {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The ONNX runtime environment.
+    private final OrtEnvironment environment;
+
+    /// The ONNX session.
+    private final OrtSession session;
+
+    /// The tokenizer.
+    private final HuggingFaceTokenizer tokenizer;
+
+    /// True when the model takes token type IDs.
+    private final boolean tokenTypes;
+
+    /// The most pairs scored in one inference.
+    private final int batchSize;
+
+    /// The executor that runs the batches.
+    private final ExecutorService executor;
+
+    /// The constructor.
+    ///
+    /// @param  modelDirectory      java.nio.file.Path
+    /// @param  maxSequenceLength   int
+    /// @param  batchSize           int
+    /// @param  threads             int
+    public OnnxCrossEncoderScoringModel(final Path modelDirectory,
+                                        final int maxSequenceLength,
+                                        final int batchSize,
+                                        final int threads) {
+        super();
+
+        if (maxSequenceLength < 1 || batchSize < 1 || threads < 1) {
+            throw new IllegalArgumentException("The maximum sequence length, batch size and threads must be positive");
+        }
+
+        final Path modelFile = modelDirectory.resolve("model.onnx");
+        final Path tokenizerFile = modelDirectory.resolve("tokenizer.json");
+
+        if (!Files.isRegularFile(modelFile) || !Files.isRegularFile(tokenizerFile)) {
+            throw new IllegalArgumentException("Model directory must contain model.onnx and tokenizer.json: " + modelDirectory);
+        }
+
+        this.batchSize = batchSize;
+        this.environment = OrtEnvironment.getEnvironment();
+
+        try {
+            this.tokenizer = HuggingFaceTokenizer.builder()
+                    .optTokenizerPath(tokenizerFile)
+                    .optMaxLength(maxSequenceLength)
+                    .optTruncateSecondOnly()
+                    .optPadding(true)       // Pad each batch to its longest pair
+                    .build();
+        } catch (final IOException ioe) {
+            throw new UncheckedIOException("Unable to load the tokenizer: " + tokenizerFile, ioe);
+        }
+
+        try (final OrtSession.SessionOptions options = new OrtSession.SessionOptions()) {
+            // The batches run in parallel so each inference gets a share of the processors
+
+            options.setIntraOpNumThreads(Math.max(1, Runtime.getRuntime().availableProcessors() / threads));
+            options.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.ALL_OPT);
+
+            this.session = this.environment.createSession(modelFile.toString(), options);
+            this.tokenTypes = this.session.getInputNames().contains("token_type_ids");
+        } catch (final OrtException oe) {
+            this.tokenizer.close();
+
+            throw new IllegalStateException("Unable to load the model: " + modelFile, oe);
+        }
+
+        this.executor = Executors.newFixedThreadPool(threads, Thread.ofPlatform()
+                .daemon()
+                .name("cross-encoder-", 0)
+                .factory());
+    }
+
+    /// Score the segments against the query.
+    ///
+    /// @param  segments    java.util.List<dev.langchain4j.data.segment.TextSegment>
+    /// @param  query       java.lang.String
+    /// @return             dev.langchain4j.model.output.Response<java.util.List<java.lang.Double>>
+    @Override
+    public Response<List<Double>> scoreAll(final List<TextSegment> segments, final String query) {
+        return this.scorePairs(Collections.nCopies(segments.size(), query), segments);
+    }
+
+    /// Score each segment against the query at the same index.
+    ///
+    /// @param  queries     java.util.List<java.lang.String>
+    /// @param  segments    java.util.List<dev.langchain4j.data.segment.TextSegment>
+    /// @return             dev.langchain4j.model.output.Response<java.util.List<java.lang.Double>>
+    @Override
+    public Response<List<Double>> scorePairs(final List<String> queries, final List<TextSegment> segments) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(queries, segments));
+        }
+
+        if (queries.size() != segments.size()) {
+            throw new IllegalArgumentException("There must be one query per segment");
+        }
+
+        final List<Future<Batch>> futures = new ArrayList<>();
+
+        for (int from = 0; from < segments.size(); from += this.batchSize) {
+            final int to = Math.min(from + this.batchSize, segments.size());
+            final List<String> batchQueries = queries.subList(from, to);
+            final List<TextSegment> batchSegments = segments.subList(from, to);
+
+            futures.add(this.executor.submit(() -> this.score(batchQueries, batchSegments)));
+        }
+
+        final List<Double> scores = new ArrayList<>(segments.size());
+
+        int tokens = 0;
+
+        try {
+            for (final Future<Batch> future : futures) {
+                final Batch batch = future.get();
+
+                scores.addAll(batch.scores());
+                tokens += batch.tokens();
+            }
+        } catch (final InterruptedException ie) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException("Interrupted while scoring", ie);
+        } catch (final ExecutionException ee) {
+            futures.forEach(future -> future.cancel(true));
+
+            throw new IllegalStateException("Unable to score the segments", ee.getCause());
+        }
+
+        final Response<List<Double>> response = Response.from(scores, new TokenUsage(tokens));
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(response));
+        }
+
+        return response;
+    }
+
+    /// Close the model.
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+        this.tokenizer.close();
+
+        try {
+            this.session.close();
+        } catch (final OrtException oe) {
+            this.logger.warn("Unable to close the model session", oe);
+        }
+    }
+
+    /// Score one batch of segments against their queries.
+    ///
+    /// @param  queries     java.util.List<java.lang.String>
+    /// @param  segments    java.util.List<dev.langchain4j.data.segment.TextSegment>
+    /// @return             net.jmp.pinecone.langchain.scoring.OnnxCrossEncoderScoringModel.Batch
+    /// @throws             ai.onnxruntime.OrtException When the inference fails
+    private Batch score(final List<String> queries, final List<TextSegment> segments) throws OrtException {
+        final PairList<String, String> pairs = new PairList<>(segments.size());
+
+        for (int i = 0; i < segments.size(); i++) {
+            pairs.add(queries.get(i), segments.get(i).text());
+        }
+
+        final Encoding[] encodings = this.tokenizer.batchEncode(pairs);
+        final long[][] inputIds = new long[encodings.length][];
+        final long[][] attentionMask = new long[encodings.length][];
+        final long[][] tokenTypeIds = new long[encodings.length][];
+
+        int tokens = 0;
+
+        for (int i = 0; i < encodings.length; i++) {
+            inputIds[i] = encodings[i].getIds();
+            attentionMask[i] = encodings[i].getAttentionMask();
+            tokenTypeIds[i] = encodings[i].getTypeIds();
+
+            for (final long mask : attentionMask[i]) {
+                tokens += (int) mask;
+            }
+        }
+
+        final Map<String, OnnxTensor> inputs = new HashMap<>();
+
+        try {
+            inputs.put("input_ids", OnnxTensor.createTensor(this.environment, inputIds));
+            inputs.put("attention_mask", OnnxTensor.createTensor(this.environment, attentionMask));
+
+            if (this.tokenTypes) {
+                inputs.put("token_type_ids", OnnxTensor.createTensor(this.environment, tokenTypeIds));
+            }
+
+            try (final OrtSession.Result result = this.session.run(inputs)) {
+                final float[][] logits = (float[][]) result.get(0).getValue();
+                final List<Double> scores = new ArrayList<>(logits.length);
+
+                for (final float[] logit : logits) {
+                    scores.add(1.0 / (1.0 + Math.exp(-logit[0])));
+                }
+
+                return new Batch(scores, tokens);
+            }
+        } finally {
+            inputs.values().forEach(OnnxTensor::close);
+        }
+    }
+
+    /// The scores and token count of a batch.
+    ///
+    /// @param  scores  java.util.List<java.lang.Double>
+    /// @param  tokens  int
+    private record Batch(List<Double> scores, int tokens) {
+    }
+}
@@ -0,0 +1,52 @@
+package net.jmp.pinecone.langchain.scoring;
+
+/*
+ * (#)PairScoringModel.java    0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.model.output.Response;
+
+import dev.langchain4j.model.scoring.ScoringModel;
+
+import java.util.List;
+
+/// A scoring model that can score segments against different
+/// queries in one call, as a local cross-encoder can, so that
+/// the work of several queries can be batched together.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public interface PairScoringModel extends ScoringModel {
+    /// Score each segment against the query at the same index.
+    ///
+    /// @param  queries     java.util.List<java.lang.String>
+    /// @param  segments    java.util.List<dev.langchain4j.data.segment.TextSegment>
+    /// @return             dev.langchain4j.model.output.Response<java.util.List<java.lang.Double>>
+    Response<List<Double>> scorePairs(List<String> queries, List<TextSegment> segments);
+}
@@ -0,0 +1,363 @@
+package net.jmp.pinecone.langchain.store;
+
+/*
+ * (#)AliasedEmbeddingStore.java   0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import dev.langchain4j.data.embedding.Embedding;
+
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import java.util.function.Function;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// An embedding store that resolves a namespace alias on every call and
+/// delegates to the store of the namespace the alias points at. Each call
+/// holds a lease on that namespace until it returns, so a swap of the alias
+/// takes effect for the next request without disturbing the current ones.
+/// Once the alias has moved on and the last call using the store of the
+/// previous namespace has returned, that store is dropped and closed.
+///
+/// @param  <Embedded>  The class of the object that has been embedded
+/// @version    0.1.0
+/// @since      0.1.0
+public final class AliasedEmbeddingStore<Embedded> implements EmbeddingStore<Embedded>, AutoCloseable {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The alias registry.
+    private final NamespaceAlias namespaceAlias;
+
+    /// The alias.
+    private final String alias;
+
+    /// The factory that creates the store of a namespace.
+    private final Function<String, EmbeddingStore<Embedded>> storeFactory;
+
+    /// The stores by namespace.
+    private final Map<String, Resident<Embedded>> stores = new ConcurrentHashMap<>();
+
+    /// The constructor.
+    ///
+    /// @param  namespaceAlias  net.jmp.pinecone.langchain.store.NamespaceAlias
+    /// @param  alias           java.lang.String
+    /// @param  storeFactory    java.util.function.Function<java.lang.String, dev.langchain4j.store.embedding.EmbeddingStore<Embedded>>
+    public AliasedEmbeddingStore(final NamespaceAlias namespaceAlias,
+                                 final String alias,
+                                 final Function<String, EmbeddingStore<Embedded>> storeFactory) {
+        super();
+
+        this.namespaceAlias = namespaceAlias;
+        this.alias = alias;
+        this.storeFactory = storeFactory;
+    }
+
+    /// Return the namespace the alias currently points at.
+    ///
+    /// @return java.lang.String
+    public String currentNamespace() {
+        return this.namespaceAlias.resolve(this.alias);
+    }
+
+    /// Add an embedding.
+    ///
+    /// @param  embedding   dev.langchain4j.data.embedding.Embedding
+    /// @return             java.lang.String
+    @Override
+    public String add(final Embedding embedding) {
+        return this.withStore(store -> store.add(embedding));
+    }
+
+    /// Add an embedding with an ID.
+    ///
+    /// @param  id          java.lang.String
+    /// @param  embedding   dev.langchain4j.data.embedding.Embedding
+    @Override
+    public void add(final String id, final Embedding embedding) {
+        this.withStore(store -> {
+            store.add(id, embedding);
+
+            return null;
+        });
+    }
+
+    /// Add an embedding and the object that was embedded.
+    ///
+    /// @param  embedding   dev.langchain4j.data.embedding.Embedding
+    /// @param  embedded    Embedded
+    /// @return             java.lang.String
+    @Override
+    public String add(final Embedding embedding, final Embedded embedded) {
+        return this.withStore(store -> store.add(embedding, embedded));
+    }
+
+    /// Add a list of embeddings.
+    ///
+    /// @param  embeddings  java.util.List<dev.langchain4j.data.embedding.Embedding>
+    /// @return             java.util.List<java.lang.String>
+    @Override
+    public List<String> addAll(final List<Embedding> embeddings) {
+        return this.withStore(store -> store.addAll(embeddings));
+    }
+
+    /// Add a list of embeddings and the objects that were embedded.
+    ///
+    /// @param  ids         java.util.List<java.lang.String>
+    /// @param  embeddings  java.util.List<dev.langchain4j.data.embedding.Embedding>
+    /// @param  embedded    java.util.List<Embedded>
+    @Override
+    public void addAll(final List<String> ids, final List<Embedding> embeddings, final List<Embedded> embedded) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(ids, embeddings, embedded));
+        }
+
+        this.withStore(store -> {
+            store.addAll(ids, embeddings, embedded);
+
+            return null;
+        });
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Remove the embeddings with the given IDs.
+    ///
+    /// @param  ids java.util.Collection<java.lang.String>
+    @Override
+    public void removeAll(final Collection<String> ids) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(ids));
+        }
+
+        this.withStore(store -> {
+            store.removeAll(ids);
+
+            return null;
+        });
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Remove the embeddings that match a filter.
+    ///
+    /// @param  filter  dev.langchain4j.store.embedding.filter.Filter
+    @Override
+    public void removeAll(final Filter filter) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(filter));
+        }
+
+        this.withStore(store -> {
+            store.removeAll(filter);
+
+            return null;
+        });
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Remove all the embeddings.
+    @Override
+    public void removeAll() {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entry());
+        }
+
+        this.withStore(store -> {
+            store.removeAll();
+
+            return null;
+        });
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Search the store.
+    ///
+    /// @param  request dev.langchain4j.store.embedding.EmbeddingSearchRequest
+    /// @return         dev.langchain4j.store.embedding.EmbeddingSearchResult<Embedded>
+    @Override
+    public EmbeddingSearchResult<Embedded> search(final EmbeddingSearchRequest request) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(request));
+        }
+
+        final EmbeddingSearchResult<Embedded> result = this.withStore(store -> store.search(request));
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(result));
+        }
+
+        return result;
+    }
+
+    /// Close the store of every namespace.
+    @Override
+    public void close() {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entry());
+        }
+
+        this.stores.forEach((namespace, resident) -> {
+            if (this.stores.remove(namespace, resident)) {
+                this.close(namespace, resident.store());
+            }
+        });
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Run an action against the store of the
+    /// current namespace while holding a lease on it.
+    ///
+    /// @param  <T>     The type of the result
+    /// @param  action  java.util.function.Function<dev.langchain4j.store.embedding.EmbeddingStore<Embedded>, T>
+    /// @return         T
+    private <T> T withStore(final Function<EmbeddingStore<Embedded>, T> action) {
+        try (final NamespaceAlias.Lease lease = this.namespaceAlias.lease(this.alias)) {
+            while (true) {
+                final Resident<Embedded> resident = this.stores.computeIfAbsent(
+                        lease.target(),
+                        namespace -> new Resident<>(this.storeFactory.apply(namespace))
+                );
+
+                // A store retired between the lookup and the acquire is replaced on the next pass
+
+                if (resident.acquire()) {
+                    try {
+                        return action.apply(resident.store());
+                    } finally {
+                        resident.release();
+
+                        this.retire(lease.target());
+                    }
+                }
+            }
+        }
+    }
+
+    /// Drop and close the stores of the namespaces the alias has moved
+    /// away from that no call is using.
+    ///
+    /// @param  current java.lang.String    The namespace the alias pointed at for the last call
+    private void retire(final String current) {
+        if (this.stores.size() > 1 || !this.stores.containsKey(current)) {
+            final String target = this.currentNamespace();
+
+            this.stores.forEach((namespace, resident) -> {
+                if (!namespace.equals(target) && resident.retire() && this.stores.remove(namespace, resident)) {
+                    this.logger.info("Closing the store of namespace {}; alias {} points at {}", namespace, this.alias, target);
+
+                    this.close(namespace, resident.store());
+                }
+            });
+        }
+    }
+
+    /// Close the store of a namespace if it is closeable.
+    ///
+    /// @param  namespace   java.lang.String
+    /// @param  store       dev.langchain4j.store.embedding.EmbeddingStore<Embedded>
+    private void close(final String namespace, final EmbeddingStore<Embedded> store) {
+        if (store instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (final Exception e) {
+                this.logger.warn("Unable to close the store of namespace {}", namespace, e);
+            }
+        }
+    }
+
+    /// The store of a namespace and the number of calls using it,
+    /// which is negative once the store has been retired.
+    ///
+    /// @param  <Embedded>  The class of the object that has been embedded
+    /// @param  store       dev.langchain4j.store.embedding.EmbeddingStore<Embedded>
+    /// @param  users       java.util.concurrent.atomic.AtomicInteger
+    private record Resident<Embedded>(EmbeddingStore<Embedded> store, AtomicInteger users) {
+        /// The constructor of an unused store.
+        ///
+        /// @param  store   dev.langchain4j.store.embedding.EmbeddingStore<Embedded>
+        private Resident(final EmbeddingStore<Embedded> store) {
+            this(store, new AtomicInteger());
+        }
+
+        /// Start using the store unless it has been retired.
+        ///
+        /// @return boolean
+        boolean acquire() {
+            int users;
+
+            do {
+                users = this.users.get();
+
+                if (users < 0) {
+                    return false;
+                }
+            } while (!this.users.compareAndSet(users, users + 1));
+
+            return true;
+        }
+
+        /// Stop using the store.
+        void release() {
+            this.users.decrementAndGet();
+        }
+
+        /// Retire the store if no call is using it.
+        ///
+        /// @return boolean
+        boolean retire() {
+            return this.users.compareAndSet(0, -1);
+        }
+    }
+}
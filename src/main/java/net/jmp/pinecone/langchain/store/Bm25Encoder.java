@@ -0,0 +1,236 @@
+package net.jmp.pinecone.langchain.store;
+
+/*
+ * (#)Bm25Encoder.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/// An encoder of texts into sparse BM25 term-weight embeddings. It is fit
+/// to a corpus, whose statistics are kept so that documents and queries are
+/// encoded consistently by the operations that load and that search. A term
+/// is identified by the unsigned 32-bit hash of its text. A document embedding
+/// holds the BM25 term-frequency weight of each of its terms and a query
+/// embedding the inverse document frequency of each of its terms, so their
+/// dot product is the BM25 score of the document. The query weights are
+/// divided by the highest score possible so that scores fall between 0 and 1
+/// and can be combined with a cosine similarity.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class Bm25Encoder {
+    /// The term-frequency saturation.
+    static final double K1 = 1.2;
+
+    /// The length normalization.
+    static final double B = 0.75;
+
+    /// The terms too common to weigh.
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "about", "an", "and", "are", "as", "at", "be", "by", "for", "from", "how", "i",
+            "in", "is", "it", "me", "of", "on", "or", "tell", "that", "the", "this", "to", "was",
+            "what", "when", "where", "which", "who", "why", "will", "with"
+    );
+
+    /// The number of documents in the corpus.
+    private final int documents;
+
+    /// The average document length in terms.
+    private final double averageLength;
+
+    /// The number of documents that contain each term.
+    private final Map<String, Integer> documentFrequencies;
+
+    /// The constructor.
+    ///
+    /// @param  documents           int
+    /// @param  averageLength       double
+    /// @param  documentFrequencies java.util.Map<java.lang.String, java.lang.Integer>
+    private Bm25Encoder(final int documents, final double averageLength, final Map<String, Integer> documentFrequencies) {
+        super();
+
+        this.documents = documents;
+        this.averageLength = averageLength;
+        this.documentFrequencies = Map.copyOf(documentFrequencies);
+    }
+
+    /// Fit an encoder to a corpus.
+    ///
+    /// @param  texts   java.util.Collection<java.lang.String>
+    /// @return         net.jmp.pinecone.langchain.store.Bm25Encoder
+    public static Bm25Encoder fit(final Collection<String> texts) {
+        final Map<String, Integer> documentFrequencies = new HashMap<>();
+
+        long length = 0;
+
+        for (final String text : texts) {
+            final List<String> terms = tokenize(text);
+
+            length += terms.size();
+
+            for (final String term : Set.copyOf(terms)) {
+                documentFrequencies.merge(term, 1, Integer::sum);
+            }
+        }
+
+        return new Bm25Encoder(texts.size(), texts.isEmpty() ? 0.0 : (double) length / texts.size(), documentFrequencies);
+    }
+
+    /// Load an encoder saved to a file.
+    ///
+    /// @param  file    java.nio.file.Path
+    /// @return         net.jmp.pinecone.langchain.store.Bm25Encoder
+    public static Bm25Encoder load(final Path file) {
+        try {
+            final JsonNode node = new ObjectMapper().readTree(file.toFile());
+            final Map<String, Integer> documentFrequencies = new HashMap<>();
+
+            node.get("documentFrequencies").properties()
+                    .forEach(entry -> documentFrequencies.put(entry.getKey(), entry.getValue().asInt()));
+
+            return new Bm25Encoder(node.get("documents").asInt(), node.get("averageLength").asDouble(), documentFrequencies);
+        } catch (final IOException ioe) {
+            throw new UncheckedIOException("Unable to read BM25 statistics: " + file, ioe);
+        }
+    }
+
+    /// Save the encoder to a file, replacing
+    /// it with an atomic move.
+    ///
+    /// @param  file    java.nio.file.Path
+    public void save(final Path file) {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final ObjectNode node = objectMapper.createObjectNode();
+
+        node.put("documents", this.documents);
+        node.put("averageLength", this.averageLength);
+        node.set("documentFrequencies", objectMapper.valueToTree(this.documentFrequencies));
+
+        try {
+            final Path directory = file.toAbsolutePath().getParent();
+
+            Files.createDirectories(directory);
+
+            final Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+            objectMapper.writeValue(temporary.toFile(), node);
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException ioe) {
+            throw new UncheckedIOException("Unable to write BM25 statistics: " + file, ioe);
+        }
+    }
+
+    /// Encode a document.
+    ///
+    /// @param  text    java.lang.String
+    /// @return         net.jmp.pinecone.langchain.store.SparseEmbedding
+    public SparseEmbedding encodeDocument(final String text) {
+        final List<String> terms = tokenize(text);
+        final Map<String, Integer> frequencies = new LinkedHashMap<>();
+
+        terms.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+
+        final double norm = K1 * (1 - B + B * terms.size() / Math.max(this.averageLength, 1.0));
+        final Map<Long, Float> weights = new LinkedHashMap<>();
+
+        for (final Map.Entry<String, Integer> frequency : frequencies.entrySet()) {
+            final int tf = frequency.getValue();
+
+            weights.merge(index(frequency.getKey()), (float) (tf * (K1 + 1) / (tf + norm)), Float::sum);
+        }
+
+        return new SparseEmbedding(new ArrayList<>(weights.keySet()), new ArrayList<>(weights.values()));
+    }
+
+    /// Encode a query. Terms absent from the corpus are dropped.
+    ///
+    /// @param  text    java.lang.String
+    /// @return         net.jmp.pinecone.langchain.store.SparseEmbedding
+    public SparseEmbedding encodeQuery(final String text) {
+        final Map<Long, Float> weights = new LinkedHashMap<>();
+
+        double maximum = 0.0;
+
+        for (final String term : Set.copyOf(tokenize(text))) {
+            final Integer documentFrequency = this.documentFrequencies.get(term);
+
+            if (documentFrequency != null) {
+                final double idf = Math.log(1 + (this.documents - documentFrequency + 0.5) / (documentFrequency + 0.5));
+
+                weights.merge(index(term), (float) idf, Float::sum);
+                maximum += idf * (K1 + 1);
+            }
+        }
+
+        final SparseEmbedding embedding = new SparseEmbedding(new ArrayList<>(weights.keySet()), new ArrayList<>(weights.values()));
+
+        return maximum > 0 ? embedding.scale(1 / maximum) : embedding;
+    }
+
+    /// Split a text into lower-case terms, dropping stop words.
+    ///
+    /// @param  text    java.lang.String
+    /// @return         java.util.List<java.lang.String>
+    static List<String> tokenize(final String text) {
+        final List<String> terms = new ArrayList<>();
+
+        for (final String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+
+        return terms;
+    }
+
+    /// Return the index of a term.
+    ///
+    /// @param  term    java.lang.String
+    /// @return         long    An unsigned 32-bit hash
+    private static long index(final String term) {
+        return Integer.toUnsignedLong(term.hashCode());
+    }
+}
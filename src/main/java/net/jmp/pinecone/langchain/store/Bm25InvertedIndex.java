@@ -0,0 +1,614 @@
+package net.jmp.pinecone.langchain.store;
+
+/*
+ * (#)Bm25InvertedIndex.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.langchain4j.data.document.Metadata;
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+import java.nio.channels.FileChannel;
+
+import java.nio.charset.StandardCharsets;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A BM25 inverted index kept in a compact file that is memory-mapped
+/// for searching, so that keyword queries are answered in-process without
+/// a remote call. The file holds the stored documents, a dictionary of the
+/// terms, and for each term a postings list of document numbers and term
+/// frequencies, with the document numbers delta-encoded and both written
+/// as variable-length integers. The dictionary records the highest score
+/// each term can contribute, which a search uses to skip the documents
+/// that cannot reach the top results (the MaxScore algorithm). Terms are
+/// tokenized as by the BM25 encoder.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class Bm25InvertedIndex {
+    /// The file signature, "BM25".
+    private static final int MAGIC = 0x424D3235;
+
+    /// The file format version.
+    private static final int VERSION = 1;
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The mapped file.
+    private final ByteBuffer buffer;
+
+    /// The average document length in terms.
+    private final double averageLength;
+
+    /// The document IDs by document number.
+    private final String[] ids;
+
+    /// The document metadata by document number.
+    private final Metadata[] metadata;
+
+    /// The document lengths in terms by document number.
+    private final int[] lengths;
+
+    /// The offsets of the document texts by document number.
+    private final int[] textOffsets;
+
+    /// The lengths in bytes of the document texts by document number.
+    private final int[] textLengths;
+
+    /// The terms.
+    private final Map<String, Term> dictionary;
+
+    /// The constructor.
+    ///
+    /// @param  buffer  java.nio.ByteBuffer
+    private Bm25InvertedIndex(final ByteBuffer buffer) {
+        super();
+
+        this.buffer = buffer;
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a version " + VERSION + " BM25 inverted index");
+        }
+
+        final int documents = buffer.getInt(8);
+        final int terms = buffer.getInt(16);
+
+        this.averageLength = buffer.getFloat(12);
+        this.ids = new String[documents];
+        this.metadata = new Metadata[documents];
+        this.lengths = new int[documents];
+        this.textOffsets = new int[documents];
+        this.textLengths = new int[documents];
+        this.dictionary = new HashMap<>(terms * 2);
+
+        final ObjectMapper objectMapper = new ObjectMapper();
+
+        int position = buffer.getInt(20);
+
+        for (int document = 0; document < documents; document++) {
+            this.lengths[document] = buffer.getInt(position);
+            this.ids[document] = this.string(position + 6, buffer.getShort(position + 4) & 0xFFFF);
+            position += 6 + (buffer.getShort(position + 4) & 0xFFFF);
+
+            final int metadataLength = buffer.getInt(position);
+
+            try {
+                this.metadata[document] = Metadata.from(objectMapper.readValue(
+                        this.bytes(position + 4, metadataLength),
+                        new TypeReference<Map<String, Object>>() {}
+                ));
+            } catch (final IOException ioe) {
+                throw new UncheckedIOException("Unable to read the metadata of document " + this.ids[document], ioe);
+            }
+
+            position += 4 + metadataLength;
+
+            this.textLengths[document] = buffer.getInt(position);
+            this.textOffsets[document] = position + 4;
+            position += 4 + this.textLengths[document];
+        }
+
+        position = buffer.getInt(24);
+
+        final int postings = buffer.getInt(28);
+
+        for (int i = 0; i < terms; i++) {
+            final int termLength = buffer.getShort(position) & 0xFFFF;
+            final String term = this.string(position + 2, termLength);
+
+            position += 2 + termLength;
+
+            this.dictionary.put(term, new Term(
+                    buffer.getFloat(position),
+                    buffer.getFloat(position + 4),
+                    postings + buffer.getInt(position + 8),
+                    buffer.getInt(position + 12)
+            ));
+
+            position += 16;
+        }
+    }
+
+    /// Write the index of documents to a file, replacing it atomically.
+    ///
+    /// @param  file        java.nio.file.Path
+    /// @param  segments    java.util.Map<java.lang.String, dev.langchain4j.data.segment.TextSegment>    The documents by ID
+    public static void write(final Path file, final Map<String, TextSegment> segments) {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final List<Map<String, Integer>> frequencies = new ArrayList<>(segments.size());
+        final int[] lengths = new int[segments.size()];
+
+        long totalLength = 0;
+
+        for (final TextSegment segment : segments.values()) {
+            final Map<String, Integer> termFrequencies = new LinkedHashMap<>();
+            final List<String> terms = Bm25Encoder.tokenize(segment.text());
+
+            for (final String term : terms) {
+                termFrequencies.merge(term, 1, Integer::sum);
+            }
+
+            lengths[frequencies.size()] = terms.size();
+            frequencies.add(termFrequencies);
+            totalLength += terms.size();
+        }
+
+        final int documents = segments.size();
+        final double averageLength = documents == 0 ? 0.0 : (double) totalLength / documents;
+
+        /* Invert the term frequencies; documents are numbered in order, so each postings list is ascending */
+
+        final Map<String, List<int[]>> postingsByTerm = new TreeMap<>();
+
+        for (int document = 0; document < documents; document++) {
+            for (final Map.Entry<String, Integer> entry : frequencies.get(document).entrySet()) {
+                postingsByTerm.computeIfAbsent(entry.getKey(), key -> new ArrayList<>()).add(new int[] {document, entry.getValue()});
+            }
+        }
+
+        try {
+            final ByteArrayOutputStream documentBytes = new ByteArrayOutputStream();
+            final DataOutputStream documentOutput = new DataOutputStream(documentBytes);
+
+            int document = 0;
+
+            for (final Map.Entry<String, TextSegment> entry : segments.entrySet()) {
+                final byte[] id = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                final byte[] metadata = objectMapper.writeValueAsBytes(entry.getValue().metadata().toMap());
+                final byte[] text = entry.getValue().text().getBytes(StandardCharsets.UTF_8);
+
+                documentOutput.writeInt(lengths[document++]);
+                documentOutput.writeShort(id.length);
+                documentOutput.write(id);
+                documentOutput.writeInt(metadata.length);
+                documentOutput.write(metadata);
+                documentOutput.writeInt(text.length);
+                documentOutput.write(text);
+            }
+
+            final ByteArrayOutputStream dictionaryBytes = new ByteArrayOutputStream();
+            final DataOutputStream dictionaryOutput = new DataOutputStream(dictionaryBytes);
+            final ByteArrayOutputStream postingBytes = new ByteArrayOutputStream();
+
+            for (final Map.Entry<String, List<int[]>> entry : postingsByTerm.entrySet()) {
+                final List<int[]> postings = entry.getValue();
+                final double idf = idf(documents, postings.size());
+                final int offset = postingBytes.size();
+
+                double maxScore = 0;
+                int previous = 0;
+
+                for (final int[] posting : postings) {
+                    writeVarInt(postingBytes, posting[0] - previous);
+                    writeVarInt(postingBytes, posting[1]);
+                    previous = posting[0];
+                    maxScore = Math.max(maxScore, score(idf, posting[1], lengths[posting[0]], averageLength));
+                }
+
+                final byte[] term = entry.getKey().getBytes(StandardCharsets.UTF_8);
+
+                dictionaryOutput.writeShort(term.length);
+                dictionaryOutput.write(term);
+                dictionaryOutput.writeFloat((float) idf);
+                dictionaryOutput.writeFloat(Math.nextUp((float) maxScore));    // Rounded up so that it stays a bound
+                dictionaryOutput.writeInt(offset);
+                dictionaryOutput.writeInt(postingBytes.size() - offset);
+            }
+
+            final int header = 32;
+            final int dictionaryOffset = header + documentBytes.size();
+            final int postingsOffset = dictionaryOffset + dictionaryBytes.size();
+
+            final Path directory = file.toAbsolutePath().getParent();
+
+            Files.createDirectories(directory);
+
+            final Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+            try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(documents);
+                output.writeFloat((float) averageLength);
+                output.writeInt(postingsByTerm.size());
+                output.writeInt(header);
+                output.writeInt(dictionaryOffset);
+                output.writeInt(postingsOffset);
+                documentBytes.writeTo(output);
+                dictionaryBytes.writeTo(output);
+                postingBytes.writeTo(output);
+            }
+
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException ioe) {
+            throw new UncheckedIOException("Unable to write the BM25 inverted index: " + file, ioe);
+        }
+    }
+
+    /// Open an index file by mapping it into memory.
+    ///
+    /// @param  file    java.nio.file.Path
+    /// @return         net.jmp.pinecone.langchain.store.Bm25InvertedIndex
+    public static Bm25InvertedIndex open(final Path file) {
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The BM25 inverted index is too large to map: " + file);
+            }
+
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());     // The mapping outlives the channel
+
+            return new Bm25InvertedIndex(buffer);
+        } catch (final IOException ioe) {
+            throw new UncheckedIOException("Unable to read the BM25 inverted index: " + file, ioe);
+        }
+    }
+
+    /// Search for the documents that best match a text.
+    ///
+    /// @param  text        java.lang.String
+    /// @param  maxResults  int
+    /// @param  filter      dev.langchain4j.store.embedding.filter.Filter   May be null
+    /// @return             java.util.List<net.jmp.pinecone.langchain.store.Bm25InvertedIndex.Match>    Best first
+    public List<Match> search(final String text, final int maxResults, final Filter filter) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(text, maxResults, filter));
+        }
+
+        final long start = System.nanoTime();
+        final List<Cursor> cursors = new ArrayList<>();
+
+        for (final String term : new LinkedHashSet<>(Bm25Encoder.tokenize(text))) {
+            final Term entry = this.dictionary.get(term);
+
+            if (entry != null) {
+                cursors.add(new Cursor(entry));
+            }
+        }
+
+        /* Order the terms by their highest score and sum those scores; a document that only has
+           terms whose summed highest scores cannot beat the lowest result so far is never visited */
+
+        cursors.sort(Comparator.comparingDouble(cursor -> cursor.term.maxScore()));
+
+        final int terms = cursors.size();
+        final double[] bounds = new double[terms];
+
+        double bound = 0;
+
+        for (int i = 0; i < terms; i++) {
+            bound += cursors.get(i).term.maxScore();
+            bounds[i] = bound;
+        }
+
+        final PriorityQueue<Scored> results = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+
+        double threshold = 0;
+        int essential = 0;
+        int scored = 0;
+
+        while (essential < terms) {
+            int document = Integer.MAX_VALUE;
+
+            for (int i = essential; i < terms; i++) {
+                document = Math.min(document, cursors.get(i).document);
+            }
+
+            if (document == Integer.MAX_VALUE) {
+                break;
+            }
+
+            double score = 0;
+
+            for (int i = essential; i < terms; i++) {
+                final Cursor cursor = cursors.get(i);
+
+                if (cursor.document == document) {
+                    score += this.score(cursor, document);
+                    cursor.next();
+                }
+            }
+
+            for (int i = essential - 1; i >= 0 && score + bounds[i] > threshold; i--) {
+                final Cursor cursor = cursors.get(i);
+
+                cursor.advance(document);
+
+                if (cursor.document == document) {
+                    score += this.score(cursor, document);
+                }
+            }
+
+            scored++;
+
+            if ((results.size() < maxResults || score > threshold) && (filter == null || filter.test(this.metadata[document]))) {
+                results.add(new Scored(document, score));
+
+                if (results.size() > maxResults) {
+                    results.poll();
+                }
+
+                if (results.size() == maxResults) {
+                    threshold = results.peek().score();
+
+                    while (essential < terms && bounds[essential] <= threshold) {
+                        essential++;
+                    }
+                }
+            }
+        }
+
+        final List<Match> matches = new ArrayList<>(results.size());
+
+        while (!results.isEmpty()) {
+            final Scored result = results.poll();
+
+            matches.addFirst(new Match(
+                    this.ids[result.document()],
+                    result.score(),
+                    TextSegment.from(this.string(this.textOffsets[result.document()], this.textLengths[result.document()]), this.metadata[result.document()])
+            ));
+        }
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Scored {} of {} documents for {} terms in {} µs", scored, this.ids.length, terms, (System.nanoTime() - start) / 1_000);
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(matches));
+        }
+
+        return matches;
+    }
+
+    /// Return the number of documents.
+    ///
+    /// @return int
+    public int size() {
+        return this.ids.length;
+    }
+
+    /// Return the BM25 score of the document a cursor is on.
+    ///
+    /// @param  cursor      net.jmp.pinecone.langchain.store.Bm25InvertedIndex.Cursor
+    /// @param  document    int
+    /// @return             double
+    private double score(final Cursor cursor, final int document) {
+        return score(cursor.term.idf(), cursor.frequency, this.lengths[document], this.averageLength);
+    }
+
+    /// Return the BM25 score of a term in a document.
+    ///
+    /// @param  idf             double
+    /// @param  frequency       int
+    /// @param  length          int
+    /// @param  averageLength   double
+    /// @return                 double
+    private static double score(final double idf, final int frequency, final int length, final double averageLength) {
+        final double norm = Bm25Encoder.K1 * (1 - Bm25Encoder.B + Bm25Encoder.B * length / averageLength);
+
+        return idf * frequency * (Bm25Encoder.K1 + 1) / (frequency + norm);
+    }
+
+    /// Return the inverse document frequency of a term.
+    ///
+    /// @param  documents           int
+    /// @param  documentFrequency   int
+    /// @return                     double
+    private static double idf(final int documents, final int documentFrequency) {
+        return Math.log(1 + (documents - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    /// Write a non-negative variable-length integer,
+    /// seven bits at a time, least significant first.
+    ///
+    /// @param  output  java.io.OutputStream
+    /// @param  value   int
+    private static void writeVarInt(final OutputStream output, final int value) {
+        int remaining = value;
+
+        try {
+            while ((remaining & ~0x7F) != 0) {
+                output.write((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+
+            output.write(remaining);
+        } catch (final IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    /// Read bytes from the mapped file.
+    ///
+    /// @param  offset  int
+    /// @param  length  int
+    /// @return         byte[]
+    private byte[] bytes(final int offset, final int length) {
+        final byte[] bytes = new byte[length];
+
+        this.buffer.get(offset, bytes);
+
+        return bytes;
+    }
+
+    /// Read a UTF-8 string from the mapped file.
+    ///
+    /// @param  offset  int
+    /// @param  length  int
+    /// @return         java.lang.String
+    private String string(final int offset, final int length) {
+        return new String(this.bytes(offset, length), StandardCharsets.UTF_8);
+    }
+
+    /// A document that matches a search.
+    ///
+    /// @param  id          java.lang.String
+    /// @param  score       double
+    /// @param  textSegment dev.langchain4j.data.segment.TextSegment
+    public record Match(String id, double score, TextSegment textSegment) {
+    }
+
+    /// A dictionary entry.
+    ///
+    /// @param  idf         double
+    /// @param  maxScore    double  The highest score of the term in any document
+    /// @param  offset      int     The offset of the postings in the file
+    /// @param  length      int     The length of the postings in bytes
+    private record Term(double idf, double maxScore, int offset, int length) {
+    }
+
+    /// A scored document.
+    ///
+    /// @param  document    int
+    /// @param  score       double
+    private record Scored(int document, double score) {
+    }
+
+    /// A position in the postings list of a term. The mapped file
+    /// is only read at absolute offsets, so searches run concurrently.
+    private final class Cursor {
+        /// The term.
+        private final Term term;
+
+        /// The end of the postings.
+        private final int end;
+
+        /// The offset of the next posting.
+        private int position;
+
+        /// The current document, or Integer.MAX_VALUE when exhausted.
+        private int document;
+
+        /// The frequency of the term in the current document.
+        private int frequency;
+
+        /// The constructor.
+        ///
+        /// @param  term    net.jmp.pinecone.langchain.store.Bm25InvertedIndex.Term
+        private Cursor(final Term term) {
+            super();
+
+            this.term = term;
+            this.position = term.offset();
+            this.end = term.offset() + term.length();
+
+            this.next();
+        }
+
+        /// Move to the next document.
+        private void next() {
+            if (this.position >= this.end) {
+                this.document = Integer.MAX_VALUE;
+            } else {
+                this.document += this.readVarInt();
+                this.frequency = this.readVarInt();
+            }
+        }
+
+        /// Move to the first document at or after a document.
+        ///
+        /// @param  target  int
+        private void advance(final int target) {
+            while (this.document < target) {
+                this.next();
+            }
+        }
+
+        /// Read a variable-length integer.
+        ///
+        /// @return int
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+
+            do {
+                b = Bm25InvertedIndex.this.buffer.get(this.position++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            return value;
+        }
+    }
+}
@@ -0,0 +1,544 @@
+package net.jmp.pinecone.langchain.store;
+
+/*
+ * (#)CachingEmbeddingStore.java   0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.data.embedding.Embedding;
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+
+import dev.langchain4j.store.embedding.filter.comparison.IsIn;
+import dev.langchain4j.store.embedding.filter.comparison.IsNotIn;
+
+import dev.langchain4j.store.embedding.filter.logical.And;
+import dev.langchain4j.store.embedding.filter.logical.Not;
+import dev.langchain4j.store.embedding.filter.logical.Or;
+
+import java.nio.ByteBuffer;
+
+import java.nio.charset.StandardCharsets;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// An embedding store that caches search results. The key is a hash of
+/// the query vector, the normalized filter, the maximum results, the
+/// minimum score and the namespace being searched. Entries expire after
+/// a time to live and are all invalidated when the index epoch changes,
+/// which happens when an operation loads into or deletes from the index.
+/// Writes through this store invalidate the cache of this process at once.
+/// The least recently used entries are evicted beyond the maximum number.
+///
+/// @param  <Embedded>  The class of the object that has been embedded
+/// @version    0.1.0
+/// @since      0.1.0
+public final class CachingEmbeddingStore<Embedded> implements EmbeddingStore<Embedded>, AutoCloseable {
+    /// The estimated fixed size of an entry in bytes.
+    private static final long ENTRY_BYTES = 256L;
+
+    /// The estimated fixed size of a match in bytes.
+    private static final long MATCH_BYTES = 96L;
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The store being cached.
+    private final EmbeddingStore<Embedded> delegate;
+
+    /// The supplier of the namespace being searched.
+    private final Supplier<String> namespaceSupplier;
+
+    /// The supplier of the index epoch.
+    private final LongSupplier epochSupplier;
+
+    /// The time to live of an entry in nanoseconds.
+    private final long ttlNanos;
+
+    /// The maximum number of entries.
+    private final int maxEntries;
+
+    /// The entries in least recently used order. Guarded by itself.
+    private final LinkedHashMap<Key, Entry<Embedded>> entries;
+
+    /// The epoch of the entries. Guarded by the entries.
+    private long epoch;
+
+    /// The estimated size of the entries in bytes. Guarded by the entries.
+    private long bytes;
+
+    /// The number of hits. Guarded by the entries.
+    private long hits;
+
+    /// The number of misses. Guarded by the entries.
+    private long misses;
+
+    /// The constructor.
+    ///
+    /// @param  delegate            dev.langchain4j.store.embedding.EmbeddingStore<Embedded>
+    /// @param  namespaceSupplier   java.util.function.Supplier<java.lang.String>
+    /// @param  epochSupplier       java.util.function.LongSupplier
+    /// @param  ttl                 java.time.Duration
+    /// @param  maxEntries          int
+    public CachingEmbeddingStore(final EmbeddingStore<Embedded> delegate,
+                                 final Supplier<String> namespaceSupplier,
+                                 final LongSupplier epochSupplier,
+                                 final Duration ttl,
+                                 final int maxEntries) {
+        super();
+
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The maximum entries must be positive: " + maxEntries);
+        }
+
+        this.delegate = delegate;
+        this.namespaceSupplier = namespaceSupplier;
+        this.epochSupplier = epochSupplier;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.epoch = epochSupplier.getAsLong();
+    }
+
+    /// Add an embedding.
+    ///
+    /// @param  embedding   dev.langchain4j.data.embedding.Embedding
+    /// @return             java.lang.String
+    @Override
+    public String add(final Embedding embedding) {
+        try {
+            return this.delegate.add(embedding);
+        } finally {
+            this.invalidate();
+        }
+    }
+
+    /// Add an embedding with an ID.
+    ///
+    /// @param  id          java.lang.String
+    /// @param  embedding   dev.langchain4j.data.embedding.Embedding
+    @Override
+    public void add(final String id, final Embedding embedding) {
+        try {
+            this.delegate.add(id, embedding);
+        } finally {
+            this.invalidate();
+        }
+    }
+
+    /// Add an embedding and the object that was embedded.
+    ///
+    /// @param  embedding   dev.langchain4j.data.embedding.Embedding
+    /// @param  embedded    Embedded
+    /// @return             java.lang.String
+    @Override
+    public String add(final Embedding embedding, final Embedded embedded) {
+        try {
+            return this.delegate.add(embedding, embedded);
+        } finally {
+            this.invalidate();
+        }
+    }
+
+    /// Add a list of embeddings.
+    ///
+    /// @param  embeddings  java.util.List<dev.langchain4j.data.embedding.Embedding>
+    /// @return             java.util.List<java.lang.String>
+    @Override
+    public List<String> addAll(final List<Embedding> embeddings) {
+        try {
+            return this.delegate.addAll(embeddings);
+        } finally {
+            this.invalidate();
+        }
+    }
+
+    /// Add a list of embeddings with IDs and the objects that were embedded.
+    ///
+    /// @param  ids         java.util.List<java.lang.String>
+    /// @param  embeddings  java.util.List<dev.langchain4j.data.embedding.Embedding>
+    /// @param  embedded    java.util.List<Embedded>
+    @Override
+    public void addAll(final List<String> ids, final List<Embedding> embeddings, final List<Embedded> embedded) {
+        try {
+            this.delegate.addAll(ids, embeddings, embedded);
+        } finally {
+            this.invalidate();
+        }
+    }
+
+    /// Remove the embeddings with the given IDs.
+    ///
+    /// @param  ids java.util.Collection<java.lang.String>
+    @Override
+    public void removeAll(final Collection<String> ids) {
+        try {
+            this.delegate.removeAll(ids);
+        } finally {
+            this.invalidate();
+        }
+    }
+
+    /// Remove the embeddings that match the filter.
+    ///
+    /// @param  filter  dev.langchain4j.store.embedding.filter.Filter
+    @Override
+    public void removeAll(final Filter filter) {
+        try {
+            this.delegate.removeAll(filter);
+        } finally {
+            this.invalidate();
+        }
+    }
+
+    /// Remove all the embeddings.
+    @Override
+    public void removeAll() {
+        try {
+            this.delegate.removeAll();
+        } finally {
+            this.invalidate();
+        }
+    }
+
+    /// Search for the embeddings most similar to the query embedding,
+    /// answering from the cache when an identical search was made in
+    /// the current epoch and within the time to live.
+    ///
+    /// @param  request dev.langchain4j.store.embedding.EmbeddingSearchRequest
+    /// @return         dev.langchain4j.store.embedding.EmbeddingSearchResult<Embedded>
+    @Override
+    public EmbeddingSearchResult<Embedded> search(final EmbeddingSearchRequest request) {
+        final long currentEpoch = this.epochSupplier.getAsLong();
+        final Key key = this.key(request, this.namespaceSupplier.get());
+        final long now = System.nanoTime();
+
+        synchronized (this.entries) {
+            if (currentEpoch != this.epoch) {
+                this.logger.info("Index epoch changed from {} to {}; dropping {} cached searches", this.epoch, currentEpoch, this.entries.size());
+
+                this.clear(currentEpoch);
+            }
+
+            final Entry<Embedded> entry = this.entries.get(key);
+
+            if (entry != null && now - entry.expiresAtNanos() < 0) {
+                this.hits++;
+
+                return entry.result();
+            }
+
+            if (entry != null) {
+                this.remove(key);
+            }
+
+            this.misses++;
+        }
+
+        final EmbeddingSearchResult<Embedded> result = this.delegate.search(request);
+        final Entry<Embedded> entry = new Entry<>(result, System.nanoTime() + this.ttlNanos, this.estimate(result));
+
+        synchronized (this.entries) {
+            if (currentEpoch == this.epoch) {   // Unless the epoch changed during the search
+                final Entry<Embedded> previous = this.entries.put(key, entry);
+
+                if (previous != null) {
+                    this.bytes -= previous.bytes();
+                }
+
+                this.bytes += entry.bytes();
+
+                final Iterator<Map.Entry<Key, Entry<Embedded>>> iterator = this.entries.entrySet().iterator();
+
+                while (this.entries.size() > this.maxEntries && iterator.hasNext()) {
+                    this.bytes -= iterator.next().getValue().bytes();
+
+                    iterator.remove();
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /// Drop all the cached searches.
+    public void invalidate() {
+        synchronized (this.entries) {
+            this.clear(this.epochSupplier.getAsLong());
+        }
+    }
+
+    /// Return the statistics of the cache.
+    ///
+    /// @return net.jmp.pinecone.langchain.store.CachingEmbeddingStore.Stats
+    public Stats stats() {
+        synchronized (this.entries) {
+            return new Stats(this.hits, this.misses, this.entries.size(), this.bytes);
+        }
+    }
+
+    /// Close the store being cached if it is closeable. A
+    /// failure to close it is logged rather than thrown.
+    @Override
+    public void close() {
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Search cache: {}", this.stats());
+        }
+
+        if (this.delegate instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (final Exception e) {
+                this.logger.warn("Unable to close the store being cached", e);
+            }
+        }
+    }
+
+    /// Drop all the entries and move to an epoch.
+    /// The caller must hold the entries lock.
+    ///
+    /// @param  newEpoch    long
+    private void clear(final long newEpoch) {
+        this.entries.clear();
+        this.bytes = 0;
+        this.epoch = newEpoch;
+    }
+
+    /// Remove an entry. The caller must hold the entries lock.
+    ///
+    /// @param  key net.jmp.pinecone.langchain.store.CachingEmbeddingStore.Key
+    private void remove(final Key key) {
+        final Entry<Embedded> removed = this.entries.remove(key);
+
+        if (removed != null) {
+            this.bytes -= removed.bytes();
+        }
+    }
+
+    /// Return the key of a search.
+    ///
+    /// @param  request     dev.langchain4j.store.embedding.EmbeddingSearchRequest
+    /// @param  namespace   java.lang.String
+    /// @return             net.jmp.pinecone.langchain.store.CachingEmbeddingStore.Key
+    private Key key(final EmbeddingSearchRequest request, final String namespace) {
+        final float[] vector = request.queryEmbedding().vector();
+        final ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES + Integer.BYTES + Double.BYTES);
+
+        for (final float value : vector) {
+            buffer.putFloat(value);
+        }
+
+        buffer.putInt(request.maxResults());
+        buffer.putDouble(request.minScore());
+
+        final MessageDigest digest = newDigest();
+
+        digest.update(buffer.array());
+        digest.update((byte) 0);
+        digest.update(normalize(request.filter()).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(String.valueOf(namespace).getBytes(StandardCharsets.UTF_8));
+
+        final ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+
+        return new Key(hash.getLong(), hash.getLong());
+    }
+
+    /// Return a normal form of a filter in which the operands of
+    /// and, or and in are sorted, so that equivalent filters
+    /// written in a different order have the same form.
+    ///
+    /// @param  filter  dev.langchain4j.store.embedding.filter.Filter
+    /// @return         java.lang.String
+    static String normalize(final Filter filter) {
+        return switch (filter) {
+            case null -> "";
+            case And and -> {
+                final List<String> operands = new ArrayList<>();
+
+                flatten(and, operands);
+
+                yield "and(" + String.join(",", operands) + ")";
+            }
+            case Or or -> {
+                final List<String> operands = new ArrayList<>();
+
+                flatten(or, operands);
+
+                yield "or(" + String.join(",", operands) + ")";
+            }
+            case Not not -> "not(" + normalize(not.expression()) + ")";
+            case IsIn isIn -> "in(" + isIn.key() + "," + sorted(isIn.comparisonValues()) + ")";
+            case IsNotIn isNotIn -> "notIn(" + isNotIn.key() + "," + sorted(isNotIn.comparisonValues()) + ")";
+            default -> filter.toString();
+        };
+    }
+
+    /// Collect the normalized operands of nested ands or
+    /// nested ors into a sorted list.
+    ///
+    /// @param  filter      dev.langchain4j.store.embedding.filter.Filter
+    /// @param  operands    java.util.List<java.lang.String>
+    private static void flatten(final Filter filter, final List<String> operands) {
+        final Class<?> type = filter.getClass();
+
+        collect(filter, type, operands);
+        operands.sort(null);
+    }
+
+    /// Collect the normalized operands of a filter of a type.
+    ///
+    /// @param  filter      dev.langchain4j.store.embedding.filter.Filter
+    /// @param  type        java.lang.Class<?>
+    /// @param  operands    java.util.List<java.lang.String>
+    private static void collect(final Filter filter, final Class<?> type, final List<String> operands) {
+        if (filter.getClass() != type) {
+            operands.add(normalize(filter));
+        } else if (filter instanceof And and) {
+            collect(and.left(), type, operands);
+            collect(and.right(), type, operands);
+        } else if (filter instanceof Or or) {
+            collect(or.left(), type, operands);
+            collect(or.right(), type, operands);
+        }
+    }
+
+    /// Return the sorted string forms of comparison values.
+    ///
+    /// @param  values  java.util.Collection<?>
+    /// @return         java.lang.String
+    private static String sorted(final Collection<?> values) {
+        return values.stream()
+                .map(value -> value.getClass().getSimpleName() + ":" + value)
+                .sorted()
+                .toList()
+                .toString();
+    }
+
+    /// Estimate the size of a search result in bytes.
+    ///
+    /// @param  result  dev.langchain4j.store.embedding.EmbeddingSearchResult<Embedded>
+    /// @return         long
+    private long estimate(final EmbeddingSearchResult<Embedded> result) {
+        long size = ENTRY_BYTES;
+
+        for (final EmbeddingMatch<Embedded> match : result.matches()) {
+            size += MATCH_BYTES + 2L * String.valueOf(match.embeddingId()).length();
+
+            if (match.embedding() != null) {
+                size += (long) Float.BYTES * match.embedding().dimension();
+            }
+
+            if (match.embedded() instanceof TextSegment textSegment) {
+                size += 2L * textSegment.text().length();
+
+                for (final Map.Entry<String, Object> metadata : textSegment.metadata().toMap().entrySet()) {
+                    size += MATCH_BYTES + 2L * (metadata.getKey().length() + String.valueOf(metadata.getValue()).length());
+                }
+            }
+        }
+
+        return size;
+    }
+
+    /// Return a new SHA-256 message digest.
+    ///
+    /// @return java.security.MessageDigest
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException("SHA-256 is not available", nsae);
+        }
+    }
+
+    /// The statistics of the cache.
+    ///
+    /// @param  hits    long
+    /// @param  misses  long
+    /// @param  entries int
+    /// @param  bytes   long    The estimated size of the entries
+    public record Stats(long hits, long misses, int entries, long bytes) {
+        /// Return the ratio of hits to searches.
+        ///
+        /// @return double
+        public double hitRatio() {
+            final long searches = this.hits + this.misses;
+
+            return searches == 0 ? 0.0 : (double) this.hits / searches;
+        }
+
+        /// Return the statistics as a string.
+        ///
+        /// @return java.lang.String
+        @Override
+        public String toString() {
+            return String.format("%d hits, %d misses, %.1f%% hit ratio, %d entries, %.1f KiB",
+                    this.hits, this.misses, 100.0 * this.hitRatio(), this.entries, this.bytes / 1024.0);
+        }
+    }
+
+    /// The hash of a search.
+    ///
+    /// @param  high    long
+    /// @param  low     long
+    private record Key(long high, long low) {
+    }
+
+    /// A cached search result.
+    ///
+    /// @param  <Embedded>      The class of the object that has been embedded
+    /// @param  result          dev.langchain4j.store.embedding.EmbeddingSearchResult<Embedded>
+    /// @param  expiresAtNanos  long
+    /// @param  bytes           long
+    private record Entry<Embedded>(EmbeddingSearchResult<Embedded> result, long expiresAtNanos, long bytes) {
+    }
+}
@@ -0,0 +1,60 @@
+package net.jmp.pinecone.langchain.store;
+
+/*
+ * (#)EmbeddingCatalog.java    0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import java.util.function.Consumer;
+
+/// An embedding catalog lists what an embedding store
+/// holds without having to search it with a query vector.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public interface EmbeddingCatalog extends AutoCloseable {
+    /// List the IDs of every embedding, handing them to
+    /// the consumer one page at a time.
+    ///
+    /// @param  pageConsumer    java.util.function.Consumer<java.util.List<java.lang.String>>
+    void listIds(Consumer<List<String>> pageConsumer);
+
+    /// Fetch the value of a metadata key for embeddings. IDs that
+    /// are unknown or that lack the key are absent from the map.
+    ///
+    /// @param  ids         java.util.Collection<java.lang.String>
+    /// @param  metadataKey java.lang.String
+    /// @return             java.util.Map<java.lang.String, java.lang.String>
+    Map<String, String> fetchMetadata(Collection<String> ids, String metadataKey);
+
+    /// Close the catalog.
+    @Override
+    void close();
+}
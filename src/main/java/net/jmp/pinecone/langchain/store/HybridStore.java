@@ -0,0 +1,87 @@
+package net.jmp.pinecone.langchain.store;
+
+/*
+ * (#)HybridStore.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.data.embedding.Embedding;
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+
+import java.util.Collection;
+import java.util.List;
+
+/// A store of segments with both a dense and a sparse embedding
+/// that is searched with a convex combination of the two. With
+/// an alpha of 1 the search is purely dense and with an alpha of 0
+/// purely sparse; the score of a match is alpha times its dense
+/// similarity plus one minus alpha times its sparse dot product.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public interface HybridStore extends AutoCloseable {
+    /// Add or replace segments with their dense and sparse embeddings.
+    ///
+    /// @param  ids                 java.util.List<java.lang.String>
+    /// @param  embeddings          java.util.List<dev.langchain4j.data.embedding.Embedding>
+    /// @param  sparseEmbeddings    java.util.List<net.jmp.pinecone.langchain.store.SparseEmbedding>
+    /// @param  segments            java.util.List<dev.langchain4j.data.segment.TextSegment>
+    void addAll(List<String> ids,
+                List<Embedding> embeddings,
+                List<SparseEmbedding> sparseEmbeddings,
+                List<TextSegment> segments);
+
+    /// Search with a dense and a sparse query embedding.
+    ///
+    /// @param  embedding       dev.langchain4j.data.embedding.Embedding
+    /// @param  sparseEmbedding net.jmp.pinecone.langchain.store.SparseEmbedding
+    /// @param  alpha           double
+    /// @param  maxResults      int
+    /// @param  filter          dev.langchain4j.store.embedding.filter.Filter   May be null
+    /// @return                 java.util.List<dev.langchain4j.store.embedding.EmbeddingMatch<dev.langchain4j.data.segment.TextSegment>>
+    List<EmbeddingMatch<TextSegment>> search(Embedding embedding,
+                                             SparseEmbedding sparseEmbedding,
+                                             double alpha,
+                                             int maxResults,
+                                             Filter filter);
+
+    /// Remove the segments with the given IDs.
+    ///
+    /// @param  ids java.util.Collection<java.lang.String>
+    void removeAll(Collection<String> ids);
+
+    /// Remove every segment.
+    void removeAll();
+
+    /// Close the store.
+    @Override
+    void close();
+}
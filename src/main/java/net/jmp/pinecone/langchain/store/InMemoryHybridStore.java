@@ -0,0 +1,357 @@
+package net.jmp.pinecone.langchain.store;
+
+/*
+ * (#)InMemoryHybridStore.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import dev.langchain4j.data.document.Metadata;
+
+import dev.langchain4j.data.embedding.Embedding;
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.store.embedding.CosineSimilarity;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A hybrid store held in memory, the local stand-in for a Pinecone index
+/// with sparse-dense vectors. When it is given a file the entries added are
+/// appended to it as JSON lines and read back when the store is created, so
+/// that one operation can load the store and another search it. A later line
+/// replaces an earlier one with the same ID, and the file is compacted when
+/// it is read if it holds replaced lines. Removing entries rewrites the file.
+/// Searches scan every entry.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class InMemoryHybridStore implements HybridStore {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The object mapper.
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /// The entries by ID.
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /// The file the entries are kept in, or null.
+    private final Path file;
+
+    /// A constructor for a store kept only in memory.
+    public InMemoryHybridStore() {
+        super();
+
+        this.file = null;
+    }
+
+    /// A constructor for a store kept in a file.
+    ///
+    /// @param  file    java.nio.file.Path
+    public InMemoryHybridStore(final Path file) {
+        super();
+
+        this.file = file;
+
+        if (Files.exists(file)) {
+            this.read();
+        }
+    }
+
+    /// Add or replace segments with their dense and sparse embeddings.
+    ///
+    /// @param  ids                 java.util.List<java.lang.String>
+    /// @param  embeddings          java.util.List<dev.langchain4j.data.embedding.Embedding>
+    /// @param  sparseEmbeddings    java.util.List<net.jmp.pinecone.langchain.store.SparseEmbedding>
+    /// @param  segments            java.util.List<dev.langchain4j.data.segment.TextSegment>
+    @Override
+    public void addAll(final List<String> ids,
+                       final List<Embedding> embeddings,
+                       final List<SparseEmbedding> sparseEmbeddings,
+                       final List<TextSegment> segments) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(ids, embeddings, sparseEmbeddings, segments));
+        }
+
+        final List<Entry> added = new ArrayList<>(ids.size());
+
+        for (int i = 0; i < ids.size(); i++) {
+            added.add(new Entry(ids.get(i), embeddings.get(i), sparseEmbeddings.get(i), segments.get(i)));
+        }
+
+        // Entries change under the lock so that a removal never rewrites the file without them
+
+        synchronized (this) {
+            if (this.file != null) {
+                try {
+                    Files.createDirectories(this.file.toAbsolutePath().getParent());
+
+                    try (final BufferedWriter writer = Files.newBufferedWriter(this.file,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                        this.write(writer, added);
+                    }
+                } catch (final IOException ioe) {
+                    throw new UncheckedIOException("Unable to write the hybrid store: " + this.file, ioe);
+                }
+            }
+
+            added.forEach(entry -> this.entries.put(entry.id(), entry));
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Search with a dense and a sparse query embedding.
+    ///
+    /// @param  embedding       dev.langchain4j.data.embedding.Embedding
+    /// @param  sparseEmbedding net.jmp.pinecone.langchain.store.SparseEmbedding
+    /// @param  alpha           double
+    /// @param  maxResults      int
+    /// @param  filter          dev.langchain4j.store.embedding.filter.Filter   May be null
+    /// @return                 java.util.List<dev.langchain4j.store.embedding.EmbeddingMatch<dev.langchain4j.data.segment.TextSegment>>
+    @Override
+    public List<EmbeddingMatch<TextSegment>> search(final Embedding embedding,
+                                                    final SparseEmbedding sparseEmbedding,
+                                                    final double alpha,
+                                                    final int maxResults,
+                                                    final Filter filter) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(embedding, sparseEmbedding, alpha, maxResults, filter));
+        }
+
+        final List<EmbeddingMatch<TextSegment>> matches = this.entries.values().stream()
+                .filter(entry -> filter == null || filter.test(entry.segment().metadata()))
+                .map(entry -> new EmbeddingMatch<>(
+                        alpha * CosineSimilarity.between(embedding, entry.embedding())
+                                + (1 - alpha) * sparseEmbedding.dot(entry.sparseEmbedding()),
+                        entry.id(),
+                        entry.embedding(),
+                        entry.segment()))
+                .sorted(Comparator.comparingDouble(EmbeddingMatch<TextSegment>::score).reversed())
+                .limit(maxResults)
+                .toList();
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(matches));
+        }
+
+        return matches;
+    }
+
+    /// Remove the segments with the given IDs.
+    ///
+    /// @param  ids java.util.Collection<java.lang.String>
+    @Override
+    public void removeAll(final Collection<String> ids) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(ids));
+        }
+
+        synchronized (this) {
+            ids.forEach(this.entries::remove);
+
+            if (this.file != null) {
+                try {
+                    this.rewrite();
+                } catch (final IOException ioe) {
+                    throw new UncheckedIOException("Unable to write the hybrid store: " + this.file, ioe);
+                }
+            }
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Remove every segment.
+    @Override
+    public void removeAll() {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entry());
+        }
+
+        synchronized (this) {
+            this.entries.clear();
+
+            if (this.file != null) {
+                try {
+                    Files.deleteIfExists(this.file);
+                } catch (final IOException ioe) {
+                    throw new UncheckedIOException("Unable to delete the hybrid store: " + this.file, ioe);
+                }
+            }
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Return the number of entries.
+    ///
+    /// @return int
+    public int size() {
+        return this.entries.size();
+    }
+
+    /// Close the store.
+    @Override
+    public void close() {
+        this.entries.clear();
+    }
+
+    /// Read the entries from the file, compacting
+    /// it if it holds replaced lines.
+    private void read() {
+        int lines = 0;
+
+        try (final BufferedReader reader = Files.newBufferedReader(this.file)) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    final Entry entry = this.parse(this.objectMapper.readTree(line));
+
+                    this.entries.put(entry.id(), entry);
+                    lines++;
+                }
+            }
+        } catch (final IOException ioe) {
+            throw new UncheckedIOException("Unable to read the hybrid store: " + this.file, ioe);
+        }
+
+        if (lines > this.entries.size()) {
+            try {
+                this.rewrite();
+            } catch (final IOException ioe) {
+                this.logger.warn("Unable to compact the hybrid store: {}", this.file, ioe);
+            }
+        }
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Read {} hybrid entries from {}", this.entries.size(), this.file);
+        }
+    }
+
+    /// Rewrite the file with the current entries,
+    /// replacing it atomically.
+    ///
+    /// @throws java.io.IOException When the file cannot be written
+    private void rewrite() throws IOException {
+        Files.createDirectories(this.file.toAbsolutePath().getParent());
+
+        final Path temporary = Files.createTempFile(this.file.toAbsolutePath().getParent(), this.file.getFileName().toString(), ".tmp");
+
+        try (final BufferedWriter writer = Files.newBufferedWriter(temporary)) {
+            this.write(writer, this.entries.values());
+        }
+
+        Files.move(temporary, this.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /// Write entries as JSON lines.
+    ///
+    /// @param  writer  java.io.BufferedWriter
+    /// @param  entries java.lang.Iterable<net.jmp.pinecone.langchain.store.InMemoryHybridStore.Entry>
+    /// @throws         java.io.IOException When the entries cannot be written
+    private void write(final BufferedWriter writer, final Iterable<Entry> entries) throws IOException {
+        for (final Entry entry : entries) {
+            final ObjectNode node = this.objectMapper.createObjectNode();
+
+            node.put("id", entry.id());
+            node.set("vector", this.objectMapper.valueToTree(entry.embedding().vector()));
+            node.set("indices", this.objectMapper.valueToTree(entry.sparseEmbedding().indices()));
+            node.set("values", this.objectMapper.valueToTree(entry.sparseEmbedding().values()));
+            node.put("text", entry.segment().text());
+            node.set("metadata", this.objectMapper.valueToTree(entry.segment().metadata().toMap()));
+
+            writer.write(this.objectMapper.writeValueAsString(node));
+            writer.newLine();
+        }
+    }
+
+    /// Parse an entry from a JSON line.
+    ///
+    /// @param  node    com.fasterxml.jackson.databind.JsonNode
+    /// @return         net.jmp.pinecone.langchain.store.InMemoryHybridStore.Entry
+    private Entry parse(final JsonNode node) {
+        return new Entry(
+                node.get("id").asText(),
+                Embedding.from(this.objectMapper.convertValue(node.get("vector"), float[].class)),
+                new SparseEmbedding(
+                        this.objectMapper.convertValue(node.get("indices"), new TypeReference<List<Long>>() {}),
+                        this.objectMapper.convertValue(node.get("values"), new TypeReference<List<Float>>() {})
+                ),
+                TextSegment.from(
+                        node.get("text").asText(),
+                        Metadata.from(this.objectMapper.convertValue(node.get("metadata"), new TypeReference<Map<String, Object>>() {}))
+                )
+        );
+    }
+
+    /// An entry of the store.
+    ///
+    /// @param  id              java.lang.String
+    /// @param  embedding       dev.langchain4j.data.embedding.Embedding
+    /// @param  sparseEmbedding net.jmp.pinecone.langchain.store.SparseEmbedding
+    /// @param  segment         dev.langchain4j.data.segment.TextSegment
+    private record Entry(String id, Embedding embedding, SparseEmbedding sparseEmbedding, TextSegment segment) {
+    }
+}
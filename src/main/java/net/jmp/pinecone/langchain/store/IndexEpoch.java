@@ -0,0 +1,145 @@
+package net.jmp.pinecone.langchain.store;
+
+/*
+ * (#)IndexEpoch.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.nio.file.Path;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A file-backed registry of index epochs. An epoch is a number that
+/// changes whenever the content of an index namespace changes, so that
+/// anything derived from the content, such as cached search results, can
+/// be invalidated in bulk by comparing epochs. Operations that write the
+/// index bump the epoch; the file is re-read at most once a second, so
+/// reading the current epoch is cheap enough to do on every request.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class IndexEpoch {
+    /// The epochs by file so that a process shares one registry.
+    private static final Map<Path, IndexEpoch> EPOCHS = new ConcurrentHashMap<>();
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The epoch file and the epochs by key.
+    private final PropertiesFile<Map<String, Long>> epochs;
+
+    /// The constructor.
+    ///
+    /// @param  file    java.nio.file.Path
+    private IndexEpoch(final Path file) {
+        super();
+
+        this.epochs = new PropertiesFile<>(file, "Index epochs", this::parse);
+    }
+
+    /// Return the epoch registry kept in a file.
+    ///
+    /// @param  file    java.nio.file.Path
+    /// @return         net.jmp.pinecone.langchain.store.IndexEpoch
+    public static IndexEpoch of(final Path file) {
+        return EPOCHS.computeIfAbsent(file.toAbsolutePath().normalize(), IndexEpoch::new);
+    }
+
+    /// Return the key of an index namespace.
+    ///
+    /// @param  indexName   java.lang.String
+    /// @param  namespace   java.lang.String
+    /// @return             java.lang.String
+    public static String key(final String indexName, final String namespace) {
+        return indexName + "/" + namespace;
+    }
+
+    /// Return the current epoch of a key, zero if it was never bumped.
+    ///
+    /// @param  key java.lang.String
+    /// @return     long
+    public long current(final String key) {
+        return this.epochs.read(false).getOrDefault(key, 0L);
+    }
+
+    /// Bump the epoch of a key.
+    ///
+    /// @param  key java.lang.String
+    /// @return     long    The new epoch
+    public synchronized long bump(final String key) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(key));
+        }
+
+        /*
+         * The epoch never goes back and is at least the current time so
+         * that two processes bumping at once still move it forward
+         */
+
+        final Map<String, Long> current = this.epochs.read(true);
+        final long epoch = Math.max(current.getOrDefault(key, 0L) + 1, System.currentTimeMillis());
+        final Map<String, String> properties = new HashMap<>();
+
+        current.forEach((name, value) -> properties.put(name, String.valueOf(value)));
+        properties.put(key, String.valueOf(epoch));
+
+        this.epochs.write(properties);
+
+        this.logger.info("Epoch of {} is now {}", key, epoch);
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(epoch));
+        }
+
+        return epoch;
+    }
+
+    /// Parse the epochs of the file.
+    ///
+    /// @param  properties  java.util.Map<java.lang.String, java.lang.String>
+    /// @return             java.util.Map<java.lang.String, java.lang.Long>
+    private Map<String, Long> parse(final Map<String, String> properties) {
+        final Map<String, Long> parsed = new HashMap<>();
+
+        properties.forEach((key, value) -> {
+            try {
+                parsed.put(key, Long.parseLong(value.trim()));
+            } catch (final NumberFormatException nfe) {
+                this.logger.warn("Ignoring invalid epoch for {}: {}", key, value);
+            }
+        });
+
+        return Map.copyOf(parsed);
+    }
+}
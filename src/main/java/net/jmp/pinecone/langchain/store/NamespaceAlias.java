@@ -0,0 +1,194 @@
+package net.jmp.pinecone.langchain.store;
+
+/*
+ * (#)NamespaceAlias.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.nio.file.Path;
+
+import java.time.Duration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A file-backed registry of namespace aliases. An alias resolves to the
+/// namespace it currently points at, or to itself when it has no entry.
+/// Swapping an alias rewrites the file with an atomic move so that every
+/// process that reads it sees either the old or the new target. The file
+/// is re-read at most once a second, so resolving is cheap enough to do
+/// on every request. Requests hold a lease on the namespace they resolved
+/// so that the namespace is not deleted while they are in flight.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class NamespaceAlias {
+    /// The aliases by file so that a process shares its in-flight counts.
+    private static final Map<Path, NamespaceAlias> ALIASES = new ConcurrentHashMap<>();
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The alias file and the targets by alias.
+    private final PropertiesFile<Map<String, String>> targets;
+
+    /// The in-flight request counts by namespace.
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    /// The constructor.
+    ///
+    /// @param  file    java.nio.file.Path
+    private NamespaceAlias(final Path file) {
+        super();
+
+        this.targets = new PropertiesFile<>(file, "Namespace aliases", Map::copyOf);
+    }
+
+    /// Return the alias registry kept in a file.
+    ///
+    /// @param  file    java.nio.file.Path
+    /// @return         net.jmp.pinecone.langchain.store.NamespaceAlias
+    public static NamespaceAlias of(final Path file) {
+        return ALIASES.computeIfAbsent(file.toAbsolutePath().normalize(), NamespaceAlias::new);
+    }
+
+    /// Resolve an alias to its current namespace.
+    ///
+    /// @param  alias   java.lang.String
+    /// @return         java.lang.String
+    public String resolve(final String alias) {
+        return this.targets.read(false).getOrDefault(alias, alias);
+    }
+
+    /// Resolve an alias and hold a lease on the namespace
+    /// until the returned lease is closed.
+    ///
+    /// @param  alias   java.lang.String
+    /// @return         net.jmp.pinecone.langchain.store.NamespaceAlias.Lease
+    public Lease lease(final String alias) {
+        final String target = this.resolve(alias);
+        final AtomicInteger count = this.inFlight.computeIfAbsent(target, key -> new AtomicInteger());
+
+        count.incrementAndGet();
+
+        return new Lease(target, count);
+    }
+
+    /// Point an alias at a new namespace.
+    ///
+    /// @param  alias   java.lang.String
+    /// @param  target  java.lang.String
+    /// @return         java.lang.String    The namespace the alias pointed at before
+    public synchronized String swap(final String alias, final String target) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(alias, target));
+        }
+
+        final Map<String, String> swapped = new HashMap<>(this.targets.read(true));
+        final String previous = swapped.put(alias, target);
+
+        this.targets.write(swapped);
+
+        this.logger.info("Alias {} now points at {} (was {})", alias, target, previous != null ? previous : alias);
+
+        final String result = previous != null ? previous : alias;
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(result));
+        }
+
+        return result;
+    }
+
+    /// Wait until no request in this process holds a lease on a namespace.
+    ///
+    /// @param  target  java.lang.String
+    /// @param  timeout java.time.Duration
+    /// @return         boolean     True if the namespace drained before the timeout
+    /// @throws         java.lang.InterruptedException  When interrupted while waiting
+    public boolean awaitDrained(final String target, final Duration timeout) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        final AtomicInteger count = this.inFlight.getOrDefault(target, new AtomicInteger());
+
+        while (count.get() > 0) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+
+            Thread.sleep(50);
+        }
+
+        return true;
+    }
+
+    /// A lease on the namespace an alias resolved to.
+    public static final class Lease implements AutoCloseable {
+        /// The namespace.
+        private final String target;
+
+        /// The in-flight count of the namespace.
+        private final AtomicInteger count;
+
+        /// True once closed.
+        private boolean closed;
+
+        /// The constructor.
+        ///
+        /// @param  target  java.lang.String
+        /// @param  count   java.util.concurrent.atomic.AtomicInteger
+        private Lease(final String target, final AtomicInteger count) {
+            super();
+
+            this.target = target;
+            this.count = count;
+        }
+
+        /// Return the namespace.
+        ///
+        /// @return java.lang.String
+        public String target() {
+            return this.target;
+        }
+
+        /// Release the lease.
+        @Override
+        public void close() {
+            if (!this.closed) {
+                this.closed = true;
+                this.count.decrementAndGet();
+            }
+        }
+    }
+}
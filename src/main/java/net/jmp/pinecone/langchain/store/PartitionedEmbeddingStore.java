@@ -0,0 +1,709 @@
+package net.jmp.pinecone.langchain.store;
+
+/*
+ * (#)PartitionedEmbeddingStore.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.langchain4j.data.embedding.Embedding;
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.rag.query.Query;
+
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+
+import dev.langchain4j.store.embedding.filter.comparison.IsEqualTo;
+
+import dev.langchain4j.store.embedding.filter.logical.And;
+
+import dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.net.URLEncoder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import java.util.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import java.util.function.Function;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// An embedding store partitioned by tenant. Every text segment is written
+/// to the partition named by one of its metadata keys, e.g. the user ID, and
+/// every search must filter on that key, typically with the dynamic filter
+/// returned by byMemoryId, so that it is routed to a single partition and
+/// its latency does not depend on the number of tenants. The equality on the
+/// partition key is stripped from the filter the partition is searched with.
+///
+/// The partitions are opened lazily and at most a number of them are resident
+/// at a time; the least recently used one is evicted when that number is
+/// exceeded. Local partitions are in-memory stores saved to a file each when
+/// evicted after being modified, and namespace partitions are, for example,
+/// Pinecone namespaces whose clients are simply dropped. A partition may not
+/// hold more than a number of bytes, as estimated by its partitions from its
+/// embeddings and text when it is opened, written to and removed from.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class PartitionedEmbeddingStore implements EmbeddingStore<TextSegment>, AutoCloseable {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The metadata key that names the partition.
+    private final String partitionKey;
+
+    /// The partitions.
+    private final Partitions partitions;
+
+    /// The most partitions resident at a time.
+    private final int maxResidentPartitions;
+
+    /// The most bytes a partition may hold.
+    private final long maxPartitionBytes;
+
+    /// The resident partitions by name.
+    private final Map<String, Resident> residents = new ConcurrentHashMap<>();
+
+    /// The lock that allows one eviction at a time.
+    private final Object evictionLock = new Object();
+
+    /// The number of partitions opened.
+    private final AtomicLong opened = new AtomicLong();
+
+    /// The number of partitions evicted.
+    private final AtomicLong evicted = new AtomicLong();
+
+    /// The constructor.
+    ///
+    /// @param  partitionKey            java.lang.String
+    /// @param  partitions              net.jmp.pinecone.langchain.store.PartitionedEmbeddingStore.Partitions
+    /// @param  maxResidentPartitions   int
+    /// @param  maxPartitionBytes       long
+    public PartitionedEmbeddingStore(final String partitionKey,
+                                     final Partitions partitions,
+                                     final int maxResidentPartitions,
+                                     final long maxPartitionBytes) {
+        super();
+
+        if (maxResidentPartitions < 1) {
+            throw new IllegalArgumentException("The maximum resident partitions must be positive: " + maxResidentPartitions);
+        }
+
+        if (maxPartitionBytes < 1) {
+            throw new IllegalArgumentException("The maximum partition bytes must be positive: " + maxPartitionBytes);
+        }
+
+        this.partitionKey = Objects.requireNonNull(partitionKey, "partitionKey");
+        this.partitions = Objects.requireNonNull(partitions, "partitions");
+        this.maxResidentPartitions = maxResidentPartitions;
+        this.maxPartitionBytes = maxPartitionBytes;
+    }
+
+    /// Return local partitions, each an in-memory store
+    /// kept in a file of a directory between residencies.
+    ///
+    /// @param  directory   java.nio.file.Path
+    /// @return             net.jmp.pinecone.langchain.store.PartitionedEmbeddingStore.Partitions
+    public static Partitions local(final Path directory) {
+        return new Partitions() {
+            /// The object mapper.
+            private final ObjectMapper objectMapper = new ObjectMapper();
+
+            @Override
+            public EmbeddingStore<TextSegment> open(final String partition) {
+                final Path file = this.file(partition);
+
+                return Files.exists(file) ? InMemoryEmbeddingStore.fromFile(file) : new InMemoryEmbeddingStore<>();
+            }
+
+            @Override
+            public long bytes(final EmbeddingStore<TextSegment> store) {
+                final JsonNode entries;
+
+                try {
+                    entries = this.objectMapper.readTree(((InMemoryEmbeddingStore<TextSegment>) store).serializeToJson()).path("entries");
+                } catch (final JsonProcessingException jpe) {
+                    throw new IllegalStateException("Unable to size partition", jpe);
+                }
+
+                long bytes = 0L;
+
+                for (final JsonNode entry : entries) {
+                    bytes += entryBytes(
+                            entry.path("embedding").path("vector").size(),
+                            entry.path("embedded").path("text").asText().length(),
+                            entry.path("embedded").path("metadata").path("metadata").size()
+                    );
+                }
+
+                return bytes;
+            }
+
+            @Override
+            public long bytes(final Embedding embedding, final TextSegment textSegment) {
+                return entryBytes(embedding.dimension(), textSegment.text().length(), textSegment.metadata().toMap().size());
+            }
+
+            @Override
+            public void evict(final String partition, final EmbeddingStore<TextSegment> store, final boolean modified) {
+                if (!modified) {
+                    return;
+                }
+
+                try {
+                    Files.createDirectories(directory);
+
+                    final Path file = this.file(partition);
+                    final Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+                    ((InMemoryEmbeddingStore<TextSegment>) store).serializeToFile(temporary);
+
+                    Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (final IOException ioe) {
+                    throw new UncheckedIOException("Unable to write partition file: " + partition, ioe);
+                }
+            }
+
+            /// Return the file of a partition.
+            ///
+            /// @param  partition   java.lang.String
+            /// @return             java.nio.file.Path
+            private Path file(final String partition) {
+                return directory.resolve("partition-" + URLEncoder.encode(partition, UTF_8) + ".json");
+            }
+        };
+    }
+
+    /// Return namespace partitions, each a store created by a factory,
+    /// e.g. a Pinecone store of a namespace named after the partition.
+    /// Nothing is held locally, so eviction only drops the store.
+    ///
+    /// @param  storeFactory    java.util.function.Function<java.lang.String, dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>>
+    /// @return                 net.jmp.pinecone.langchain.store.PartitionedEmbeddingStore.Partitions
+    public static Partitions namespaces(final Function<String, EmbeddingStore<TextSegment>> storeFactory) {
+        return new Partitions() {
+            @Override
+            public EmbeddingStore<TextSegment> open(final String partition) {
+                return storeFactory.apply(partition);
+            }
+
+            @Override
+            public long bytes(final EmbeddingStore<TextSegment> store) {
+                return 0L;
+            }
+
+            @Override
+            public long bytes(final Embedding embedding, final TextSegment textSegment) {
+                return 0L;
+            }
+
+            @Override
+            public void evict(final String partition, final EmbeddingStore<TextSegment> store, final boolean modified) {
+            }
+        };
+    }
+
+    /// Return a dynamic filter that limits a search to
+    /// the partition named by the query's chat memory ID.
+    ///
+    /// @param  partitionKey    java.lang.String
+    /// @return                 java.util.function.Function<dev.langchain4j.rag.query.Query, dev.langchain4j.store.embedding.filter.Filter>
+    public static Function<Query, Filter> byMemoryId(final String partitionKey) {
+        return query -> {
+            if (query.metadata() == null || query.metadata().chatMemoryId() == null) {
+                throw new IllegalArgumentException("The query has no chat memory ID to partition by");
+            }
+
+            return metadataKey(partitionKey).isEqualTo(query.metadata().chatMemoryId().toString());
+        };
+    }
+
+    /// Add an embedding; not supported
+    /// because it names no partition.
+    ///
+    /// @param  embedding   dev.langchain4j.data.embedding.Embedding
+    /// @return             java.lang.String
+    @Override
+    public String add(final Embedding embedding) {
+        throw new UnsupportedOperationException("An embedding without a text segment names no partition");
+    }
+
+    /// Add an embedding with an ID; not
+    /// supported because it names no partition.
+    ///
+    /// @param  id          java.lang.String
+    /// @param  embedding   dev.langchain4j.data.embedding.Embedding
+    @Override
+    public void add(final String id, final Embedding embedding) {
+        throw new UnsupportedOperationException("An embedding without a text segment names no partition");
+    }
+
+    /// Add an embedding and the text segment that was embedded.
+    ///
+    /// @param  embedding   dev.langchain4j.data.embedding.Embedding
+    /// @param  textSegment dev.langchain4j.data.segment.TextSegment
+    /// @return             java.lang.String
+    @Override
+    public String add(final Embedding embedding, final TextSegment textSegment) {
+        final String id = UUID.randomUUID().toString();
+
+        this.addAll(List.of(id), List.of(embedding), List.of(textSegment));
+
+        return id;
+    }
+
+    /// Add a list of embeddings; not supported
+    /// because they name no partition.
+    ///
+    /// @param  embeddings  java.util.List<dev.langchain4j.data.embedding.Embedding>
+    /// @return             java.util.List<java.lang.String>
+    @Override
+    public List<String> addAll(final List<Embedding> embeddings) {
+        throw new UnsupportedOperationException("An embedding without a text segment names no partition");
+    }
+
+    /// Add a list of embeddings and the text segments that
+    /// were embedded, each to the partition it names.
+    ///
+    /// @param  ids             java.util.List<java.lang.String>
+    /// @param  embeddings      java.util.List<dev.langchain4j.data.embedding.Embedding>
+    /// @param  textSegments    java.util.List<dev.langchain4j.data.segment.TextSegment>
+    @Override
+    public void addAll(final List<String> ids, final List<Embedding> embeddings, final List<TextSegment> textSegments) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(ids, embeddings, textSegments));
+        }
+
+        if (textSegments == null) {
+            throw new UnsupportedOperationException("An embedding without a text segment names no partition");
+        }
+
+        if (ids.size() != embeddings.size() || textSegments.size() != ids.size()) {
+            throw new IllegalArgumentException("The ids, embeddings and text segments lists must be the same size");
+        }
+
+        final Map<String, List<Integer>> positions = new LinkedHashMap<>();
+
+        for (int position = 0; position < ids.size(); position++) {
+            final String partition = textSegments.get(position).metadata().getString(this.partitionKey);
+
+            if (partition == null) {
+                throw new IllegalArgumentException("The text segment has no " + this.partitionKey + ": " + ids.get(position));
+            }
+
+            positions.computeIfAbsent(partition, key -> new ArrayList<>()).add(position);
+        }
+
+        positions.forEach((partition, partitionPositions) -> {
+            final List<String> partitionIds = new ArrayList<>(partitionPositions.size());
+            final List<Embedding> partitionEmbeddings = new ArrayList<>(partitionPositions.size());
+            final List<TextSegment> partitionTextSegments = new ArrayList<>(partitionPositions.size());
+
+            long bytes = 0L;
+
+            for (final int position : partitionPositions) {
+                partitionIds.add(ids.get(position));
+                partitionEmbeddings.add(embeddings.get(position));
+                partitionTextSegments.add(textSegments.get(position));
+
+                bytes += this.partitions.bytes(embeddings.get(position), textSegments.get(position));
+            }
+
+            final Resident resident = this.acquire(partition);
+
+            try {
+                if (resident.bytes.addAndGet(bytes) > this.maxPartitionBytes) {
+                    resident.bytes.addAndGet(-bytes);
+
+                    throw new IllegalStateException("Partition " + partition + " would exceed its "
+                            + this.maxPartitionBytes + " bytes");
+                }
+
+                resident.store.addAll(partitionIds, partitionEmbeddings, partitionTextSegments);
+                resident.modified = true;
+            } finally {
+                this.release(resident);
+            }
+
+            if (this.logger.isDebugEnabled()) {
+                this.logger.debug("Added {} embeddings to partition {}", partitionIds.size(), partition);
+            }
+        });
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Remove the embeddings with the given IDs; not supported
+    /// because IDs name no partition. Remove them by a filter
+    /// on the partition key and the IDs instead.
+    ///
+    /// @param  ids java.util.Collection<java.lang.String>
+    @Override
+    public void removeAll(final Collection<String> ids) {
+        throw new UnsupportedOperationException("Embedding IDs name no partition; remove by a filter on " + this.partitionKey);
+    }
+
+    /// Remove the embeddings of a partition that match a filter,
+    /// which must limit the removal to the partition.
+    ///
+    /// @param  filter  dev.langchain4j.store.embedding.filter.Filter
+    @Override
+    public void removeAll(final Filter filter) {
+        final Route route = this.route(filter);
+        final Resident resident = this.acquire(route.partition());
+
+        try {
+            final long before = this.partitions.bytes(resident.store);
+
+            if (route.filter() != null) {
+                resident.store.removeAll(route.filter());
+            } else {
+                resident.store.removeAll();
+            }
+
+            resident.bytes.addAndGet(this.partitions.bytes(resident.store) - before);
+            resident.modified = true;
+        } finally {
+            this.release(resident);
+        }
+    }
+
+    /// Remove all the embeddings of every partition; not
+    /// supported because it would open every partition.
+    @Override
+    public void removeAll() {
+        throw new UnsupportedOperationException("Remove the embeddings of one partition at a time");
+    }
+
+    /// Search the partition that the request's filter limits it to.
+    ///
+    /// @param  request dev.langchain4j.store.embedding.EmbeddingSearchRequest
+    /// @return         dev.langchain4j.store.embedding.EmbeddingSearchResult<dev.langchain4j.data.segment.TextSegment>
+    @Override
+    public EmbeddingSearchResult<TextSegment> search(final EmbeddingSearchRequest request) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(request));
+        }
+
+        final Route route = this.route(request.filter());
+        final Resident resident = this.acquire(route.partition());
+
+        final EmbeddingSearchResult<TextSegment> result;
+
+        try {
+            result = resident.store.search(EmbeddingSearchRequest.builder()
+                    .queryEmbedding(request.queryEmbedding())
+                    .maxResults(request.maxResults())
+                    .minScore(request.minScore())
+                    .filter(route.filter())
+                    .build());
+        } finally {
+            this.release(resident);
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(result));
+        }
+
+        return result;
+    }
+
+    /// Return the statistics of the partitions.
+    ///
+    /// @return net.jmp.pinecone.langchain.store.PartitionedEmbeddingStore.Stats
+    public Stats stats() {
+        return new Stats(this.residents.size(), this.opened.get(), this.evicted.get());
+    }
+
+    /// Close the store, evicting every resident partition.
+    @Override
+    public void close() {
+        synchronized (this.evictionLock) {
+            for (final String partition : List.copyOf(this.residents.keySet())) {
+                final Resident resident = this.residents.get(partition);
+
+                if (resident != null) {
+                    resident.lock.writeLock().lock();
+
+                    try {
+                        this.evict(partition, resident);
+                    } finally {
+                        resident.lock.writeLock().unlock();
+                    }
+                }
+            }
+        }
+    }
+
+    /// Find the partition a filter limits an operation to and the rest of the filter.
+    ///
+    /// @param  filter  dev.langchain4j.store.embedding.filter.Filter
+    /// @return         net.jmp.pinecone.langchain.store.PartitionedEmbeddingStore.Route
+    Route route(final Filter filter) {
+        final Route route = this.split(filter);
+
+        if (route == null) {
+            throw new IllegalArgumentException("The filter must limit the operation to one " + this.partitionKey + ": " + filter);
+        }
+
+        return route;
+    }
+
+    /// Split the equality on the partition key from a filter.
+    ///
+    /// @param  filter  dev.langchain4j.store.embedding.filter.Filter
+    /// @return         net.jmp.pinecone.langchain.store.PartitionedEmbeddingStore.Route    Null when there is none
+    private Route split(final Filter filter) {
+        if (filter instanceof IsEqualTo isEqualTo && this.partitionKey.equals(isEqualTo.key())) {
+            return new Route(isEqualTo.comparisonValue().toString(), null);
+        }
+
+        if (filter instanceof And and) {
+            final Route left = this.split(and.left());
+
+            if (left != null) {
+                return new Route(left.partition(), left.filter() != null ? left.filter().and(and.right()) : and.right());
+            }
+
+            final Route right = this.split(and.right());
+
+            if (right != null) {
+                return new Route(right.partition(), right.filter() != null ? and.left().and(right.filter()) : and.left());
+            }
+        }
+
+        return null;
+    }
+
+    /// Return a partition, opening it if it is not resident,
+    /// holding it resident until it is released.
+    ///
+    /// @param  partition   java.lang.String
+    /// @return             net.jmp.pinecone.langchain.store.PartitionedEmbeddingStore.Resident
+    private Resident acquire(final String partition) {
+        while (true) {
+            final Resident resident = this.residents.computeIfAbsent(partition, this::open);
+
+            resident.lock.readLock().lock();
+
+            if (!resident.evicted) {
+                resident.lastUsedNanos = System.nanoTime();
+
+                return resident;
+            }
+
+            resident.lock.readLock().unlock();      // Evicted in the meantime; open it again
+        }
+    }
+
+    /// Release a partition and evict the coldest
+    /// ones while too many are resident.
+    ///
+    /// @param  resident    net.jmp.pinecone.langchain.store.PartitionedEmbeddingStore.Resident
+    private void release(final Resident resident) {
+        resident.lock.readLock().unlock();
+
+        if (this.residents.size() <= this.maxResidentPartitions) {
+            return;
+        }
+
+        synchronized (this.evictionLock) {
+            while (this.residents.size() > this.maxResidentPartitions) {
+                Map.Entry<String, Resident> coldest = null;
+
+                for (final Map.Entry<String, Resident> entry : this.residents.entrySet()) {
+                    if (coldest == null || entry.getValue().lastUsedNanos < coldest.getValue().lastUsedNanos) {
+                        coldest = entry;
+                    }
+                }
+
+                if (coldest == null || !coldest.getValue().lock.writeLock().tryLock()) {
+                    return;     // In use; a later release will evict
+                }
+
+                try {
+                    this.evict(coldest.getKey(), coldest.getValue());
+                } finally {
+                    coldest.getValue().lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    /// Open a partition.
+    ///
+    /// @param  partition   java.lang.String
+    /// @return             net.jmp.pinecone.langchain.store.PartitionedEmbeddingStore.Resident
+    private Resident open(final String partition) {
+        final EmbeddingStore<TextSegment> store = this.partitions.open(partition);
+        final Resident resident = new Resident(store, this.partitions.bytes(store));
+
+        this.opened.incrementAndGet();
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Opened partition {} of {} bytes", partition, resident.bytes.get());
+        }
+
+        return resident;
+    }
+
+    /// Evict a partition whose write lock is held.
+    ///
+    /// @param  partition   java.lang.String
+    /// @param  resident    net.jmp.pinecone.langchain.store.PartitionedEmbeddingStore.Resident
+    private void evict(final String partition, final Resident resident) {
+        /* Save the partition before it stops being resident so that reopening it reads what was saved */
+
+        this.partitions.evict(partition, resident.store, resident.modified);
+
+        resident.evicted = true;
+
+        this.residents.remove(partition, resident);
+        this.evicted.incrementAndGet();
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Evicted partition {} (modified: {})", partition, resident.modified);
+        }
+    }
+
+    /// Estimate the bytes an entry of a local partition occupies.
+    ///
+    /// @param  dimension       int     The dimension of the embedding
+    /// @param  textLength      int     The length of the text
+    /// @param  metadataEntries int     The number of metadata entries
+    /// @return                 long
+    private static long entryBytes(final int dimension, final int textLength, final int metadataEntries) {
+        return 4L * dimension + 2L * textLength + 64L * metadataEntries;
+    }
+
+    /// The partitions of a store.
+    public interface Partitions {
+        /// Open a partition, creating it if it does not exist.
+        ///
+        /// @param  partition   java.lang.String
+        /// @return             dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+        EmbeddingStore<TextSegment> open(String partition);
+
+        /// Return the bytes the store of an open partition holds in memory.
+        ///
+        /// @param  store   dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+        /// @return         long
+        long bytes(EmbeddingStore<TextSegment> store);
+
+        /// Return the bytes an embedding and its text segment
+        /// occupy in memory once added to a partition.
+        ///
+        /// @param  embedding   dev.langchain4j.data.embedding.Embedding
+        /// @param  textSegment dev.langchain4j.data.segment.TextSegment
+        /// @return             long
+        long bytes(Embedding embedding, TextSegment textSegment);
+
+        /// Evict a partition from memory.
+        ///
+        /// @param  partition   java.lang.String
+        /// @param  store       dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+        /// @param  modified    boolean     True if it was written since it was opened
+        void evict(String partition, EmbeddingStore<TextSegment> store, boolean modified);
+    }
+
+    /// The partition an operation is limited to and the rest of its filter.
+    ///
+    /// @param  partition   java.lang.String
+    /// @param  filter      dev.langchain4j.store.embedding.filter.Filter   Null when there is no rest
+    record Route(String partition, Filter filter) {
+    }
+
+    /// The statistics of the partitions.
+    ///
+    /// @param  resident    int     The partitions resident now
+    /// @param  opened      long    The partitions opened
+    /// @param  evicted     long    The partitions evicted
+    public record Stats(int resident, long opened, long evicted) {
+    }
+
+    /// A resident partition.
+    private static final class Resident {
+        /// The store.
+        private final EmbeddingStore<TextSegment> store;
+
+        /// The estimated bytes it holds.
+        private final AtomicLong bytes;
+
+        /// The lock that users share and eviction holds exclusively.
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        /// True once written.
+        private volatile boolean modified;
+
+        /// True once evicted.
+        private volatile boolean evicted;
+
+        /// When it was last used.
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        /// The constructor.
+        ///
+        /// @param  store   dev.langchain4j.store.embedding.EmbeddingStore<dev.langchain4j.data.segment.TextSegment>
+        /// @param  bytes   long
+        private Resident(final EmbeddingStore<TextSegment> store, final long bytes) {
+            super();
+
+            this.store = store;
+            this.bytes = new AtomicLong(bytes);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package net.jmp.pinecone.langchain.store;
+
+/*
+ * (#)PineconeEmbeddingCatalog.java    0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.google.protobuf.Value;
+
+import io.pinecone.clients.Index;
+import io.pinecone.clients.Pinecone;
+
+import io.pinecone.proto.FetchResponse;
+import io.pinecone.proto.ListItem;
+import io.pinecone.proto.ListResponse;
+import io.pinecone.proto.Vector;
+
+import java.util.*;
+
+import java.util.function.Consumer;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// The catalog of one namespace of a Pinecone serverless index.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class PineconeEmbeddingCatalog implements EmbeddingCatalog {
+    /// The number of IDs listed per page; the Pinecone maximum.
+    private static final int PAGE_SIZE = 100;
+
+    /// The number of IDs fetched per request.
+    private static final int FETCH_SIZE = 100;
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The index connection.
+    private final Index index;
+
+    /// The namespace.
+    private final String namespace;
+
+    /// The constructor.
+    ///
+    /// @param  pineconeApiKey  java.lang.String
+    /// @param  indexName       java.lang.String
+    /// @param  namespace       java.lang.String
+    public PineconeEmbeddingCatalog(final String pineconeApiKey, final String indexName, final String namespace) {
+        super();
+
+        this.index = new Pinecone.Builder(pineconeApiKey).build().getIndexConnection(indexName);
+        this.namespace = namespace;
+    }
+
+    /// List the IDs of every embedding in the namespace.
+    ///
+    /// @param  pageConsumer    java.util.function.Consumer<java.util.List<java.lang.String>>
+    @Override
+    public void listIds(final Consumer<List<String>> pageConsumer) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(pageConsumer));
+        }
+
+        String paginationToken = null;
+        int pages = 0;
+
+        do {
+            final ListResponse response = paginationToken == null
+                    ? this.index.list(this.namespace, PAGE_SIZE)
+                    : this.index.list(this.namespace, PAGE_SIZE, paginationToken);
+
+            final List<String> ids = new ArrayList<>(response.getVectorsCount());
+
+            for (final ListItem item : response.getVectorsList()) {
+                ids.add(item.getId());
+            }
+
+            if (!ids.isEmpty()) {
+                pageConsumer.accept(ids);
+            }
+
+            pages++;
+
+            paginationToken = response.hasPagination() && !response.getPagination().getNext().isEmpty()
+                    ? response.getPagination().getNext()
+                    : null;
+        } while (paginationToken != null);
+
+        if (this.logger.isDebugEnabled()) {
+            this.logger.debug("Listed {} pages from namespace {}", pages, this.namespace);
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Fetch the value of a metadata key for embeddings.
+    ///
+    /// @param  ids         java.util.Collection<java.lang.String>
+    /// @param  metadataKey java.lang.String
+    /// @return             java.util.Map<java.lang.String, java.lang.String>
+    @Override
+    public Map<String, String> fetchMetadata(final Collection<String> ids, final String metadataKey) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(ids, metadataKey));
+        }
+
+        final List<String> idList = List.copyOf(ids);
+        final Map<String, String> values = new HashMap<>(idList.size());
+
+        for (int from = 0; from < idList.size(); from += FETCH_SIZE) {
+            final FetchResponse response = this.index.fetch(
+                    idList.subList(from, Math.min(from + FETCH_SIZE, idList.size())),
+                    this.namespace
+            );
+
+            for (final Vector vector : response.getVectorsMap().values()) {
+                if (vector.hasMetadata()) {
+                    final Value value = vector.getMetadata().getFieldsMap().get(metadataKey);
+
+                    if (value != null) {
+                        values.put(vector.getId(), value.getStringValue());
+                    }
+                }
+            }
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(values));
+        }
+
+        return values;
+    }
+
+    /// Close the catalog.
+    @Override
+    public void close() {
+        this.index.close();
+    }
+}
@@ -0,0 +1,398 @@
+package net.jmp.pinecone.langchain.store;
+
+/*
+ * (#)PineconeHybridStore.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+
+import dev.langchain4j.data.document.Metadata;
+
+import dev.langchain4j.data.embedding.Embedding;
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+
+import dev.langchain4j.store.embedding.filter.comparison.IsEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsGreaterThan;
+import dev.langchain4j.store.embedding.filter.comparison.IsGreaterThanOrEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsIn;
+import dev.langchain4j.store.embedding.filter.comparison.IsLessThan;
+import dev.langchain4j.store.embedding.filter.comparison.IsLessThanOrEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsNotEqualTo;
+import dev.langchain4j.store.embedding.filter.comparison.IsNotIn;
+
+import dev.langchain4j.store.embedding.filter.logical.And;
+import dev.langchain4j.store.embedding.filter.logical.Or;
+
+import io.pinecone.clients.Index;
+import io.pinecone.clients.Pinecone;
+
+import io.pinecone.commons.IndexInterface;
+
+import io.pinecone.exceptions.PineconeNotFoundException;
+
+import io.pinecone.unsigned_indices_model.QueryResponseWithUnsignedIndices;
+import io.pinecone.unsigned_indices_model.ScoredVectorWithUnsignedIndices;
+import io.pinecone.unsigned_indices_model.VectorWithUnsignedIndices;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.openapitools.db_control.client.model.DeletionProtection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A hybrid store backed by a Pinecone serverless index with sparse-dense
+/// vectors. Pinecone only searches sparse values in an index whose metric
+/// is the dot product, so the index is separate from the dense index and is
+/// created with that metric if it does not exist. The convex combination is
+/// applied by scaling the dense query by alpha and the sparse query by one
+/// minus alpha. The text of a segment is kept in the text_segment metadata
+/// key, as the LangChain4j Pinecone store keeps it.
+///
+/// @version    0.1.0
+/// @since      0.1.0
+public final class PineconeHybridStore implements HybridStore {
+    /// The metadata key of the segment text.
+    private static final String TEXT_KEY = "text_segment";
+
+    /// The number of vectors upserted per request.
+    private static final int UPSERT_SIZE = 100;
+
+    /// The number of IDs deleted per request.
+    private static final int DELETE_SIZE = 1_000;
+
+    /// How long to wait for a new index to be ready.
+    private static final long READY_MILLIS = 120_000L;
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The index connection.
+    private final Index index;
+
+    /// The namespace.
+    private final String namespace;
+
+    /// The constructor.
+    ///
+    /// @param  pineconeApiKey  java.lang.String
+    /// @param  indexName       java.lang.String
+    /// @param  namespace       java.lang.String
+    /// @param  dimension       int
+    public PineconeHybridStore(final String pineconeApiKey,
+                               final String indexName,
+                               final String namespace,
+                               final int dimension) {
+        super();
+
+        final Pinecone pinecone = new Pinecone.Builder(pineconeApiKey).build();
+
+        try {
+            pinecone.describeIndex(indexName);
+        } catch (final PineconeNotFoundException pnfe) {
+            this.logger.info("Creating Pinecone hybrid index: {}", indexName);
+
+            pinecone.createServerlessIndex(indexName, "dotproduct", dimension, "aws", "us-east-1", DeletionProtection.DISABLED);
+
+            awaitReady(pinecone, indexName);
+        }
+
+        this.index = pinecone.getIndexConnection(indexName);
+        this.namespace = namespace;
+    }
+
+    /// Add or replace segments with their dense and sparse embeddings.
+    ///
+    /// @param  ids                 java.util.List<java.lang.String>
+    /// @param  embeddings          java.util.List<dev.langchain4j.data.embedding.Embedding>
+    /// @param  sparseEmbeddings    java.util.List<net.jmp.pinecone.langchain.store.SparseEmbedding>
+    /// @param  segments            java.util.List<dev.langchain4j.data.segment.TextSegment>
+    @Override
+    public void addAll(final List<String> ids,
+                       final List<Embedding> embeddings,
+                       final List<SparseEmbedding> sparseEmbeddings,
+                       final List<TextSegment> segments) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(ids, embeddings, sparseEmbeddings, segments));
+        }
+
+        final List<VectorWithUnsignedIndices> vectors = new ArrayList<>(UPSERT_SIZE);
+
+        for (int i = 0; i < ids.size(); i++) {
+            vectors.add(IndexInterface.buildUpsertVectorWithUnsignedIndices(
+                    ids.get(i),
+                    embeddings.get(i).vectorAsList(),
+                    sparseEmbeddings.get(i).indices(),
+                    sparseEmbeddings.get(i).values(),
+                    toStruct(segments.get(i))
+            ));
+
+            if (vectors.size() == UPSERT_SIZE || i == ids.size() - 1) {
+                this.index.upsert(vectors, this.namespace);
+                vectors.clear();
+            }
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Search with a dense and a sparse query embedding.
+    ///
+    /// @param  embedding       dev.langchain4j.data.embedding.Embedding
+    /// @param  sparseEmbedding net.jmp.pinecone.langchain.store.SparseEmbedding
+    /// @param  alpha           double
+    /// @param  maxResults      int
+    /// @param  filter          dev.langchain4j.store.embedding.filter.Filter   May be null
+    /// @return                 java.util.List<dev.langchain4j.store.embedding.EmbeddingMatch<dev.langchain4j.data.segment.TextSegment>>
+    @Override
+    public List<EmbeddingMatch<TextSegment>> search(final Embedding embedding,
+                                                    final SparseEmbedding sparseEmbedding,
+                                                    final double alpha,
+                                                    final int maxResults,
+                                                    final Filter filter) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(embedding, sparseEmbedding, alpha, maxResults, filter));
+        }
+
+        final SparseEmbedding sparseQuery = sparseEmbedding.scale(1 - alpha);
+
+        // Pinecone rejects an empty sparse vector so a query of unknown terms is dense only
+
+        final QueryResponseWithUnsignedIndices response = this.index.query(
+                maxResults,
+                embedding.vectorAsList().stream().map(value -> (float) (value * alpha)).toList(),
+                sparseQuery.indices().isEmpty() ? null : sparseQuery.indices(),
+                sparseQuery.values().isEmpty() ? null : sparseQuery.values(),
+                null,
+                this.namespace,
+                filter == null ? null : toStruct(filter),
+                false,
+                true
+        );
+
+        final List<EmbeddingMatch<TextSegment>> matches = new ArrayList<>(response.getMatchesList().size());
+
+        for (final ScoredVectorWithUnsignedIndices vector : response.getMatchesList()) {
+            matches.add(new EmbeddingMatch<>((double) vector.getScore(), vector.getId(), null, toSegment(vector.getMetadata())));
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(matches));
+        }
+
+        return matches;
+    }
+
+    /// Remove the segments with the given IDs.
+    ///
+    /// @param  ids java.util.Collection<java.lang.String>
+    @Override
+    public void removeAll(final Collection<String> ids) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(ids));
+        }
+
+        final List<String> idList = new ArrayList<>(ids);
+
+        for (int from = 0; from < idList.size(); from += DELETE_SIZE) {
+            this.index.deleteByIds(idList.subList(from, Math.min(from + DELETE_SIZE, idList.size())), this.namespace);
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Remove every segment.
+    @Override
+    public void removeAll() {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entry());
+        }
+
+        // Pinecone reports a namespace that was never written as not found
+
+        try {
+            this.index.deleteAll(this.namespace);
+        } catch (final PineconeNotFoundException pnfe) {
+            if (this.logger.isDebugEnabled()) {
+                this.logger.debug("Hybrid namespace {} is already empty", this.namespace);
+            }
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Close the store.
+    @Override
+    public void close() {
+        this.index.close();
+    }
+
+    /// Wait for a new index to be ready.
+    ///
+    /// @param  pinecone    io.pinecone.clients.Pinecone
+    /// @param  indexName   java.lang.String
+    private static void awaitReady(final Pinecone pinecone, final String indexName) {
+        final long deadline = System.currentTimeMillis() + READY_MILLIS;
+
+        while (!Boolean.TRUE.equals(pinecone.describeIndex(indexName).getStatus().getReady())) {
+            if (System.currentTimeMillis() >= deadline) {
+                throw new IllegalStateException("Pinecone index not ready: " + indexName);
+            }
+
+            try {
+                Thread.sleep(1_000);
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+
+                throw new IllegalStateException("Interrupted while waiting for Pinecone index: " + indexName, ie);
+            }
+        }
+    }
+
+    /// Convert a segment to Pinecone metadata.
+    ///
+    /// @param  segment dev.langchain4j.data.segment.TextSegment
+    /// @return         com.google.protobuf.Struct
+    private static Struct toStruct(final TextSegment segment) {
+        final Struct.Builder builder = Struct.newBuilder();
+
+        for (final Map.Entry<String, Object> entry : segment.metadata().toMap().entrySet()) {
+            builder.putFields(entry.getKey(), toValue(entry.getValue()));
+        }
+
+        return builder.putFields(TEXT_KEY, toValue(segment.text())).build();
+    }
+
+    /// Convert Pinecone metadata to a segment.
+    ///
+    /// @param  struct  com.google.protobuf.Struct
+    /// @return         dev.langchain4j.data.segment.TextSegment
+    private static TextSegment toSegment(final Struct struct) {
+        final Map<String, Object> metadata = new HashMap<>();
+
+        for (final Map.Entry<String, Value> field : struct.getFieldsMap().entrySet()) {
+            if (!TEXT_KEY.equals(field.getKey())) {
+                final Value value = field.getValue();
+
+                metadata.put(field.getKey(), value.hasNumberValue() ? (Object) value.getNumberValue() : value.getStringValue());
+            }
+        }
+
+        final Value text = struct.getFieldsMap().get(TEXT_KEY);
+
+        return TextSegment.from(text != null ? text.getStringValue() : "", Metadata.from(metadata));
+    }
+
+    /// Convert a filter to a Pinecone metadata filter.
+    ///
+    /// @param  filter  dev.langchain4j.store.embedding.filter.Filter
+    /// @return         com.google.protobuf.Struct
+    static Struct toStruct(final Filter filter) {
+        return switch (filter) {
+            case And and -> logical("$and", toStruct(and.left()), toStruct(and.right()));
+            case Or or -> logical("$or", toStruct(or.left()), toStruct(or.right()));
+            case IsEqualTo isEqualTo -> comparison(isEqualTo.key(), "$eq", toValue(isEqualTo.comparisonValue()));
+            case IsNotEqualTo isNotEqualTo -> comparison(isNotEqualTo.key(), "$ne", toValue(isNotEqualTo.comparisonValue()));
+            case IsGreaterThan isGreaterThan -> comparison(isGreaterThan.key(), "$gt", toValue(isGreaterThan.comparisonValue()));
+            case IsGreaterThanOrEqualTo isGreaterThanOrEqualTo -> comparison(isGreaterThanOrEqualTo.key(), "$gte", toValue(isGreaterThanOrEqualTo.comparisonValue()));
+            case IsLessThan isLessThan -> comparison(isLessThan.key(), "$lt", toValue(isLessThan.comparisonValue()));
+            case IsLessThanOrEqualTo isLessThanOrEqualTo -> comparison(isLessThanOrEqualTo.key(), "$lte", toValue(isLessThanOrEqualTo.comparisonValue()));
+            case IsIn isIn -> comparison(isIn.key(), "$in", toValue(isIn.comparisonValues()));
+            case IsNotIn isNotIn -> comparison(isNotIn.key(), "$nin", toValue(isNotIn.comparisonValues()));
+            default -> throw new UnsupportedOperationException("Unsupported filter: " + filter.getClass().getName());
+        };
+    }
+
+    /// Return a logical Pinecone filter.
+    ///
+    /// @param  operator    java.lang.String
+    /// @param  left        com.google.protobuf.Struct
+    /// @param  right       com.google.protobuf.Struct
+    /// @return             com.google.protobuf.Struct
+    private static Struct logical(final String operator, final Struct left, final Struct right) {
+        final ListValue operands = ListValue.newBuilder()
+                .addValues(Value.newBuilder().setStructValue(left))
+                .addValues(Value.newBuilder().setStructValue(right))
+                .build();
+
+        return Struct.newBuilder()
+                .putFields(operator, Value.newBuilder().setListValue(operands).build())
+                .build();
+    }
+
+    /// Return a comparison Pinecone filter.
+    ///
+    /// @param  key         java.lang.String
+    /// @param  operator    java.lang.String
+    /// @param  value       com.google.protobuf.Value
+    /// @return             com.google.protobuf.Struct
+    private static Struct comparison(final String key, final String operator, final Value value) {
+        final Struct condition = Struct.newBuilder().putFields(operator, value).build();
+
+        return Struct.newBuilder()
+                .putFields(key, Value.newBuilder().setStructValue(condition).build())
+                .build();
+    }
+
+    /// Convert an object to a Pinecone value.
+    ///
+    /// @param  object  java.lang.Object
+    /// @return         com.google.protobuf.Value
+    private static Value toValue(final Object object) {
+        return switch (object) {
+            case Number number -> Value.newBuilder().setNumberValue(number.doubleValue()).build();
+            case Boolean bool -> Value.newBuilder().setBoolValue(bool).build();
+            case Collection<?> collection -> {
+                final ListValue.Builder list = ListValue.newBuilder();
+
+                collection.forEach(element -> list.addValues(toValue(element)));
+
+                yield Value.newBuilder().setListValue(list).build();
+            }
+            default -> Value.newBuilder().setStringValue(String.valueOf(object)).build();
+        };
+    }
+}
@@ -0,0 +1,183 @@
+package net.jmp.pinecone.langchain.store;
+
+/*
+ * (#)PropertiesFile.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import java.nio.file.attribute.FileTime;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// A properties file shared by processes and the value parsed from it.
+/// The file is re-read at most once a second and only when it changed,
+/// so reading the value is cheap enough to do on every request. Writing
+/// replaces the file with an atomic move so that every process that reads
+/// it sees either the old or the new properties.
+///
+/// @param  <T> The class of the value parsed from the properties
+/// @version    0.1.0
+/// @since      0.1.0
+final class PropertiesFile<T> {
+    /// How often the file is checked for changes.
+    private static final long REFRESH_MILLIS = 1_000L;
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The file.
+    private final Path file;
+
+    /// What the file holds, e.g. "Index epochs".
+    private final String title;
+
+    /// The parser of the properties.
+    private final Function<Map<String, String>, T> parser;
+
+    /// The value parsed from the file.
+    private volatile T value;
+
+    /// The modification time of the file when it was last read.
+    private volatile FileTime loadedModifiedTime;
+
+    /// When the file was last checked.
+    private volatile long checkedAtMillis;
+
+    /// The constructor.
+    ///
+    /// @param  file    java.nio.file.Path
+    /// @param  title   java.lang.String
+    /// @param  parser  java.util.function.Function<java.util.Map<java.lang.String, java.lang.String>, T>
+    PropertiesFile(final Path file, final String title, final Function<Map<String, String>, T> parser) {
+        super();
+
+        this.file = file;
+        this.title = title;
+        this.parser = parser;
+        this.value = parser.apply(Map.of());
+    }
+
+    /// Return the value, re-reading the file
+    /// if it is due to be checked and changed.
+    ///
+    /// @param  force   boolean     Check now even if it was checked recently
+    /// @return         T
+    T read(final boolean force) {
+        final long now = System.currentTimeMillis();
+
+        if (!force && now - this.checkedAtMillis < REFRESH_MILLIS) {
+            return this.value;
+        }
+
+        synchronized (this) {
+            if (!force && now - this.checkedAtMillis < REFRESH_MILLIS) {
+                return this.value;
+            }
+
+            try {
+                final FileTime modifiedTime = Files.getLastModifiedTime(this.file);
+
+                if (!modifiedTime.equals(this.loadedModifiedTime)) {
+                    final Properties properties = new Properties();
+
+                    try (final Reader reader = Files.newBufferedReader(this.file)) {
+                        properties.load(reader);
+                    }
+
+                    final Map<String, String> loaded = new HashMap<>();
+
+                    for (final String name : properties.stringPropertyNames()) {
+                        loaded.put(name, properties.getProperty(name));
+                    }
+
+                    this.value = this.parser.apply(loaded);
+                    this.loadedModifiedTime = modifiedTime;
+
+                    if (this.logger.isDebugEnabled()) {
+                        this.logger.debug("Loaded {}: {}", this.title.toLowerCase(Locale.ROOT), this.value);
+                    }
+                }
+            } catch (final NoSuchFileException nsfe) {
+                this.value = this.parser.apply(Map.of());
+                this.loadedModifiedTime = null;
+            } catch (final IOException ioe) {
+                this.logger.error("Unable to read the {} file: {}", this.title.toLowerCase(Locale.ROOT), this.file, ioe);
+            }
+
+            this.checkedAtMillis = now;
+
+            return this.value;
+        }
+    }
+
+    /// Replace the file with new properties
+    /// and return the value parsed from them.
+    ///
+    /// @param  properties  java.util.Map<java.lang.String, java.lang.String>
+    /// @return             T
+    synchronized T write(final Map<String, String> properties) {
+        final Properties written = new Properties();
+
+        written.putAll(properties);
+
+        try {
+            final Path directory = this.file.toAbsolutePath().getParent();
+
+            Files.createDirectories(directory);
+
+            final Path temporary = Files.createTempFile(directory, this.file.getFileName().toString(), ".tmp");
+
+            try (final Writer writer = Files.newBufferedWriter(temporary)) {
+                written.store(writer, this.title);
+            }
+
+            Files.move(temporary, this.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException ioe) {
+            throw new UncheckedIOException("Unable to write the " + this.title.toLowerCase(Locale.ROOT) + " file: " + this.file, ioe);
+        }
+
+        this.value = this.parser.apply(properties);
+
+        return this.value;
+    }
+}
@@ -0,0 +1,466 @@
+package net.jmp.pinecone.langchain.store;
+
+/*
+ * (#)ShardedEmbeddingStore.java   0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import dev.langchain4j.data.embedding.Embedding;
+
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+
+import dev.langchain4j.store.embedding.filter.Filter;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.time.Duration;
+
+import java.util.*;
+
+import java.util.concurrent.*;
+
+import java.util.function.Consumer;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// An embedding store that consistently hashes embedding IDs across a number
+/// of underlying shard stores, e.g. Pinecone indexes or namespaces, or local
+/// in-memory stores. Writes are partitioned by shard and sent to the shards
+/// in parallel. Searches are scattered to every shard in parallel, each shard
+/// being bounded by a timeout, and the answers are gathered with a k-way merge.
+///
+/// @param  <Embedded>  The class of the object that has been embedded
+/// @version    0.1.0
+/// @since      0.1.0
+public final class ShardedEmbeddingStore<Embedded> implements EmbeddingStore<Embedded>, AutoCloseable {
+    /// The number of points each shard occupies on the hash ring.
+    private static final int VIRTUAL_NODES = 128;
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The shards.
+    private final List<EmbeddingStore<Embedded>> shards;
+
+    /// The hash ring of virtual node hashes to shard numbers.
+    private final NavigableMap<Long, Integer> ring = new TreeMap<>();
+
+    /// The time each shard is allowed to answer a search.
+    private final Duration shardTimeout;
+
+    /// The executor that runs the shard calls.
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /// The constructor.
+    ///
+    /// @param  shards          java.util.List<? extends dev.langchain4j.store.embedding.EmbeddingStore<Embedded>>
+    /// @param  shardTimeout    java.time.Duration
+    public ShardedEmbeddingStore(final List<? extends EmbeddingStore<Embedded>> shards, final Duration shardTimeout) {
+        super();
+
+        if (shards == null || shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+
+        this.shards = List.copyOf(shards);
+        this.shardTimeout = Objects.requireNonNull(shardTimeout, "shardTimeout");
+
+        for (int shard = 0; shard < this.shards.size(); shard++) {
+            for (int node = 0; node < VIRTUAL_NODES; node++) {
+                this.ring.put(hash("shard-" + shard + "#" + node), shard);
+            }
+        }
+    }
+
+    /// Return the number of shards.
+    ///
+    /// @return int
+    public int shardCount() {
+        return this.shards.size();
+    }
+
+    /// Return the number of the shard that owns an embedding ID.
+    ///
+    /// @param  id  java.lang.String
+    /// @return     int
+    public int shardFor(final String id) {
+        final Map.Entry<Long, Integer> entry = this.ring.ceilingEntry(hash(id));
+
+        return entry != null ? entry.getValue() : this.ring.firstEntry().getValue();
+    }
+
+    /// Add an embedding.
+    ///
+    /// @param  embedding   dev.langchain4j.data.embedding.Embedding
+    /// @return             java.lang.String
+    @Override
+    public String add(final Embedding embedding) {
+        final String id = UUID.randomUUID().toString();
+
+        this.add(id, embedding);
+
+        return id;
+    }
+
+    /// Add an embedding with an ID.
+    ///
+    /// @param  id          java.lang.String
+    /// @param  embedding   dev.langchain4j.data.embedding.Embedding
+    @Override
+    public void add(final String id, final Embedding embedding) {
+        this.shards.get(this.shardFor(id)).add(id, embedding);
+    }
+
+    /// Add an embedding and the object that was embedded.
+    ///
+    /// @param  embedding   dev.langchain4j.data.embedding.Embedding
+    /// @param  embedded    Embedded
+    /// @return             java.lang.String
+    @Override
+    public String add(final Embedding embedding, final Embedded embedded) {
+        final String id = UUID.randomUUID().toString();
+
+        this.shards.get(this.shardFor(id)).addAll(
+                Collections.singletonList(id),
+                Collections.singletonList(embedding),
+                Collections.singletonList(embedded)
+        );
+
+        return id;
+    }
+
+    /// Add a list of embeddings.
+    ///
+    /// @param  embeddings  java.util.List<dev.langchain4j.data.embedding.Embedding>
+    /// @return             java.util.List<java.lang.String>
+    @Override
+    public List<String> addAll(final List<Embedding> embeddings) {
+        final List<String> ids = this.generateIds(embeddings.size());
+
+        this.addAll(ids, embeddings, null);
+
+        return ids;
+    }
+
+    /// Add a list of embeddings and the objects that were embedded
+    /// by upserting each shard's portion in parallel.
+    ///
+    /// @param  ids         java.util.List<java.lang.String>
+    /// @param  embeddings  java.util.List<dev.langchain4j.data.embedding.Embedding>
+    /// @param  embedded    java.util.List<Embedded>
+    @Override
+    public void addAll(final List<String> ids, final List<Embedding> embeddings, final List<Embedded> embedded) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(ids, embeddings, embedded));
+        }
+
+        if (ids.size() != embeddings.size() || (embedded != null && embedded.size() != ids.size())) {
+            throw new IllegalArgumentException("The ids, embeddings and embedded lists must be the same size");
+        }
+
+        final List<List<Integer>> partitions = this.partition(ids);
+
+        this.forEachShard(shard -> {
+            final List<Integer> positions = partitions.get(shard);
+
+            if (positions.isEmpty()) {
+                return;
+            }
+
+            final List<String> shardIds = new ArrayList<>(positions.size());
+            final List<Embedding> shardEmbeddings = new ArrayList<>(positions.size());
+            final List<Embedded> shardEmbedded = new ArrayList<>(positions.size());
+
+            for (final int position : positions) {
+                shardIds.add(ids.get(position));
+                shardEmbeddings.add(embeddings.get(position));
+
+                if (embedded != null) {
+                    shardEmbedded.add(embedded.get(position));
+                }
+            }
+
+            if (embedded != null) {
+                this.shards.get(shard).addAll(shardIds, shardEmbeddings, shardEmbedded);
+            } else {
+                for (int i = 0; i < shardIds.size(); i++) {
+                    this.shards.get(shard).add(shardIds.get(i), shardEmbeddings.get(i));
+                }
+            }
+
+            if (this.logger.isDebugEnabled()) {
+                this.logger.debug("Added {} embeddings to shard {}", shardIds.size(), shard);
+            }
+        });
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Remove the embeddings with the given IDs.
+    ///
+    /// @param  ids java.util.Collection<java.lang.String>
+    @Override
+    public void removeAll(final Collection<String> ids) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(ids));
+        }
+
+        final List<String> idList = List.copyOf(ids);
+        final List<List<Integer>> partitions = this.partition(idList);
+
+        this.forEachShard(shard -> {
+            final List<Integer> positions = partitions.get(shard);
+
+            if (!positions.isEmpty()) {
+                final List<String> shardIds = new ArrayList<>(positions.size());
+
+                for (final int position : positions) {
+                    shardIds.add(idList.get(position));
+                }
+
+                this.shards.get(shard).removeAll(shardIds);
+            }
+        });
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Remove the embeddings that match a filter from every shard.
+    ///
+    /// @param  filter  dev.langchain4j.store.embedding.filter.Filter
+    @Override
+    public void removeAll(final Filter filter) {
+        this.forEachShard(shard -> this.shards.get(shard).removeAll(filter));
+    }
+
+    /// Remove all the embeddings from every shard.
+    @Override
+    public void removeAll() {
+        this.forEachShard(shard -> this.shards.get(shard).removeAll());
+    }
+
+    /// Search every shard in parallel and merge the results.
+    /// A shard that fails or does not answer in time is left
+    /// out of the result rather than failing the search, and
+    /// a search that runs out of time is cancelled.
+    ///
+    /// @param  request dev.langchain4j.store.embedding.EmbeddingSearchRequest
+    /// @return         dev.langchain4j.store.embedding.EmbeddingSearchResult<Embedded>
+    @Override
+    public EmbeddingSearchResult<Embedded> search(final EmbeddingSearchRequest request) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(request));
+        }
+
+        final List<Future<EmbeddingSearchResult<Embedded>>> futures = new ArrayList<>(this.shards.size());
+
+        for (final EmbeddingStore<Embedded> shard : this.shards) {
+            futures.add(this.executor.submit(() -> shard.search(request)));
+        }
+
+        // The shards were all started together so they share one deadline
+
+        final long deadline = System.nanoTime() + this.shardTimeout.toNanos();
+        final List<List<EmbeddingMatch<Embedded>>> answers = new ArrayList<>(futures.size());
+
+        for (int shard = 0; shard < futures.size(); shard++) {
+            final Future<EmbeddingSearchResult<Embedded>> future = futures.get(shard);
+
+            try {
+                answers.add(future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS).matches());
+            } catch (final TimeoutException te) {
+                future.cancel(true);
+
+                this.logger.warn("Shard {} did not answer within {}", shard, this.shardTimeout);
+            } catch (final ExecutionException ee) {
+                this.logger.warn("Shard {} failed to search", shard, ee.getCause());
+            } catch (final InterruptedException ie) {
+                futures.forEach(pending -> pending.cancel(true));
+
+                Thread.currentThread().interrupt();
+
+                throw new IllegalStateException("Interrupted waiting for shard " + shard, ie);
+            }
+        }
+
+        final EmbeddingSearchResult<Embedded> result = new EmbeddingSearchResult<>(merge(answers, request.maxResults()));
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(result));
+        }
+
+        return result;
+    }
+
+    /// Close the store.
+    @Override
+    public void close() {
+        this.executor.close();
+    }
+
+    /// Merge lists of matches that are each in descending score order.
+    ///
+    /// @param  <Embedded>  The class of the object that has been embedded
+    /// @param  answers     java.util.List<java.util.List<dev.langchain4j.store.embedding.EmbeddingMatch<Embedded>>>
+    /// @param  maxResults  int
+    /// @return             java.util.List<dev.langchain4j.store.embedding.EmbeddingMatch<Embedded>>
+    static <Embedded> List<EmbeddingMatch<Embedded>> merge(final List<List<EmbeddingMatch<Embedded>>> answers,
+                                                           final int maxResults) {
+        final PriorityQueue<Cursor<Embedded>> heads = new PriorityQueue<>(
+                Math.max(1, answers.size()),
+                Comparator.comparing((Cursor<Embedded> cursor) -> cursor.current().score()).reversed()
+        );
+
+        for (final List<EmbeddingMatch<Embedded>> answer : answers) {
+            if (!answer.isEmpty()) {
+                heads.add(new Cursor<>(answer));
+            }
+        }
+
+        final List<EmbeddingMatch<Embedded>> merged = new ArrayList<>(maxResults);
+
+        while (merged.size() < maxResults && !heads.isEmpty()) {
+            final Cursor<Embedded> cursor = heads.poll();
+
+            merged.add(cursor.current());
+
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+
+        return merged;
+    }
+
+    /// Partition the positions of a list of IDs by shard.
+    ///
+    /// @param  ids java.util.List<java.lang.String>
+    /// @return     java.util.List<java.util.List<java.lang.Integer>>
+    private List<List<Integer>> partition(final List<String> ids) {
+        final List<List<Integer>> partitions = new ArrayList<>(this.shards.size());
+
+        for (int shard = 0; shard < this.shards.size(); shard++) {
+            partitions.add(new ArrayList<>());
+        }
+
+        for (int position = 0; position < ids.size(); position++) {
+            partitions.get(this.shardFor(ids.get(position))).add(position);
+        }
+
+        return partitions;
+    }
+
+    /// Run an action for every shard in parallel and wait for all of them.
+    ///
+    /// @param  action  java.util.function.Consumer<java.lang.Integer>
+    private void forEachShard(final Consumer<Integer> action) {
+        final List<Future<?>> futures = new ArrayList<>(this.shards.size());
+
+        for (int shard = 0; shard < this.shards.size(); shard++) {
+            final int number = shard;
+
+            futures.add(this.executor.submit(() -> action.accept(number)));
+        }
+
+        for (int shard = 0; shard < futures.size(); shard++) {
+            try {
+                futures.get(shard).get();
+            } catch (final ExecutionException ee) {
+                throw new IllegalStateException("Shard " + shard + " failed", ee.getCause());
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+
+                throw new IllegalStateException("Interrupted waiting for shard " + shard, ie);
+            }
+        }
+    }
+
+    /// Hash a key onto the ring. FNV-1a is followed by
+    /// a finalizer so that similar keys spread evenly.
+    ///
+    /// @param  key java.lang.String
+    /// @return     long
+    private static long hash(final String key) {
+        long hash = 0xcbf29ce484222325L;
+
+        for (final byte b : key.getBytes(UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+
+    /// A cursor over one shard's matches.
+    ///
+    /// @param  <Embedded>  The class of the object that has been embedded
+    private static final class Cursor<Embedded> {
+        /// The matches.
+        private final List<EmbeddingMatch<Embedded>> matches;
+
+        /// The current position.
+        private int position;
+
+        /// The constructor.
+        ///
+        /// @param  matches java.util.List<dev.langchain4j.store.embedding.EmbeddingMatch<Embedded>>
+        private Cursor(final List<EmbeddingMatch<Embedded>> matches) {
+            super();
+
+            this.matches = matches;
+        }
+
+        /// Return the current match.
+        ///
+        /// @return dev.langchain4j.store.embedding.EmbeddingMatch<Embedded>
+        private EmbeddingMatch<Embedded> current() {
+            return this.matches.get(this.position);
+        }
+
+        /// Advance to the next match.
+        ///
+        /// @return boolean
+        private boolean advance() {
+            return ++this.position < this.matches.size();
+        }
+    }
+}
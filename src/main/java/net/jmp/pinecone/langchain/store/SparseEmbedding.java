@@ -0,0 +1,99 @@
+package net.jmp.pinecone.langchain.store;
+
+/*
+ * (#)SparseEmbedding.java  0.1.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/// A sparse embedding: the indices of its non-zero
+/// dimensions and the values at those indices.
+///
+/// @param  indices java.util.List<java.lang.Long>
+/// @param  values  java.util.List<java.lang.Float>
+/// @version    0.1.0
+/// @since      0.1.0
+public record SparseEmbedding(List<Long> indices, List<Float> values) {
+    /// The compact constructor.
+    ///
+    /// @param  indices java.util.List<java.lang.Long>
+    /// @param  values  java.util.List<java.lang.Float>
+    public SparseEmbedding {
+        if (indices.size() != values.size()) {
+            throw new IllegalArgumentException("There must be one value per index");
+        }
+
+        indices = List.copyOf(indices);
+        values = List.copyOf(values);
+    }
+
+    /// Return the dot product with another sparse embedding.
+    ///
+    /// @param  other   net.jmp.pinecone.langchain.store.SparseEmbedding
+    /// @return         double
+    public double dot(final SparseEmbedding other) {
+        final Map<Long, Float> smaller = (this.indices.size() <= other.indices.size() ? this : other).toMap();
+        final SparseEmbedding larger = this.indices.size() <= other.indices.size() ? other : this;
+
+        double product = 0.0;
+
+        for (int i = 0; i < larger.indices.size(); i++) {
+            final Float value = smaller.get(larger.indices.get(i));
+
+            if (value != null) {
+                product += (double) value * larger.values.get(i);
+            }
+        }
+
+        return product;
+    }
+
+    /// Return the embedding with its values multiplied by a factor.
+    ///
+    /// @param  factor  double
+    /// @return         net.jmp.pinecone.langchain.store.SparseEmbedding
+    public SparseEmbedding scale(final double factor) {
+        return new SparseEmbedding(this.indices, this.values.stream()
+                .map(value -> (float) (value * factor))
+                .toList());
+    }
+
+    /// Return the values by index.
+    ///
+    /// @return java.util.Map<java.lang.Long, java.lang.Float>
+    private Map<Long, Float> toMap() {
+        final Map<Long, Float> map = new HashMap<>(this.indices.size() * 2);
+
+        for (int i = 0; i < this.indices.size(); i++) {
+            map.put(this.indices.get(i), this.values.get(i));
+        }
+
+        return map;
+    }
+}